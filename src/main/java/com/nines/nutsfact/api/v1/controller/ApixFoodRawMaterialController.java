@@ -1,10 +1,15 @@
 package com.nines.nutsfact.api.v1.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -12,12 +17,18 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.RawMaterialProjection;
 import com.nines.nutsfact.domain.model.nutrition.NutritionBasic;
 import com.nines.nutsfact.domain.model.nutrition.NutritionMinerals;
 import com.nines.nutsfact.domain.model.nutrition.NutritionVitamins;
 import com.nines.nutsfact.domain.service.FoodRawMaterialService;
+import com.nines.nutsfact.domain.service.StandardCompositionCacheService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,24 +44,65 @@ import lombok.extern.slf4j.Slf4j;
 public class ApixFoodRawMaterialController {
 
     private final FoodRawMaterialService service;
+    private final ObjectMapper objectMapper;
+    private final StandardCompositionCacheService standardCompositionCache;
+
+    // キーセットページングの既定件数・最大件数
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 2000;
 
     /**
      * カテゴリ別原材料一覧取得
      * patternId: 1=8訂, 2=拡張, 3=ユーザ定義
      * patternId=1,2はbusinessAccountIdでフィルタリングしない
      * patternId=3はbusinessAccountIdでフィルタリング
+     *
+     * limitを指定した場合はfood_id順のキーセットページングで返す。
+     * 次ページはレスポンスのnextCursorをcursorに指定して取得する（最終ページはnextCursorなし）。
+     * withCount=trueの場合はrecordsに全件数を返す（省略時は返却件数）
+     *
+     * stream=trueの場合は一覧をメモリに保持せず、取得した行から順にレスポンスへ書き出す（fields=fullのみ）
+     *
+     * fields: summary, label, full（既定、旧クライアント互換のため全項目）
      */
     @GetMapping("/getDataX")
-    public ResponseEntity<Map<String, Object>> getDataX(
-            @RequestParam(value = "patternId", required = false) Integer patternId) {
+    public ResponseEntity<?> getDataX(
+            @RequestParam(value = "patternId", required = false) Integer patternId,
+            @RequestParam(value = "cursor", required = false) Integer cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "withCount", defaultValue = "false") boolean withCount,
+            @RequestParam(value = "stream", defaultValue = "false") boolean stream,
+            @RequestParam(value = "fields", required = false) String fields) {
+
+        RawMaterialProjection projection = RawMaterialProjection.fromCode(fields, RawMaterialProjection.FULL);
+        if (stream && projection == RawMaterialProjection.FULL) {
+            return streamDataX(patternId, cursor);
+        }
+        if (limit != null || cursor != null) {
+            return getDataXPage(patternId, cursor, limit != null ? limit : DEFAULT_PAGE_SIZE, withCount, projection);
+        }
+
+        // 8訂・拡張の全項目はスナップショットごとにシリアライズ済みのレスポンスを返す
+        if (projection == RawMaterialProjection.FULL) {
+            Optional<byte[]> serialized = standardCompositionCache.getSerialized(
+                patternId, "apix.getDataX", cached -> objectMapper.writeValueAsBytes(toDataXResponse(cached)));
+            if (serialized.isPresent()) {
+                return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(serialized.get());
+            }
+        }
 
         List<FoodRawMaterial> items;
         if (patternId != null) {
-            items = service.findByCategoryWithBusinessAccountFilter(patternId);
+            items = service.findByCategoryWithBusinessAccountFilter(patternId, projection);
         } else {
-            items = service.findAll();
+            items = service.findAll(projection);
         }
+        return ResponseEntity.ok(toDataXResponse(items));
+    }
 
+    private Map<String, Object> toDataXResponse(List<FoodRawMaterial> items) {
         List<Map<String, Object>> flatItems = items.stream()
             .map(this::toFlatMap)
             .collect(Collectors.toList());
@@ -59,9 +111,75 @@ public class ApixFoodRawMaterialController {
         response.put("status", "Success");
         response.put("records", flatItems.size());
         response.put("item", flatItems);
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> getDataXPage(
+            Integer patternId, Integer cursor, int limit, boolean withCount, RawMaterialProjection projection) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limitは1〜" + MAX_PAGE_SIZE + "の範囲で指定してください");
+        }
+
+        Integer businessAccountId = service.resolveBusinessAccountIdForCategory(patternId);
+        List<FoodRawMaterial> items = service.findPageByCategory(patternId, businessAccountId, cursor, limit, projection);
+
+        List<Map<String, Object>> flatItems = items.stream()
+            .map(this::toFlatMap)
+            .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "Success");
+        response.put("records", withCount ? service.countByCategory(patternId, businessAccountId) : flatItems.size());
+        response.put("item", flatItems);
+        if (items.size() == limit) {
+            response.put("nextCursor", items.get(items.size() - 1).getFoodId());
+        }
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 原材料一覧を1行ずつJSONで書き出す（レスポンス形式は通常のgetDataXと同じ）
+     * 書き出しはリクエストスレッド外で行われるため、businessAccountIdは先に解決しておく
+     */
+    private ResponseEntity<StreamingResponseBody> streamDataX(Integer patternId, Integer cursor) {
+        Integer businessAccountId = service.resolveBusinessAccountIdForCategory(patternId);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                int[] records = {0};
+                generator.writeStartObject();
+                generator.writeStringField("status", "Success");
+                generator.writeArrayFieldStart("item");
+                service.streamByCategory(patternId, businessAccountId, cursor, item -> {
+                    try {
+                        generator.writeStartObject();
+                        forEachFlatField(item, (name, value) -> writeField(generator, name, value));
+                        generator.writeEndObject();
+                        records[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeNumberField("records", records[0]);
+                generator.writeEndObject();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
+    private void writeField(JsonGenerator generator, String name, Object value) {
+        try {
+            generator.writeObjectField(name, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * ID指定で原材料取得
      * categoryId=1（8訂）, 2（拡張）の場合はbusinessAccountIdでフィルタリングしない
@@ -165,117 +283,123 @@ public class ApixFoodRawMaterialController {
      */
     private Map<String, Object> toFlatMap(FoodRawMaterial item) {
         Map<String, Object> map = new HashMap<>();
+        forEachFlatField(item, map::put);
+        return map;
+    }
+
+    /**
+     * FoodRawMaterialの各項目をフラットな項目名（snake_case）で渡す
+     */
+    private void forEachFlatField(FoodRawMaterial item, BiConsumer<String, Object> field) {
 
         // 基本情報
-        map.put("food_id", item.getFoodId());
-        map.put("business_account_id", item.getBusinessAccountId());
-        map.put("food_no", item.getFoodNo());
-        map.put("food_group_id", item.getFoodGroupId());
-        map.put("index_no", item.getIndexNo());
-        map.put("class_category_id", item.getClassCategoryId());
-        map.put("original_food_id", item.getOriginalFoodId());
-        map.put("original_food_group_id", item.getOriginalFoodGroupId());
-        map.put("original_food_no", item.getOriginalFoodNo());
-        map.put("original_index_no", item.getOriginalIndexNo());
-        map.put("original_food_name", item.getOriginalFoodName());
-        map.put("food_name", item.getFoodName());
-        map.put("food_fuku_bunrui", item.getFoodFukuBunrui());
-        map.put("food_rui_kubun", item.getFoodRuiKubun());
-        map.put("food_dai_bunrui", item.getFoodDaiBunrui());
-        map.put("food_cyu_bunrui", item.getFoodCyuBunrui());
-        map.put("food_syo_bunrui", item.getFoodSyoBunrui());
-        map.put("food_saibun", item.getFoodSaibun());
-        map.put("category_id", item.getCategoryId());
-        map.put("hashtag", item.getHashtag());
-        map.put("composite_raw_materials_kb", item.getCompositeRawMaterialsKb());
-        map.put("price_per_unit", item.getPricePerUnit());
-        map.put("maker_id", item.getMakerId());
-        map.put("maker_name", item.getMakerName());
-        map.put("seller_id", item.getSellerId());
-        map.put("seller_name", item.getSellerName());
-        map.put("composite_raw_itemlist", item.getCompositeRawItemlist());
-        map.put("display_name", item.getDisplayName());
-        map.put("place_of_origin", item.getPlaceOfOrigin());
-        map.put("display_place_of_origin", item.getDisplayPlaceOfOrigin());
-        map.put("revision_of_food_no", item.getRevisionOfFoodNo());
-        map.put("next_food_id", item.getNextFoodId());
-        map.put("expire_date", item.getExpireDate());
-        map.put("create_date", item.getCreateDate());
-        map.put("last_update_date", item.getLastUpdateDate());
-        map.put("status", item.getStatus());
-        map.put("update_information", item.getUpdateInformation());
-        map.put("description", item.getDescription());
-        map.put("is_active", item.getIsActive());
+        field.accept("food_id", item.getFoodId());
+        field.accept("business_account_id", item.getBusinessAccountId());
+        field.accept("food_no", item.getFoodNo());
+        field.accept("food_group_id", item.getFoodGroupId());
+        field.accept("index_no", item.getIndexNo());
+        field.accept("class_category_id", item.getClassCategoryId());
+        field.accept("original_food_id", item.getOriginalFoodId());
+        field.accept("original_food_group_id", item.getOriginalFoodGroupId());
+        field.accept("original_food_no", item.getOriginalFoodNo());
+        field.accept("original_index_no", item.getOriginalIndexNo());
+        field.accept("original_food_name", item.getOriginalFoodName());
+        field.accept("food_name", item.getFoodName());
+        field.accept("food_fuku_bunrui", item.getFoodFukuBunrui());
+        field.accept("food_rui_kubun", item.getFoodRuiKubun());
+        field.accept("food_dai_bunrui", item.getFoodDaiBunrui());
+        field.accept("food_cyu_bunrui", item.getFoodCyuBunrui());
+        field.accept("food_syo_bunrui", item.getFoodSyoBunrui());
+        field.accept("food_saibun", item.getFoodSaibun());
+        field.accept("category_id", item.getCategoryId());
+        field.accept("hashtag", item.getHashtag());
+        field.accept("composite_raw_materials_kb", item.getCompositeRawMaterialsKb());
+        field.accept("price_per_unit", item.getPricePerUnit());
+        field.accept("maker_id", item.getMakerId());
+        field.accept("maker_name", item.getMakerName());
+        field.accept("seller_id", item.getSellerId());
+        field.accept("seller_name", item.getSellerName());
+        field.accept("composite_raw_itemlist", item.getCompositeRawItemlist());
+        field.accept("display_name", item.getDisplayName());
+        field.accept("place_of_origin", item.getPlaceOfOrigin());
+        field.accept("display_place_of_origin", item.getDisplayPlaceOfOrigin());
+        field.accept("revision_of_food_no", item.getRevisionOfFoodNo());
+        field.accept("next_food_id", item.getNextFoodId());
+        field.accept("expire_date", item.getExpireDate());
+        field.accept("create_date", item.getCreateDate());
+        field.accept("last_update_date", item.getLastUpdateDate());
+        field.accept("status", item.getStatus());
+        field.accept("update_information", item.getUpdateInformation());
+        field.accept("description", item.getDescription());
+        field.accept("is_active", item.getIsActive());
 
         // 基本栄養成分
         if (item.getBasicNutrition() != null) {
             var bn = item.getBasicNutrition();
-            map.put("refuse", bn.getRefuse());
-            map.put("enerc", bn.getEnerc());
-            map.put("enerc_kcal", bn.getEnercKcal());
-            map.put("water", bn.getWater());
-            map.put("prot", bn.getProt());
-            map.put("protcaa", bn.getProtcaa());
-            map.put("fat", bn.getFat());
-            map.put("chole", bn.getChole());
-            map.put("chocdf", bn.getChocdf());
-            map.put("choavlm", bn.getChoavlm());
-            map.put("choavl", bn.getChoavl());
-            map.put("choavldf", bn.getChoavldf());
-            map.put("fib", bn.getFib());
-            map.put("polyl", bn.getPolyl());
-            map.put("oa", bn.getOa());
-            map.put("ash", bn.getAsh());
-            map.put("alc", bn.getAlc());
-            map.put("nacl_eq", bn.getNaclEq());
+            field.accept("refuse", bn.getRefuse());
+            field.accept("enerc", bn.getEnerc());
+            field.accept("enerc_kcal", bn.getEnercKcal());
+            field.accept("water", bn.getWater());
+            field.accept("prot", bn.getProt());
+            field.accept("protcaa", bn.getProtcaa());
+            field.accept("fat", bn.getFat());
+            field.accept("chole", bn.getChole());
+            field.accept("chocdf", bn.getChocdf());
+            field.accept("choavlm", bn.getChoavlm());
+            field.accept("choavl", bn.getChoavl());
+            field.accept("choavldf", bn.getChoavldf());
+            field.accept("fib", bn.getFib());
+            field.accept("polyl", bn.getPolyl());
+            field.accept("oa", bn.getOa());
+            field.accept("ash", bn.getAsh());
+            field.accept("alc", bn.getAlc());
+            field.accept("nacl_eq", bn.getNaclEq());
         }
 
         // ミネラル
         if (item.getMinerals() != null) {
             var mn = item.getMinerals();
-            map.put("na", mn.getNa());
-            map.put("k", mn.getK());
-            map.put("ca", mn.getCa());
-            map.put("mg", mn.getMg());
-            map.put("p", mn.getP());
-            map.put("fe", mn.getFe());
-            map.put("zn", mn.getZn());
-            map.put("cu", mn.getCu());
-            map.put("mn", mn.getMn());
-            map.put("idd", mn.getIdd());
-            map.put("se", mn.getSe());
-            map.put("cr", mn.getCr());
-            map.put("mo", mn.getMo());
+            field.accept("na", mn.getNa());
+            field.accept("k", mn.getK());
+            field.accept("ca", mn.getCa());
+            field.accept("mg", mn.getMg());
+            field.accept("p", mn.getP());
+            field.accept("fe", mn.getFe());
+            field.accept("zn", mn.getZn());
+            field.accept("cu", mn.getCu());
+            field.accept("mn", mn.getMn());
+            field.accept("idd", mn.getIdd());
+            field.accept("se", mn.getSe());
+            field.accept("cr", mn.getCr());
+            field.accept("mo", mn.getMo());
         }
 
         // ビタミン
         if (item.getVitamins() != null) {
             var vt = item.getVitamins();
-            map.put("ret", vt.getRet());
-            map.put("carta", vt.getCarta());
-            map.put("cartb", vt.getCartb());
-            map.put("crypxb", vt.getCrypxb());
-            map.put("cartbeq", vt.getCartbeq());
-            map.put("vita_rae", vt.getVitaRae());
-            map.put("vitd", vt.getVitd());
-            map.put("tocpha", vt.getTocpha());
-            map.put("tocphb", vt.getTocphb());
-            map.put("tocphg", vt.getTocphg());
-            map.put("tocphd", vt.getTocphd());
-            map.put("vitk", vt.getVitk());
-            map.put("thia", vt.getThia());
-            map.put("ribf", vt.getRibf());
-            map.put("nia", vt.getNia());
-            map.put("niac", vt.getNiac());
-            map.put("vitb6a", vt.getVitb6a());
-            map.put("vitb12", vt.getVitb12());
-            map.put("fol", vt.getFol());
-            map.put("pantac", vt.getPantac());
-            map.put("biot", vt.getBiot());
-            map.put("vitc", vt.getVitc());
+            field.accept("ret", vt.getRet());
+            field.accept("carta", vt.getCarta());
+            field.accept("cartb", vt.getCartb());
+            field.accept("crypxb", vt.getCrypxb());
+            field.accept("cartbeq", vt.getCartbeq());
+            field.accept("vita_rae", vt.getVitaRae());
+            field.accept("vitd", vt.getVitd());
+            field.accept("tocpha", vt.getTocpha());
+            field.accept("tocphb", vt.getTocphb());
+            field.accept("tocphg", vt.getTocphg());
+            field.accept("tocphd", vt.getTocphd());
+            field.accept("vitk", vt.getVitk());
+            field.accept("thia", vt.getThia());
+            field.accept("ribf", vt.getRibf());
+            field.accept("nia", vt.getNia());
+            field.accept("niac", vt.getNiac());
+            field.accept("vitb6a", vt.getVitb6a());
+            field.accept("vitb12", vt.getVitb12());
+            field.accept("fol", vt.getFol());
+            field.accept("pantac", vt.getPantac());
+            field.accept("biot", vt.getBiot());
+            field.accept("vitc", vt.getVitc());
         }
-
-        return map;
     }
 
     /**
@@ -12,9 +12,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.master.ClassCategory;
 import com.nines.nutsfact.domain.service.ClassCategoryService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,30 +33,35 @@ import lombok.extern.slf4j.Slf4j;
 public class ApixMasterClassCategoryController {
 
     private final ClassCategoryService service;
+    private final MasterDataVersionService masterDataVersion;
 
     /**
      * クラス分類一覧取得（businessAccountIdでフィルタリング）
      */
     @GetMapping("/getData")
     public ResponseEntity<Map<String, Object>> getData(
-            @RequestParam(value = "classType", required = false) Integer classType) {
-
-        List<ClassCategory> items;
-        if (classType != null) {
-            items = service.findByTypeWithBusinessAccountFilter(classType);
-        } else {
-            items = service.findAllWithBusinessAccountFilter();
-        }
-
-        List<Map<String, Object>> itemList = items.stream()
-            .map(this::toMap)
-            .collect(Collectors.toList());
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "Success");
-        response.put("records", itemList.size());
-        response.put("item", itemList);
-        return ResponseEntity.ok(response);
+            @RequestParam(value = "classType", required = false) Integer classType,
+            WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(
+            MasterResource.CLASS_CATEGORY, "apix.getData.classType=" + classType);
+        return ConditionalGet.ifNoneMatch(request, etag, () -> {
+            List<ClassCategory> items;
+            if (classType != null) {
+                items = service.findByTypeWithBusinessAccountFilter(classType);
+            } else {
+                items = service.findAllWithBusinessAccountFilter();
+            }
+
+            List<Map<String, Object>> itemList = items.stream()
+                .map(this::toMap)
+                .collect(Collectors.toList());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "Success");
+            response.put("records", itemList.size());
+            response.put("item", itemList);
+            return response;
+        });
     }
 
     /**
@@ -126,24 +135,28 @@ public class ApixMasterClassCategoryController {
      */
     @GetMapping("/getSelect")
     public ResponseEntity<Map<String, Object>> getSelect(
-            @RequestParam("classType") Integer classType) {
-
-        List<ClassCategory> items = service.findByTypeWithBusinessAccountFilter(classType);
-
-        List<Map<String, Object>> itemList = items.stream()
-            .map(item -> {
-                Map<String, Object> map = new HashMap<>();
-                map.put("value", item.getCategoryId());
-                map.put("label", item.getCategoryName());
-                return map;
-            })
-            .collect(Collectors.toList());
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "Success");
-        response.put("records", itemList.size());
-        response.put("item", itemList);
-        return ResponseEntity.ok(response);
+            @RequestParam("classType") Integer classType,
+            WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(
+            MasterResource.CLASS_CATEGORY, "apix.getSelect.classType=" + classType);
+        return ConditionalGet.ifNoneMatch(request, etag, () -> {
+            List<ClassCategory> items = service.findByTypeWithBusinessAccountFilter(classType);
+
+            List<Map<String, Object>> itemList = items.stream()
+                .map(item -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("value", item.getCategoryId());
+                    map.put("label", item.getCategoryName());
+                    return map;
+                })
+                .collect(Collectors.toList());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "Success");
+            response.put("records", itemList.size());
+            response.put("item", itemList);
+            return response;
+        });
     }
 
     private Map<String, Object> toMap(ClassCategory item) {
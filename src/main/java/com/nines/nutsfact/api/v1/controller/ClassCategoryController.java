@@ -12,11 +12,15 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.nines.nutsfact.api.v1.request.ClassCategoryRequest;
 import com.nines.nutsfact.api.v1.response.ApiResponse;
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.master.ClassCategory;
 import com.nines.nutsfact.domain.service.ClassCategoryService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -27,17 +31,18 @@ import lombok.RequiredArgsConstructor;
 public class ClassCategoryController {
 
     private final ClassCategoryService classCategoryService;
+    private final MasterDataVersionService masterDataVersion;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ClassCategory>>> findAll() {
-        List<ClassCategory> categories = classCategoryService.findAll();
-        return ResponseEntity.ok(ApiResponse.success(categories));
+    public ResponseEntity<ApiResponse<List<ClassCategory>>> findAll(WebRequest request) {
+        String etag = masterDataVersion.etag(MasterResource.CLASS_CATEGORY, null, "v1");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> ApiResponse.success(classCategoryService.findAll()));
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<ApiResponse<List<ClassCategory>>> findByType(@PathVariable("type") Integer type) {
-        List<ClassCategory> categories = classCategoryService.findByType(type);
-        return ResponseEntity.ok(ApiResponse.success(categories));
+    public ResponseEntity<ApiResponse<List<ClassCategory>>> findByType(@PathVariable("type") Integer type, WebRequest request) {
+        String etag = masterDataVersion.etag(MasterResource.CLASS_CATEGORY, null, "v1.type=" + type);
+        return ConditionalGet.ifNoneMatch(request, etag, () -> ApiResponse.success(classCategoryService.findByType(type)));
     }
 
     @GetMapping("/{id}")
@@ -9,9 +9,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.ConversionTable;
 import com.nines.nutsfact.domain.service.ConversionTableService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,25 +29,29 @@ import lombok.RequiredArgsConstructor;
 public class ConversionTableController {
 
     private final ConversionTableService conversionTableService;
+    private final MasterDataVersionService masterDataVersion;
 
     /**
      * 全ての変換テーブルを取得
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> findAll(
-            @RequestParam(value = "kubun", required = false) Integer kubun) {
-
-        List<ConversionTable> tables;
-        if (kubun != null) {
-            tables = conversionTableService.findByKubun(kubun);
-        } else {
-            tables = conversionTableService.findAll();
-        }
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "Success");
-        response.put("records", tables.size());
-        response.put("item", tables);
-        return ResponseEntity.ok(response);
+            @RequestParam(value = "kubun", required = false) Integer kubun,
+            WebRequest request) {
+        String etag = masterDataVersion.etag(MasterResource.CONVERSION_TABLE, null, "v1.kubun=" + kubun);
+        return ConditionalGet.ifNoneMatch(request, etag, () -> {
+            List<ConversionTable> tables;
+            if (kubun != null) {
+                tables = conversionTableService.findByKubun(kubun);
+            } else {
+                tables = conversionTableService.findAll();
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "Success");
+            response.put("records", tables.size());
+            response.put("item", tables);
+            return response;
+        });
     }
 }
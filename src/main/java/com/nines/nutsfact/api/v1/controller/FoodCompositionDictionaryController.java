@@ -2,6 +2,8 @@ package com.nines.nutsfact.api.v1.controller;
 
 import com.nines.nutsfact.api.v1.response.ApiResponse;
 import com.nines.nutsfact.domain.model.FoodCompositionDictionary;
+import com.nines.nutsfact.domain.service.DictionaryImportJobService;
+import com.nines.nutsfact.domain.service.DictionaryImportJobService.JobStatus;
 import com.nines.nutsfact.domain.service.FoodCompositionDictionaryService;
 import com.nines.nutsfact.domain.service.FoodCompositionDictionaryService.UploadResult;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +26,7 @@ import java.util.Map;
 public class FoodCompositionDictionaryController {
 
     private final FoodCompositionDictionaryService service;
+    private final DictionaryImportJobService importJobService;
 
     /**
      * 成分表辞書一覧取得
@@ -76,12 +79,14 @@ public class FoodCompositionDictionaryController {
         log.info("CSV upload started: filename={}, historyId={}, truncate={}",
                 file.getOriginalFilename(), historyId, truncate);
 
-        if (truncate) {
-            log.info("Truncating FOOD_COMPOSITION_DICTIONARY table");
-            service.truncate();
-        }
-
-        UploadResult result = service.uploadCsv(file, historyId);
+        // 取り込みジョブ・他の同期APIと重ならないように実行する（実行中は409）
+        UploadResult result = importJobService.runExclusively(() -> {
+            if (truncate) {
+                log.info("Truncating FOOD_COMPOSITION_DICTIONARY table");
+                service.truncate();
+            }
+            return service.uploadCsv(file, historyId);
+        });
         log.info("CSV upload completed: success={}, errors={}",
                 result.getSuccessCount(), result.getErrorCount());
 
@@ -101,12 +106,14 @@ public class FoodCompositionDictionaryController {
         log.info("Excel upload started: filename={}, historyId={}, truncate={}",
                 file.getOriginalFilename(), historyId, truncate);
 
-        if (truncate) {
-            log.info("Truncating FOOD_COMPOSITION_DICTIONARY table");
-            service.truncate();
-        }
-
-        UploadResult result = service.uploadExcel(file, historyId);
+        // 取り込みジョブ・他の同期APIと重ならないように実行する（実行中は409）
+        UploadResult result = importJobService.runExclusively(() -> {
+            if (truncate) {
+                log.info("Truncating FOOD_COMPOSITION_DICTIONARY table");
+                service.truncate();
+            }
+            return service.uploadExcel(file, historyId);
+        });
         log.info("Excel upload completed: success={}, errors={}",
                 result.getSuccessCount(), result.getErrorCount());
 
@@ -123,23 +130,84 @@ public class FoodCompositionDictionaryController {
 
         log.info("Data transfer started: historyId={}", historyId);
 
-        TransferResult result = service.transferToRawMaterials(historyId);
+        TransferResult result = importJobService.runExclusively(() -> service.transferToRawMaterials(historyId));
         log.info("Data transfer completed: inserted={}, updated={}, errors={}",
                 result.insertedCount(), result.updatedCount(), result.errorCount());
 
         return ResponseEntity.ok(ApiResponse.success(result));
     }
 
+    /**
+     * CSVファイルの取り込みジョブ開始
+     * ファイルをサーバーに保存してバックグラウンドで登録し、202を返す。進捗は jobs/{jobId} で取得する
+     */
+    @PostMapping("/jobs/upload/csv")
+    public ResponseEntity<ApiResponse<JobStatus>> startCsvUploadJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "historyId", defaultValue = "1") Integer historyId,
+            @RequestParam(value = "truncate", defaultValue = "false") Boolean truncate) {
+        return accepted(importJobService.startCsvUpload(file, historyId, truncate), "CSVファイルの取り込みを受け付けました");
+    }
+
+    /**
+     * Excelファイルの取り込みジョブ開始
+     * ファイルをサーバーに保存してバックグラウンドで登録し、202を返す。進捗は jobs/{jobId} で取得する
+     */
+    @PostMapping("/jobs/upload/excel")
+    public ResponseEntity<ApiResponse<JobStatus>> startExcelUploadJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "historyId", defaultValue = "1") Integer historyId,
+            @RequestParam(value = "truncate", defaultValue = "false") Boolean truncate) {
+        return accepted(importJobService.startExcelUpload(file, historyId, truncate), "Excelファイルの取り込みを受け付けました");
+    }
+
+    /**
+     * データ移送ジョブ開始
+     */
+    @PostMapping("/jobs/transfer")
+    public ResponseEntity<ApiResponse<JobStatus>> startTransferJob(
+            @RequestParam(value = "historyId", required = false) Integer historyId) {
+        return accepted(importJobService.startTransfer(historyId), "データ移送を受け付けました");
+    }
+
+    /**
+     * 取り込みジョブの進捗取得
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<JobStatus>> getJobStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success(importJobService.getStatus(jobId)));
+    }
+
+    /**
+     * 失敗した取り込みジョブをコミット済みの行の次から再開
+     */
+    @PostMapping("/jobs/{jobId}/resume")
+    public ResponseEntity<ApiResponse<JobStatus>> resumeJob(@PathVariable String jobId) {
+        return accepted(importJobService.resume(jobId), "取り込みの再開を受け付けました");
+    }
+
     /**
      * テーブルクリア（開発用）
      */
     @DeleteMapping("/truncate")
     public ResponseEntity<ApiResponse<String>> truncate() {
         log.warn("Truncating FOOD_COMPOSITION_DICTIONARY table");
-        service.truncate();
+        importJobService.runExclusively(() -> {
+            service.truncate();
+            return null;
+        });
         return ResponseEntity.ok(ApiResponse.success("Table truncated successfully"));
     }
 
+    private ResponseEntity<ApiResponse<JobStatus>> accepted(JobStatus status, String message) {
+        return ResponseEntity.accepted()
+                .body(ApiResponse.<JobStatus>builder()
+                        .status("Success")
+                        .item(status)
+                        .message(message)
+                        .build());
+    }
+
     /**
      * データ移送結果
      */
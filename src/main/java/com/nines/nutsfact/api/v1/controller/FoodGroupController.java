@@ -12,11 +12,15 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.nines.nutsfact.api.v1.request.FoodGroupRequest;
 import com.nines.nutsfact.api.v1.response.ApiResponse;
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.master.FoodGroup;
 import com.nines.nutsfact.domain.service.FoodGroupService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -27,11 +31,12 @@ import lombok.RequiredArgsConstructor;
 public class FoodGroupController {
 
     private final FoodGroupService foodGroupService;
+    private final MasterDataVersionService masterDataVersion;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<FoodGroup>>> findAll() {
-        List<FoodGroup> foodGroups = foodGroupService.findAll();
-        return ResponseEntity.ok(ApiResponse.success(foodGroups));
+    public ResponseEntity<ApiResponse<List<FoodGroup>>> findAll(WebRequest request) {
+        String etag = masterDataVersion.etag(MasterResource.FOOD_GROUP, null, "v1");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> ApiResponse.success(foodGroupService.findAll()));
     }
 
     @GetMapping("/{id}")
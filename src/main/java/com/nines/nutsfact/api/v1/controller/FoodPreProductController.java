@@ -1,11 +1,14 @@
 package com.nines.nutsfact.api.v1.controller;
 
+import com.nines.nutsfact.api.v1.request.BulkDeleteRequest;
 import com.nines.nutsfact.api.v1.request.FoodPreProductRequest;
 import com.nines.nutsfact.api.v1.response.ApiResponse;
 import com.nines.nutsfact.api.v1.response.DeleteResponse;
+import com.nines.nutsfact.domain.model.BulkDeleteOutcome;
 import com.nines.nutsfact.domain.model.FoodPreProductItem;
 import com.nines.nutsfact.domain.model.SelectItem;
 import com.nines.nutsfact.domain.service.FoodPreProductService;
+import com.nines.nutsfact.domain.service.WhereUsedIndexService;
 import com.nines.nutsfact.infrastructure.converter.FoodPreProductConverter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +17,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,6 +31,7 @@ public class FoodPreProductController {
 
     private final FoodPreProductService service;
     private final FoodPreProductConverter converter;
+    private final WhereUsedIndexService whereUsedIndexService;
 
     /**
      * 仕込品一覧取得
@@ -66,6 +71,15 @@ public class FoodPreProductController {
         return ResponseEntity.ok(ApiResponse.success(item));
     }
 
+    /**
+     * 仕込品を使用している半完成品ID一覧取得（ネストした仕込品経由を含む、businessAccountIdでフィルタリング）
+     */
+    @GetMapping("/{id}/where-used")
+    public ResponseEntity<ApiResponse<List<Integer>>> findWhereUsed(@PathVariable Integer id) {
+        List<Integer> semiIds = new ArrayList<>(whereUsedIndexService.findSemiIdsByPreIdWithBusinessAccountFilter(id));
+        return ResponseEntity.ok(ApiResponse.success(semiIds, semiIds.size()));
+    }
+
     /**
      * 仕込品新規作成（businessAccountIdを自動設定）
      */
@@ -91,6 +105,17 @@ public class FoodPreProductController {
         return ResponseEntity.ok(ApiResponse.success(updated));
     }
 
+    /**
+     * 仕込品一括削除（businessAccountIdでフィルタリング）
+     * 見つからないID・使用中のIDは削除せず、IDごとの結果を返す
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<ApiResponse<List<BulkDeleteOutcome>>> bulkDelete(
+            @Valid @RequestBody BulkDeleteRequest request) {
+        List<BulkDeleteOutcome> outcomes = service.deleteAllWithBusinessAccountFilter(request.getIds());
+        return ResponseEntity.ok(ApiResponse.success(outcomes, outcomes.size()));
+    }
+
     /**
      * 仕込品削除（businessAccountIdでフィルタリング）
      */
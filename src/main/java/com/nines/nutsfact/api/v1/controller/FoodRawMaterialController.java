@@ -1,20 +1,31 @@
 package com.nines.nutsfact.api.v1.controller;
 
+import com.nines.nutsfact.api.v1.request.BulkDeleteRequest;
 import com.nines.nutsfact.api.v1.request.FoodRawMaterialRequest;
 import com.nines.nutsfact.api.v1.response.ApiResponse;
 import com.nines.nutsfact.api.v1.response.DeleteResponse;
+import com.nines.nutsfact.domain.model.BulkDeleteOutcome;
 import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.RawMaterialPrice;
+import com.nines.nutsfact.domain.model.RawMaterialProjection;
 import com.nines.nutsfact.domain.model.SelectItem;
 import com.nines.nutsfact.domain.service.FoodRawMaterialService;
+import com.nines.nutsfact.domain.service.RawMaterialPricingService;
+import com.nines.nutsfact.domain.service.StandardCompositionCacheService;
+import com.nines.nutsfact.domain.service.WhereUsedIndexService;
 import com.nines.nutsfact.infrastructure.converter.FoodRawMaterialConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 原材料API Controller
@@ -28,23 +39,53 @@ public class FoodRawMaterialController {
 
     private final FoodRawMaterialService service;
     private final FoodRawMaterialConverter converter;
+    private final WhereUsedIndexService whereUsedIndexService;
+    private final StandardCompositionCacheService standardCompositionCache;
+    private final RawMaterialPricingService pricingService;
+    private final ObjectMapper objectMapper;
 
     /**
      * 原材料一覧取得
+     * fields: summary（既定）, label, full。栄養成分はlabel（基本栄養成分）・full（全項目）の場合のみ返す
+     * latestOnly: trueの場合は食品番号ごとの最新リビジョンのみ
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<FoodRawMaterial>>> findAll() {
-        List<FoodRawMaterial> items = service.findAll();
+    public ResponseEntity<ApiResponse<List<FoodRawMaterial>>> findAll(
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean latestOnly) {
+        List<FoodRawMaterial> items = service.findAll(
+                RawMaterialProjection.fromCode(fields, RawMaterialProjection.SUMMARY));
+        if (latestOnly) {
+            items = service.filterLatestRevisions(items);
+        }
         return ResponseEntity.ok(ApiResponse.success(items, items.size()));
     }
 
     /**
      * カテゴリ別原材料一覧取得
+     * fields: summary（既定）, label, full
+     * latestOnly: trueの場合は食品番号ごとの最新リビジョンのみ
+     * 8訂・拡張の全項目はスナップショットごとにシリアライズ済みのレスポンスを返す
      */
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<ApiResponse<List<FoodRawMaterial>>> findByCategory(
-            @PathVariable Integer categoryId) {
-        List<FoodRawMaterial> items = service.findByCategory(categoryId);
+    public ResponseEntity<?> findByCategory(
+            @PathVariable Integer categoryId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean latestOnly) {
+        RawMaterialProjection projection = RawMaterialProjection.fromCode(fields, RawMaterialProjection.SUMMARY);
+        if (projection == RawMaterialProjection.FULL && !latestOnly) {
+            Optional<byte[]> serialized = standardCompositionCache.getSerialized(categoryId, "v1.findByCategory",
+                    cached -> objectMapper.writeValueAsBytes(ApiResponse.success(cached, cached.size())));
+            if (serialized.isPresent()) {
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(serialized.get());
+            }
+        }
+        List<FoodRawMaterial> items = service.findByCategory(categoryId, projection);
+        if (latestOnly) {
+            items = service.filterLatestRevisions(items);
+        }
         return ResponseEntity.ok(ApiResponse.success(items, items.size()));
     }
 
@@ -58,6 +99,25 @@ public class FoodRawMaterialController {
         return ResponseEntity.ok(ApiResponse.success(items, items.size()));
     }
 
+    /**
+     * 原材料の単価一覧取得（ログインユーザーのビジネスアカウント）
+     * 加重平均単価・最終仕入単価と有効な仕入元情報の件数を1回で返す
+     */
+    @GetMapping("/prices")
+    public ResponseEntity<ApiResponse<List<RawMaterialPrice>>> findPrices() {
+        List<RawMaterialPrice> items = pricingService.findPrices();
+        return ResponseEntity.ok(ApiResponse.success(items, items.size()));
+    }
+
+    /**
+     * 仕入元情報から全原材料の単価を再計算（ログインユーザーのビジネスアカウント）
+     */
+    @PostMapping("/prices/recalculate")
+    public ResponseEntity<ApiResponse<Integer>> recalculatePrices() {
+        int count = pricingService.recalculateAll();
+        return ResponseEntity.ok(ApiResponse.success(count, count));
+    }
+
     /**
      * 原材料詳細取得
      */
@@ -67,6 +127,15 @@ public class FoodRawMaterialController {
         return ResponseEntity.ok(ApiResponse.success(item));
     }
 
+    /**
+     * 原材料を使用している半完成品ID一覧取得（ネストした仕込品経由を含む、businessAccountIdでフィルタリング）
+     */
+    @GetMapping("/{id}/where-used")
+    public ResponseEntity<ApiResponse<List<Integer>>> findWhereUsed(@PathVariable Integer id) {
+        List<Integer> semiIds = new ArrayList<>(whereUsedIndexService.findSemiIdsByFoodIdWithBusinessAccountFilter(id));
+        return ResponseEntity.ok(ApiResponse.success(semiIds, semiIds.size()));
+    }
+
     /**
      * 食品番号で原材料取得
      */
@@ -76,6 +145,15 @@ public class FoodRawMaterialController {
         return ResponseEntity.ok(ApiResponse.success(item));
     }
 
+    /**
+     * 食品番号で最新リビジョンの原材料取得（businessAccountIdでフィルタリング）
+     */
+    @GetMapping("/by-food-no/{foodNo}/latest")
+    public ResponseEntity<ApiResponse<FoodRawMaterial>> findLatestByFoodNo(@PathVariable String foodNo) {
+        FoodRawMaterial item = service.findLatestByFoodNo(foodNo);
+        return ResponseEntity.ok(ApiResponse.success(item));
+    }
+
     /**
      * 原材料新規作成
      */
@@ -101,6 +179,17 @@ public class FoodRawMaterialController {
         return ResponseEntity.ok(ApiResponse.success(updated));
     }
 
+    /**
+     * 原材料一括削除（businessAccountIdでフィルタリング）
+     * 見つからないID・使用中のIDは削除せず、IDごとの結果を返す
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<ApiResponse<List<BulkDeleteOutcome>>> bulkDelete(
+            @Valid @RequestBody BulkDeleteRequest request) {
+        List<BulkDeleteOutcome> outcomes = service.deleteAllWithBusinessAccountFilter(request.getIds());
+        return ResponseEntity.ok(ApiResponse.success(outcomes, outcomes.size()));
+    }
+
     /**
      * 原材料削除
      */
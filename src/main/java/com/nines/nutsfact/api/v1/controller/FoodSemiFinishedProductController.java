@@ -1,17 +1,24 @@
 package com.nines.nutsfact.api.v1.controller;
 
+import com.nines.nutsfact.api.v1.request.BulkDeleteRequest;
 import com.nines.nutsfact.api.v1.request.FoodSemiFinishedProductRequest;
 import com.nines.nutsfact.api.v1.response.ApiResponse;
 import com.nines.nutsfact.api.v1.response.DeleteResponse;
+import com.nines.nutsfact.domain.model.BulkDeleteOutcome;
 import com.nines.nutsfact.domain.model.FoodSemiFinishedProduct;
 import com.nines.nutsfact.domain.model.SelectItem;
 import com.nines.nutsfact.domain.model.additive.AdditiveSummary;
 import com.nines.nutsfact.domain.model.allergy.AllergenSummary;
 import com.nines.nutsfact.domain.service.AdditiveSummaryService;
 import com.nines.nutsfact.domain.service.AllergenAggregationService;
+import com.nines.nutsfact.domain.service.BulkSummaryRecalculationService;
 import com.nines.nutsfact.domain.service.FoodLabelPdfService;
 import com.nines.nutsfact.domain.service.FoodSemiFinishedProductService;
 import com.nines.nutsfact.domain.service.IngredientExpansionService;
+import com.nines.nutsfact.domain.service.NutritionRollupService;
+import com.nines.nutsfact.domain.service.RecipeCostService;
+import com.nines.nutsfact.domain.service.SummaryRecalculationQueueService;
+import com.nines.nutsfact.domain.service.WhereUsedIndexService.StaleKind;
 import com.nines.nutsfact.infrastructure.converter.FoodSemiFinishedProductConverter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +31,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
 import java.util.List;
 
 /**
@@ -41,6 +49,10 @@ public class FoodSemiFinishedProductController {
     private final AdditiveSummaryService additiveSummaryService;
     private final IngredientExpansionService ingredientExpansionService;
     private final FoodLabelPdfService foodLabelPdfService;
+    private final SummaryRecalculationQueueService recalculationQueueService;
+    private final NutritionRollupService nutritionRollupService;
+    private final BulkSummaryRecalculationService bulkRecalculationService;
+    private final RecipeCostService recipeCostService;
 
     /**
      * 半完成品一覧取得（businessAccountIdでフィルタリング）
@@ -94,6 +106,17 @@ public class FoodSemiFinishedProductController {
         return ResponseEntity.ok(ApiResponse.success(updated));
     }
 
+    /**
+     * 半完成品一括削除（businessAccountIdでフィルタリング）
+     * 見つからないID・使用中のIDは削除せず、IDごとの結果を返す
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<ApiResponse<List<BulkDeleteOutcome>>> bulkDelete(
+            @Valid @RequestBody BulkDeleteRequest request) {
+        List<BulkDeleteOutcome> outcomes = service.deleteAllWithBusinessAccountFilter(request.getIds());
+        return ResponseEntity.ok(ApiResponse.success(outcomes, outcomes.size()));
+    }
+
     /**
      * 半完成品削除（businessAccountIdでフィルタリング）
      */
@@ -105,22 +128,104 @@ public class FoodSemiFinishedProductController {
 
     /**
      * アレルゲン情報再計算
+     * async=trueの場合は再計算キューに登録して202を返す
      */
     @PostMapping("/{id}/recalculate-allergens")
-    public ResponseEntity<ApiResponse<AllergenSummary>> recalculateAllergens(@PathVariable Integer id) {
+    public ResponseEntity<ApiResponse<AllergenSummary>> recalculateAllergens(
+            @PathVariable Integer id,
+            @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return enqueueRecalculation(id, StaleKind.ALLERGEN);
+        }
         AllergenSummary summary = allergenAggregationService.recalculateAndSave(id);
         return ResponseEntity.ok(ApiResponse.success(summary));
     }
 
     /**
      * 添加物情報再計算
+     * async=trueの場合は再計算キューに登録して202を返す
      */
     @PostMapping("/{id}/recalculate-additives")
-    public ResponseEntity<ApiResponse<AdditiveSummary>> recalculateAdditives(@PathVariable Integer id) {
+    public ResponseEntity<ApiResponse<AdditiveSummary>> recalculateAdditives(
+            @PathVariable Integer id,
+            @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return enqueueRecalculation(id, StaleKind.ADDITIVE);
+        }
         AdditiveSummary summary = additiveSummaryService.recalculateAndSave(id);
         return ResponseEntity.ok(ApiResponse.success(summary));
     }
 
+    /**
+     * 栄養成分合算（保存しない）
+     */
+    @GetMapping("/{id}/nutrition")
+    public ResponseEntity<ApiResponse<NutritionRollupService.NutritionRollupResult>> calculateNutrition(
+            @PathVariable Integer id) {
+        service.findByIdWithBusinessAccountFilter(id);
+        return ResponseEntity.ok(ApiResponse.success(nutritionRollupService.calculate(id)));
+    }
+
+    /**
+     * 栄養成分再計算
+     */
+    @PostMapping("/{id}/recalculate-nutrition")
+    public ResponseEntity<ApiResponse<NutritionRollupService.NutritionRollupResult>> recalculateNutrition(
+            @PathVariable Integer id) {
+        service.findByIdWithBusinessAccountFilter(id);
+        return ResponseEntity.ok(ApiResponse.success(nutritionRollupService.recalculateAndSave(id)));
+    }
+
+    /**
+     * ビジネスアカウントの全仕込品・半完成品の原価を原材料の単価から再計算
+     */
+    @PostMapping("/recalculate-costs")
+    public ResponseEntity<ApiResponse<RecipeCostService.CostRecalculation>> recalculateCosts() {
+        return ResponseEntity.ok(ApiResponse.success(recipeCostService.recalculateAll()));
+    }
+
+    /**
+     * 再計算キューの状態取得
+     */
+    @GetMapping("/recalculation-queue")
+    public ResponseEntity<ApiResponse<SummaryRecalculationQueueService.QueueStatus>> getRecalculationQueueStatus() {
+        return ResponseEntity.ok(ApiResponse.success(recalculationQueueService.getStatus()));
+    }
+
+    /**
+     * ビジネスアカウントの全半完成品の集約情報を一括再計算
+     * ジョブを開始して202を返す。進捗は recalculate-all/{jobId} で取得する
+     */
+    @PostMapping("/recalculate-all")
+    public ResponseEntity<ApiResponse<BulkSummaryRecalculationService.JobStatus>> recalculateAll() {
+        BulkSummaryRecalculationService.JobStatus status = bulkRecalculationService.start();
+        return ResponseEntity.accepted()
+                .body(ApiResponse.<BulkSummaryRecalculationService.JobStatus>builder()
+                        .status("Success")
+                        .item(status)
+                        .message("一括再計算を受け付けました")
+                        .build());
+    }
+
+    /**
+     * 一括再計算ジョブの進捗取得
+     */
+    @GetMapping("/recalculate-all/{jobId}")
+    public ResponseEntity<ApiResponse<BulkSummaryRecalculationService.JobStatus>> getRecalculateAllStatus(
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success(bulkRecalculationService.getStatus(jobId)));
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> enqueueRecalculation(Integer id, StaleKind kind) {
+        service.findByIdWithBusinessAccountFilter(id);
+        recalculationQueueService.enqueue(id, EnumSet.of(kind));
+        return ResponseEntity.accepted()
+                .body(ApiResponse.<T>builder()
+                        .status("Success")
+                        .message("再計算を受け付けました")
+                        .build());
+    }
+
     /**
      * 展開済み原材料一覧取得
      * 仕込品を再帰的に展開し、ラベル表示用の原材料リストを返す
@@ -12,11 +12,15 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.nines.nutsfact.api.v1.request.MakerRequest;
 import com.nines.nutsfact.api.v1.response.ApiResponse;
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.master.Maker;
 import com.nines.nutsfact.domain.service.MakerService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -27,11 +31,12 @@ import lombok.RequiredArgsConstructor;
 public class MakerController {
 
     private final MakerService makerService;
+    private final MasterDataVersionService masterDataVersion;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Maker>>> findAll() {
-        List<Maker> makers = makerService.findAllWithBusinessAccountFilter();
-        return ResponseEntity.ok(ApiResponse.success(makers));
+    public ResponseEntity<ApiResponse<List<Maker>>> findAll(WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(MasterResource.MAKER, "v1");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> ApiResponse.success(makerService.findAllWithBusinessAccountFilter()));
     }
 
     @GetMapping("/{id}")
@@ -11,10 +11,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.nines.nutsfact.api.v1.request.MakerRequest;
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.master.Maker;
 import com.nines.nutsfact.domain.service.MakerService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,15 +29,19 @@ import lombok.RequiredArgsConstructor;
 public class MasterMakerController {
 
     private final MakerService makerService;
+    private final MasterDataVersionService masterDataVersion;
 
     @GetMapping("/getData")
-    public ResponseEntity<Map<String, Object>> getData() {
-        List<Maker> makers = makerService.findAllWithBusinessAccountFilter();
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "Success");
-        response.put("records", makers.size());
-        response.put("item", makers);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Map<String, Object>> getData(WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(MasterResource.MAKER, "apix.getData");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> {
+            List<Maker> makers = makerService.findAllWithBusinessAccountFilter();
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "Success");
+            response.put("records", makers.size());
+            response.put("item", makers);
+            return response;
+        });
     }
 
     @GetMapping("/findById")
@@ -75,22 +83,25 @@ public class MasterMakerController {
     }
 
     @GetMapping("/getSelect")
-    public ResponseEntity<Map<String, Object>> getSelect() {
-        List<Maker> makers = makerService.findAllWithBusinessAccountFilter();
-        List<Map<String, Object>> selectItems = makers.stream()
-            .filter(m -> m.getIsActive() != null && m.getIsActive())
-            .map(m -> {
-                Map<String, Object> item = new HashMap<>();
-                item.put("value", m.getMakerId());
-                item.put("label", m.getMakerName());
-                return item;
-            })
-            .toList();
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "Success");
-        response.put("records", selectItems.size());
-        response.put("item", selectItems);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Map<String, Object>> getSelect(WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(MasterResource.MAKER, "apix.getSelect");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> {
+            List<Maker> makers = makerService.findAllWithBusinessAccountFilter();
+            List<Map<String, Object>> selectItems = makers.stream()
+                .filter(m -> m.getIsActive() != null && m.getIsActive())
+                .map(m -> {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("value", m.getMakerId());
+                    item.put("label", m.getMakerName());
+                    return item;
+                })
+                .toList();
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "Success");
+            response.put("records", selectItems.size());
+            response.put("item", selectItems);
+            return response;
+        });
     }
 
     private Maker convertToEntity(MakerRequest request) {
@@ -11,9 +11,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.nines.nutsfact.api.v1.request.SellerRequest;
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.master.Seller;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.domain.service.SellerService;
 
 import jakarta.validation.Valid;
@@ -25,15 +29,19 @@ import lombok.RequiredArgsConstructor;
 public class MasterSellerController {
 
     private final SellerService sellerService;
+    private final MasterDataVersionService masterDataVersion;
 
     @GetMapping("/getData")
-    public ResponseEntity<Map<String, Object>> getData() {
-        List<Seller> sellers = sellerService.findAllWithBusinessAccountFilter();
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "Success");
-        response.put("records", sellers.size());
-        response.put("item", sellers);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Map<String, Object>> getData(WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(MasterResource.SELLER, "apix.getData");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> {
+            List<Seller> sellers = sellerService.findAllWithBusinessAccountFilter();
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "Success");
+            response.put("records", sellers.size());
+            response.put("item", sellers);
+            return response;
+        });
     }
 
     @GetMapping("/findById")
@@ -75,22 +83,25 @@ public class MasterSellerController {
     }
 
     @GetMapping("/getSelect")
-    public ResponseEntity<Map<String, Object>> getSelect() {
-        List<Seller> sellers = sellerService.findAllWithBusinessAccountFilter();
-        List<Map<String, Object>> selectItems = sellers.stream()
-            .filter(s -> s.getIsActive() != null && s.getIsActive())
-            .map(s -> {
-                Map<String, Object> item = new HashMap<>();
-                item.put("value", s.getSellerId());
-                item.put("label", s.getSellerName());
-                return item;
-            })
-            .toList();
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "Success");
-        response.put("records", selectItems.size());
-        response.put("item", selectItems);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Map<String, Object>> getSelect(WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(MasterResource.SELLER, "apix.getSelect");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> {
+            List<Seller> sellers = sellerService.findAllWithBusinessAccountFilter();
+            List<Map<String, Object>> selectItems = sellers.stream()
+                .filter(s -> s.getIsActive() != null && s.getIsActive())
+                .map(s -> {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("value", s.getSellerId());
+                    item.put("label", s.getSellerName());
+                    return item;
+                })
+                .toList();
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "Success");
+            response.put("records", selectItems.size());
+            response.put("item", selectItems);
+            return response;
+        });
     }
 
     private Seller convertToEntity(SellerRequest request) {
@@ -11,9 +11,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.nines.nutsfact.api.v1.request.SupplierRequest;
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.master.Supplier;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.domain.service.SupplierService;
 
 import jakarta.validation.Valid;
@@ -25,15 +29,19 @@ import lombok.RequiredArgsConstructor;
 public class MasterSupplierController {
 
     private final SupplierService supplierService;
+    private final MasterDataVersionService masterDataVersion;
 
     @GetMapping("/getData")
-    public ResponseEntity<Map<String, Object>> getData() {
-        List<Supplier> suppliers = supplierService.findAllWithBusinessAccountFilter();
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "Success");
-        response.put("records", suppliers.size());
-        response.put("item", suppliers);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Map<String, Object>> getData(WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(MasterResource.SUPPLIER, "apix.getData");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> {
+            List<Supplier> suppliers = supplierService.findAllWithBusinessAccountFilter();
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "Success");
+            response.put("records", suppliers.size());
+            response.put("item", suppliers);
+            return response;
+        });
     }
 
     @GetMapping("/findById")
@@ -69,22 +77,25 @@ public class MasterSupplierController {
     }
 
     @GetMapping("/getSelect")
-    public ResponseEntity<Map<String, Object>> getSelect() {
-        List<Supplier> suppliers = supplierService.findAllWithBusinessAccountFilter();
-        List<Map<String, Object>> selectItems = suppliers.stream()
-            .filter(s -> s.getIsActive() != null && s.getIsActive())
-            .map(s -> {
-                Map<String, Object> item = new HashMap<>();
-                item.put("value", s.getSupplierId());
-                item.put("label", s.getSupplierName());
-                return item;
-            })
-            .toList();
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "Success");
-        response.put("records", selectItems.size());
-        response.put("item", selectItems);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Map<String, Object>> getSelect(WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(MasterResource.SUPPLIER, "apix.getSelect");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> {
+            List<Supplier> suppliers = supplierService.findAllWithBusinessAccountFilter();
+            List<Map<String, Object>> selectItems = suppliers.stream()
+                .filter(s -> s.getIsActive() != null && s.getIsActive())
+                .map(s -> {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("value", s.getSupplierId());
+                    item.put("label", s.getSupplierName());
+                    return item;
+                })
+                .toList();
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "Success");
+            response.put("records", selectItems.size());
+            response.put("item", selectItems);
+            return response;
+        });
     }
 
     private Supplier convertToEntity(SupplierRequest request) {
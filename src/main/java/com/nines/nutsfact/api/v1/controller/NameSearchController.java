@@ -0,0 +1,44 @@
+package com.nines.nutsfact.api.v1.controller;
+
+import com.nines.nutsfact.api.v1.response.ApiResponse;
+import com.nines.nutsfact.domain.service.NameSearchIndexService;
+import com.nines.nutsfact.domain.service.NameSearchIndexService.DocumentType;
+import com.nines.nutsfact.domain.service.NameSearchIndexService.SearchHit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 名称検索API Controller
+ * 原材料・仕込品・添加物を名称・分類・ハッシュタグで横断検索する
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+public class NameSearchController {
+
+    private final NameSearchIndexService nameSearchIndex;
+
+    /**
+     * 名称検索（前方一致・部分一致、一致の度合い順）
+     * types: raw-material, pre-product, additive（カンマ区切り、省略時は全て）
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<SearchHit>>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(defaultValue = "20") int limit) {
+        Set<DocumentType> documentTypes = EnumSet.noneOf(DocumentType.class);
+        if (types != null) {
+            types.forEach(type -> documentTypes.add(DocumentType.fromCode(type)));
+        }
+        List<SearchHit> hits = nameSearchIndex.search(query, documentTypes, limit);
+        return ResponseEntity.ok(ApiResponse.success(hits, hits.size()));
+    }
+}
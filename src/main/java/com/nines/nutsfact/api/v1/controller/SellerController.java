@@ -12,10 +12,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.nines.nutsfact.api.v1.request.SellerRequest;
 import com.nines.nutsfact.api.v1.response.ApiResponse;
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.master.Seller;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.domain.service.SellerService;
 
 import jakarta.validation.Valid;
@@ -27,11 +31,12 @@ import lombok.RequiredArgsConstructor;
 public class SellerController {
 
     private final SellerService sellerService;
+    private final MasterDataVersionService masterDataVersion;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Seller>>> findAll() {
-        List<Seller> sellers = sellerService.findAllWithBusinessAccountFilter();
-        return ResponseEntity.ok(ApiResponse.success(sellers));
+    public ResponseEntity<ApiResponse<List<Seller>>> findAll(WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(MasterResource.SELLER, "v1");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> ApiResponse.success(sellerService.findAllWithBusinessAccountFilter()));
     }
 
     @GetMapping("/{id}")
@@ -12,10 +12,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.nines.nutsfact.api.v1.request.SupplierRequest;
 import com.nines.nutsfact.api.v1.response.ApiResponse;
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.master.Supplier;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.domain.service.SupplierService;
 
 import jakarta.validation.Valid;
@@ -27,11 +31,12 @@ import lombok.RequiredArgsConstructor;
 public class SupplierController {
 
     private final SupplierService supplierService;
+    private final MasterDataVersionService masterDataVersion;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Supplier>>> findAll() {
-        List<Supplier> suppliers = supplierService.findAllWithBusinessAccountFilter();
-        return ResponseEntity.ok(ApiResponse.success(suppliers));
+    public ResponseEntity<ApiResponse<List<Supplier>>> findAll(WebRequest request) {
+        String etag = masterDataVersion.etagForCurrentBusinessAccount(MasterResource.SUPPLIER, "v1");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> ApiResponse.success(supplierService.findAllWithBusinessAccountFilter()));
     }
 
     @GetMapping("/{id}")
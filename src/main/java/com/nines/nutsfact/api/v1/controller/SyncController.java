@@ -0,0 +1,57 @@
+package com.nines.nutsfact.api.v1.controller;
+
+import com.nines.nutsfact.api.v1.response.ApiResponse;
+import com.nines.nutsfact.domain.model.sync.SyncEntityType;
+import com.nines.nutsfact.domain.service.SyncService;
+import com.nines.nutsfact.domain.service.SyncService.SyncChanges;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 差分同期API Controller
+ * 前回の同期以降に追加・更新された原材料・仕込品・半完成品と、削除されたIDを返す
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    /**
+     * 差分取得
+     * since: 前回のレスポンスのwatermark（ISO-8601、省略時は全件の再取得を求める）
+     * types: raw-material, pre-product, semi-finished-product（カンマ区切り、省略時は全て）
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<SyncChanges>> changes(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) List<String> types) {
+        Set<SyncEntityType> entityTypes = EnumSet.noneOf(SyncEntityType.class);
+        if (types != null) {
+            types.forEach(type -> entityTypes.add(SyncEntityType.fromCode(type)));
+        }
+        SyncChanges changes = syncService.findChangesSince(parseSince(since), entityTypes);
+        return ResponseEntity.ok(ApiResponse.success(changes, changes.size()));
+    }
+
+    private LocalDateTime parseSince(String since) {
+        if (since == null || since.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(since.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("sinceはISO-8601形式（例: 2025-01-01T00:00:00）で指定してください: " + since);
+        }
+    }
+}
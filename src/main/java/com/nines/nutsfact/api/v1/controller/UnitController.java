@@ -12,10 +12,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.nines.nutsfact.api.v1.request.UnitRequest;
 import com.nines.nutsfact.api.v1.response.ApiResponse;
+import com.nines.nutsfact.api.v1.response.ConditionalGet;
 import com.nines.nutsfact.domain.model.master.Unit;
+import com.nines.nutsfact.domain.service.MasterDataVersionService;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.domain.service.UnitService;
 
 import jakarta.validation.Valid;
@@ -27,17 +31,18 @@ import lombok.RequiredArgsConstructor;
 public class UnitController {
 
     private final UnitService unitService;
+    private final MasterDataVersionService masterDataVersion;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Unit>>> findAll() {
-        List<Unit> units = unitService.findAll();
-        return ResponseEntity.ok(ApiResponse.success(units));
+    public ResponseEntity<ApiResponse<List<Unit>>> findAll(WebRequest request) {
+        String etag = masterDataVersion.etag(MasterResource.UNIT, null, "v1");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> ApiResponse.success(unitService.findAll()));
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<ApiResponse<List<Unit>>> findByType(@PathVariable("type") Integer type) {
-        List<Unit> units = unitService.findByType(type);
-        return ResponseEntity.ok(ApiResponse.success(units));
+    public ResponseEntity<ApiResponse<List<Unit>>> findByType(@PathVariable("type") Integer type, WebRequest request) {
+        String etag = masterDataVersion.etag(MasterResource.UNIT, null, "v1.type=" + type);
+        return ConditionalGet.ifNoneMatch(request, etag, () -> ApiResponse.success(unitService.findByType(type)));
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,15 @@
+package com.nines.nutsfact.api.v1.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkDeleteRequest {
+    @NotEmpty(message = "IDは必須です")
+    @Size(max = 1000, message = "一度に削除できるのは1000件までです")
+    private List<@NotNull(message = "IDは必須です") Integer> ids;
+}
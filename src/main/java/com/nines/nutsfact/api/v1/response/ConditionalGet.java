@@ -0,0 +1,27 @@
+package com.nines.nutsfact.api.v1.response;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * ETagによる条件付きGET
+ * If-None-MatchがETagと一致する場合は、レスポンスを組み立てずに304 Not Modifiedを返す
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * ETagが一致しない場合のみbodyを呼び出して200を返す
+     */
+    public static <T> ResponseEntity<T> ifNoneMatch(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body.get());
+    }
+}
@@ -0,0 +1,26 @@
+package com.nines.nutsfact.domain.model;
+
+/**
+ * 一括削除のID別の結果
+ * @param message 削除しなかった理由（削除した場合はnull）
+ */
+public record BulkDeleteOutcome(Integer id, Status status, String message) {
+
+    public enum Status {
+        DELETED,
+        NOT_FOUND,
+        IN_USE
+    }
+
+    public static BulkDeleteOutcome deleted(Integer id) {
+        return new BulkDeleteOutcome(id, Status.DELETED, null);
+    }
+
+    public static BulkDeleteOutcome notFound(Integer id) {
+        return new BulkDeleteOutcome(id, Status.NOT_FOUND, "対象が見つかりません");
+    }
+
+    public static BulkDeleteOutcome inUse(Integer id, String message) {
+        return new BulkDeleteOutcome(id, Status.IN_USE, message);
+    }
+}
@@ -62,6 +62,9 @@ public class FoodPreProductItem implements Serializable {
     private String purpose;
     private Boolean isActive;
 
+    // ネスト階層（子仕込品なし=0、それ以外=子の最大階層+1）
+    private Integer preLevel;
+
     // 明細（関連）
     private List<FoodPreProductDetailItem> details;
 }
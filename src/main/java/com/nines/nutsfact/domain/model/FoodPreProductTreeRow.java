@@ -0,0 +1,24 @@
+package com.nines.nutsfact.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 仕込品構成ツリーの明細行
+ * 半完成品から到達できる仕込品明細と、その仕込品の階層・総重量
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodPreProductTreeRow implements Serializable {
+
+    private Integer detailId;                   // 仕込品明細ID（行の識別子）
+    private Integer depth;                      // 階層（最上位の仕込品 = 1、仕込品の階層から算出）
+    private Float parentWeightSum;              // 明細が属する仕込品の総重量
+    private FoodPreProductDetailItem detail;    // 仕込品明細
+}
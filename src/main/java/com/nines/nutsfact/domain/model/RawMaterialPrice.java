@@ -0,0 +1,21 @@
+package com.nines.nutsfact.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 原材料の単価（仕入元情報から算出した加重平均単価・最終仕入単価）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RawMaterialPrice {
+
+    private Integer foodId;
+    private Float pricePerUnit;             // 加重平均単価（100グラム当たり）
+    private Float lastPricePerUnit;         // 最終仕入単価（100グラム当たり）
+    private Integer supplierCount;          // 有効な仕入元情報の件数
+}
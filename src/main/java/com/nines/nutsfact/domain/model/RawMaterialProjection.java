@@ -0,0 +1,34 @@
+package com.nines.nutsfact.domain.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 原材料一覧の取得項目（fieldsパラメータ）
+ * 一覧画面・選択画面では栄養成分を読み込まない項目に絞って取得する
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RawMaterialProjection {
+    SUMMARY("summary", "名称・表示名・分類・価格・フラグのみ"),
+    LABEL("label", "SUMMARYに原産地・複合原材料・基本栄養成分を追加"),
+    FULL("full", "全項目（ミネラル・ビタミンを含む）");
+
+    private final String code;
+    private final String description;
+
+    /**
+     * fieldsパラメータから取得項目を取得（未指定の場合はdefaultProjection）
+     */
+    public static RawMaterialProjection fromCode(String code, RawMaterialProjection defaultProjection) {
+        if (code == null || code.isBlank()) {
+            return defaultProjection;
+        }
+        for (RawMaterialProjection projection : values()) {
+            if (projection.code.equalsIgnoreCase(code.trim())) {
+                return projection;
+            }
+        }
+        throw new IllegalArgumentException("fieldsにはsummary, label, fullのいずれかを指定してください: " + code);
+    }
+}
@@ -0,0 +1,22 @@
+package com.nines.nutsfact.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 原材料の最新リビジョン
+ * ビジネスアカウント・食品番号ごとに、revision_of_food_noが最大の原材料を指す
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RawMaterialRevisionHead {
+
+    private Integer businessAccountId;
+    private String foodNo;
+    private Integer foodId;                 // 最新リビジョンの原材料ID
+    private Integer revisionOfFoodNo;       // 最新リビジョン番号
+}
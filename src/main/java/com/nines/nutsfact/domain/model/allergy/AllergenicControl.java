@@ -36,4 +36,22 @@ public class AllergenicControl {
     private Boolean item28Val; // ゼラチン
     private Boolean item29Val; // マカダミアナッツ
     private Boolean item30Val; // 予備
+
+    /**
+     * アレルゲン項目をビットマスクに変換（ビット番号 = 項目番号、ビット0は未使用）
+     */
+    public int toMask() {
+        Boolean[] values = {
+            item1Val, item2Val, item3Val, item4Val, item5Val, item6Val, item7Val, item8Val, item9Val, item10Val,
+            item11Val, item12Val, item13Val, item14Val, item15Val, item16Val, item17Val, item18Val, item19Val, item20Val,
+            item21Val, item22Val, item23Val, item24Val, item25Val, item26Val, item27Val, item28Val, item29Val, item30Val
+        };
+        int mask = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (Boolean.TRUE.equals(values[i])) {
+                mask |= 1 << (i + 1);
+            }
+        }
+        return mask;
+    }
 }
@@ -0,0 +1,176 @@
+package com.nines.nutsfact.domain.model.nutrition;
+
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * 栄養成分項目
+ * 栄養成分ベクトル（{@link NutrientVector}）の添字は ordinal() とする。
+ * 廃棄率・フラグ類は合算の対象ではないため含めない
+ */
+public enum Nutrient {
+
+    // 基本栄養成分
+    ENERC(basic(NutritionBasic::getEnerc, (n, v) -> n.setEnerc(toInteger(v)))),
+    ENERC_KCAL(basic(NutritionBasic::getEnercKcal, (n, v) -> n.setEnercKcal(toInteger(v)))),
+    WATER(basic(NutritionBasic::getWater, (n, v) -> n.setWater((float) v))),
+    PROT(basic(NutritionBasic::getProt, (n, v) -> n.setProt((float) v))),
+    PROTCAA(basic(NutritionBasic::getProtcaa, (n, v) -> n.setProtcaa((float) v))),
+    FAT(basic(NutritionBasic::getFat, (n, v) -> n.setFat((float) v))),
+    FATNLEA(basic(NutritionBasic::getFatnlea, (n, v) -> n.setFatnlea((float) v))),
+    CHOLE(basic(NutritionBasic::getChole, (n, v) -> n.setChole((float) v))),
+    CHOCDF(basic(NutritionBasic::getChocdf, (n, v) -> n.setChocdf((float) v))),
+    CHOAVLM(basic(NutritionBasic::getChoavlm, (n, v) -> n.setChoavlm((float) v))),
+    CHOAVL(basic(NutritionBasic::getChoavl, (n, v) -> n.setChoavl((float) v))),
+    CHOAVLDF(basic(NutritionBasic::getChoavldf, (n, v) -> n.setChoavldf((float) v))),
+    FIB(basic(NutritionBasic::getFib, (n, v) -> n.setFib((float) v))),
+    POLYL(basic(NutritionBasic::getPolyl, (n, v) -> n.setPolyl((float) v))),
+    OA(basic(NutritionBasic::getOa, (n, v) -> n.setOa((float) v))),
+    ASH(basic(NutritionBasic::getAsh, (n, v) -> n.setAsh((float) v))),
+    ALC(basic(NutritionBasic::getAlc, (n, v) -> n.setAlc((float) v))),
+    NACL_EQ(basic(NutritionBasic::getNaclEq, (n, v) -> n.setNaclEq((float) v))),
+
+    // ミネラル
+    NA(mineral(NutritionMinerals::getNa, (n, v) -> n.setNa((float) v))),
+    K(mineral(NutritionMinerals::getK, (n, v) -> n.setK((float) v))),
+    CA(mineral(NutritionMinerals::getCa, (n, v) -> n.setCa((float) v))),
+    MG(mineral(NutritionMinerals::getMg, (n, v) -> n.setMg((float) v))),
+    P(mineral(NutritionMinerals::getP, (n, v) -> n.setP((float) v))),
+    FE(mineral(NutritionMinerals::getFe, (n, v) -> n.setFe((float) v))),
+    ZN(mineral(NutritionMinerals::getZn, (n, v) -> n.setZn((float) v))),
+    CU(mineral(NutritionMinerals::getCu, (n, v) -> n.setCu((float) v))),
+    MN(mineral(NutritionMinerals::getMn, (n, v) -> n.setMn((float) v))),
+    IDD(mineral(NutritionMinerals::getIdd, (n, v) -> n.setIdd((float) v))),
+    SE(mineral(NutritionMinerals::getSe, (n, v) -> n.setSe((float) v))),
+    CR(mineral(NutritionMinerals::getCr, (n, v) -> n.setCr((float) v))),
+    MO(mineral(NutritionMinerals::getMo, (n, v) -> n.setMo((float) v))),
+
+    // ビタミン
+    RET(vitamin(NutritionVitamins::getRet, (n, v) -> n.setRet((float) v))),
+    CARTA(vitamin(NutritionVitamins::getCarta, (n, v) -> n.setCarta((float) v))),
+    CARTB(vitamin(NutritionVitamins::getCartb, (n, v) -> n.setCartb((float) v))),
+    CRYPXB(vitamin(NutritionVitamins::getCrypxb, (n, v) -> n.setCrypxb((float) v))),
+    CARTBEQ(vitamin(NutritionVitamins::getCartbeq, (n, v) -> n.setCartbeq((float) v))),
+    VITA_RAE(vitamin(NutritionVitamins::getVitaRae, (n, v) -> n.setVitaRae((float) v))),
+    VITD(vitamin(NutritionVitamins::getVitd, (n, v) -> n.setVitd((float) v))),
+    TOCPHA(vitamin(NutritionVitamins::getTocpha, (n, v) -> n.setTocpha((float) v))),
+    TOCPHB(vitamin(NutritionVitamins::getTocphb, (n, v) -> n.setTocphb((float) v))),
+    TOCPHG(vitamin(NutritionVitamins::getTocphg, (n, v) -> n.setTocphg((float) v))),
+    TOCPHD(vitamin(NutritionVitamins::getTocphd, (n, v) -> n.setTocphd((float) v))),
+    VITK(vitamin(NutritionVitamins::getVitk, (n, v) -> n.setVitk((float) v))),
+    THIA(vitamin(NutritionVitamins::getThia, (n, v) -> n.setThia((float) v))),
+    RIBF(vitamin(NutritionVitamins::getRibf, (n, v) -> n.setRibf((float) v))),
+    NIA(vitamin(NutritionVitamins::getNia, (n, v) -> n.setNia((float) v))),
+    NIAC(vitamin(NutritionVitamins::getNiac, (n, v) -> n.setNiac((float) v))),
+    VITB6A(vitamin(NutritionVitamins::getVitb6a, (n, v) -> n.setVitb6a((float) v))),
+    VITB12(vitamin(NutritionVitamins::getVitb12, (n, v) -> n.setVitb12((float) v))),
+    FOL(vitamin(NutritionVitamins::getFol, (n, v) -> n.setFol((float) v))),
+    PANTAC(vitamin(NutritionVitamins::getPantac, (n, v) -> n.setPantac((float) v))),
+    BIOT(vitamin(NutritionVitamins::getBiot, (n, v) -> n.setBiot((float) v))),
+    VITC(vitamin(NutritionVitamins::getVitc, (n, v) -> n.setVitc((float) v)));
+
+    /**
+     * 成分の区分（格納先）
+     */
+    public enum Part {
+        BASIC,      // 基本栄養成分
+        MINERAL,    // ミネラル
+        VITAMIN     // ビタミン
+    }
+
+    private final Accessor accessor;
+
+    Nutrient(Accessor accessor) {
+        this.accessor = accessor;
+    }
+
+    public Part getPart() {
+        return accessor.part();
+    }
+
+    /**
+     * 成分値を取得（未設定の場合はnull）
+     */
+    Number get(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins) {
+        return accessor.get(basic, minerals, vitamins);
+    }
+
+    /**
+     * 成分値を設定
+     */
+    void set(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins, double value) {
+        accessor.set(basic, minerals, vitamins, value);
+    }
+
+    /**
+     * 基本栄養成分・ミネラル・ビタミンのいずれか1つに対する読み書き
+     */
+    private interface Accessor {
+        Part part();
+
+        Number get(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins);
+
+        void set(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins, double value);
+    }
+
+    private static Accessor basic(Function<NutritionBasic, Number> getter, ObjDoubleConsumer<NutritionBasic> setter) {
+        return new Accessor() {
+            @Override
+            public Part part() {
+                return Part.BASIC;
+            }
+
+            @Override
+            public Number get(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins) {
+                return basic != null ? getter.apply(basic) : null;
+            }
+
+            @Override
+            public void set(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins, double value) {
+                setter.accept(basic, value);
+            }
+        };
+    }
+
+    private static Accessor mineral(Function<NutritionMinerals, Number> getter, ObjDoubleConsumer<NutritionMinerals> setter) {
+        return new Accessor() {
+            @Override
+            public Part part() {
+                return Part.MINERAL;
+            }
+
+            @Override
+            public Number get(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins) {
+                return minerals != null ? getter.apply(minerals) : null;
+            }
+
+            @Override
+            public void set(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins, double value) {
+                setter.accept(minerals, value);
+            }
+        };
+    }
+
+    private static Accessor vitamin(Function<NutritionVitamins, Number> getter, ObjDoubleConsumer<NutritionVitamins> setter) {
+        return new Accessor() {
+            @Override
+            public Part part() {
+                return Part.VITAMIN;
+            }
+
+            @Override
+            public Number get(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins) {
+                return vitamins != null ? getter.apply(vitamins) : null;
+            }
+
+            @Override
+            public void set(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins, double value) {
+                setter.accept(vitamins, value);
+            }
+        };
+    }
+
+    private static Integer toInteger(double value) {
+        return (int) Math.round(value);
+    }
+}
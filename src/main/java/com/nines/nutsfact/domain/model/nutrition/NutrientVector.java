@@ -0,0 +1,107 @@
+package com.nines.nutsfact.domain.model.nutrition;
+
+import java.util.Arrays;
+
+/**
+ * 栄養成分ベクトル
+ * 全栄養成分項目を {@link Nutrient} の順に並べたdouble配列で保持し、
+ * レシピの合算（重量倍して加算）をボクシングなしで行う
+ */
+public final class NutrientVector {
+
+    private static final Nutrient[] NUTRIENTS = Nutrient.values();
+
+    /**
+     * 栄養成分項目数
+     */
+    public static final int SIZE = NUTRIENTS.length;
+
+    private final double[] values;
+
+    private NutrientVector(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * 全成分0のベクトル
+     */
+    public static NutrientVector zero() {
+        return new NutrientVector(new double[SIZE]);
+    }
+
+    /**
+     * 栄養成分から生成（未設定の成分は0とする）
+     */
+    public static NutrientVector of(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins) {
+        double[] values = new double[SIZE];
+        for (Nutrient nutrient : NUTRIENTS) {
+            Number value = nutrient.get(basic, minerals, vitamins);
+            if (value != null) {
+                values[nutrient.ordinal()] = value.doubleValue();
+            }
+        }
+        return new NutrientVector(values);
+    }
+
+    public double get(Nutrient nutrient) {
+        return values[nutrient.ordinal()];
+    }
+
+    /**
+     * 他のベクトルを倍率で縮尺して加算（this += other × factor）
+     */
+    public NutrientVector addScaled(NutrientVector other, double factor) {
+        double[] source = other.values;
+        for (int i = 0; i < SIZE; i++) {
+            values[i] += source[i] * factor;
+        }
+        return this;
+    }
+
+    /**
+     * 全成分を倍率で縮尺
+     */
+    public NutrientVector scale(double factor) {
+        for (int i = 0; i < SIZE; i++) {
+            values[i] *= factor;
+        }
+        return this;
+    }
+
+    public NutrientVector copy() {
+        return new NutrientVector(values.clone());
+    }
+
+    public NutritionBasic toBasic() {
+        NutritionBasic basic = new NutritionBasic();
+        write(basic, null, null);
+        return basic;
+    }
+
+    public NutritionMinerals toMinerals() {
+        NutritionMinerals minerals = new NutritionMinerals();
+        write(null, minerals, null);
+        return minerals;
+    }
+
+    public NutritionVitamins toVitamins() {
+        NutritionVitamins vitamins = new NutritionVitamins();
+        write(null, null, vitamins);
+        return vitamins;
+    }
+
+    private void write(NutritionBasic basic, NutritionMinerals minerals, NutritionVitamins vitamins) {
+        Nutrient.Part part = basic != null ? Nutrient.Part.BASIC
+            : minerals != null ? Nutrient.Part.MINERAL : Nutrient.Part.VITAMIN;
+        for (Nutrient nutrient : NUTRIENTS) {
+            if (nutrient.getPart() == part) {
+                nutrient.set(basic, minerals, vitamins, values[nutrient.ordinal()]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NutrientVector" + Arrays.toString(values);
+    }
+}
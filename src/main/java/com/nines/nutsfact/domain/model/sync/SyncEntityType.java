@@ -0,0 +1,33 @@
+package com.nines.nutsfact.domain.model.sync;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 差分同期の対象データ
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SyncEntityType {
+    RAW_MATERIAL("raw-material", "原材料"),
+    PRE_PRODUCT("pre-product", "仕込品"),
+    SEMI_FINISHED_PRODUCT("semi-finished-product", "半完成品");
+
+    private final String code;
+    private final String description;
+
+    /**
+     * typesパラメータ・削除記録のentity_typeから対象データを取得
+     */
+    public static SyncEntityType fromCode(String code) {
+        if (code != null) {
+            for (SyncEntityType type : values()) {
+                if (type.code.equalsIgnoreCase(code.trim())) {
+                    return type;
+                }
+            }
+        }
+        throw new IllegalArgumentException(
+            "typesにはraw-material, pre-product, semi-finished-productのいずれかを指定してください: " + code);
+    }
+}
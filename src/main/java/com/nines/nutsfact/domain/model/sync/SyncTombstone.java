@@ -0,0 +1,25 @@
+package com.nines.nutsfact.domain.model.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 差分同期用の削除記録
+ * 削除された行はsinceより後の更新として取得できないため、削除したIDを別に記録する
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncTombstone {
+
+    private Long tombstoneId;
+    private String entityType;              // SyncEntityType.code
+    private Integer entityId;               // 削除したデータのID（food_id, pre_id, semi_id）
+    private Integer businessAccountId;      // 8訂・拡張の原材料はnull（全ビジネスアカウントに配信）
+    private LocalDateTime deletedAt;
+}
@@ -1,5 +1,6 @@
 package com.nines.nutsfact.domain.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +29,10 @@ public class AllergenicControlRepository {
         return Optional.ofNullable(allergenicControlMapper.findByFoodId(foodId));
     }
 
+    public List<AllergenicControl> findByFoodIds(Collection<Integer> foodIds) {
+        return allergenicControlMapper.findByFoodIds(foodIds);
+    }
+
     public Optional<AllergenicControl> findByFoodIdAndBusinessAccountId(Integer foodId, Integer businessAccountId) {
         return Optional.ofNullable(allergenicControlMapper.findByFoodIdAndBusinessAccountId(foodId, businessAccountId));
     }
@@ -43,4 +48,8 @@ public class AllergenicControlRepository {
     public void deleteByFoodIdAndBusinessAccountId(Integer foodId, Integer businessAccountId) {
         allergenicControlMapper.deleteByFoodIdAndBusinessAccountId(foodId, businessAccountId);
     }
+
+    public void deleteByFoodIdsAndBusinessAccountId(Collection<Integer> foodIds, Integer businessAccountId) {
+        allergenicControlMapper.deleteByFoodIdsAndBusinessAccountId(foodIds, businessAccountId);
+    }
 }
@@ -5,6 +5,7 @@ import com.nines.nutsfact.infrastructure.mapper.CompositeRawMaterialIngredientMa
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,6 +55,10 @@ public class CompositeRawMaterialIngredientRepository {
         return mapper.deleteByFoodIdAndBusinessAccountId(foodId, businessAccountId);
     }
 
+    public int deleteByFoodIdsAndBusinessAccountId(Collection<Integer> foodIds, Integer businessAccountId) {
+        return mapper.deleteByFoodIdsAndBusinessAccountId(foodIds, businessAccountId);
+    }
+
     public Integer getLastInsertId() {
         return mapper.getLastInsertId();
     }
@@ -25,10 +25,21 @@ public class FoodCompositionDictionaryRepository {
         return mapper.findByFoodGroupId(foodGroupId);
     }
 
+    /**
+     * historyIdがnullの場合は全件
+     */
+    public List<FoodCompositionDictionary> findByHistoryId(Integer historyId) {
+        return mapper.findByHistoryId(historyId);
+    }
+
     public int insert(FoodCompositionDictionary entity) {
         return mapper.insert(entity);
     }
 
+    public int batchInsert(List<FoodCompositionDictionary> entities) {
+        return mapper.batchInsert(entities);
+    }
+
     public int update(FoodCompositionDictionary entity) {
         return mapper.update(entity);
     }
@@ -1,10 +1,12 @@
 package com.nines.nutsfact.domain.repository;
 
 import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
+import com.nines.nutsfact.domain.model.FoodPreProductTreeRow;
 import com.nines.nutsfact.infrastructure.mapper.FoodPreProductDetailMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +24,10 @@ public class FoodPreProductDetailRepository {
         return mapper.findByPreIdAndBusinessAccountId(preId, businessAccountId);
     }
 
+    public List<FoodPreProductTreeRow> findTreeBySemiId(Integer semiId) {
+        return mapper.findTreeBySemiId(semiId);
+    }
+
     public Optional<FoodPreProductDetailItem> findById(Integer id) {
         return mapper.findById(id);
     }
@@ -54,7 +60,39 @@ public class FoodPreProductDetailRepository {
         return mapper.deleteByPreIdAndBusinessAccountId(preId, businessAccountId);
     }
 
+    public List<FoodPreProductDetailItem> findByPreIds(Collection<Integer> preIds) {
+        return mapper.findByPreIds(preIds);
+    }
+
+    public int updateCostPrices(List<FoodPreProductDetailItem> items) {
+        return mapper.updateCostPrices(items);
+    }
+
+    public int deleteByPreIdsAndBusinessAccountId(Collection<Integer> preIds, Integer businessAccountId) {
+        return mapper.deleteByPreIdsAndBusinessAccountId(preIds, businessAccountId);
+    }
+
     public Integer getLastInsertId() {
         return mapper.getLastInsertId();
     }
+
+    public List<FoodPreProductDetailItem> findAllReferences() {
+        return mapper.findAllReferences();
+    }
+
+    public List<FoodPreProductDetailItem> findByBusinessAccountId(Integer businessAccountId) {
+        return mapper.findByBusinessAccountId(businessAccountId);
+    }
+
+    public List<Integer> findDescendantPreIds(Integer preId) {
+        return mapper.findDescendantPreIds(preId);
+    }
+
+    public List<Integer> findParentPreIds(Integer preId) {
+        return mapper.findParentPreIds(preId);
+    }
+
+    public List<Integer> findParentPreIds(Collection<Integer> preIds) {
+        return mapper.findParentPreIdsByPreIds(preIds);
+    }
 }
@@ -6,6 +6,8 @@ import com.nines.nutsfact.infrastructure.mapper.FoodPreProductMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +37,10 @@ public class FoodPreProductRepository {
         return mapper.findSelectItems(preKind);
     }
 
+    public List<FoodPreProductItem> findChangedSince(Integer businessAccountId, LocalDateTime since, int limit) {
+        return mapper.findChangedSince(businessAccountId, since, limit);
+    }
+
     public Optional<FoodPreProductItem> findById(Integer id) {
         return mapper.findById(id);
     }
@@ -59,7 +65,39 @@ public class FoodPreProductRepository {
         return mapper.deleteByIdAndBusinessAccountId(id, businessAccountId);
     }
 
+    public List<FoodPreProductItem> findCostSummaries(Integer businessAccountId, Collection<Integer> ids) {
+        return mapper.findCostSummaries(businessAccountId, ids);
+    }
+
+    public int updateCostPriceSums(List<FoodPreProductItem> items) {
+        return mapper.updateCostPriceSums(items);
+    }
+
+    public int touchUpdateDate(Collection<Integer> ids, Integer businessAccountId) {
+        return mapper.touchUpdateDate(ids, businessAccountId);
+    }
+
+    public List<FoodPreProductItem> findDeleteTargets(Collection<Integer> ids, Integer businessAccountId) {
+        return mapper.findDeleteTargets(ids, businessAccountId);
+    }
+
+    public int deleteByIdsAndBusinessAccountId(Collection<Integer> ids, Integer businessAccountId) {
+        return mapper.deleteByIdsAndBusinessAccountId(ids, businessAccountId);
+    }
+
     public Integer getLastInsertId() {
         return mapper.getLastInsertId();
     }
+
+    public Integer computePreLevel(Integer preId) {
+        return mapper.computePreLevel(preId);
+    }
+
+    public int updatePreLevel(Integer preId, Integer preLevel) {
+        return mapper.updatePreLevel(preId, preLevel);
+    }
+
+    public int countWithoutPreLevel() {
+        return mapper.countWithoutPreLevel();
+    }
 }
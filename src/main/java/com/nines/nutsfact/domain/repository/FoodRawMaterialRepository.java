@@ -1,13 +1,18 @@
 package com.nines.nutsfact.domain.repository;
 
 import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.RawMaterialPrice;
+import com.nines.nutsfact.domain.model.RawMaterialRevisionHead;
 import com.nines.nutsfact.domain.model.SelectItem;
 import com.nines.nutsfact.infrastructure.mapper.FoodRawMaterialMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 @RequiredArgsConstructor
@@ -27,6 +32,32 @@ public class FoodRawMaterialRepository {
         return mapper.findByCategoryAndBusinessAccountId(categoryId, businessAccountId);
     }
 
+    public List<FoodRawMaterial> findPageByCategory(Integer categoryId, Integer businessAccountId, Integer afterFoodId, int limit) {
+        return mapper.findPageByCategory(categoryId, businessAccountId, afterFoodId, limit);
+    }
+
+    public List<FoodRawMaterial> findChangedSince(Integer businessAccountId, LocalDateTime since, int limit) {
+        return mapper.findChangedSince(businessAccountId, since, limit);
+    }
+
+    public int countByCategory(Integer categoryId, Integer businessAccountId) {
+        return mapper.countByCategory(categoryId, businessAccountId, null);
+    }
+
+    public void streamByCategory(Integer categoryId, Integer businessAccountId, Integer afterFoodId,
+                                 Consumer<FoodRawMaterial> consumer) {
+        mapper.streamByCategory(categoryId, businessAccountId, afterFoodId,
+            context -> consumer.accept(context.getResultObject()));
+    }
+
+    public List<FoodRawMaterial> findSummaries(Integer categoryId, Integer businessAccountId, Integer afterFoodId, Integer limit) {
+        return mapper.findSummaries(categoryId, businessAccountId, afterFoodId, limit);
+    }
+
+    public List<FoodRawMaterial> findLabels(Integer categoryId, Integer businessAccountId, Integer afterFoodId, Integer limit) {
+        return mapper.findLabels(categoryId, businessAccountId, afterFoodId, limit);
+    }
+
     public List<FoodRawMaterial> findByBusinessAccountId(Integer businessAccountId) {
         return mapper.findByBusinessAccountId(businessAccountId);
     }
@@ -43,6 +74,10 @@ public class FoodRawMaterialRepository {
         return mapper.findByIdAndBusinessAccountId(id, businessAccountId);
     }
 
+    public List<FoodRawMaterial> findNutritionByIds(Collection<Integer> ids) {
+        return mapper.findNutritionByIds(ids);
+    }
+
     public Optional<FoodRawMaterial> findByFoodNo(String foodNo) {
         return mapper.findByFoodNo(foodNo);
     }
@@ -63,6 +98,14 @@ public class FoodRawMaterialRepository {
         return mapper.deleteByIdAndBusinessAccountId(id, businessAccountId);
     }
 
+    public List<FoodRawMaterial> findDeleteTargets(Collection<Integer> ids, Integer businessAccountId) {
+        return mapper.findDeleteTargets(ids, businessAccountId);
+    }
+
+    public int deleteByIdsAndBusinessAccountId(Collection<Integer> ids, Integer businessAccountId) {
+        return mapper.deleteByIdsAndBusinessAccountId(ids, businessAccountId);
+    }
+
     public Integer getLastInsertId() {
         return mapper.getLastInsertId();
     }
@@ -71,7 +114,39 @@ public class FoodRawMaterialRepository {
         return mapper.updateNutritionByFoodNo(entity);
     }
 
+    public int upsertStandardCompositions(List<FoodRawMaterial> entities) {
+        return mapper.upsertStandardCompositions(entities);
+    }
+
+    public List<FoodRawMaterial> findTransferTargets(Integer historyId) {
+        return mapper.findTransferTargets(historyId);
+    }
+
     public Integer getMaxRevisionByFoodNoAndBusinessAccountId(String foodNo, Integer businessAccountId) {
         return mapper.getMaxRevisionByFoodNoAndBusinessAccountId(foodNo, businessAccountId);
     }
+
+    public List<RawMaterialRevisionHead> findRevisionHeads() {
+        return mapper.findRevisionHeads(null, null, null);
+    }
+
+    public List<RawMaterialRevisionHead> findRevisionHeads(Integer businessAccountId, String foodNo) {
+        return mapper.findRevisionHeads(businessAccountId, foodNo, null);
+    }
+
+    public List<RawMaterialRevisionHead> findRevisionHeads(Integer businessAccountId, Collection<String> foodNos) {
+        return mapper.findRevisionHeads(businessAccountId, null, foodNos);
+    }
+
+    public int recalculatePricesFromSuppliers(Integer businessAccountId, Collection<Integer> foodIds) {
+        return mapper.recalculatePricesFromSuppliers(businessAccountId, foodIds);
+    }
+
+    public List<RawMaterialPrice> findPricesByIds(Collection<Integer> ids) {
+        return mapper.findPricesByIds(ids);
+    }
+
+    public List<RawMaterialPrice> findPrices(Integer businessAccountId, Collection<Integer> foodIds) {
+        return mapper.findPrices(businessAccountId, foodIds);
+    }
 }
@@ -5,6 +5,7 @@ import com.nines.nutsfact.infrastructure.mapper.FoodSemiFinishedProductDetailMap
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,7 +55,27 @@ public class FoodSemiFinishedProductDetailRepository {
         return mapper.deleteBySemiIdAndBusinessAccountId(semiId, businessAccountId);
     }
 
+    public List<FoodSemiFinishedProductDetail> findBySemiIds(Collection<Integer> semiIds) {
+        return mapper.findBySemiIds(semiIds);
+    }
+
+    public List<FoodSemiFinishedProductDetail> findByBusinessAccountId(Integer businessAccountId) {
+        return mapper.findByBusinessAccountId(businessAccountId);
+    }
+
+    public int updateCostPrices(List<FoodSemiFinishedProductDetail> items) {
+        return mapper.updateCostPrices(items);
+    }
+
+    public int deleteBySemiIdsAndBusinessAccountId(Collection<Integer> semiIds, Integer businessAccountId) {
+        return mapper.deleteBySemiIdsAndBusinessAccountId(semiIds, businessAccountId);
+    }
+
     public Integer getLastInsertId() {
         return mapper.getLastInsertId();
     }
+
+    public List<FoodSemiFinishedProductDetail> findAllReferences() {
+        return mapper.findAllReferences();
+    }
 }
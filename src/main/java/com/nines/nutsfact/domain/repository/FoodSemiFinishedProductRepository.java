@@ -6,6 +6,8 @@ import com.nines.nutsfact.infrastructure.mapper.FoodSemiFinishedProductMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,10 +25,18 @@ public class FoodSemiFinishedProductRepository {
         return mapper.findByBusinessAccountId(businessAccountId);
     }
 
+    public List<Integer> findIdsByBusinessAccountId(Integer businessAccountId) {
+        return mapper.findIdsByBusinessAccountId(businessAccountId);
+    }
+
     public List<SelectItem> findSelectItems(Integer businessAccountId) {
         return mapper.findSelectItems(businessAccountId);
     }
 
+    public List<FoodSemiFinishedProduct> findChangedSince(Integer businessAccountId, LocalDateTime since, int limit) {
+        return mapper.findChangedSince(businessAccountId, since, limit);
+    }
+
     public Optional<FoodSemiFinishedProduct> findById(Integer id) {
         return mapper.findById(id);
     }
@@ -51,6 +61,14 @@ public class FoodSemiFinishedProductRepository {
         return mapper.updateAdditiveSummary(id, additiveSummary);
     }
 
+    public int updateSummaries(List<FoodSemiFinishedProduct> items) {
+        return mapper.updateSummaries(items);
+    }
+
+    public int updateNutrition(FoodSemiFinishedProduct entity) {
+        return mapper.updateNutrition(entity);
+    }
+
     public int delete(Integer id) {
         return mapper.delete(id);
     }
@@ -59,6 +77,26 @@ public class FoodSemiFinishedProductRepository {
         return mapper.deleteByIdAndBusinessAccountId(id, businessAccountId);
     }
 
+    public List<FoodSemiFinishedProduct> findCostSummaries(Integer businessAccountId, Collection<Integer> ids) {
+        return mapper.findCostSummaries(businessAccountId, ids);
+    }
+
+    public int updateCostPriceSums(List<FoodSemiFinishedProduct> items) {
+        return mapper.updateCostPriceSums(items);
+    }
+
+    public int touchUpdateDate(Collection<Integer> ids, Integer businessAccountId) {
+        return mapper.touchUpdateDate(ids, businessAccountId);
+    }
+
+    public List<FoodSemiFinishedProduct> findDeleteTargets(Collection<Integer> ids, Integer businessAccountId) {
+        return mapper.findDeleteTargets(ids, businessAccountId);
+    }
+
+    public int deleteByIdsAndBusinessAccountId(Collection<Integer> ids, Integer businessAccountId) {
+        return mapper.deleteByIdsAndBusinessAccountId(ids, businessAccountId);
+    }
+
     public Integer getLastInsertId() {
         return mapper.getLastInsertId();
     }
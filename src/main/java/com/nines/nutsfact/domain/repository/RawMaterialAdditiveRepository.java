@@ -1,5 +1,6 @@
 package com.nines.nutsfact.domain.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +25,10 @@ public class RawMaterialAdditiveRepository {
         return rawMaterialAdditiveMapper.findByFoodIdWithAdditive(foodId);
     }
 
+    public List<RawMaterialAdditive> findByFoodIdsWithAdditive(Collection<Integer> foodIds) {
+        return rawMaterialAdditiveMapper.findByFoodIdsWithAdditive(foodIds);
+    }
+
     public List<RawMaterialAdditive> findByBusinessAccountId(Integer businessAccountId) {
         return rawMaterialAdditiveMapper.findByBusinessAccountId(businessAccountId);
     }
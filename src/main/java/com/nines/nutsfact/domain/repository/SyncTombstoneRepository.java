@@ -0,0 +1,38 @@
+package com.nines.nutsfact.domain.repository;
+
+import com.nines.nutsfact.domain.model.sync.SyncTombstone;
+import com.nines.nutsfact.infrastructure.mapper.SyncTombstoneMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class SyncTombstoneRepository {
+
+    private final SyncTombstoneMapper mapper;
+
+    public int insert(SyncTombstone entity) {
+        return mapper.insert(entity);
+    }
+
+    public int insertAll(List<SyncTombstone> entities) {
+        return mapper.insertAll(entities);
+    }
+
+    public List<SyncTombstone> findDeletedSince(Integer businessAccountId, Collection<String> entityTypes,
+                                                LocalDateTime since, int limit) {
+        return mapper.findDeletedSince(businessAccountId, entityTypes, since, limit);
+    }
+
+    public int deleteDeletedBefore(LocalDateTime before) {
+        return mapper.deleteDeletedBefore(before);
+    }
+
+    public LocalDateTime selectCurrentTimestamp() {
+        return mapper.selectCurrentTimestamp();
+    }
+}
@@ -20,6 +20,7 @@ public class AdditiveService {
 
     private final AdditiveRepository additiveRepository;
     private final BusinessAccountRepository businessAccountRepository;
+    private final NameSearchIndexService nameSearchIndex;
 
     public List<Additive> findAll() {
         return additiveRepository.findAll();
@@ -71,6 +72,7 @@ public class AdditiveService {
             additive.setIsActive(true);
         }
         additiveRepository.save(additive);
+        nameSearchIndex.notifyAdditiveChanged(additive.getAdditiveId());
         return additive;
     }
 
@@ -79,6 +81,7 @@ public class AdditiveService {
         findById(additiveId);
         additive.setAdditiveId(additiveId);
         additiveRepository.save(additive);
+        nameSearchIndex.notifyAdditiveChanged(additive.getAdditiveId());
         return additive;
     }
 
@@ -90,6 +93,7 @@ public class AdditiveService {
         additive.setAdditiveId(additiveId);
         additive.setBusinessAccountId(businessAccountId);
         additiveRepository.save(additive);
+        nameSearchIndex.notifyAdditiveChanged(additive.getAdditiveId());
         return additive;
     }
 
@@ -97,6 +101,7 @@ public class AdditiveService {
     public void delete(Integer additiveId) {
         findById(additiveId);
         additiveRepository.delete(additiveId);
+        nameSearchIndex.notifyAdditiveChanged(additiveId);
     }
 
     @Transactional
@@ -105,6 +110,7 @@ public class AdditiveService {
         additiveRepository.findByIdAndBusinessAccountId(additiveId, businessAccountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Additive", additiveId));
         additiveRepository.deleteByIdAndBusinessAccountId(additiveId, businessAccountId);
+        nameSearchIndex.notifyAdditiveChanged(additiveId);
     }
 
     // ========== 本部マスタ関連 ==========
@@ -159,6 +165,10 @@ public class AdditiveService {
             throw new IllegalStateException("本部アカウントは自身からコピーできません");
         }
 
-        return additiveRepository.copyFromHeadquarters(headquarters.getId(), currentBusinessAccountId);
+        int copiedCount = additiveRepository.copyFromHeadquarters(headquarters.getId(), currentBusinessAccountId);
+        if (copiedCount > 0) {
+            nameSearchIndex.rebuildAfterCommit();
+        }
+        return copiedCount;
     }
 }
@@ -3,12 +3,8 @@ package com.nines.nutsfact.domain.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
-import com.nines.nutsfact.domain.model.FoodSemiFinishedProductDetail;
 import com.nines.nutsfact.domain.model.additive.AdditiveSummary;
 import com.nines.nutsfact.domain.model.additive.RawMaterialAdditive;
-import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
-import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductDetailRepository;
 import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,20 +23,17 @@ import java.util.stream.Collectors;
 public class AdditiveSummaryService {
 
     private final FoodSemiFinishedProductRepository semiFinishedProductRepository;
-    private final FoodSemiFinishedProductDetailRepository semiDetailRepository;
-    private final FoodPreProductDetailRepository preProductDetailRepository;
+    private final RecipeGraphService recipeGraphService;
     private final RawMaterialAdditiveService rawMaterialAdditiveService;
 
     private final ObjectMapper objectMapper;
 
     public AdditiveSummaryService(
             FoodSemiFinishedProductRepository semiFinishedProductRepository,
-            FoodSemiFinishedProductDetailRepository semiDetailRepository,
-            FoodPreProductDetailRepository preProductDetailRepository,
+            RecipeGraphService recipeGraphService,
             RawMaterialAdditiveService rawMaterialAdditiveService) {
         this.semiFinishedProductRepository = semiFinishedProductRepository;
-        this.semiDetailRepository = semiDetailRepository;
-        this.preProductDetailRepository = preProductDetailRepository;
+        this.recipeGraphService = recipeGraphService;
         this.rawMaterialAdditiveService = rawMaterialAdditiveService;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
@@ -51,81 +44,74 @@ public class AdditiveSummaryService {
      */
     @Transactional(readOnly = true)
     public AdditiveSummary aggregate(Integer semiId) {
-        List<FoodSemiFinishedProductDetail> details = semiDetailRepository.findBySemiId(semiId);
-
-        // 添加物IDごとの集計データ
-        Map<Integer, AdditiveAggregation> additiveMap = new HashMap<>();
-
-        for (FoodSemiFinishedProductDetail detail : details) {
-            Float weight = detail.getWeight() != null ? detail.getWeight() : 0f;
-
-            if (Boolean.TRUE.equals(detail.getComponentKb())) {
-                // 仕込品の場合: 仕込品の明細を展開
-                expandPreProductAdditives(detail.getDetailPreId(), weight.doubleValue(), additiveMap);
-            } else {
-                // 原材料の場合: 直接添加物を取得
-                addAdditives(detail.getDetailFoodId(), weight.doubleValue(), additiveMap);
-            }
-        }
+        AdditiveAccumulator accumulator = newAccumulator();
+        recipeGraphService.traverse(semiId, accumulator);
+        return accumulator.toSummary();
+    }
 
-        // 使用量順にソートしてリストに変換
-        List<AdditiveSummary.AdditiveItem> sortedList = additiveMap.values().stream()
-            .filter(agg -> agg.totalWeight > 0)
-            .sorted(Comparator.comparingDouble(agg -> -agg.totalWeight))
-            .map(this::toAdditiveItem)
-            .collect(Collectors.toList());
+    /**
+     * 半完成品の添加物情報を集計（ビジネスアカウント指定）
+     */
+    @Transactional(readOnly = true)
+    public AdditiveSummary aggregate(Integer semiId, Integer businessAccountId) {
+        AdditiveAccumulator accumulator = newAccumulator();
+        recipeGraphService.traverse(semiId, businessAccountId, List.of(accumulator));
+        return accumulator.toSummary();
+    }
 
-        return AdditiveSummary.builder()
-            .additives(sortedList)
-            .calculatedAt(LocalDateTime.now())
-            .build();
+    /**
+     * レシピグラフ走査用の添加物集計器を生成
+     */
+    public AdditiveAccumulator newAccumulator() {
+        return new AdditiveAccumulator();
     }
 
     /**
-     * 仕込品の添加物情報を展開して集計に追加
+     * 添加物集計器
+     * 添加物IDごとの使用量を集計する。
+     * 原材料の添加物は走査前に全ての末端原材料分を一括取得する
      */
-    private void expandPreProductAdditives(Integer preId, Double preProductWeight, Map<Integer, AdditiveAggregation> additiveMap) {
-        if (preId == null) {
-            return;
+    public class AdditiveAccumulator implements RecipeGraphService.LeafAccumulator {
+        private final Map<Integer, AdditiveAggregation> additiveMap = new HashMap<>();
+        private Map<Integer, List<RawMaterialAdditive>> additivesByFoodId = Map.of();
+
+        @Override
+        public void prepare(RecipeGraphService.RecipeGraph graph) {
+            additivesByFoodId = rawMaterialAdditiveService.findByFoodIdsWithAdditive(graph.getLeafFoodIds()).stream()
+                .collect(Collectors.groupingBy(RawMaterialAdditive::getFoodId));
         }
 
-        List<FoodPreProductDetailItem> preDetails = preProductDetailRepository.findByPreId(preId);
-
-        // 仕込品内の合計重量を計算
-        double totalWeight = preDetails.stream()
-            .mapToDouble(d -> d.getWeight() != null ? d.getWeight() : 0f)
-            .sum();
-
-        if (totalWeight == 0) {
-            return;
+        @Override
+        public void accept(RecipeGraphService.RecipeLeaf leaf) {
+            addAdditives(additivesByFoodId.getOrDefault(leaf.foodId(), List.of()), leaf.effectiveWeight(), additiveMap);
         }
 
-        for (FoodPreProductDetailItem preDetail : preDetails) {
-            Float detailWeight = preDetail.getWeight() != null ? preDetail.getWeight() : 0f;
-            // 仕込品の重量に対する明細の比率を計算し、半完成品での仕込品の重量に適用
-            double adjustedWeight = (detailWeight / totalWeight) * preProductWeight;
-
-            if (Boolean.TRUE.equals(preDetail.getComponentKb())) {
-                // 仕込品内の仕込品（ネスト）: 再帰的に展開
-                expandPreProductAdditives(preDetail.getDetailPreId(), adjustedWeight, additiveMap);
-            } else {
-                // 原材料: 添加物を取得して追加
-                addAdditives(preDetail.getDetailFoodId(), adjustedWeight, additiveMap);
-            }
+        /**
+         * 使用量順にソートして添加物集約情報に変換
+         */
+        public AdditiveSummary toSummary() {
+            List<AdditiveSummary.AdditiveItem> sortedList = additiveMap.values().stream()
+                .filter(agg -> agg.totalWeight > 0)
+                .sorted(Comparator.comparingDouble(agg -> -agg.totalWeight))
+                .map(AdditiveSummaryService.this::toAdditiveItem)
+                .collect(Collectors.toList());
+
+            return AdditiveSummary.builder()
+                .additives(sortedList)
+                .calculatedAt(LocalDateTime.now())
+                .build();
         }
     }
 
     /**
      * 原材料の添加物情報を集計に追加
      */
-    private void addAdditives(Integer foodId, Double materialWeight, Map<Integer, AdditiveAggregation> additiveMap) {
-        if (foodId == null || materialWeight == null || materialWeight <= 0) {
+    private void addAdditives(List<RawMaterialAdditive> rawMaterialAdditives, double materialWeight,
+                              Map<Integer, AdditiveAggregation> additiveMap) {
+        if (materialWeight <= 0) {
             return;
         }
 
-        // 原材料に割り当てられた添加物を取得（添加物マスタ情報付き）
-        List<RawMaterialAdditive> rawMaterialAdditives = rawMaterialAdditiveService.findByFoodIdWithAdditive(foodId);
-
         for (RawMaterialAdditive rma : rawMaterialAdditives) {
             if (rma.getAdditive() == null || !Boolean.TRUE.equals(rma.getIsActive())) {
                 continue;
@@ -193,7 +179,18 @@ public class AdditiveSummaryService {
      */
     @Transactional
     public AdditiveSummary recalculateAndSave(Integer semiId) {
-        AdditiveSummary summary = aggregate(semiId);
+        return save(semiId, aggregate(semiId));
+    }
+
+    /**
+     * 半完成品の添加物情報を再計算して保存（ビジネスアカウント指定）
+     */
+    @Transactional
+    public AdditiveSummary recalculateAndSave(Integer semiId, Integer businessAccountId) {
+        return save(semiId, aggregate(semiId, businessAccountId));
+    }
+
+    private AdditiveSummary save(Integer semiId, AdditiveSummary summary) {
         String json = toJson(summary);
 
         if (json != null) {
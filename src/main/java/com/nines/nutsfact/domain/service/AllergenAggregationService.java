@@ -3,12 +3,7 @@ package com.nines.nutsfact.domain.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
-import com.nines.nutsfact.domain.model.FoodSemiFinishedProductDetail;
-import com.nines.nutsfact.domain.model.allergy.AllergenicControl;
 import com.nines.nutsfact.domain.model.allergy.AllergenSummary;
-import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
-import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductDetailRepository;
 import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,7 +11,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * アレルゲン集約サービス
@@ -27,20 +21,20 @@ import java.util.stream.Collectors;
 public class AllergenAggregationService {
 
     private final FoodSemiFinishedProductRepository semiFinishedProductRepository;
-    private final FoodSemiFinishedProductDetailRepository semiDetailRepository;
-    private final FoodPreProductDetailRepository preProductDetailRepository;
+    private final RecipeGraphService recipeGraphService;
     private final AllergenicControlService allergenicControlService;
 
     private final ObjectMapper objectMapper;
 
+    // アレルゲン番号（1〜30）を添字とする集計配列の長さ
+    private static final int ALLERGEN_SLOTS = 31;
+
     public AllergenAggregationService(
             FoodSemiFinishedProductRepository semiFinishedProductRepository,
-            FoodSemiFinishedProductDetailRepository semiDetailRepository,
-            FoodPreProductDetailRepository preProductDetailRepository,
+            RecipeGraphService recipeGraphService,
             AllergenicControlService allergenicControlService) {
         this.semiFinishedProductRepository = semiFinishedProductRepository;
-        this.semiDetailRepository = semiDetailRepository;
-        this.preProductDetailRepository = preProductDetailRepository;
+        this.recipeGraphService = recipeGraphService;
         this.allergenicControlService = allergenicControlService;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
@@ -51,181 +45,76 @@ public class AllergenAggregationService {
      */
     @Transactional(readOnly = true)
     public AllergenSummary aggregate(Integer semiId) {
-        List<FoodSemiFinishedProductDetail> details = semiDetailRepository.findBySemiId(semiId);
-
-        // アレルゲン番号ごとの使用量を集計
-        Map<Integer, Double> allergenWeights = new HashMap<>();
-
-        for (FoodSemiFinishedProductDetail detail : details) {
-            Float weight = detail.getWeight() != null ? detail.getWeight() : 0f;
-
-            if (Boolean.TRUE.equals(detail.getComponentKb())) {
-                // 仕込品の場合: 仕込品の明細を展開
-                expandPreProductAllergens(detail.getDetailPreId(), weight.doubleValue(), allergenWeights);
-            } else {
-                // 原材料の場合: 直接AllergenicControlを取得
-                addAllergens(detail.getDetailFoodId(), weight.doubleValue(), allergenWeights);
-            }
-        }
-
-        // 使用量順にソートしてリストに変換
-        List<AllergenSummary.AllergenItem> sortedList = allergenWeights.entrySet().stream()
-            .filter(e -> e.getValue() > 0)
-            .sorted(Comparator.comparingDouble(e -> -e.getValue()))
-            .map(e -> AllergenSummary.AllergenItem.builder()
-                .itemNo(e.getKey())
-                .type(AllergenSummary.getAllergenType(e.getKey()))
-                .name(AllergenSummary.getAllergenName(e.getKey()))
-                .totalWeight(e.getValue())
-                .isMandatory(AllergenSummary.isMandatory(e.getKey()))
-                .build())
-            .collect(Collectors.toList());
-
-        return AllergenSummary.builder()
-            .allergens(sortedList)
-            .calculatedAt(LocalDateTime.now())
-            .build();
+        AllergenAccumulator accumulator = newAccumulator();
+        recipeGraphService.traverse(semiId, accumulator);
+        return accumulator.toSummary();
     }
 
     /**
-     * 仕込品のアレルゲン情報を展開して集計に追加
+     * 半完成品のアレルゲン情報を集計（ビジネスアカウント指定）
      */
-    private void expandPreProductAllergens(Integer preId, Double preProductWeight, Map<Integer, Double> allergenWeights) {
-        if (preId == null) {
-            return;
-        }
-
-        List<FoodPreProductDetailItem> preDetails = preProductDetailRepository.findByPreId(preId);
-
-        // 仕込品内の合計重量を計算
-        double totalWeight = preDetails.stream()
-            .mapToDouble(d -> d.getWeight() != null ? d.getWeight() : 0f)
-            .sum();
-
-        if (totalWeight == 0) {
-            return;
-        }
-
-        for (FoodPreProductDetailItem preDetail : preDetails) {
-            Float detailWeight = preDetail.getWeight() != null ? preDetail.getWeight() : 0f;
-            // 仕込品の重量に対する明細の比率を計算し、半完成品での仕込品の重量に適用
-            double adjustedWeight = (detailWeight / totalWeight) * preProductWeight;
+    @Transactional(readOnly = true)
+    public AllergenSummary aggregate(Integer semiId, Integer businessAccountId) {
+        AllergenAccumulator accumulator = newAccumulator();
+        recipeGraphService.traverse(semiId, businessAccountId, List.of(accumulator));
+        return accumulator.toSummary();
+    }
 
-            if (Boolean.TRUE.equals(preDetail.getComponentKb())) {
-                // 仕込品内の仕込品（ネスト）: 再帰的に展開
-                expandPreProductAllergens(preDetail.getDetailPreId(), adjustedWeight, allergenWeights);
-            } else {
-                // 原材料: AllergenicControlを取得して追加
-                addAllergens(preDetail.getDetailFoodId(), adjustedWeight, allergenWeights);
-            }
-        }
+    /**
+     * レシピグラフ走査用のアレルゲン集計器を生成
+     */
+    public AllergenAccumulator newAccumulator() {
+        return new AllergenAccumulator();
     }
 
     /**
-     * 原材料のアレルゲン情報を集計に追加
+     * アレルゲン集計器
+     * アレルゲン番号を添字とする配列に使用量を集計する。
+     * 原材料のアレルゲンは走査前にビットマスクとして一括取得する
      */
-    private void addAllergens(Integer foodId, Double weight, Map<Integer, Double> allergenWeights) {
-        if (foodId == null || weight == null || weight <= 0) {
-            return;
+    public class AllergenAccumulator implements RecipeGraphService.LeafAccumulator {
+        private final double[] allergenWeights = new double[ALLERGEN_SLOTS];
+        private Map<Integer, Integer> masks = Map.of();
+
+        @Override
+        public void prepare(RecipeGraphService.RecipeGraph graph) {
+            masks = allergenicControlService.findMasksByFoodIds(graph.getLeafFoodIds());
         }
 
-        Optional<AllergenicControl> allergenOpt = allergenicControlService.findByFoodIdOptional(foodId);
-        if (allergenOpt.isEmpty()) {
-            return;
+        @Override
+        public void accept(RecipeGraphService.RecipeLeaf leaf) {
+            Integer mask = masks.get(leaf.foodId());
+            if (mask == null) {
+                return;
+            }
+            double weight = leaf.effectiveWeight();
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                allergenWeights[Integer.numberOfTrailingZeros(bits)] += weight;
+            }
         }
 
-        AllergenicControl allergen = allergenOpt.get();
+        /**
+         * 使用量順にソートしてアレルゲン集約情報に変換
+         */
+        public AllergenSummary toSummary() {
+            List<AllergenSummary.AllergenItem> sortedList = new ArrayList<>();
+            for (int itemNo = 1; itemNo < ALLERGEN_SLOTS; itemNo++) {
+                if (allergenWeights[itemNo] > 0) {
+                    sortedList.add(AllergenSummary.AllergenItem.builder()
+                        .itemNo(itemNo)
+                        .type(AllergenSummary.getAllergenType(itemNo))
+                        .name(AllergenSummary.getAllergenName(itemNo))
+                        .totalWeight(allergenWeights[itemNo])
+                        .isMandatory(AllergenSummary.isMandatory(itemNo))
+                        .build());
+                }
+            }
+            sortedList.sort(Comparator.comparingDouble(item -> -item.getTotalWeight()));
 
-        // 各アレルゲン項目をチェックして集計
-        if (Boolean.TRUE.equals(allergen.getItem1Val())) {
-            allergenWeights.merge(1, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem2Val())) {
-            allergenWeights.merge(2, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem3Val())) {
-            allergenWeights.merge(3, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem4Val())) {
-            allergenWeights.merge(4, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem5Val())) {
-            allergenWeights.merge(5, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem6Val())) {
-            allergenWeights.merge(6, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem7Val())) {
-            allergenWeights.merge(7, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem8Val())) {
-            allergenWeights.merge(8, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem9Val())) {
-            allergenWeights.merge(9, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem10Val())) {
-            allergenWeights.merge(10, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem11Val())) {
-            allergenWeights.merge(11, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem12Val())) {
-            allergenWeights.merge(12, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem13Val())) {
-            allergenWeights.merge(13, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem14Val())) {
-            allergenWeights.merge(14, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem15Val())) {
-            allergenWeights.merge(15, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem16Val())) {
-            allergenWeights.merge(16, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem17Val())) {
-            allergenWeights.merge(17, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem18Val())) {
-            allergenWeights.merge(18, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem19Val())) {
-            allergenWeights.merge(19, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem20Val())) {
-            allergenWeights.merge(20, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem21Val())) {
-            allergenWeights.merge(21, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem22Val())) {
-            allergenWeights.merge(22, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem23Val())) {
-            allergenWeights.merge(23, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem24Val())) {
-            allergenWeights.merge(24, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem25Val())) {
-            allergenWeights.merge(25, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem26Val())) {
-            allergenWeights.merge(26, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem27Val())) {
-            allergenWeights.merge(27, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem28Val())) {
-            allergenWeights.merge(28, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem29Val())) {
-            allergenWeights.merge(29, weight, Double::sum);
-        }
-        if (Boolean.TRUE.equals(allergen.getItem30Val())) {
-            allergenWeights.merge(30, weight, Double::sum);
+            return AllergenSummary.builder()
+                .allergens(sortedList)
+                .calculatedAt(LocalDateTime.now())
+                .build();
         }
     }
 
@@ -261,7 +150,18 @@ public class AllergenAggregationService {
      */
     @Transactional
     public AllergenSummary recalculateAndSave(Integer semiId) {
-        AllergenSummary summary = aggregate(semiId);
+        return save(semiId, aggregate(semiId));
+    }
+
+    /**
+     * 半完成品のアレルゲン情報を再計算して保存（ビジネスアカウント指定）
+     */
+    @Transactional
+    public AllergenSummary recalculateAndSave(Integer semiId, Integer businessAccountId) {
+        return save(semiId, aggregate(semiId, businessAccountId));
+    }
+
+    private AllergenSummary save(Integer semiId, AllergenSummary summary) {
         String json = toJson(summary);
 
         if (json != null) {
@@ -1,14 +1,24 @@
 package com.nines.nutsfact.domain.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.nines.nutsfact.config.SecurityContextHelper;
 import com.nines.nutsfact.domain.model.allergy.AllergenicControl;
 import com.nines.nutsfact.domain.repository.AllergenicControlRepository;
+import com.nines.nutsfact.domain.service.WhereUsedIndexService.StaleKind;
 import com.nines.nutsfact.exception.ResourceNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -18,6 +28,13 @@ import lombok.RequiredArgsConstructor;
 public class AllergenicControlService {
 
     private final AllergenicControlRepository allergenicControlRepository;
+    private final WhereUsedIndexService whereUsedIndexService;
+
+    // IN句1回あたりの原材料ID数
+    private static final int MASK_LOAD_CHUNK_SIZE = 500;
+
+    // 原材料IDごとのアレルゲンビットマスク（未登録の原材料は0）
+    private final Map<Integer, Integer> maskCache = new ConcurrentHashMap<>();
 
     public List<AllergenicControl> findAll() {
         return allergenicControlRepository.findAll();
@@ -51,6 +68,72 @@ public class AllergenicControlService {
         return allergenicControlRepository.findByFoodIdAndBusinessAccountId(foodId, businessAccountId);
     }
 
+    /**
+     * 原材料のアレルゲンビットマスクを一括取得
+     * キャッシュにない原材料のみIN句でまとめて読み込む
+     */
+    public Map<Integer, Integer> findMasksByFoodIds(Collection<Integer> foodIds) {
+        Map<Integer, Integer> masks = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer foodId : new LinkedHashSet<>(foodIds)) {
+            if (foodId == null) {
+                continue;
+            }
+            Integer cached = maskCache.get(foodId);
+            if (cached != null) {
+                masks.put(foodId, cached);
+            } else {
+                missing.add(foodId);
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += MASK_LOAD_CHUNK_SIZE) {
+            List<Integer> chunk = missing.subList(from, Math.min(from + MASK_LOAD_CHUNK_SIZE, missing.size()));
+            for (Integer foodId : chunk) {
+                masks.put(foodId, 0);
+            }
+            for (AllergenicControl control : allergenicControlRepository.findByFoodIds(chunk)) {
+                masks.put(control.getFoodId(), control.toMask());
+            }
+            for (Integer foodId : chunk) {
+                maskCache.put(foodId, masks.get(foodId));
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * 原材料のアレルゲンビットマスクをキャッシュから破棄
+     * トランザクション内では、完了までに他の読み込みがキャッシュし直した変更前（またはロールバックされた）マスクが残らないよう、
+     * トランザクションの完了後にもう一度破棄する
+     */
+    public void evictMask(Integer foodId) {
+        if (foodId != null) {
+            evictMasks(List.of(foodId));
+        }
+    }
+
+    /**
+     * 複数の原材料のアレルゲンビットマスクをキャッシュから破棄（一括削除用）
+     * トランザクションの完了後の破棄は、原材料の数によらず1回の通知で行う
+     */
+    public void evictMasks(Collection<Integer> foodIds) {
+        List<Integer> targets = foodIds.stream().filter(Objects::nonNull).toList();
+        if (targets.isEmpty()) {
+            return;
+        }
+        targets.forEach(maskCache::remove);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                targets.forEach(maskCache::remove);
+            }
+        });
+    }
+
     @Transactional
     public AllergenicControl save(AllergenicControl allergenicControl) {
         // businessAccountIdを必須で設定
@@ -62,12 +145,16 @@ public class AllergenicControlService {
             allergenicControl.setBusinessAccountId(businessAccountId);
         }
         allergenicControlRepository.save(allergenicControl);
+        evictMask(allergenicControl.getFoodId());
+        whereUsedIndexService.notifyRawMaterialChanged(allergenicControl.getFoodId(), StaleKind.ALLERGEN);
         return allergenicControl;
     }
 
     @Transactional
     public void delete(Integer foodId) {
         allergenicControlRepository.delete(foodId);
+        evictMask(foodId);
+        whereUsedIndexService.notifyRawMaterialChanged(foodId, StaleKind.ALLERGEN);
     }
 
     @Transactional
@@ -76,5 +163,7 @@ public class AllergenicControlService {
         allergenicControlRepository.findByFoodIdAndBusinessAccountId(foodId, businessAccountId)
                 .orElseThrow(() -> new ResourceNotFoundException("AllergenicControl", foodId));
         allergenicControlRepository.deleteByFoodIdAndBusinessAccountId(foodId, businessAccountId);
+        evictMask(foodId);
+        whereUsedIndexService.notifyRawMaterialChanged(foodId, StaleKind.ALLERGEN);
     }
 }
@@ -0,0 +1,301 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.config.SecurityContextHelper;
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProduct;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
+import com.nines.nutsfact.domain.service.NutritionRollupService.NutritionRollupResult;
+import com.nines.nutsfact.domain.service.NutritionRollupService.RawMaterialNutrition;
+import com.nines.nutsfact.exception.EntityNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 半完成品集約情報の一括再計算サービス
+ * ビジネスアカウントの全半完成品について、アレルゲン・添加物・栄養成分を仮想スレッドで並列に再計算する。
+ * 仕込品の構成は最初に階層順で一括計算して共有し、原材料の栄養成分もジョブ内で1回だけ読み込む。
+ * 計算結果はまとめて書き込む
+ */
+@Slf4j
+@Service
+public class BulkSummaryRecalculationService {
+
+    private final FoodSemiFinishedProductRepository semiFinishedProductRepository;
+    private final RecipeGraphService recipeGraphService;
+    private final AllergenAggregationService allergenAggregationService;
+    private final AdditiveSummaryService additiveSummaryService;
+    private final NutritionRollupService nutritionRollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int concurrency;
+    private final int writeChunkSize;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Integer, String> latestJobIds = new ConcurrentHashMap<>();
+
+    public BulkSummaryRecalculationService(
+            FoodSemiFinishedProductRepository semiFinishedProductRepository,
+            RecipeGraphService recipeGraphService,
+            AllergenAggregationService allergenAggregationService,
+            AdditiveSummaryService additiveSummaryService,
+            NutritionRollupService nutritionRollupService,
+            PlatformTransactionManager transactionManager,
+            @Value("${nutsfact.bulk-recalculation.concurrency:8}") int concurrency,
+            @Value("${nutsfact.bulk-recalculation.write-chunk-size:100}") int writeChunkSize) {
+        this.semiFinishedProductRepository = semiFinishedProductRepository;
+        this.recipeGraphService = recipeGraphService;
+        this.allergenAggregationService = allergenAggregationService;
+        this.additiveSummaryService = additiveSummaryService;
+        this.nutritionRollupService = nutritionRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.concurrency = Math.max(1, concurrency);
+        this.writeChunkSize = Math.max(1, writeChunkSize);
+    }
+
+    /**
+     * ジョブの状態
+     */
+    public enum JobState {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * ジョブの進捗
+     */
+    public record JobStatus(
+            String jobId,
+            Integer businessAccountId,
+            JobState state,
+            int total,
+            int processed,
+            int failed,
+            int written,
+            List<Integer> failedSemiIds,
+            LocalDateTime startedAt,
+            LocalDateTime finishedAt,
+            String message
+    ) {}
+
+    /**
+     * 実行中のジョブ
+     */
+    private static class Job {
+        private final String jobId = UUID.randomUUID().toString();
+        private final Integer businessAccountId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger written = new AtomicInteger();
+        private final Set<Integer> failedSemiIds = ConcurrentHashMap.newKeySet();
+        private volatile JobState state = JobState.RUNNING;
+        private volatile int total;
+        private volatile LocalDateTime finishedAt;
+        private volatile String message;
+
+        Job(Integer businessAccountId) {
+            this.businessAccountId = businessAccountId;
+        }
+
+        JobStatus toStatus() {
+            return new JobStatus(jobId, businessAccountId, state, total, processed.get(),
+                failedSemiIds.size(), written.get(), new ArrayList<>(new TreeSet<>(failedSemiIds)),
+                startedAt, finishedAt, message);
+        }
+    }
+
+    /**
+     * 半完成品1件分の計算結果
+     */
+    private record Recalculated(Integer semiId, String allergenJson, String additiveJson, NutritionRollupResult nutrition) {}
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 現在のユーザーのビジネスアカウントの一括再計算を開始
+     */
+    public JobStatus start() {
+        return start(SecurityContextHelper.getCurrentBusinessAccountId());
+    }
+
+    /**
+     * 現在のユーザーのビジネスアカウントのジョブの進捗を取得
+     */
+    public JobStatus getStatus(String jobId) {
+        return findStatus(jobId, SecurityContextHelper.getCurrentBusinessAccountId())
+            .orElseThrow(() -> new EntityNotFoundException("一括再計算ジョブ", jobId));
+    }
+
+    /**
+     * ビジネスアカウントの一括再計算を開始
+     * 同じビジネスアカウントのジョブが実行中の場合は、そのジョブの状態を返す
+     */
+    public synchronized JobStatus start(Integer businessAccountId) {
+        if (businessAccountId == null) {
+            throw new IllegalStateException("ビジネスアカウントに所属していないユーザーは一括再計算を実行できません");
+        }
+        String runningJobId = latestJobIds.get(businessAccountId);
+        if (runningJobId != null) {
+            Job running = jobs.get(runningJobId);
+            if (running != null && running.state == JobState.RUNNING) {
+                return running.toStatus();
+            }
+            jobs.remove(runningJobId);
+        }
+
+        Job job = new Job(businessAccountId);
+        jobs.put(job.jobId, job);
+        latestJobIds.put(businessAccountId, job.jobId);
+        executor.submit(() -> run(job));
+        return job.toStatus();
+    }
+
+    /**
+     * ジョブの進捗を取得（ビジネスアカウントが一致しない場合は取得できない）
+     */
+    public Optional<JobStatus> findStatus(String jobId, Integer businessAccountId) {
+        Job job = jobs.get(jobId);
+        if (job == null || businessAccountId == null || !job.businessAccountId.equals(businessAccountId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toStatus());
+    }
+
+    /**
+     * ビジネスアカウントの最新ジョブの進捗を取得
+     */
+    public Optional<JobStatus> findLatestStatus(Integer businessAccountId) {
+        String jobId = businessAccountId != null ? latestJobIds.get(businessAccountId) : null;
+        return jobId != null ? findStatus(jobId, businessAccountId) : Optional.empty();
+    }
+
+    private void run(Job job) {
+        Integer businessAccountId = job.businessAccountId;
+        try {
+            List<Integer> semiIds = semiFinishedProductRepository.findIdsByBusinessAccountId(businessAccountId);
+            job.total = semiIds.size();
+            log.info("半完成品の一括再計算を開始します: jobId={}, businessAccountId={}, 件数={}",
+                job.jobId, businessAccountId, semiIds.size());
+
+            // 仕込品の構成を下位の階層から1回ずつ計算し、各半完成品の展開で共有する
+            recipeGraphService.precomputeCompositions(businessAccountId);
+
+            Map<Integer, RawMaterialNutrition> nutritionByFoodId = new ConcurrentHashMap<>();
+            BlockingQueue<Recalculated> results = new LinkedBlockingQueue<>();
+            Semaphore permits = new Semaphore(concurrency);
+            List<Recalculated> buffer = new ArrayList<>(writeChunkSize);
+
+            for (Integer semiId : semiIds) {
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        results.add(recalculate(semiId, businessAccountId, nutritionByFoodId));
+                    } catch (Exception e) {
+                        job.failedSemiIds.add(semiId);
+                        log.warn("半完成品の再計算に失敗: jobId={}, semiId={}, {}", job.jobId, semiId, e.getMessage(), e);
+                    } finally {
+                        job.processed.incrementAndGet();
+                        permits.release();
+                    }
+                });
+                drain(job, results, buffer, false);
+            }
+
+            // 全ての計算の完了を待って残りを書き込む
+            permits.acquire(concurrency);
+            permits.release(concurrency);
+            drain(job, results, buffer, true);
+
+            job.state = JobState.COMPLETED;
+            job.message = String.format("%d 件中 %d 件を更新しました", job.total, job.written.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.state = JobState.FAILED;
+            job.message = "一括再計算が中断されました";
+        } catch (Exception e) {
+            job.state = JobState.FAILED;
+            job.message = "一括再計算に失敗しました: " + e.getMessage();
+            log.error("半完成品の一括再計算に失敗: jobId={}, {}", job.jobId, e.getMessage(), e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            log.info("半完成品の一括再計算を終了しました: jobId={}, state={}, 処理={} 件, 更新={} 件, 失敗={} 件",
+                job.jobId, job.state, job.processed.get(), job.written.get(), job.failedSemiIds.size());
+        }
+    }
+
+    /**
+     * 1回の構成ツリー走査でアレルゲン・添加物・栄養成分を集計
+     */
+    private Recalculated recalculate(Integer semiId, Integer businessAccountId,
+                                     Map<Integer, RawMaterialNutrition> nutritionByFoodId) {
+        AllergenAggregationService.AllergenAccumulator allergens = allergenAggregationService.newAccumulator();
+        AdditiveSummaryService.AdditiveAccumulator additives = additiveSummaryService.newAccumulator();
+        NutritionRollupService.NutritionAccumulator nutrition = nutritionRollupService.newAccumulator(nutritionByFoodId);
+
+        recipeGraphService.traverse(semiId, businessAccountId, List.of(allergens, additives, nutrition));
+
+        return new Recalculated(
+            semiId,
+            allergenAggregationService.toJson(allergens.toSummary()),
+            additiveSummaryService.toJson(additives.toSummary()),
+            nutrition.toResult(semiId));
+    }
+
+    /**
+     * 計算結果を書き込み単位ごとにまとめて保存
+     */
+    private void drain(Job job, BlockingQueue<Recalculated> results, List<Recalculated> buffer, boolean flushAll) {
+        results.drainTo(buffer);
+        while (buffer.size() >= writeChunkSize || (flushAll && !buffer.isEmpty())) {
+            List<Recalculated> chunk = new ArrayList<>(buffer.subList(0, Math.min(writeChunkSize, buffer.size())));
+            buffer.subList(0, chunk.size()).clear();
+            write(job, chunk);
+        }
+    }
+
+    private void write(Job job, List<Recalculated> chunk) {
+        List<FoodSemiFinishedProduct> summaries = new ArrayList<>(chunk.size());
+        for (Recalculated result : chunk) {
+            summaries.add(FoodSemiFinishedProduct.builder()
+                .semiId(result.semiId())
+                .allergenSummary(result.allergenJson())
+                .additiveSummary(result.additiveJson())
+                .build());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                semiFinishedProductRepository.updateSummaries(summaries);
+                for (Recalculated result : chunk) {
+                    NutritionRollupResult nutrition = result.nutrition();
+                    semiFinishedProductRepository.updateNutrition(FoodSemiFinishedProduct.builder()
+                        .semiId(nutrition.semiId())
+                        .basicNutrition(nutrition.basicNutrition())
+                        .minerals(nutrition.minerals())
+                        .vitamins(nutrition.vitamins())
+                        .build());
+                }
+            });
+            job.written.addAndGet(chunk.size());
+        } catch (Exception e) {
+            for (Recalculated result : chunk) {
+                job.failedSemiIds.add(result.semiId());
+            }
+            log.warn("半完成品の集約情報の書き込みに失敗: jobId={}, 件数={}, {}", job.jobId, chunk.size(), e.getMessage(), e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.nines.nutsfact.config.SecurityContextHelper;
 import com.nines.nutsfact.domain.model.master.ClassCategory;
 import com.nines.nutsfact.domain.repository.ClassCategoryRepository;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.exception.ResourceNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -17,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 public class ClassCategoryService {
 
     private final ClassCategoryRepository classCategoryRepository;
+    private final MasterDataVersionService masterDataVersion;
 
     public List<ClassCategory> findAll() {
         return classCategoryRepository.findAll();
@@ -64,14 +66,16 @@ public class ClassCategoryService {
             classCategory.setBusinessAccountId(businessAccountId);
         }
         classCategoryRepository.save(classCategory);
+        masterDataVersion.notifyChanged(MasterResource.CLASS_CATEGORY, classCategory.getBusinessAccountId());
         return classCategory;
     }
 
     @Transactional
     public ClassCategory update(Integer categoryId, ClassCategory classCategory) {
-        findById(categoryId);
+        ClassCategory existing = findById(categoryId);
         classCategory.setCategoryId(categoryId);
         classCategoryRepository.save(classCategory);
+        masterDataVersion.notifyChanged(MasterResource.CLASS_CATEGORY, existing.getBusinessAccountId());
         return classCategory;
     }
 
@@ -83,13 +87,15 @@ public class ClassCategoryService {
         classCategory.setCategoryId(categoryId);
         classCategory.setBusinessAccountId(businessAccountId);
         classCategoryRepository.save(classCategory);
+        masterDataVersion.notifyChanged(MasterResource.CLASS_CATEGORY, businessAccountId);
         return classCategory;
     }
 
     @Transactional
     public void delete(Integer categoryId) {
-        findById(categoryId);
+        ClassCategory existing = findById(categoryId);
         classCategoryRepository.delete(categoryId);
+        masterDataVersion.notifyChanged(MasterResource.CLASS_CATEGORY, existing.getBusinessAccountId());
     }
 
     @Transactional
@@ -98,5 +104,6 @@ public class ClassCategoryService {
         classCategoryRepository.findByIdAndBusinessAccountId(categoryId, businessAccountId)
                 .orElseThrow(() -> new ResourceNotFoundException("ClassCategory", categoryId));
         classCategoryRepository.deleteByIdAndBusinessAccountId(categoryId, businessAccountId);
+        masterDataVersion.notifyChanged(MasterResource.CLASS_CATEGORY, businessAccountId);
     }
 }
@@ -0,0 +1,521 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.service.FoodCompositionDictionaryService.ImportListener;
+import com.nines.nutsfact.exception.ApiException;
+import com.nines.nutsfact.exception.EntityNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 食品成分表の取り込みジョブサービス
+ * CSV・Excelのアップロードと原材料への移送を、HTTPリクエストから切り離してバックグラウンドで実行する。
+ * アップロードしたファイルはスプールディレクトリに保存し、行のまとまりごとにコミットしてチェックポイントを記録する。
+ * 失敗・中断したジョブは、最後にコミットした行の次から再開できる（チェックポイントはファイルにも保存し、再起動後も再開できる）。
+ * 終了したジョブと失敗したジョブのファイルは、保持期間を過ぎると削除する
+ */
+@Slf4j
+@Service
+public class DictionaryImportJobService {
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    // UUID形式のジョブIDの長さ（スプールディレクトリのファイル名はジョブIDで始まる）
+    private static final int JOB_ID_LENGTH = 36;
+
+    private final FoodCompositionDictionaryService dictionaryService;
+    private final Path spoolDirectory;
+    private final Duration jobRetention;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService purgeScheduler =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("dictionary-import-job-purge").factory());
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // 同期APIの取り込み・移送・クリアの実行中（このオブジェクトのロックで読み書きする）
+    private boolean exclusiveOperationRunning;
+
+    public DictionaryImportJobService(
+            FoodCompositionDictionaryService dictionaryService,
+            @Value("${nutsfact.dictionary-import.spool-dir:${java.io.tmpdir}/nutsfact-dictionary-import}") String spoolDirectory,
+            @Value("${nutsfact.dictionary-import.job-retention-hours:72}") long jobRetentionHours) {
+        this.dictionaryService = dictionaryService;
+        this.spoolDirectory = Path.of(spoolDirectory);
+        this.jobRetention = Duration.ofHours(Math.max(1, jobRetentionHours));
+    }
+
+    /**
+     * ジョブの種類
+     */
+    public enum JobKind {
+        CSV(".csv"),
+        EXCEL(".xlsx"),
+        TRANSFER(null);
+
+        private final String spoolSuffix;
+
+        JobKind(String spoolSuffix) {
+            this.spoolSuffix = spoolSuffix;
+        }
+    }
+
+    /**
+     * ジョブの状態
+     */
+    public enum JobState {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * ジョブの進捗
+     * checkpointはコミット済みの最後の位置（アップロードは行番号、移送は成分表の食品ID）で、再開はその次から行う
+     */
+    public record JobStatus(
+            String jobId,
+            JobKind kind,
+            JobState state,
+            Integer historyId,
+            int parsed,
+            int inserted,
+            int updated,
+            int failed,
+            int checkpoint,
+            List<String> errors,
+            LocalDateTime startedAt,
+            LocalDateTime finishedAt,
+            String message
+    ) {}
+
+    /**
+     * ジョブ（進捗はコミット済みの分と、次のコミットを待つ分に分けて持つ）
+     */
+    private class Job implements ImportListener {
+        private final String jobId;
+        private final JobKind kind;
+        private final Integer historyId;
+        private final boolean truncate;
+        private boolean truncated;
+
+        private int checkpoint;
+        private int parsed;
+        private int inserted;
+        private int updated;
+        private int failed;
+        private final List<String> errors = new ArrayList<>();
+
+        private int pendingParsed;
+        private final List<String> pendingErrors = new ArrayList<>();
+
+        private volatile JobState state = JobState.RUNNING;
+        private volatile LocalDateTime startedAt = LocalDateTime.now();
+        private volatile LocalDateTime finishedAt;
+        private volatile String message;
+
+        Job(String jobId, JobKind kind, Integer historyId, boolean truncate) {
+            this.jobId = jobId;
+            this.kind = kind;
+            this.historyId = historyId;
+            this.truncate = truncate;
+        }
+
+        @Override
+        public synchronized void read() {
+            pendingParsed++;
+        }
+
+        @Override
+        public synchronized void failed(String error) {
+            pendingErrors.add(error);
+        }
+
+        @Override
+        public void committed(int checkpoint, int inserted, int updated) {
+            synchronized (this) {
+                this.checkpoint = checkpoint;
+                this.parsed += pendingParsed;
+                this.inserted += inserted;
+                this.updated += updated;
+                this.failed += pendingErrors.size();
+                this.errors.addAll(pendingErrors);
+                pendingParsed = 0;
+                pendingErrors.clear();
+            }
+            saveCheckpoint(this);
+        }
+
+        /**
+         * コミットされなかった進捗を捨てて、チェックポイントの状態に戻す
+         */
+        synchronized void restart() {
+            pendingParsed = 0;
+            pendingErrors.clear();
+            state = JobState.RUNNING;
+            startedAt = LocalDateTime.now();
+            finishedAt = null;
+            message = null;
+        }
+
+        synchronized JobStatus toStatus() {
+            List<String> allErrors = new ArrayList<>(errors);
+            allErrors.addAll(pendingErrors);
+            return new JobStatus(jobId, kind, state, historyId, parsed + pendingParsed, inserted, updated,
+                failed + pendingErrors.size(), checkpoint, allErrors, startedAt, finishedAt, message);
+        }
+
+        synchronized Properties toProperties() {
+            Properties properties = new Properties();
+            properties.setProperty("kind", kind.name());
+            if (historyId != null) {
+                properties.setProperty("historyId", String.valueOf(historyId));
+            }
+            properties.setProperty("truncate", String.valueOf(truncate));
+            properties.setProperty("truncated", String.valueOf(truncated));
+            properties.setProperty("checkpoint", String.valueOf(checkpoint));
+            properties.setProperty("parsed", String.valueOf(parsed));
+            properties.setProperty("inserted", String.valueOf(inserted));
+            properties.setProperty("updated", String.valueOf(updated));
+            properties.setProperty("failed", String.valueOf(failed));
+            return properties;
+        }
+    }
+
+    /**
+     * 起動時と1時間ごとに保持期間を過ぎたジョブを削除する
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        purgeScheduler.scheduleWithFixedDelay(this::purgeExpiredJobs, 0, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purgeScheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * 同期APIの取り込み・移送・クリアを、ジョブや他の同期APIと重ならないように実行する
+     * 実行中のジョブ・同期APIがある場合は409とする
+     */
+    public <T> T runExclusively(Supplier<T> operation) {
+        synchronized (this) {
+            requireNoRunningJob();
+            exclusiveOperationRunning = true;
+        }
+        try {
+            return operation.get();
+        } finally {
+            synchronized (this) {
+                exclusiveOperationRunning = false;
+            }
+        }
+    }
+
+    /**
+     * CSVファイルの取り込みジョブを開始
+     */
+    public JobStatus startCsvUpload(MultipartFile file, Integer historyId, boolean truncate) {
+        return startUpload(JobKind.CSV, file, historyId, truncate);
+    }
+
+    /**
+     * Excelファイル(.xlsx)の取り込みジョブを開始
+     */
+    public JobStatus startExcelUpload(MultipartFile file, Integer historyId, boolean truncate) {
+        return startUpload(JobKind.EXCEL, file, historyId, truncate);
+    }
+
+    /**
+     * 原材料への移送ジョブを開始
+     */
+    public synchronized JobStatus startTransfer(Integer historyId) {
+        requireNoRunningJob();
+        Job job = new Job(UUID.randomUUID().toString(), JobKind.TRANSFER, historyId, false);
+        saveCheckpoint(job);
+        return submit(job);
+    }
+
+    /**
+     * 失敗したジョブをチェックポイントの次から再開
+     * 実行中のジョブはその状態を返す
+     */
+    public synchronized JobStatus resume(String jobId) {
+        Job job = findJob(jobId).orElseThrow(() -> new EntityNotFoundException("成分表取り込みジョブ", jobId));
+        if (job.state == JobState.RUNNING) {
+            return job.toStatus();
+        }
+        if (job.state == JobState.COMPLETED) {
+            throw new IllegalArgumentException("完了したジョブは再開できません: " + jobId);
+        }
+        if (job.kind.spoolSuffix != null && !Files.exists(spoolFile(job))) {
+            throw new IllegalArgumentException("アップロードされたファイルが残っていないため再開できません: " + jobId);
+        }
+        requireNoRunningJob();
+        job.restart();
+        log.info("成分表の取り込みジョブを再開します: jobId={}, kind={}, checkpoint={}", job.jobId, job.kind, job.checkpoint);
+        return submit(job);
+    }
+
+    /**
+     * ジョブの進捗を取得
+     */
+    public JobStatus getStatus(String jobId) {
+        return findJob(jobId)
+            .map(Job::toStatus)
+            .orElseThrow(() -> new EntityNotFoundException("成分表取り込みジョブ", jobId));
+    }
+
+    private synchronized JobStatus startUpload(JobKind kind, MultipartFile file, Integer historyId, boolean truncate) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("アップロードするファイルを指定してください");
+        }
+        requireNoRunningJob();
+
+        Job job = new Job(UUID.randomUUID().toString(), kind, historyId, truncate);
+        try {
+            // 取り込みは別スレッドで行うため、リクエストの終了で消えないようスプールディレクトリに保存する
+            Files.createDirectories(spoolDirectory);
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, spoolFile(job), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            deleteSpoolFiles(job);
+            throw new ApiException("アップロードファイルの保存に失敗しました", e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        saveCheckpoint(job);
+        log.info("成分表の取り込みジョブを受け付けました: jobId={}, kind={}, filename={}, historyId={}, truncate={}",
+            job.jobId, kind, file.getOriginalFilename(), historyId, truncate);
+        return submit(job);
+    }
+
+    private JobStatus submit(Job job) {
+        jobs.put(job.jobId, job);
+        executor.submit(() -> run(job));
+        return job.toStatus();
+    }
+
+    /**
+     * 同じテーブルへの取り込みが重ならないよう、実行中のジョブ・同期APIがある間は新しいジョブを受け付けない
+     */
+    private void requireNoRunningJob() {
+        if (exclusiveOperationRunning) {
+            throw new ApiException("成分表の取り込みが実行中です", HttpStatus.CONFLICT);
+        }
+        for (Job job : jobs.values()) {
+            if (job.state == JobState.RUNNING) {
+                throw new ApiException("成分表の取り込みジョブが実行中です: jobId=" + job.jobId, HttpStatus.CONFLICT);
+            }
+        }
+    }
+
+    private void run(Job job) {
+        JobState state = JobState.FAILED;
+        String message = null;
+        try {
+            switch (job.kind) {
+                case CSV -> {
+                    truncateIfRequested(job);
+                    dictionaryService.importCsv(spoolFile(job), job.historyId, job.checkpoint, job);
+                }
+                case EXCEL -> {
+                    truncateIfRequested(job);
+                    dictionaryService.importExcel(spoolFile(job), job.historyId, job.checkpoint, job);
+                }
+                case TRANSFER -> dictionaryService.transferToRawMaterials(job.historyId, job.checkpoint, job);
+            }
+
+            state = JobState.COMPLETED;
+            message = job.kind == JobKind.TRANSFER
+                ? String.format("登録 %d 件、更新 %d 件を移送しました", job.inserted, job.updated)
+                : String.format("%d 行を登録しました", job.inserted);
+            deleteSpoolFiles(job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            message = "取り込みが中断されました。チェックポイントから再開できます";
+        } catch (Exception e) {
+            message = "取り込みに失敗しました。チェックポイントから再開できます: " + e.getMessage();
+            log.error("成分表の取り込みジョブに失敗: jobId={}, checkpoint={}, {}", job.jobId, job.checkpoint, e.getMessage(), e);
+        } finally {
+            // 移送はコミット済みの分を標準成分データのスナップショットに反映する
+            if (job.kind == JobKind.TRANSFER && (job.inserted > 0 || job.updated > 0)) {
+                dictionaryService.refreshStandardCompositions();
+            }
+            log.info("成分表の取り込みジョブを終了しました: jobId={}, kind={}, state={}, 読込={} 行, 登録={} 件, 更新={} 件, 失敗={} 件, checkpoint={}",
+                job.jobId, job.kind, state, job.parsed, job.inserted, job.updated, job.failed, job.checkpoint);
+            // 状態は最後に変える（RUNNINGでなくなった時点で再開を受け付けるため）
+            job.finishedAt = LocalDateTime.now();
+            job.message = message;
+            job.state = state;
+        }
+    }
+
+    /**
+     * 最初の実行でだけテーブルをクリアする（再開時はコミット済みの行を残す）
+     */
+    private void truncateIfRequested(Job job) {
+        if (!job.truncate || job.truncated) {
+            return;
+        }
+        log.info("Truncating FOOD_COMPOSITION_DICTIONARY table: jobId={}", job.jobId);
+        dictionaryService.truncate();
+        synchronized (job) {
+            job.truncated = true;
+        }
+        saveCheckpoint(job);
+    }
+
+    /**
+     * 実行中のジョブ、またはチェックポイントのファイルからジョブを取得（再起動前のジョブは失敗として扱う）
+     */
+    private Optional<Job> findJob(String jobId) {
+        if (!isJobId(jobId)) {
+            return Optional.empty();
+        }
+        Job job = jobs.get(jobId);
+        if (job != null) {
+            return Optional.of(job);
+        }
+        Path checkpointFile = spoolDirectory.resolve(jobId + CHECKPOINT_SUFFIX);
+        if (!Files.exists(checkpointFile)) {
+            return Optional.empty();
+        }
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            Properties properties = new Properties();
+            properties.load(in);
+            String historyId = properties.getProperty("historyId");
+            Job loaded = new Job(jobId, JobKind.valueOf(properties.getProperty("kind")),
+                historyId != null ? Integer.valueOf(historyId) : null,
+                Boolean.parseBoolean(properties.getProperty("truncate")));
+            loaded.truncated = Boolean.parseBoolean(properties.getProperty("truncated"));
+            loaded.checkpoint = Integer.parseInt(properties.getProperty("checkpoint", "0"));
+            loaded.parsed = Integer.parseInt(properties.getProperty("parsed", "0"));
+            loaded.inserted = Integer.parseInt(properties.getProperty("inserted", "0"));
+            loaded.updated = Integer.parseInt(properties.getProperty("updated", "0"));
+            loaded.failed = Integer.parseInt(properties.getProperty("failed", "0"));
+            loaded.state = JobState.FAILED;
+            loaded.finishedAt = LocalDateTime.ofInstant(Files.getLastModifiedTime(checkpointFile).toInstant(), ZoneId.systemDefault());
+            loaded.message = "サーバーの再起動で中断されました。チェックポイントから再開できます";
+            Job existing = jobs.putIfAbsent(jobId, loaded);
+            return Optional.of(existing != null ? existing : loaded);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("成分表取り込みジョブのチェックポイントを読み込めません: jobId={}, {}", jobId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * スプールディレクトリ内のパスに使うため、UUID形式のジョブIDだけを受け付ける
+     */
+    private static boolean isJobId(String jobId) {
+        try {
+            return jobId != null && UUID.fromString(jobId).toString().equals(jobId);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Path spoolFile(Job job) {
+        return spoolDirectory.resolve(job.jobId + job.kind.spoolSuffix);
+    }
+
+    /**
+     * チェックポイントをファイルに保存（一時ファイルに書いてから置き換える）
+     */
+    private void saveCheckpoint(Job job) {
+        Path checkpointFile = spoolDirectory.resolve(job.jobId + CHECKPOINT_SUFFIX);
+        try {
+            Files.createDirectories(spoolDirectory);
+            Path tempFile = Files.createTempFile(spoolDirectory, job.jobId, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                job.toProperties().store(out, null);
+            }
+            Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 保存できない場合も、同じプロセス内ではメモリ上のチェックポイントから再開できる
+            log.warn("成分表取り込みジョブのチェックポイントを保存できません: jobId={}, {}", job.jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * 保持期間を過ぎたジョブを削除
+     * 終了したジョブはメモリから、失敗したジョブ・再起動前のジョブはスプールディレクトリのファイルも削除する（以後は再開できない）
+     */
+    public synchronized void purgeExpiredJobs() {
+        LocalDateTime finishedBefore = LocalDateTime.now().minus(jobRetention);
+        Instant modifiedBefore = Instant.now().minus(jobRetention);
+        int purgedJobs = 0;
+        int purgedFiles = 0;
+        for (Job job : List.copyOf(jobs.values())) {
+            if (job.state != JobState.RUNNING && job.finishedAt != null && job.finishedAt.isBefore(finishedBefore)) {
+                jobs.remove(job.jobId);
+                deleteSpoolFiles(job);
+                purgedJobs++;
+            }
+        }
+        // メモリにない（再起動前の）ジョブのファイルは、ジョブのファイルのうち最後に更新された日時で判断する
+        Map<String, List<Path>> filesByJobId = new HashMap<>();
+        Map<String, Instant> lastModified = new HashMap<>();
+        try (Stream<Path> files = Files.isDirectory(spoolDirectory) ? Files.list(spoolDirectory) : Stream.empty()) {
+            for (Path file : files.toList()) {
+                String fileName = file.getFileName().toString();
+                String jobId = fileName.length() > JOB_ID_LENGTH ? fileName.substring(0, JOB_ID_LENGTH) : null;
+                if (!isJobId(jobId) || jobs.containsKey(jobId)) {
+                    continue;
+                }
+                filesByJobId.computeIfAbsent(jobId, k -> new ArrayList<>()).add(file);
+                lastModified.merge(jobId, Files.getLastModifiedTime(file).toInstant(),
+                    (a, b) -> a.isAfter(b) ? a : b);
+            }
+            for (Map.Entry<String, List<Path>> entry : filesByJobId.entrySet()) {
+                if (!lastModified.get(entry.getKey()).isBefore(modifiedBefore)) {
+                    continue;
+                }
+                for (Path file : entry.getValue()) {
+                    Files.deleteIfExists(file);
+                    purgedFiles++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("保持期間を過ぎた成分表取り込みジョブのファイルを削除できません: {}", e.getMessage());
+        }
+        if (purgedJobs > 0 || purgedFiles > 0) {
+            log.info("保持期間を過ぎた成分表取り込みジョブを削除しました: ジョブ={}件, ファイル={}件（{}より前）",
+                purgedJobs, purgedFiles, finishedBefore);
+        }
+    }
+
+    private void deleteSpoolFiles(Job job) {
+        try {
+            if (job.kind.spoolSuffix != null) {
+                Files.deleteIfExists(spoolFile(job));
+            }
+            Files.deleteIfExists(spoolDirectory.resolve(job.jobId + CHECKPOINT_SUFFIX));
+        } catch (IOException e) {
+            log.warn("成分表取り込みジョブのファイルの削除に失敗: jobId={}, {}", job.jobId, e.getMessage());
+        }
+    }
+}
@@ -8,28 +8,112 @@ import com.nines.nutsfact.domain.model.nutrition.NutritionMinerals;
 import com.nines.nutsfact.domain.model.nutrition.NutritionVitamins;
 import com.nines.nutsfact.domain.repository.FoodCompositionDictionaryRepository;
 import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import com.nines.nutsfact.infrastructure.excel.StreamingXlsxReader;
+import com.nines.nutsfact.infrastructure.excel.StreamingXlsxReader.XlsxCell;
+import com.nines.nutsfact.infrastructure.excel.StreamingXlsxReader.XlsxRow;
+import jakarta.annotation.PreDestroy;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class FoodCompositionDictionaryService {
+    // 1行あたり成分表の登録は120個、原材料への移送は147個のパラメータを使うため、プレースホルダ数の上限（65535）を超えない件数に抑える
+    private static final int MAX_INSERT_BATCH_SIZE = 400;
+    // CSVの読み込みの終わりを登録側に知らせる
+    private static final Future<List<ParsedCsvLine>> END_OF_CSV = CompletableFuture.completedFuture(List.of());
+
     private final FoodCompositionDictionaryRepository repository;
     private final FoodRawMaterialRepository rawMaterialRepository;
+    private final StandardCompositionCacheService standardCompositionCache;
+    private final NameSearchIndexService nameSearchIndex;
+    private final int insertBatchSize;
+    private final int csvChunkLines;
+    private final int csvParseParallelism;
+    private final ExecutorService csvParseExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public FoodCompositionDictionaryService(
+            FoodCompositionDictionaryRepository repository,
+            FoodRawMaterialRepository rawMaterialRepository,
+            StandardCompositionCacheService standardCompositionCache,
+            NameSearchIndexService nameSearchIndex,
+            PlatformTransactionManager transactionManager,
+            @Value("${nutsfact.dictionary-import.insert-batch-size:200}") int insertBatchSize,
+            @Value("${nutsfact.dictionary-import.csv-chunk-lines:200}") int csvChunkLines,
+            @Value("${nutsfact.dictionary-import.csv-parse-parallelism:4}") int csvParseParallelism) {
+        this.repository = repository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.standardCompositionCache = standardCompositionCache;
+        this.nameSearchIndex = nameSearchIndex;
+        this.insertBatchSize = Math.clamp(insertBatchSize, 1, MAX_INSERT_BATCH_SIZE);
+        this.csvChunkLines = Math.max(1, csvChunkLines);
+        this.csvParseParallelism = Math.max(1, csvParseParallelism);
+        this.csvParseExecutor = Executors.newFixedThreadPool(this.csvParseParallelism,
+            Thread.ofPlatform().name("dictionary-csv-parser-", 0).daemon().factory());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 取り込みジョブへの進捗の通知
+     * ジョブでは行のまとまりごとに別トランザクションでコミットし、コミットの後にcommittedを通知する。
+     * committedより前に通知した行・エラーは、そのコミットで確定したものとして扱う
+     */
+    public interface ImportListener {
+        /**
+         * 行を読み込んだ（移送の場合は成分表の1行を処理した）
+         */
+        void read();
+
+        /**
+         * 行のパース・登録に失敗した
+         */
+        void failed(String error);
+
+        /**
+         * チェックポイントまでの登録がコミットされた
+         * @param checkpoint アップロードは行番号、移送は成分表の食品ID
+         */
+        void committed(int checkpoint, int inserted, int updated);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        csvParseExecutor.shutdownNow();
+    }
 
     @Transactional(readOnly = true)
     public List<FoodCompositionDictionary> findAll() {
@@ -72,51 +156,179 @@ public class FoodCompositionDictionaryService {
      * データ移送（FOOD_COMPOSITION_DICTIONARY → FOOD_RAW_MATERIALS）
      * 8訂成分表データをFOOD_RAW_MATERIALSテーブルに移送/更新
      * フラグ変換: 0:実測値→2, 1:推定値→1, 2,3:Tr→4, 4,5:-→5
+     * 移送先の原材料を1回の問い合わせで取得し、登録・更新はinsertBatchSize件ずつ複数行のupsertで書き込む
      */
     @Transactional
     public TransferResult transferToRawMaterials(Integer historyId) {
-        int insertedCount = 0;
-        int updatedCount = 0;
-        int errorCount = 0;
-        List<String> errors = new ArrayList<>();
+        TransferResult result = transfer(historyId, 0, null);
 
-        List<FoodCompositionDictionary> compositionList = repository.findAll();
+        // 移送がコミットされた後、標準成分データのスナップショットを差し替える
+        if (result.insertedCount() > 0 || result.updatedCount() > 0) {
+            refreshStandardCompositions();
+        }
+        return result;
+    }
 
-        for (FoodCompositionDictionary comp : compositionList) {
-            try {
-                // historyIdが指定されている場合はフィルタリング
-                if (historyId != null && !historyId.equals(comp.getHistoryId())) {
-                    continue;
-                }
+    /**
+     * データ移送（取り込みジョブ用）
+     * 成分表を食品IDの順にinsertBatchSize行ずつ別トランザクションでコミットし、resumeAfterFoodIdまでの行は移送済みとして読み飛ばす。
+     * 標準成分データのスナップショットは差し替えないため、ジョブの終わりにrefreshStandardCompositionsを呼び出す
+     */
+    public TransferResult transferToRawMaterials(Integer historyId, int resumeAfterFoodId, ImportListener listener) {
+        return transfer(historyId, resumeAfterFoodId, listener);
+    }
 
-                FoodRawMaterial rawMaterial = convertToRawMaterial(comp);
+    /**
+     * 移送した原材料を標準成分データのスナップショットと名称検索の索引に反映（トランザクション内ではコミット後）
+     */
+    public void refreshStandardCompositions() {
+        standardCompositionCache.reloadAfterCommit();
+        nameSearchIndex.rebuildAfterCommit();
+    }
 
-                // 既存レコードを検索（food_noでマッチング）
-                Optional<FoodRawMaterial> existing = rawMaterialRepository.findByFoodNo(
-                    String.valueOf(comp.getFoodNo()));
+    private TransferResult transfer(Integer historyId, int resumeAfterFoodId, ImportListener listener) {
+        TransferProgress progress = new TransferProgress(listener);
 
-                if (existing.isPresent()) {
-                    // 更新
-                    rawMaterial.setFoodId(existing.get().getFoodId());
-                    int updated = rawMaterialRepository.updateNutritionByFoodNo(rawMaterial);
-                    if (updated > 0) {
-                        updatedCount++;
+        // 食品番号 → 更新する原材料ID（8訂成分データ）。8訂以外のカテゴリにだけある食品番号は登録も更新もしない
+        Map<String, List<Integer>> standardFoodIds = new HashMap<>();
+        Set<String> existingFoodNos = new HashSet<>();
+        for (FoodRawMaterial target : rawMaterialRepository.findTransferTargets(historyId)) {
+            existingFoodNos.add(target.getFoodNo());
+            if (Integer.valueOf(1).equals(target.getCategoryId())) {
+                standardFoodIds.computeIfAbsent(target.getFoodNo(), k -> new ArrayList<>()).add(target.getFoodId());
+            }
+        }
+
+        // 成分表に同じ食品番号が複数ある場合は後の行の内容で登録する（途中から再開しても同じ行を選ぶよう全行から決める）
+        List<FoodCompositionDictionary> comps = repository.findByHistoryId(historyId);
+        Map<String, Integer> insertDictionaryIds = new HashMap<>();
+        for (FoodCompositionDictionary comp : comps) {
+            insertDictionaryIds.put(String.valueOf(comp.getFoodNo()), comp.getFoodId());
+        }
+        TransferTargets targets = new TransferTargets(standardFoodIds, existingFoodNos, insertDictionaryIds);
+
+        List<FoodCompositionDictionary> pending = comps.stream()
+            .filter(comp -> comp.getFoodId() > resumeAfterFoodId)
+            .toList();
+        for (int from = 0; from < pending.size(); from += insertBatchSize) {
+            List<FoodCompositionDictionary> chunk = pending.subList(from, Math.min(from + insertBatchSize, pending.size()));
+            if (listener == null) {
+                transferChunk(chunk, targets, progress);
+                continue;
+            }
+            int insertedBefore = progress.insertedCount;
+            int updatedBefore = progress.updatedFoodNos.size();
+            transactionTemplate.executeWithoutResult(status -> transferChunk(chunk, targets, progress));
+            listener.committed(chunk.get(chunk.size() - 1).getFoodId(),
+                progress.insertedCount - insertedBefore, progress.updatedFoodNos.size() - updatedBefore);
+        }
+
+        int insertedCount = progress.insertedCount;
+        int updatedCount = progress.updatedFoodNos.size();
+        log.info("データ移送完了: inserted={}, updated={}, errors={}",
+                insertedCount, updatedCount, progress.errorCount);
+        return new TransferResult(insertedCount, updatedCount, progress.errorCount, progress.errors);
+    }
+
+    /**
+     * 移送先の原材料
+     * @param standardFoodIds 食品番号 → 更新する原材料ID（8訂成分データ）
+     * @param existingFoodNos 原材料に登録済みの食品番号
+     * @param insertDictionaryIds 食品番号 → 新規登録に使う成分表の食品ID
+     */
+    private record TransferTargets(Map<String, List<Integer>> standardFoodIds, Set<String> existingFoodNos,
+                                   Map<String, Integer> insertDictionaryIds) {}
+
+    /**
+     * 成分表の行を原材料に変換してまとめて書き込む
+     */
+    private void transferChunk(List<FoodCompositionDictionary> chunk, TransferTargets targets, TransferProgress progress) {
+        List<TransferRow> rows = new ArrayList<>();
+        for (FoodCompositionDictionary comp : chunk) {
+            progress.read();
+            try {
+                String foodNo = String.valueOf(comp.getFoodNo());
+                List<Integer> foodIds = targets.standardFoodIds().get(foodNo);
+                if (foodIds != null) {
+                    for (Integer foodId : foodIds) {
+                        FoodRawMaterial rawMaterial = convertToRawMaterial(comp);
+                        rawMaterial.setFoodId(foodId);
+                        rows.add(new TransferRow(rawMaterial, false));
                     }
-                } else {
-                    // 新規挿入
-                    rawMaterialRepository.insert(rawMaterial);
-                    insertedCount++;
+                } else if (!targets.existingFoodNos().contains(foodNo)
+                        && comp.getFoodId().equals(targets.insertDictionaryIds().get(foodNo))) {
+                    rows.add(new TransferRow(convertToRawMaterial(comp), true));
                 }
             } catch (Exception e) {
-                log.warn("データ移送エラー: foodNo={}, error={}", comp.getFoodNo(), e.getMessage());
-                errors.add("foodNo " + comp.getFoodNo() + ": " + e.getMessage());
-                errorCount++;
+                progress.addError(comp.getFoodNo(), e);
             }
         }
 
-        log.info("データ移送完了: inserted={}, updated={}, errors={}",
-                insertedCount, updatedCount, errorCount);
-        return new TransferResult(insertedCount, updatedCount, errorCount, errors);
+        for (int from = 0; from < rows.size(); from += insertBatchSize) {
+            writeTransferRows(rows.subList(from, Math.min(from + insertBatchSize, rows.size())), progress);
+        }
+    }
+
+    /**
+     * 移送する原材料（insertがfalseの場合はfoodIdの原材料を更新）
+     */
+    private record TransferRow(FoodRawMaterial rawMaterial, boolean insert) {}
+
+    private static class TransferProgress {
+        private final ImportListener listener;
+        private int insertedCount;
+        private final Set<String> updatedFoodNos = new HashSet<>();
+        private int errorCount;
+        private final List<String> errors = new ArrayList<>();
+
+        TransferProgress(ImportListener listener) {
+            this.listener = listener;
+        }
+
+        void read() {
+            if (listener != null) {
+                listener.read();
+            }
+        }
+
+        void addWritten(TransferRow row) {
+            if (row.insert()) {
+                insertedCount++;
+            } else {
+                updatedFoodNos.add(row.rawMaterial().getFoodNo());
+            }
+        }
+
+        void addError(Object foodNo, Exception e) {
+            log.warn("データ移送エラー: foodNo={}, error={}", foodNo, e.getMessage());
+            String error = "foodNo " + foodNo + ": " + e.getMessage();
+            errors.add(error);
+            errorCount++;
+            if (listener != null) {
+                listener.failed(error);
+            }
+        }
+    }
+
+    /**
+     * 移送する原材料をまとめて書き込む
+     * 失敗した場合は1件ずつ書き込み直し、失敗した食品番号をエラーに記録する
+     */
+    private void writeTransferRows(List<TransferRow> rows, TransferProgress progress) {
+        try {
+            rawMaterialRepository.upsertStandardCompositions(rows.stream().map(TransferRow::rawMaterial).toList());
+            rows.forEach(progress::addWritten);
+        } catch (Exception e) {
+            log.warn("データ移送の一括書き込みに失敗したため1件ずつ書き込みます: 件数={}, {}", rows.size(), e.getMessage());
+            for (TransferRow row : rows) {
+                try {
+                    rawMaterialRepository.upsertStandardCompositions(List.of(row.rawMaterial()));
+                    progress.addWritten(row);
+                } catch (Exception rowError) {
+                    progress.addError(row.rawMaterial().getFoodNo(), rowError);
+                }
+            }
+        }
     }
 
     /**
@@ -302,88 +514,312 @@ public class FoodCompositionDictionaryService {
 
     /**
      * CSVファイルをアップロードしてFOOD_COMPOSITION_DICTIONARYに登録
+     * 読み込み（仮想スレッド）→ 行のまとまりごとの並列パース → 登録（このスレッド）のパイプラインで処理する。
+     * パース結果は読み込んだ順にキューで受け渡し、キューが一杯の間は読み込みを待たせる
      */
     @Transactional
     public UploadResult uploadCsv(MultipartFile file, Integer historyId) {
-        int successCount = 0;
-        int errorCount = 0;
-        List<String> errors = new ArrayList<>();
+        InsertBuffer buffer = new InsertBuffer(null);
+        try {
+            readCsv(file, historyId, 0, buffer);
+        } catch (Exception e) {
+            log.error("CSVファイル読み込みエラー", e);
+            buffer.addFileError(e.getMessage());
+        }
+
+        // 読み込みに失敗した場合も、それまでに読み込んだ行は登録する
+        buffer.flush();
+        return buffer.toResult();
+    }
+
+    /**
+     * スプールしたCSVファイルをFOOD_COMPOSITION_DICTIONARYに登録（取り込みジョブ用）
+     * insertBatchSize行ごとに別トランザクションでコミットし、resumeAfterLine行目までは登録済みとして読み飛ばす。
+     * 読み込みに失敗した場合はコミット済みの行までで例外とする
+     */
+    public void importCsv(Path file, Integer historyId, int resumeAfterLine, ImportListener listener) throws Exception {
+        InsertBuffer buffer = new InsertBuffer(listener);
+        readCsv(new FileSystemResource(file), historyId, resumeAfterLine, buffer);
+        buffer.flush();
+    }
+
+    private void readCsv(InputStreamSource source, Integer historyId, int resumeAfterLine,
+                         InsertBuffer buffer) throws Exception {
+        BlockingQueue<Future<List<ParsedCsvLine>>> parsedChunks = new ArrayBlockingQueue<>(csvParseParallelism * 2);
+        AtomicReference<Exception> readError = new AtomicReference<>();
+
+        Thread reader = Thread.ofVirtual().name("dictionary-csv-reader")
+            .start(() -> readCsvChunks(source, historyId, resumeAfterLine, parsedChunks, readError));
+        try {
+            while (true) {
+                Future<List<ParsedCsvLine>> chunk = parsedChunks.take();
+                if (chunk == END_OF_CSV) {
+                    break;
+                }
+                for (ParsedCsvLine parsed : chunk.get()) {
+                    if (parsed.entity() != null) {
+                        buffer.add(parsed.lineNumber(), parsed.entity());
+                    } else {
+                        buffer.addError(parsed.lineNumber(), parsed.error());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            readError.compareAndSet(null, e);
+        } catch (ExecutionException e) {
+            readError.compareAndSet(null, e);
+        } finally {
+            // 登録側が途中で終わった場合、キューの空きを待っている読み込みを止める
+            reader.interrupt();
+        }
+
+        if (readError.get() != null) {
+            throw readError.get();
+        }
+    }
 
-        try (InputStream inputStream = file.getInputStream();
+    /**
+     * パースしたCSV行（パースに失敗した場合はentityがnullでerrorにメッセージ）
+     */
+    private record ParsedCsvLine(int lineNumber, FoodCompositionDictionary entity, String error) {}
+
+    /**
+     * CSVをcsvChunkLines行ずつに分けてパースを依頼し、結果をキューに入れる
+     */
+    private void readCsvChunks(InputStreamSource source, Integer historyId, int resumeAfterLine,
+                               BlockingQueue<Future<List<ParsedCsvLine>>> parsedChunks,
+                               AtomicReference<Exception> readError) {
+        List<String> lines = new ArrayList<>(csvChunkLines);
+        int firstLineNumber = 1;
+        try (InputStream inputStream = source.getInputStream();
              BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"))) {
 
-            String line;
             int lineNumber = 0;
+            String line;
 
             while ((line = br.readLine()) != null) {
                 lineNumber++;
-                try {
-                    // BOMを除去
-                    if (line.startsWith("\uFEFF")) {
-                        line = line.substring(1);
-                    }
-
-                    // ヘッダー行をスキップ
-                    if (lineNumber == 1 && line.contains("食品群") || line.contains("食品番号")) {
-                        continue;
-                    }
-
-                    FoodCompositionDictionary entity = parseCsvLine(line);
-                    entity.setHistoryId(historyId);
-                    repository.insert(entity);
-                    successCount++;
-                } catch (Exception e) {
-                    log.warn("CSV行{}のパースエラー: {}", lineNumber, e.getMessage());
-                    errors.add("行" + lineNumber + ": " + e.getMessage());
-                    errorCount++;
+                if (lineNumber <= resumeAfterLine) {
+                    // 再開時は登録済みの行を読み飛ばす
+                    firstLineNumber = lineNumber + 1;
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() >= csvChunkLines) {
+                    submitCsvChunk(firstLineNumber, lines, historyId, parsedChunks);
+                    firstLineNumber = lineNumber + 1;
+                    lines = new ArrayList<>(csvChunkLines);
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
         } catch (Exception e) {
-            log.error("CSVファイル読み込みエラー", e);
-            errors.add("ファイル読み込みエラー: " + e.getMessage());
+            readError.set(e);
         }
+        try {
+            // 読み込みに失敗した場合も、それまでに読み込んだ行はパースして登録側に渡す
+            if (!lines.isEmpty()) {
+                submitCsvChunk(firstLineNumber, lines, historyId, parsedChunks);
+            }
+            parsedChunks.put(END_OF_CSV);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        return new UploadResult(successCount, errorCount, errors);
+    private void submitCsvChunk(int firstLineNumber, List<String> lines, Integer historyId,
+                                BlockingQueue<Future<List<ParsedCsvLine>>> parsedChunks) throws InterruptedException {
+        parsedChunks.put(csvParseExecutor.submit(() -> parseCsvChunk(firstLineNumber, lines, historyId)));
+    }
+
+    private List<ParsedCsvLine> parseCsvChunk(int firstLineNumber, List<String> lines, Integer historyId) {
+        List<ParsedCsvLine> parsed = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            int lineNumber = firstLineNumber + i;
+            String line = lines.get(i);
+            try {
+                // BOMを除去
+                if (line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+
+                // ヘッダー行をスキップ
+                if (lineNumber == 1 && line.contains("食品群") || line.contains("食品番号")) {
+                    continue;
+                }
+
+                FoodCompositionDictionary entity = parseCsvLine(line);
+                entity.setHistoryId(historyId);
+                parsed.add(new ParsedCsvLine(lineNumber, entity, null));
+            } catch (Exception e) {
+                log.warn("CSV行{}のパースエラー: {}", lineNumber, e.getMessage());
+                parsed.add(new ParsedCsvLine(lineNumber, null, e.getMessage()));
+            }
+        }
+        return parsed;
     }
 
     /**
      * Excelファイル(.xlsx)をアップロードしてFOOD_COMPOSITION_DICTIONARYに登録
+     * ワークブックをメモリに展開せず、一時ファイルから1行ずつ読み込んで登録する
      */
     @Transactional
     public UploadResult uploadExcel(MultipartFile file, Integer historyId) {
-        int successCount = 0;
-        int errorCount = 0;
-        List<String> errors = new ArrayList<>();
+        InsertBuffer buffer = new InsertBuffer(null);
+
+        Path tempFile = null;
+        try {
+            // OPCPackageはInputStreamから開くとZIP全体をメモリに読み込むため、一時ファイルから開く
+            tempFile = Files.createTempFile("food-composition-", ".xlsx");
+            file.transferTo(tempFile);
+            readExcel(tempFile, historyId, 0, buffer);
+        } catch (Exception e) {
+            log.error("Excelファイル読み込みエラー", e);
+            buffer.addFileError(e.getMessage());
+        } finally {
+            deleteTempFile(tempFile);
+        }
 
-        try (InputStream inputStream = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
+        // 読み込みに失敗した場合も、それまでに読み込んだ行は登録する
+        buffer.flush();
+        return buffer.toResult();
+    }
 
-            Sheet sheet = workbook.getSheetAt(0);
-            int rowCount = sheet.getPhysicalNumberOfRows();
+    /**
+     * スプールしたExcelファイル(.xlsx)をFOOD_COMPOSITION_DICTIONARYに登録（取り込みジョブ用）
+     * insertBatchSize行ごとに別トランザクションでコミットし、resumeAfterRow行目までは登録済みとして読み飛ばす。
+     * 読み込みに失敗した場合はコミット済みの行までで例外とする
+     */
+    public void importExcel(Path file, Integer historyId, int resumeAfterRow, ImportListener listener) throws IOException {
+        InsertBuffer buffer = new InsertBuffer(listener);
+        readExcel(file, historyId, resumeAfterRow, buffer);
+        buffer.flush();
+    }
 
-            for (int i = 1; i < rowCount; i++) { // 1行目はヘッダーなのでスキップ
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
+    private void readExcel(Path file, Integer historyId, int resumeAfterRow, InsertBuffer buffer) throws IOException {
+        StreamingXlsxReader.readFirstSheet(file.toFile(), (rowIndex, row) -> {
+            if (rowIndex == 0) return; // 1行目はヘッダーなのでスキップ
+            if (rowIndex + 1 <= resumeAfterRow) return; // 再開時は登録済みの行を読み飛ばす
 
-                try {
-                    FoodCompositionDictionary entity = parseExcelRow(row);
-                    if (entity != null && entity.getFoodNo() != null) {
-                        entity.setHistoryId(historyId);
-                        repository.insert(entity);
+            try {
+                FoodCompositionDictionary entity = parseExcelRow(row);
+                if (entity != null && entity.getFoodNo() != null) {
+                    entity.setHistoryId(historyId);
+                    buffer.add(rowIndex + 1, entity);
+                }
+            } catch (Exception e) {
+                log.warn("Excel行{}のパースエラー: {}", rowIndex + 1, e.getMessage());
+                buffer.addError(rowIndex + 1, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * アップロードした行をまとめて登録するバッファ
+     * insertBatchSize件ごとに複数行INSERTで登録し、失敗した場合はその範囲を1行ずつ登録し直して失敗した行番号を記録する。
+     * listenerがある場合（取り込みジョブ）は、まとめるごとに別トランザクションでコミットしてチェックポイントを通知する
+     */
+    private class InsertBuffer {
+        private final ImportListener listener;
+        private final List<Integer> lineNumbers = new ArrayList<>();
+        private final List<FoodCompositionDictionary> entities = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private int successCount;
+        private int errorCount;
+        // 読み込んだ最後の行番号と、コミット済みの最後の行番号
+        private int lastLineNumber;
+        private int committedLineNumber;
+
+        InsertBuffer(ImportListener listener) {
+            this.listener = listener;
+        }
+
+        void add(int lineNumber, FoodCompositionDictionary entity) {
+            read(lineNumber);
+            lineNumbers.add(lineNumber);
+            entities.add(entity);
+            if (entities.size() >= insertBatchSize) {
+                flush();
+            }
+        }
+
+        void addError(int lineNumber, String message) {
+            read(lineNumber);
+            recordError(lineNumber, message);
+        }
+
+        void addFileError(String message) {
+            errors.add("ファイル読み込みエラー: " + message);
+        }
+
+        private void read(int lineNumber) {
+            lastLineNumber = lineNumber;
+            if (listener != null) {
+                listener.read();
+            }
+        }
+
+        private void recordError(int lineNumber, String message) {
+            String error = "行" + lineNumber + ": " + message;
+            errors.add(error);
+            errorCount++;
+            if (listener != null) {
+                listener.failed(error);
+            }
+        }
+
+        void flush() {
+            if (listener == null) {
+                write();
+                return;
+            }
+            if (lastLineNumber <= committedLineNumber) {
+                return;
+            }
+            int successBefore = successCount;
+            transactionTemplate.executeWithoutResult(status -> write());
+            committedLineNumber = lastLineNumber;
+            listener.committed(committedLineNumber, successCount - successBefore, 0);
+        }
+
+        private void write() {
+            if (entities.isEmpty()) {
+                return;
+            }
+            try {
+                repository.batchInsert(entities);
+                successCount += entities.size();
+            } catch (Exception e) {
+                log.warn("成分表の一括登録に失敗したため1行ずつ登録します: 行{}〜{}, {}",
+                    lineNumbers.get(0), lineNumbers.get(lineNumbers.size() - 1), e.getMessage());
+                for (int i = 0; i < entities.size(); i++) {
+                    try {
+                        repository.insert(entities.get(i));
                         successCount++;
+                    } catch (Exception rowError) {
+                        log.warn("成分表の行{}の登録エラー: {}", lineNumbers.get(i), rowError.getMessage());
+                        recordError(lineNumbers.get(i), rowError.getMessage());
                     }
-                } catch (Exception e) {
-                    log.warn("Excel行{}のパースエラー: {}", i + 1, e.getMessage());
-                    errors.add("行" + (i + 1) + ": " + e.getMessage());
-                    errorCount++;
                 }
             }
-        } catch (Exception e) {
-            log.error("Excelファイル読み込みエラー", e);
-            errors.add("ファイル読み込みエラー: " + e.getMessage());
+            lineNumbers.clear();
+            entities.clear();
         }
 
-        return new UploadResult(successCount, errorCount, errors);
+        UploadResult toResult() {
+            return new UploadResult(successCount, errorCount, errors);
+        }
+    }
+
+    private void deleteTempFile(Path tempFile) {
+        if (tempFile == null) return;
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            log.warn("一時ファイルの削除に失敗: {}", tempFile, e);
+        }
     }
 
     /**
@@ -520,7 +956,7 @@ public class FoodCompositionDictionaryService {
     /**
      * Excel行をFoodCompositionDictionaryに変換
      */
-    private FoodCompositionDictionary parseExcelRow(Row row) throws Exception {
+    private FoodCompositionDictionary parseExcelRow(XlsxRow row) throws Exception {
         String foodName = getCellStringValue(row.getCell(3));
         if (foodName == null || foodName.isEmpty()) {
             return null;
@@ -653,20 +1089,19 @@ public class FoodCompositionDictionaryService {
     }
 
     // Excel Cell値取得ヘルパー
-    private String getCellStringValue(Cell cell) {
+    private String getCellStringValue(XlsxCell cell) {
         if (cell == null) return null;
-        cell.setCellType(CellType.STRING);
-        String value = cell.getStringCellValue();
+        String value = cell.text();
         return value != null && !value.isEmpty() ? value.trim() : null;
     }
 
-    private Integer getCellIntValue(Cell cell) {
+    private Integer getCellIntValue(XlsxCell cell) {
         if (cell == null) return null;
         try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return (int) cell.getNumericCellValue();
+            if (cell.numeric()) {
+                return (int) cell.numericValue();
             } else {
-                String value = cell.getStringCellValue();
+                String value = cell.text();
                 return value != null && !value.isEmpty() ? Integer.parseInt(value.trim()) : null;
             }
         } catch (Exception e) {
@@ -674,13 +1109,13 @@ public class FoodCompositionDictionaryService {
         }
     }
 
-    private Float getCellFloatValue(Cell cell) {
+    private Float getCellFloatValue(XlsxCell cell) {
         if (cell == null) return null;
         try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return (float) cell.getNumericCellValue();
+            if (cell.numeric()) {
+                return (float) cell.numericValue();
             } else {
-                String value = cell.getStringCellValue();
+                String value = cell.text();
                 return value != null && !value.isEmpty() ? Float.parseFloat(value.trim()) : null;
             }
         } catch (Exception e) {
@@ -688,42 +1123,31 @@ public class FoodCompositionDictionaryService {
         }
     }
 
-    private Float getExcelFloatValue(Cell cell) {
+    private Float getExcelFloatValue(XlsxCell cell) {
         if (cell == null) return null;
         try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return (float) cell.getNumericCellValue();
+            if (cell.numeric()) {
+                return (float) cell.numericValue();
             } else {
-                String value = cell.getStringCellValue();
-                return getFloatValue(value);
+                return getFloatValue(cell.text());
             }
         } catch (Exception e) {
             return null;
         }
     }
 
-    private Integer getExcelValueCondition(Cell cell) {
+    private Integer getExcelValueCondition(XlsxCell cell) {
         if (cell == null) return null;
-        try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return 0; // 数値は実測値
-            } else {
-                String value = cell.getStringCellValue();
-                return getValueCondition(value);
-            }
-        } catch (Exception e) {
-            return null;
+        if (cell.numeric()) {
+            return 0; // 数値は実測値
         }
+        return getValueCondition(cell.text());
     }
 
-    private Boolean checkExcelAsterisk(Cell cell) {
+    private Boolean checkExcelAsterisk(XlsxCell cell) {
         if (cell == null) return false;
-        try {
-            String value = getCellStringValue(cell);
-            return value != null && value.contains("*");
-        } catch (Exception e) {
-            return false;
-        }
+        String value = getCellStringValue(cell);
+        return value != null && value.contains("*");
     }
 
     // CSV値変換ヘルパー（リファクタリング前のロジック）
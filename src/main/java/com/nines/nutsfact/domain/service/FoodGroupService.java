@@ -7,6 +7,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.nines.nutsfact.domain.model.master.FoodGroup;
 import com.nines.nutsfact.domain.repository.FoodGroupRepository;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.exception.ResourceNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 public class FoodGroupService {
 
     private final FoodGroupRepository foodGroupRepository;
+    private final MasterDataVersionService masterDataVersion;
 
     public List<FoodGroup> findAll() {
         return foodGroupRepository.findAll();
@@ -29,6 +31,7 @@ public class FoodGroupService {
     @Transactional
     public FoodGroup create(FoodGroup foodGroup) {
         foodGroupRepository.save(foodGroup);
+        masterDataVersion.notifyChanged(MasterResource.FOOD_GROUP, null);
         return foodGroup;
     }
 
@@ -37,6 +40,7 @@ public class FoodGroupService {
         findById(foodGroupId);
         foodGroup.setFoodGroupId(foodGroupId);
         foodGroupRepository.save(foodGroup);
+        masterDataVersion.notifyChanged(MasterResource.FOOD_GROUP, null);
         return foodGroup;
     }
 
@@ -44,5 +48,6 @@ public class FoodGroupService {
     public void delete(Integer foodGroupId) {
         findById(foodGroupId);
         foodGroupRepository.delete(foodGroupId);
+        masterDataVersion.notifyChanged(MasterResource.FOOD_GROUP, null);
     }
 }
@@ -15,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,6 +27,7 @@ import java.util.stream.Collectors;
 public class FoodLabelPdfService {
 
     private final FoodSemiFinishedProductRepository semiFinishedProductRepository;
+    private final RecipeGraphService recipeGraphService;
     private final IngredientExpansionService ingredientExpansionService;
     private final AdditiveSummaryService additiveSummaryService;
     private final AllergenAggregationService allergenAggregationService;
@@ -40,11 +42,13 @@ public class FoodLabelPdfService {
 
     public FoodLabelPdfService(
             FoodSemiFinishedProductRepository semiFinishedProductRepository,
+            RecipeGraphService recipeGraphService,
             IngredientExpansionService ingredientExpansionService,
             AdditiveSummaryService additiveSummaryService,
             AllergenAggregationService allergenAggregationService,
             BusinessAccountMapper businessAccountMapper) {
         this.semiFinishedProductRepository = semiFinishedProductRepository;
+        this.recipeGraphService = recipeGraphService;
         this.ingredientExpansionService = ingredientExpansionService;
         this.additiveSummaryService = additiveSummaryService;
         this.allergenAggregationService = allergenAggregationService;
@@ -114,17 +118,22 @@ public class FoodLabelPdfService {
             throw new IllegalArgumentException("半完成品が見つかりません: semiId=" + semiId);
         }
 
+        // 構成ツリーの走査は1回のみ（保存済みの集約情報がない集計だけ走査に参加させる）
+        List<RecipeGraphService.LeafAccumulator> accumulators = new ArrayList<>();
+
         // 原材料展開
-        var expandedResponse = ingredientExpansionService.expand(semiId);
-        var aggregatedIngredients = ingredientExpansionService.aggregateByDisplayName(expandedResponse.getIngredients());
+        var ingredientAccumulator = ingredientExpansionService.newAccumulator();
+        accumulators.add(ingredientAccumulator);
 
         // 添加物情報
         AdditiveSummary additiveSummary = null;
         if (product.getAdditiveSummary() != null && !product.getAdditiveSummary().isEmpty()) {
             additiveSummary = additiveSummaryService.fromJson(product.getAdditiveSummary());
         }
+        AdditiveSummaryService.AdditiveAccumulator additiveAccumulator = null;
         if (additiveSummary == null) {
-            additiveSummary = additiveSummaryService.aggregate(semiId);
+            additiveAccumulator = additiveSummaryService.newAccumulator();
+            accumulators.add(additiveAccumulator);
         }
 
         // アレルゲン情報
@@ -132,8 +141,21 @@ public class FoodLabelPdfService {
         if (product.getAllergenSummary() != null && !product.getAllergenSummary().isEmpty()) {
             allergenSummary = allergenAggregationService.fromJson(product.getAllergenSummary());
         }
+        AllergenAggregationService.AllergenAccumulator allergenAccumulator = null;
         if (allergenSummary == null) {
-            allergenSummary = allergenAggregationService.aggregate(semiId);
+            allergenAccumulator = allergenAggregationService.newAccumulator();
+            accumulators.add(allergenAccumulator);
+        }
+
+        recipeGraphService.traverse(semiId, accumulators);
+
+        var aggregatedIngredients = ingredientExpansionService.aggregateByDisplayName(
+            ingredientAccumulator.toResponse().getIngredients());
+        if (additiveAccumulator != null) {
+            additiveSummary = additiveAccumulator.toSummary();
+        }
+        if (allergenAccumulator != null) {
+            allergenSummary = allergenAccumulator.toSummary();
         }
 
         // ビジネスアカウント情報を取得（販売者・製造者表示用）
@@ -3,6 +3,7 @@ package com.nines.nutsfact.domain.service;
 import com.nines.nutsfact.config.SecurityContextHelper;
 import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
 import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
+import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
 import com.nines.nutsfact.exception.DataAccessFailedException;
 import com.nines.nutsfact.exception.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
 
 @Slf4j
@@ -18,6 +20,11 @@ import java.util.List;
 public class FoodPreProductDetailService {
 
     private final FoodPreProductDetailRepository repository;
+    private final FoodPreProductRepository preProductRepository;
+    private final PreProductCompositionCacheService compositionCache;
+    private final WhereUsedIndexService whereUsedIndexService;
+    private final PreProductHierarchyService hierarchyService;
+    private final RecipeCostService recipeCostService;
 
     @Transactional(readOnly = true)
     public List<FoodPreProductDetailItem> findByPreId(Integer preId) {
@@ -48,6 +55,8 @@ public class FoodPreProductDetailService {
 
     @Transactional
     public FoodPreProductDetailItem create(FoodPreProductDetailItem entity) {
+        hierarchyService.validateDetail(entity.getPreId(), entity);
+
         try {
             // businessAccountIdを必須で設定
             if (entity.getBusinessAccountId() == null) {
@@ -61,6 +70,11 @@ public class FoodPreProductDetailService {
             repository.insert(entity);
             Integer newId = repository.getLastInsertId();
             entity.setDetailId(newId);
+            compositionCache.invalidate(entity.getBusinessAccountId(), entity.getPreId());
+            whereUsedIndexService.refreshPreProduct(entity.getPreId());
+            hierarchyService.refreshLevel(entity.getPreId());
+            preProductRepository.touchUpdateDate(Arrays.asList(entity.getPreId()), entity.getBusinessAccountId());
+            recipeCostService.propagatePreProductChange(entity.getBusinessAccountId(), Arrays.asList(entity.getPreId()));
 
             log.info("仕込品明細を登録しました: ID={}", newId);
             return entity;
@@ -77,11 +91,20 @@ public class FoodPreProductDetailService {
             throw new IllegalArgumentException("明細IDが指定されていません");
         }
 
-        repository.findById(entity.getDetailId())
+        FoodPreProductDetailItem existing = repository.findById(entity.getDetailId())
             .orElseThrow(() -> new EntityNotFoundException("仕込品明細", entity.getDetailId()));
+        hierarchyService.validateDetail(entity.getPreId(), entity);
 
         try {
             repository.update(entity);
+            compositionCache.invalidate(existing.getBusinessAccountId(), existing.getPreId());
+            compositionCache.invalidate(existing.getBusinessAccountId(), entity.getPreId());
+            whereUsedIndexService.refreshPreProduct(existing.getPreId());
+            whereUsedIndexService.refreshPreProduct(entity.getPreId());
+            hierarchyService.refreshLevel(existing.getPreId());
+            hierarchyService.refreshLevel(entity.getPreId());
+            preProductRepository.touchUpdateDate(Arrays.asList(existing.getPreId(), entity.getPreId()), existing.getBusinessAccountId());
+            recipeCostService.propagatePreProductChange(existing.getBusinessAccountId(), Arrays.asList(existing.getPreId(), entity.getPreId()));
             log.info("仕込品明細を更新しました: ID={}", entity.getDetailId());
             return entity;
 
@@ -98,14 +121,23 @@ public class FoodPreProductDetailService {
         }
 
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
-        repository.findByIdAndBusinessAccountId(entity.getDetailId(), businessAccountId)
+        FoodPreProductDetailItem existing = repository.findByIdAndBusinessAccountId(entity.getDetailId(), businessAccountId)
             .orElseThrow(() -> new EntityNotFoundException("仕込品明細", entity.getDetailId()));
 
         // businessAccountIdを設定
         entity.setBusinessAccountId(businessAccountId);
+        hierarchyService.validateDetail(entity.getPreId(), entity);
 
         try {
             repository.update(entity);
+            compositionCache.invalidate(businessAccountId, existing.getPreId());
+            compositionCache.invalidate(businessAccountId, entity.getPreId());
+            whereUsedIndexService.refreshPreProduct(existing.getPreId());
+            whereUsedIndexService.refreshPreProduct(entity.getPreId());
+            hierarchyService.refreshLevel(existing.getPreId());
+            hierarchyService.refreshLevel(entity.getPreId());
+            preProductRepository.touchUpdateDate(Arrays.asList(existing.getPreId(), entity.getPreId()), businessAccountId);
+            recipeCostService.propagatePreProductChange(businessAccountId, Arrays.asList(existing.getPreId(), entity.getPreId()));
             log.info("仕込品明細を更新しました: ID={}", entity.getDetailId());
             return entity;
 
@@ -117,11 +149,16 @@ public class FoodPreProductDetailService {
 
     @Transactional
     public void delete(Integer id) {
-        repository.findById(id)
+        FoodPreProductDetailItem existing = repository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("仕込品明細", id));
 
         try {
             repository.delete(id);
+            compositionCache.invalidate(existing.getBusinessAccountId(), existing.getPreId());
+            whereUsedIndexService.refreshPreProduct(existing.getPreId());
+            hierarchyService.refreshLevel(existing.getPreId());
+            preProductRepository.touchUpdateDate(Arrays.asList(existing.getPreId()), existing.getBusinessAccountId());
+            recipeCostService.propagatePreProductChange(existing.getBusinessAccountId(), Arrays.asList(existing.getPreId()));
             log.info("仕込品明細を削除しました: ID={}", id);
 
         } catch (Exception e) {
@@ -133,11 +170,16 @@ public class FoodPreProductDetailService {
     @Transactional
     public void deleteWithBusinessAccountFilter(Integer id) {
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
-        repository.findByIdAndBusinessAccountId(id, businessAccountId)
+        FoodPreProductDetailItem existing = repository.findByIdAndBusinessAccountId(id, businessAccountId)
             .orElseThrow(() -> new EntityNotFoundException("仕込品明細", id));
 
         try {
             repository.deleteByIdAndBusinessAccountId(id, businessAccountId);
+            compositionCache.invalidate(businessAccountId, existing.getPreId());
+            whereUsedIndexService.refreshPreProduct(existing.getPreId());
+            hierarchyService.refreshLevel(existing.getPreId());
+            preProductRepository.touchUpdateDate(Arrays.asList(existing.getPreId()), businessAccountId);
+            recipeCostService.propagatePreProductChange(businessAccountId, Arrays.asList(existing.getPreId()));
             log.info("仕込品明細を削除しました: ID={}", id);
 
         } catch (Exception e) {
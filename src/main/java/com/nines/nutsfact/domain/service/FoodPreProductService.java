@@ -1,9 +1,11 @@
 package com.nines.nutsfact.domain.service;
 
 import com.nines.nutsfact.config.SecurityContextHelper;
+import com.nines.nutsfact.domain.model.BulkDeleteOutcome;
 import com.nines.nutsfact.domain.model.FoodPreProductItem;
 import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
 import com.nines.nutsfact.domain.model.SelectItem;
+import com.nines.nutsfact.domain.model.sync.SyncEntityType;
 import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
 import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
 import com.nines.nutsfact.exception.DataAccessFailedException;
@@ -13,7 +15,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -22,6 +29,12 @@ public class FoodPreProductService {
 
     private final FoodPreProductRepository repository;
     private final FoodPreProductDetailRepository detailRepository;
+    private final PreProductCompositionCacheService compositionCache;
+    private final WhereUsedIndexService whereUsedIndexService;
+    private final PreProductHierarchyService hierarchyService;
+    private final NameSearchIndexService nameSearchIndex;
+    private final SyncService syncService;
+    private final RecipeCostService recipeCostService;
 
     @Transactional(readOnly = true)
     public List<FoodPreProductItem> findAll() {
@@ -116,6 +129,14 @@ public class FoodPreProductService {
                 }
             }
 
+            whereUsedIndexService.refreshPreProduct(newId);
+            hierarchyService.refreshLevel(newId);
+            nameSearchIndex.notifyPreProductChanged(newId);
+
+            // 原価は送信された値ではなく明細から積み上げた値にする
+            recipeCostService.propagatePreProductChange(entity.getBusinessAccountId(), List.of(newId));
+            repository.findById(newId).ifPresent(saved -> entity.setCostPriceSum(saved.getCostPriceSum()));
+
             log.info("仕込品を登録しました: ID={}", newId);
             return entity;
 
@@ -131,11 +152,15 @@ public class FoodPreProductService {
             throw new IllegalArgumentException("仕込品IDが指定されていません");
         }
 
-        repository.findById(entity.getPreId())
+        FoodPreProductItem existing = repository.findById(entity.getPreId())
             .orElseThrow(() -> new EntityNotFoundException("仕込品", entity.getPreId()));
 
         try {
             repository.update(entity);
+            compositionCache.invalidate(existing.getBusinessAccountId(), entity.getPreId());
+
+            nameSearchIndex.notifyPreProductChanged(entity.getPreId());
+            recipeCostService.propagatePreProductChange(existing.getBusinessAccountId(), List.of(entity.getPreId()));
 
             // 集計値の更新
             updateSummary(entity);
@@ -164,6 +189,10 @@ public class FoodPreProductService {
 
         try {
             repository.update(entity);
+            compositionCache.invalidate(businessAccountId, entity.getPreId());
+
+            nameSearchIndex.notifyPreProductChanged(entity.getPreId());
+            recipeCostService.propagatePreProductChange(businessAccountId, List.of(entity.getPreId()));
 
             // 集計値の更新
             updateSummary(entity);
@@ -179,13 +208,19 @@ public class FoodPreProductService {
 
     @Transactional
     public void delete(Integer id) {
-        repository.findById(id)
+        FoodPreProductItem existing = repository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("仕込品", id));
 
         try {
             // 明細を先に削除
+            List<Integer> parentPreIds = hierarchyService.findParentPreIds(id);
             detailRepository.deleteByPreId(id);
             repository.delete(id);
+            syncService.recordDeletion(SyncEntityType.PRE_PRODUCT, id, existing.getBusinessAccountId());
+            hierarchyService.refreshParentLevels(parentPreIds);
+            compositionCache.invalidate(existing.getBusinessAccountId(), id);
+            whereUsedIndexService.refreshPreProduct(id);
+            nameSearchIndex.notifyPreProductChanged(id);
             log.info("仕込品を削除しました: ID={}", id);
 
         } catch (Exception e) {
@@ -202,8 +237,14 @@ public class FoodPreProductService {
 
         try {
             // 明細を先に削除
+            List<Integer> parentPreIds = hierarchyService.findParentPreIds(id);
             detailRepository.deleteByPreIdAndBusinessAccountId(id, businessAccountId);
             repository.deleteByIdAndBusinessAccountId(id, businessAccountId);
+            syncService.recordDeletion(SyncEntityType.PRE_PRODUCT, id, businessAccountId);
+            hierarchyService.refreshParentLevels(parentPreIds);
+            compositionCache.invalidate(businessAccountId, id);
+            whereUsedIndexService.refreshPreProduct(id);
+            nameSearchIndex.notifyPreProductChanged(id);
             log.info("仕込品を削除しました: ID={}", id);
 
         } catch (Exception e) {
@@ -212,6 +253,56 @@ public class FoodPreProductService {
         }
     }
 
+    /**
+     * 仕込品の一括削除（businessAccountIdでのフィルタリング付き）
+     * 存在確認、明細と仕込品の削除、上位仕込品の取得を、それぞれ1回のSQLで行う。
+     * 見つからない仕込品は削除せず、IDごとの結果として返す
+     */
+    @Transactional
+    public List<BulkDeleteOutcome> deleteAllWithBusinessAccountFilter(Collection<Integer> ids) {
+        Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
+        Set<Integer> requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+        if (requestedIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Integer> existing = new LinkedHashMap<>();
+        for (FoodPreProductItem item : repository.findDeleteTargets(requestedIds, businessAccountId)) {
+            existing.put(item.getPreId(), item.getBusinessAccountId());
+        }
+        List<BulkDeleteOutcome> outcomes = requestedIds.stream()
+            .map(id -> existing.containsKey(id) ? BulkDeleteOutcome.deleted(id) : BulkDeleteOutcome.notFound(id))
+            .toList();
+        if (existing.isEmpty()) {
+            return outcomes;
+        }
+
+        Set<Integer> targetIds = existing.keySet();
+        try {
+            // 一緒に削除する仕込品を除いた上位の仕込品の階層を再計算する
+            List<Integer> parentPreIds = detailRepository.findParentPreIds(targetIds).stream()
+                .filter(preId -> !targetIds.contains(preId))
+                .toList();
+            // 明細を先に削除
+            detailRepository.deleteByPreIdsAndBusinessAccountId(targetIds, businessAccountId);
+            repository.deleteByIdsAndBusinessAccountId(targetIds, businessAccountId);
+            syncService.recordDeletions(SyncEntityType.PRE_PRODUCT, existing);
+            hierarchyService.refreshParentLevels(parentPreIds);
+
+        } catch (Exception e) {
+            log.error("仕込品の一括削除に失敗: 件数={}, {}", targetIds.size(), e.getMessage(), e);
+            throw new DataAccessFailedException("一括削除", e);
+        }
+
+        existing.forEach((preId, preBusinessAccountId) -> compositionCache.invalidate(preBusinessAccountId, preId));
+        whereUsedIndexService.removePreProducts(targetIds);
+        nameSearchIndex.notifyPreProductsDeleted(targetIds);
+        log.info("仕込品を一括削除しました: 削除={}件, 指定={}件, businessAccountId={}",
+            targetIds.size(), requestedIds.size(), businessAccountId);
+        return outcomes;
+    }
+
     /**
      * 仕込品の集計値を更新
      */
@@ -1,12 +1,16 @@
 package com.nines.nutsfact.domain.service;
 
 import com.nines.nutsfact.config.SecurityContextHelper;
+import com.nines.nutsfact.domain.model.BulkDeleteOutcome;
 import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.RawMaterialProjection;
 import com.nines.nutsfact.domain.model.SelectItem;
+import com.nines.nutsfact.domain.model.sync.SyncEntityType;
 import com.nines.nutsfact.domain.repository.AllergenicControlRepository;
 import com.nines.nutsfact.domain.repository.CompositeRawMaterialIngredientRepository;
 import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
 import com.nines.nutsfact.domain.repository.FoodRawMaterialSupplierRepository;
+import com.nines.nutsfact.domain.service.WhereUsedIndexService.StaleKind;
 import com.nines.nutsfact.exception.DataAccessFailedException;
 import com.nines.nutsfact.exception.EntityNotFoundException;
 import com.nines.nutsfact.exception.ForeignKeyConstraintException;
@@ -17,7 +21,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -27,6 +42,13 @@ public class FoodRawMaterialService {
     private final FoodRawMaterialRepository repository;
     private final FoodRawMaterialSupplierRepository supplierRepository;
     private final AllergenicControlRepository allergenicControlRepository;
+    private final AllergenicControlService allergenicControlService;
+    private final WhereUsedIndexService whereUsedIndexService;
+    private final StandardCompositionCacheService standardCompositionCache;
+    private final NameSearchIndexService nameSearchIndex;
+    private final RevisionChainIndexService revisionChainIndex;
+    private final SyncService syncService;
+    private final RecipeCostService recipeCostService;
     private final CompositeRawMaterialIngredientRepository compositeIngredientRepository;
     private final FoodPreProductDetailMapper preProductDetailMapper;
     private final FoodSemiFinishedProductDetailMapper semiFinishedProductDetailMapper;
@@ -36,9 +58,36 @@ public class FoodRawMaterialService {
         return repository.findAll();
     }
 
+    /**
+     * 原材料一覧取得（取得項目指定）
+     */
+    @Transactional(readOnly = true)
+    public List<FoodRawMaterial> findAll(RawMaterialProjection projection) {
+        if (projection == RawMaterialProjection.FULL) {
+            return repository.findAll();
+        }
+        return findProjected(null, null, null, null, projection);
+    }
+
+    /**
+     * カテゴリ別原材料一覧取得
+     * categoryId=1（8訂）, 2（拡張）は標準成分データのスナップショットから返す（参照専用）
+     */
     @Transactional(readOnly = true)
     public List<FoodRawMaterial> findByCategory(Integer categoryId) {
-        return repository.findByCategory(categoryId);
+        return standardCompositionCache.findByCategory(categoryId)
+            .orElseGet(() -> repository.findByCategory(categoryId));
+    }
+
+    /**
+     * カテゴリ別原材料一覧取得（取得項目指定）
+     */
+    @Transactional(readOnly = true)
+    public List<FoodRawMaterial> findByCategory(Integer categoryId, RawMaterialProjection projection) {
+        if (projection == RawMaterialProjection.FULL) {
+            return findByCategory(categoryId);
+        }
+        return findProjected(categoryId, null, null, null, projection);
     }
 
     /**
@@ -50,15 +99,76 @@ public class FoodRawMaterialService {
     public List<FoodRawMaterial> findByCategoryWithBusinessAccountFilter(Integer categoryId) {
         // patternId=1（8訂）or 2（拡張）はbusiness_account_idでフィルタリングしない
         if (categoryId != null && (categoryId == 1 || categoryId == 2)) {
-            return repository.findByCategory(categoryId);
+            return findByCategory(categoryId);
         }
 
         // patternId=3（ユーザ定義）はbusiness_account_idでフィルタリング
+        return repository.findByCategoryAndBusinessAccountId(categoryId, resolveBusinessAccountIdForCategory(categoryId));
+    }
+
+    /**
+     * カテゴリ別原材料一覧取得（businessAccountIdフィルタリング、取得項目指定）
+     */
+    @Transactional(readOnly = true)
+    public List<FoodRawMaterial> findByCategoryWithBusinessAccountFilter(Integer categoryId, RawMaterialProjection projection) {
+        if (projection == RawMaterialProjection.FULL) {
+            return findByCategoryWithBusinessAccountFilter(categoryId);
+        }
+        return findProjected(categoryId, resolveBusinessAccountIdForCategory(categoryId), null, null, projection);
+    }
+
+    private List<FoodRawMaterial> findProjected(Integer categoryId, Integer businessAccountId,
+                                                Integer afterFoodId, Integer limit, RawMaterialProjection projection) {
+        return switch (projection) {
+            case SUMMARY -> repository.findSummaries(categoryId, businessAccountId, afterFoodId, limit);
+            case LABEL -> repository.findLabels(categoryId, businessAccountId, afterFoodId, limit);
+            case FULL -> repository.findPageByCategory(
+                categoryId, businessAccountId, afterFoodId, limit != null ? limit : Integer.MAX_VALUE);
+        };
+    }
+
+    /**
+     * カテゴリ別原材料一覧の絞り込みに使うbusinessAccountIdを取得
+     * categoryId未指定（全件）, 1（8訂）, 2（拡張）の場合はnull（フィルタリングしない）
+     * ストリーミング出力など、リクエストスレッド外で検索する場合は事前にこのメソッドで解決しておく
+     */
+    public Integer resolveBusinessAccountIdForCategory(Integer categoryId) {
+        if (categoryId == null || categoryId == 1 || categoryId == 2) {
+            return null;
+        }
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
         if (businessAccountId == null) {
             throw new IllegalStateException("ビジネスアカウントに所属していないユーザーは原材料を参照できません");
         }
-        return repository.findByCategoryAndBusinessAccountId(categoryId, businessAccountId);
+        return businessAccountId;
+    }
+
+    /**
+     * カテゴリ別原材料をfood_id順にページ取得（キーセットページング）
+     * afterFoodIdより大きいfood_idをlimit件返す。afterFoodIdがnullの場合は先頭から
+     */
+    @Transactional(readOnly = true)
+    public List<FoodRawMaterial> findPageByCategory(Integer categoryId, Integer businessAccountId,
+                                                    Integer afterFoodId, int limit, RawMaterialProjection projection) {
+        if (projection == RawMaterialProjection.FULL) {
+            return repository.findPageByCategory(categoryId, businessAccountId, afterFoodId, limit);
+        }
+        return findProjected(categoryId, businessAccountId, afterFoodId, limit, projection);
+    }
+
+    @Transactional(readOnly = true)
+    public int countByCategory(Integer categoryId, Integer businessAccountId) {
+        return repository.countByCategory(categoryId, businessAccountId);
+    }
+
+    /**
+     * カテゴリ別原材料をfood_id順に1件ずつconsumerへ渡す
+     * 一覧をメモリに保持しないため、大きなカテゴリをレスポンスへ直接書き出す用途に使う
+     */
+    @Transactional(readOnly = true)
+    public void streamByCategory(Integer categoryId, Integer businessAccountId, Integer afterFoodId,
+                                 Consumer<FoodRawMaterial> consumer) {
+        repository.streamByCategory(categoryId, businessAccountId, afterFoodId, consumer);
     }
 
     @Transactional(readOnly = true)
@@ -68,7 +178,8 @@ public class FoodRawMaterialService {
 
     @Transactional(readOnly = true)
     public FoodRawMaterial findById(Integer id) {
-        return repository.findById(id)
+        return standardCompositionCache.findById(id)
+            .or(() -> repository.findById(id))
             .orElseThrow(() -> new EntityNotFoundException("原材料", id));
     }
 
@@ -78,17 +189,43 @@ public class FoodRawMaterialService {
      */
     @Transactional(readOnly = true)
     public FoodRawMaterial findByIdWithBusinessAccountFilter(Integer id) {
+        // categoryId=1, 2は全ビジネスアカウントから参照できるため、スナップショットにあればそのまま返す
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
-        return repository.findByIdAndBusinessAccountId(id, businessAccountId)
+        return standardCompositionCache.findById(id)
+            .or(() -> repository.findByIdAndBusinessAccountId(id, businessAccountId))
             .orElseThrow(() -> new EntityNotFoundException("原材料", id));
     }
 
     @Transactional(readOnly = true)
     public FoodRawMaterial findByFoodNo(String foodNo) {
-        return repository.findByFoodNo(foodNo)
+        return standardCompositionCache.findByFoodNo(foodNo)
+            .or(() -> repository.findByFoodNo(foodNo))
             .orElseThrow(() -> new EntityNotFoundException("原材料 (食品番号: " + foodNo + ")"));
     }
 
+    /**
+     * 食品番号で最新リビジョンの原材料を取得
+     * ログインユーザーのビジネスアカウントに食品番号がない場合は8訂・拡張の原材料を返す
+     */
+    @Transactional(readOnly = true)
+    public FoodRawMaterial findLatestByFoodNo(String foodNo) {
+        Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
+        Optional<Integer> headFoodId = revisionChainIndex.findHeadFoodId(businessAccountId, foodNo);
+        if (headFoodId.isPresent()) {
+            return repository.findByIdAndBusinessAccountId(headFoodId.get(), businessAccountId)
+                .orElseThrow(() -> new EntityNotFoundException("原材料 (食品番号: " + foodNo + ")"));
+        }
+        return standardCompositionCache.findByFoodNo(foodNo)
+            .orElseThrow(() -> new EntityNotFoundException("原材料 (食品番号: " + foodNo + ")"));
+    }
+
+    /**
+     * 一覧から最新リビジョン（リビジョンチェーンの先頭）の原材料だけを残す
+     */
+    public List<FoodRawMaterial> filterLatestRevisions(List<FoodRawMaterial> items) {
+        return items.stream().filter(revisionChainIndex::isHead).toList();
+    }
+
     @Transactional
     public FoodRawMaterial create(FoodRawMaterial entity) {
         try {
@@ -110,6 +247,7 @@ public class FoodRawMaterialService {
             }
 
             // revision_of_food_noを自動設定（同じfood_noかつ同じbusiness_account_idの最大値+1）
+            // 複数インスタンスや一括登録でも重複しないよう、採番はメモリ上の索引ではなくDBから行う
             if (entity.getFoodNo() != null && entity.getBusinessAccountId() != null) {
                 Integer maxRevision = repository.getMaxRevisionByFoodNoAndBusinessAccountId(
                         entity.getFoodNo(), entity.getBusinessAccountId());
@@ -124,6 +262,9 @@ public class FoodRawMaterialService {
             repository.insert(entity);
             Integer newId = repository.getLastInsertId();
             entity.setFoodId(newId);
+            revisionChainIndex.notifyChanged(entity.getBusinessAccountId(), entity.getFoodNo());
+            standardCompositionCache.notifyChanged(newId, entity.getCategoryId());
+            nameSearchIndex.notifyRawMaterialChanged(newId);
 
             log.info("原材料を登録しました: ID={}, businessAccountId={}, revision={}",
                 newId, entity.getBusinessAccountId(), entity.getRevisionOfFoodNo());
@@ -142,11 +283,16 @@ public class FoodRawMaterialService {
             throw new IllegalArgumentException("食品IDが指定されていません");
         }
 
-        repository.findById(entity.getFoodId())
+        FoodRawMaterial existing = repository.findById(entity.getFoodId())
             .orElseThrow(() -> new EntityNotFoundException("原材料", entity.getFoodId()));
 
         try {
             repository.update(entity);
+            notifyRevisionChainChanged(existing, entity);
+            propagatePriceChange(existing, entity);
+            whereUsedIndexService.notifyRawMaterialChanged(entity.getFoodId(), StaleKind.RAW_MATERIAL);
+            standardCompositionCache.notifyChanged(entity.getFoodId(), entity.getCategoryId());
+            nameSearchIndex.notifyRawMaterialChanged(entity.getFoodId());
             log.info("原材料を更新しました: ID={}", entity.getFoodId());
             return entity;
 
@@ -166,7 +312,7 @@ public class FoodRawMaterialService {
         }
 
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
-        repository.findByIdAndBusinessAccountId(entity.getFoodId(), businessAccountId)
+        FoodRawMaterial existing = repository.findByIdAndBusinessAccountId(entity.getFoodId(), businessAccountId)
             .orElseThrow(() -> new EntityNotFoundException("原材料", entity.getFoodId()));
 
         // businessAccountIdを確実に設定
@@ -174,6 +320,11 @@ public class FoodRawMaterialService {
 
         try {
             repository.update(entity);
+            notifyRevisionChainChanged(existing, entity);
+            propagatePriceChange(existing, entity);
+            whereUsedIndexService.notifyRawMaterialChanged(entity.getFoodId(), StaleKind.RAW_MATERIAL);
+            standardCompositionCache.notifyChanged(entity.getFoodId(), entity.getCategoryId());
+            nameSearchIndex.notifyRawMaterialChanged(entity.getFoodId());
             log.info("原材料を更新しました: ID={}, businessAccountId={}", entity.getFoodId(), businessAccountId);
             return entity;
 
@@ -208,7 +359,7 @@ public class FoodRawMaterialService {
     @Transactional
     public void delete(Integer id) {
         // 存在確認
-        repository.findById(id)
+        FoodRawMaterial existing = repository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("原材料", id));
 
         // 仕込品・半完成品での使用チェック
@@ -220,6 +371,7 @@ public class FoodRawMaterialService {
             log.info("原材料の仕入元情報を削除しました: foodId={}", id);
 
             allergenicControlRepository.delete(id);
+            allergenicControlService.evictMask(id);
             log.info("原材料のアレルゲン情報を削除しました: foodId={}", id);
 
             compositeIngredientRepository.deleteByFoodId(id);
@@ -227,6 +379,10 @@ public class FoodRawMaterialService {
 
             // メインの原材料データを削除
             repository.delete(id);
+            recordDeletion(existing);
+            revisionChainIndex.notifyChanged(existing.getBusinessAccountId(), existing.getFoodNo());
+            standardCompositionCache.notifyChanged(id, existing.getCategoryId());
+            nameSearchIndex.notifyRawMaterialChanged(id);
             log.info("原材料を削除しました: ID={}", id);
 
         } catch (Exception e) {
@@ -243,7 +399,7 @@ public class FoodRawMaterialService {
     public void deleteWithBusinessAccountFilter(Integer id) {
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
 
-        repository.findByIdAndBusinessAccountId(id, businessAccountId)
+        FoodRawMaterial existing = repository.findByIdAndBusinessAccountId(id, businessAccountId)
             .orElseThrow(() -> new EntityNotFoundException("原材料", id));
 
         // 仕込品・半完成品での使用チェック
@@ -255,6 +411,7 @@ public class FoodRawMaterialService {
             log.info("原材料の仕入元情報を削除しました: foodId={}", id);
 
             allergenicControlRepository.deleteByFoodIdAndBusinessAccountId(id, businessAccountId);
+            allergenicControlService.evictMask(id);
             log.info("原材料のアレルゲン情報を削除しました: foodId={}", id);
 
             compositeIngredientRepository.deleteByFoodIdAndBusinessAccountId(id, businessAccountId);
@@ -262,6 +419,10 @@ public class FoodRawMaterialService {
 
             // メインの原材料データを削除
             repository.deleteByIdAndBusinessAccountId(id, businessAccountId);
+            recordDeletion(existing);
+            revisionChainIndex.notifyChanged(existing.getBusinessAccountId(), existing.getFoodNo());
+            standardCompositionCache.notifyChanged(id, existing.getCategoryId());
+            nameSearchIndex.notifyRawMaterialChanged(id);
             log.info("原材料を削除しました: ID={}, businessAccountId={}", id, businessAccountId);
 
         } catch (Exception e) {
@@ -269,4 +430,112 @@ public class FoodRawMaterialService {
             throw new DataAccessFailedException("削除", e);
         }
     }
+
+    /**
+     * 原材料の一括削除（businessAccountIdでのフィルタリング付き）
+     * 存在確認、仕込品・半完成品での使用チェック、関連データと原材料の削除を、それぞれ1回のSQLで行う。
+     * 見つからない原材料と使用されている原材料は削除せず、IDごとの結果として返す
+     */
+    @Transactional
+    public List<BulkDeleteOutcome> deleteAllWithBusinessAccountFilter(Collection<Integer> ids) {
+        Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
+        Set<Integer> requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+        if (requestedIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, FoodRawMaterial> existing = new HashMap<>();
+        for (FoodRawMaterial item : repository.findDeleteTargets(requestedIds, businessAccountId)) {
+            existing.put(item.getFoodId(), item);
+        }
+        Set<Integer> usedByPreProducts = new HashSet<>();
+        Set<Integer> usedBySemiFinishedProducts = new HashSet<>();
+        if (!existing.isEmpty()) {
+            usedByPreProducts.addAll(preProductDetailMapper.findUsedDetailFoodIds(existing.keySet()));
+            usedBySemiFinishedProducts.addAll(semiFinishedProductDetailMapper.findUsedDetailFoodIds(existing.keySet()));
+        }
+
+        List<BulkDeleteOutcome> outcomes = new ArrayList<>(requestedIds.size());
+        List<FoodRawMaterial> targets = new ArrayList<>();
+        for (Integer id : requestedIds) {
+            FoodRawMaterial item = existing.get(id);
+            if (item == null) {
+                outcomes.add(BulkDeleteOutcome.notFound(id));
+            } else if (usedByPreProducts.contains(id)) {
+                outcomes.add(BulkDeleteOutcome.inUse(id, "この原材料は仕込品で使用されているため削除できません"));
+            } else if (usedBySemiFinishedProducts.contains(id)) {
+                outcomes.add(BulkDeleteOutcome.inUse(id, "この原材料は半完成品で使用されているため削除できません"));
+            } else {
+                outcomes.add(BulkDeleteOutcome.deleted(id));
+                targets.add(item);
+            }
+        }
+        if (targets.isEmpty()) {
+            return outcomes;
+        }
+
+        List<Integer> targetIds = targets.stream().map(FoodRawMaterial::getFoodId).toList();
+        try {
+            // 関連データを先に削除（外部キー制約対応）
+            supplierRepository.deleteByFoodIdsAndBusinessAccountId(targetIds, businessAccountId);
+            allergenicControlRepository.deleteByFoodIdsAndBusinessAccountId(targetIds, businessAccountId);
+            compositeIngredientRepository.deleteByFoodIdsAndBusinessAccountId(targetIds, businessAccountId);
+            repository.deleteByIdsAndBusinessAccountId(targetIds, businessAccountId);
+
+            Map<Integer, Integer> deletedBusinessAccountIds = new LinkedHashMap<>();
+            for (FoodRawMaterial item : targets) {
+                deletedBusinessAccountIds.put(item.getFoodId(),
+                    StandardCompositionCacheService.isStandardCategory(item.getCategoryId())
+                        ? null : item.getBusinessAccountId());
+            }
+            syncService.recordDeletions(SyncEntityType.RAW_MATERIAL, deletedBusinessAccountIds);
+        } catch (Exception e) {
+            log.error("原材料の一括削除に失敗: 件数={}, {}", targetIds.size(), e.getMessage(), e);
+            throw new DataAccessFailedException("一括削除", e);
+        }
+
+        allergenicControlService.evictMasks(targetIds);
+        revisionChainIndex.notifyDeleted(targets);
+        targets.forEach(item -> standardCompositionCache.notifyChanged(item.getFoodId(), item.getCategoryId()));
+        nameSearchIndex.notifyRawMaterialsDeleted(targetIds);
+        log.info("原材料を一括削除しました: 削除={}件, 指定={}件, businessAccountId={}",
+            targetIds.size(), requestedIds.size(), businessAccountId);
+        return outcomes;
+    }
+
+    /**
+     * 差分同期用に削除を記録（8訂・拡張の原材料は全ビジネスアカウントに配信する）
+     */
+    private void recordDeletion(FoodRawMaterial existing) {
+        Integer businessAccountId = StandardCompositionCacheService.isStandardCategory(existing.getCategoryId())
+            ? null : existing.getBusinessAccountId();
+        syncService.recordDeletion(SyncEntityType.RAW_MATERIAL, existing.getFoodId(), businessAccountId);
+    }
+
+    /**
+     * 単価が変わった場合は、使用している仕込品・半完成品の原価に反映
+     */
+    private void propagatePriceChange(FoodRawMaterial existing, FoodRawMaterial updated) {
+        if (Objects.equals(existing.getPricePerUnit(), updated.getPricePerUnit())
+                && Objects.equals(existing.getLastPricePerUnit(), updated.getLastPricePerUnit())) {
+            return;
+        }
+        Integer businessAccountId = updated.getBusinessAccountId() != null
+            ? updated.getBusinessAccountId() : existing.getBusinessAccountId();
+        recipeCostService.propagateRawMaterialPriceChange(businessAccountId, List.of(updated.getFoodId()));
+    }
+
+    /**
+     * 更新前後の食品番号のリビジョンチェーンを読み直す（食品番号・リビジョン番号の変更に対応）
+     */
+    private void notifyRevisionChainChanged(FoodRawMaterial existing, FoodRawMaterial updated) {
+        revisionChainIndex.notifyChanged(existing.getBusinessAccountId(), existing.getFoodNo());
+        Integer businessAccountId = updated.getBusinessAccountId() != null
+            ? updated.getBusinessAccountId() : existing.getBusinessAccountId();
+        if (!Objects.equals(businessAccountId, existing.getBusinessAccountId())
+                || !Objects.equals(updated.getFoodNo(), existing.getFoodNo())) {
+            revisionChainIndex.notifyChanged(businessAccountId, updated.getFoodNo());
+        }
+    }
 }
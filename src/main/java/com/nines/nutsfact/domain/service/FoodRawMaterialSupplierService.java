@@ -18,6 +18,7 @@ import java.util.List;
 public class FoodRawMaterialSupplierService {
 
     private final FoodRawMaterialSupplierRepository repository;
+    private final RawMaterialPricingService pricingService;
 
     @Transactional(readOnly = true)
     public List<FoodRawMaterialSupplier> findByFoodId(Integer foodId) {
@@ -64,6 +65,7 @@ public class FoodRawMaterialSupplierService {
 
             repository.insert(entity);
             // useGeneratedKeys により entity.id に自動設定される
+            pricingService.recalculate(entity.getBusinessAccountId(), entity.getFoodId());
 
             log.info("原材料仕入元情報を登録しました: ID={}, businessAccountId={}", entity.getId(), entity.getBusinessAccountId());
             return entity;
@@ -80,11 +82,12 @@ public class FoodRawMaterialSupplierService {
             throw new IllegalArgumentException("IDが指定されていません");
         }
 
-        repository.findById(entity.getId())
+        FoodRawMaterialSupplier existing = repository.findById(entity.getId())
             .orElseThrow(() -> new EntityNotFoundException("原材料仕入元情報", entity.getId()));
 
         try {
             repository.update(entity);
+            recalculateChanged(existing.getBusinessAccountId(), existing.getFoodId(), entity.getFoodId());
             log.info("原材料仕入元情報を更新しました: ID={}", entity.getId());
             return entity;
 
@@ -101,13 +104,14 @@ public class FoodRawMaterialSupplierService {
         }
 
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
-        repository.findByIdAndBusinessAccountId(entity.getId(), businessAccountId)
+        FoodRawMaterialSupplier existing = repository.findByIdAndBusinessAccountId(entity.getId(), businessAccountId)
             .orElseThrow(() -> new EntityNotFoundException("原材料仕入元情報", entity.getId()));
 
         entity.setBusinessAccountId(businessAccountId);
 
         try {
             repository.update(entity);
+            recalculateChanged(existing.getBusinessAccountId(), existing.getFoodId(), entity.getFoodId());
             log.info("原材料仕入元情報を更新しました: ID={}, businessAccountId={}", entity.getId(), businessAccountId);
             return entity;
 
@@ -119,11 +123,12 @@ public class FoodRawMaterialSupplierService {
 
     @Transactional
     public void delete(Integer id) {
-        repository.findById(id)
+        FoodRawMaterialSupplier existing = repository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("原材料仕入元情報", id));
 
         try {
             repository.delete(id);
+            pricingService.recalculate(existing.getBusinessAccountId(), existing.getFoodId());
             log.info("原材料仕入元情報を削除しました: ID={}", id);
 
         } catch (Exception e) {
@@ -136,11 +141,12 @@ public class FoodRawMaterialSupplierService {
     public void deleteWithBusinessAccountFilter(Integer id) {
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
 
-        repository.findByIdAndBusinessAccountId(id, businessAccountId)
+        FoodRawMaterialSupplier existing = repository.findByIdAndBusinessAccountId(id, businessAccountId)
             .orElseThrow(() -> new EntityNotFoundException("原材料仕入元情報", id));
 
         try {
             repository.deleteByIdAndBusinessAccountId(id, businessAccountId);
+            pricingService.recalculate(existing.getBusinessAccountId(), existing.getFoodId());
             log.info("原材料仕入元情報を削除しました: ID={}, businessAccountId={}", id, businessAccountId);
 
         } catch (Exception e) {
@@ -148,4 +154,14 @@ public class FoodRawMaterialSupplierService {
             throw new DataAccessFailedException("削除", e);
         }
     }
+
+    /**
+     * 仕入元情報の変更前後の原材料について単価を再計算（別の原材料に付け替えた場合は両方）
+     */
+    private void recalculateChanged(Integer businessAccountId, Integer previousFoodId, Integer foodId) {
+        pricingService.recalculate(businessAccountId, previousFoodId);
+        if (foodId != null && !foodId.equals(previousFoodId)) {
+            pricingService.recalculate(businessAccountId, foodId);
+        }
+    }
 }
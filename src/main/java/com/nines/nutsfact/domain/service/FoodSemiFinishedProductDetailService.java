@@ -3,6 +3,7 @@ package com.nines.nutsfact.domain.service;
 import com.nines.nutsfact.config.SecurityContextHelper;
 import com.nines.nutsfact.domain.model.FoodSemiFinishedProductDetail;
 import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductDetailRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
 import com.nines.nutsfact.exception.DataAccessFailedException;
 import com.nines.nutsfact.exception.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
 
 @Slf4j
@@ -18,6 +20,9 @@ import java.util.List;
 public class FoodSemiFinishedProductDetailService {
 
     private final FoodSemiFinishedProductDetailRepository repository;
+    private final FoodSemiFinishedProductRepository semiFinishedProductRepository;
+    private final WhereUsedIndexService whereUsedIndexService;
+    private final RecipeCostService recipeCostService;
 
     @Transactional(readOnly = true)
     public List<FoodSemiFinishedProductDetail> findBySemiId(Integer semiId) {
@@ -61,6 +66,9 @@ public class FoodSemiFinishedProductDetailService {
             repository.insert(entity);
             Integer newId = repository.getLastInsertId();
             entity.setDetailId(newId);
+            whereUsedIndexService.refreshSemiFinishedProduct(entity.getSemiId());
+            semiFinishedProductRepository.touchUpdateDate(Arrays.asList(entity.getSemiId()), entity.getBusinessAccountId());
+            recipeCostService.propagateSemiFinishedProductChange(entity.getBusinessAccountId(), Arrays.asList(entity.getSemiId()));
 
             log.info("半完成品明細を登録しました: ID={}", newId);
             return entity;
@@ -77,11 +85,15 @@ public class FoodSemiFinishedProductDetailService {
             throw new IllegalArgumentException("明細IDが指定されていません");
         }
 
-        repository.findById(entity.getDetailId())
+        FoodSemiFinishedProductDetail existing = repository.findById(entity.getDetailId())
             .orElseThrow(() -> new EntityNotFoundException("半完成品明細", entity.getDetailId()));
 
         try {
             repository.update(entity);
+            whereUsedIndexService.refreshSemiFinishedProduct(existing.getSemiId());
+            whereUsedIndexService.refreshSemiFinishedProduct(entity.getSemiId());
+            semiFinishedProductRepository.touchUpdateDate(Arrays.asList(existing.getSemiId(), entity.getSemiId()), existing.getBusinessAccountId());
+            recipeCostService.propagateSemiFinishedProductChange(existing.getBusinessAccountId(), Arrays.asList(existing.getSemiId(), entity.getSemiId()));
             log.info("半完成品明細を更新しました: ID={}", entity.getDetailId());
             return entity;
 
@@ -98,13 +110,17 @@ public class FoodSemiFinishedProductDetailService {
         }
 
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
-        repository.findByIdAndBusinessAccountId(entity.getDetailId(), businessAccountId)
+        FoodSemiFinishedProductDetail existing = repository.findByIdAndBusinessAccountId(entity.getDetailId(), businessAccountId)
             .orElseThrow(() -> new EntityNotFoundException("半完成品明細", entity.getDetailId()));
 
         entity.setBusinessAccountId(businessAccountId);
 
         try {
             repository.update(entity);
+            whereUsedIndexService.refreshSemiFinishedProduct(existing.getSemiId());
+            whereUsedIndexService.refreshSemiFinishedProduct(entity.getSemiId());
+            semiFinishedProductRepository.touchUpdateDate(Arrays.asList(existing.getSemiId(), entity.getSemiId()), businessAccountId);
+            recipeCostService.propagateSemiFinishedProductChange(businessAccountId, Arrays.asList(existing.getSemiId(), entity.getSemiId()));
             log.info("半完成品明細を更新しました: ID={}", entity.getDetailId());
             return entity;
 
@@ -116,11 +132,14 @@ public class FoodSemiFinishedProductDetailService {
 
     @Transactional
     public void delete(Integer id) {
-        repository.findById(id)
+        FoodSemiFinishedProductDetail existing = repository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("半完成品明細", id));
 
         try {
             repository.delete(id);
+            whereUsedIndexService.refreshSemiFinishedProduct(existing.getSemiId());
+            semiFinishedProductRepository.touchUpdateDate(Arrays.asList(existing.getSemiId()), existing.getBusinessAccountId());
+            recipeCostService.propagateSemiFinishedProductChange(existing.getBusinessAccountId(), Arrays.asList(existing.getSemiId()));
             log.info("半完成品明細を削除しました: ID={}", id);
 
         } catch (Exception e) {
@@ -132,11 +151,14 @@ public class FoodSemiFinishedProductDetailService {
     @Transactional
     public void deleteWithBusinessAccountFilter(Integer id) {
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
-        repository.findByIdAndBusinessAccountId(id, businessAccountId)
+        FoodSemiFinishedProductDetail existing = repository.findByIdAndBusinessAccountId(id, businessAccountId)
             .orElseThrow(() -> new EntityNotFoundException("半完成品明細", id));
 
         try {
             repository.deleteByIdAndBusinessAccountId(id, businessAccountId);
+            whereUsedIndexService.refreshSemiFinishedProduct(existing.getSemiId());
+            semiFinishedProductRepository.touchUpdateDate(Arrays.asList(existing.getSemiId()), businessAccountId);
+            recipeCostService.propagateSemiFinishedProductChange(businessAccountId, Arrays.asList(existing.getSemiId()));
             log.info("半完成品明細を削除しました: ID={}", id);
 
         } catch (Exception e) {
@@ -1,9 +1,11 @@
 package com.nines.nutsfact.domain.service;
 
 import com.nines.nutsfact.config.SecurityContextHelper;
+import com.nines.nutsfact.domain.model.BulkDeleteOutcome;
 import com.nines.nutsfact.domain.model.FoodSemiFinishedProduct;
 import com.nines.nutsfact.domain.model.FoodSemiFinishedProductDetail;
 import com.nines.nutsfact.domain.model.SelectItem;
+import com.nines.nutsfact.domain.model.sync.SyncEntityType;
 import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
 import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductDetailRepository;
 import com.nines.nutsfact.exception.DataAccessFailedException;
@@ -13,7 +15,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -22,6 +29,9 @@ public class FoodSemiFinishedProductService {
 
     private final FoodSemiFinishedProductRepository repository;
     private final FoodSemiFinishedProductDetailRepository detailRepository;
+    private final WhereUsedIndexService whereUsedIndexService;
+    private final SyncService syncService;
+    private final RecipeCostService recipeCostService;
 
     @Transactional(readOnly = true)
     public List<FoodSemiFinishedProduct> findAll() {
@@ -96,8 +106,11 @@ public class FoodSemiFinishedProductService {
                 }
             }
 
+            // 原価は送信された値ではなく明細から積み上げた値にする
+            recipeCostService.propagateSemiFinishedProductChange(entity.getBusinessAccountId(), List.of(newId));
             updateSummary(entity);
             repository.update(entity);
+            whereUsedIndexService.refreshSemiFinishedProduct(newId);
 
             log.info("半完成品を登録しました: ID={}", newId);
             return entity;
@@ -114,10 +127,11 @@ public class FoodSemiFinishedProductService {
             throw new IllegalArgumentException("半完成品IDが指定されていません");
         }
 
-        repository.findById(entity.getSemiId())
+        FoodSemiFinishedProduct existing = repository.findById(entity.getSemiId())
             .orElseThrow(() -> new EntityNotFoundException("半完成品", entity.getSemiId()));
 
         try {
+            recipeCostService.propagateSemiFinishedProductChange(existing.getBusinessAccountId(), List.of(entity.getSemiId()));
             updateSummary(entity);
             repository.update(entity);
 
@@ -179,8 +193,11 @@ public class FoodSemiFinishedProductService {
                 }
             }
 
+            // 原価は送信された値ではなく明細から積み上げた値にする
+            recipeCostService.propagateSemiFinishedProductChange(businessAccountId, List.of(entity.getSemiId()));
             updateSummary(entity);
             repository.update(entity);
+            whereUsedIndexService.refreshSemiFinishedProduct(entity.getSemiId());
 
             // 更新後の明細を再取得してセット
             List<FoodSemiFinishedProductDetail> updatedDetails = detailRepository.findBySemiIdAndBusinessAccountId(
@@ -198,12 +215,14 @@ public class FoodSemiFinishedProductService {
 
     @Transactional
     public void delete(Integer id) {
-        repository.findById(id)
+        FoodSemiFinishedProduct existing = repository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("半完成品", id));
 
         try {
             detailRepository.deleteBySemiId(id);
             repository.delete(id);
+            syncService.recordDeletion(SyncEntityType.SEMI_FINISHED_PRODUCT, id, existing.getBusinessAccountId());
+            whereUsedIndexService.refreshSemiFinishedProduct(id);
             log.info("半完成品を削除しました: ID={}", id);
 
         } catch (Exception e) {
@@ -221,6 +240,8 @@ public class FoodSemiFinishedProductService {
         try {
             detailRepository.deleteBySemiIdAndBusinessAccountId(id, businessAccountId);
             repository.deleteByIdAndBusinessAccountId(id, businessAccountId);
+            syncService.recordDeletion(SyncEntityType.SEMI_FINISHED_PRODUCT, id, businessAccountId);
+            whereUsedIndexService.refreshSemiFinishedProduct(id);
             log.info("半完成品を削除しました: ID={}", id);
 
         } catch (Exception e) {
@@ -229,6 +250,48 @@ public class FoodSemiFinishedProductService {
         }
     }
 
+    /**
+     * 半完成品の一括削除（businessAccountIdでのフィルタリング付き）
+     * 存在確認、明細と半完成品の削除を、それぞれ1回のSQLで行う。
+     * 見つからない半完成品は削除せず、IDごとの結果として返す
+     */
+    @Transactional
+    public List<BulkDeleteOutcome> deleteAllWithBusinessAccountFilter(Collection<Integer> ids) {
+        Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
+        Set<Integer> requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+        if (requestedIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Integer> existing = new LinkedHashMap<>();
+        for (FoodSemiFinishedProduct item : repository.findDeleteTargets(requestedIds, businessAccountId)) {
+            existing.put(item.getSemiId(), item.getBusinessAccountId());
+        }
+        List<BulkDeleteOutcome> outcomes = requestedIds.stream()
+            .map(id -> existing.containsKey(id) ? BulkDeleteOutcome.deleted(id) : BulkDeleteOutcome.notFound(id))
+            .toList();
+        if (existing.isEmpty()) {
+            return outcomes;
+        }
+
+        Set<Integer> targetIds = existing.keySet();
+        try {
+            detailRepository.deleteBySemiIdsAndBusinessAccountId(targetIds, businessAccountId);
+            repository.deleteByIdsAndBusinessAccountId(targetIds, businessAccountId);
+            syncService.recordDeletions(SyncEntityType.SEMI_FINISHED_PRODUCT, existing);
+
+        } catch (Exception e) {
+            log.error("半完成品の一括削除に失敗: 件数={}, {}", targetIds.size(), e.getMessage(), e);
+            throw new DataAccessFailedException("一括削除", e);
+        }
+
+        whereUsedIndexService.removeSemiFinishedProducts(targetIds);
+        log.info("半完成品を一括削除しました: 削除={}件, 指定={}件, businessAccountId={}",
+            targetIds.size(), requestedIds.size(), businessAccountId);
+        return outcomes;
+    }
+
     @Transactional
     public void updateAllergenSummary(Integer id, String allergenSummary) {
         repository.findById(id)
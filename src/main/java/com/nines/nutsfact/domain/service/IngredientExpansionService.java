@@ -1,10 +1,7 @@
 package com.nines.nutsfact.domain.service;
 
-import com.nines.nutsfact.domain.model.*;
-import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
-import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
+import com.nines.nutsfact.domain.model.FoodRawMaterial;
 import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
-import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductDetailRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,19 +18,13 @@ import java.util.stream.Collectors;
 @Service
 public class IngredientExpansionService {
 
-    private final FoodSemiFinishedProductDetailRepository semiDetailRepository;
-    private final FoodPreProductDetailRepository preProductDetailRepository;
-    private final FoodPreProductRepository preProductRepository;
+    private final RecipeGraphService recipeGraphService;
     private final FoodRawMaterialRepository rawMaterialRepository;
 
     public IngredientExpansionService(
-            FoodSemiFinishedProductDetailRepository semiDetailRepository,
-            FoodPreProductDetailRepository preProductDetailRepository,
-            FoodPreProductRepository preProductRepository,
+            RecipeGraphService recipeGraphService,
             FoodRawMaterialRepository rawMaterialRepository) {
-        this.semiDetailRepository = semiDetailRepository;
-        this.preProductDetailRepository = preProductDetailRepository;
-        this.preProductRepository = preProductRepository;
+        this.recipeGraphService = recipeGraphService;
         this.rawMaterialRepository = rawMaterialRepository;
     }
 
@@ -82,137 +73,47 @@ public class IngredientExpansionService {
      */
     @Transactional(readOnly = true)
     public ExpandedIngredientsResponse expand(Integer semiId) {
-        List<FoodSemiFinishedProductDetail> details = semiDetailRepository.findBySemiId(semiId);
-        Set<Integer> visitedPreIds = new HashSet<>();
-
-        List<ExpandedIngredient> expandedList = new ArrayList<>();
-
-        for (FoodSemiFinishedProductDetail detail : details) {
-            Float weight = detail.getWeight() != null ? detail.getWeight() : 0f;
-
-            if (Boolean.TRUE.equals(detail.getComponentKb())) {
-                // 仕込品の場合: 再帰的に展開
-                Integer preId = detail.getDetailPreId();
-                if (preId != null && !visitedPreIds.contains(preId)) {
-                    expandPreProduct(preId, weight.doubleValue(), visitedPreIds, expandedList);
-                }
-            } else {
-                // 原材料の場合: 直接追加
-                addRawMaterialIngredient(detail, weight.doubleValue(), expandedList);
-            }
-        }
-
-        return new ExpandedIngredientsResponse(expandedList, LocalDateTime.now());
+        IngredientAccumulator accumulator = newAccumulator();
+        recipeGraphService.traverse(semiId, accumulator);
+        return accumulator.toResponse();
     }
 
     /**
-     * 仕込品を再帰的に展開
+     * レシピグラフ走査用の原材料集計器を生成
      */
-    private void expandPreProduct(Integer preId, Double preProductWeight,
-                                   Set<Integer> visitedPreIds, List<ExpandedIngredient> expandedList) {
-        if (preId == null || visitedPreIds.contains(preId)) {
-            log.warn("循環参照を検出またはnullのpreId: preId={}", preId);
-            return;
-        }
-
-        visitedPreIds.add(preId);
-
-        // 仕込品の総重量を取得
-        FoodPreProductItem preProduct = preProductRepository.findById(preId).orElse(null);
-        if (preProduct == null) {
-            log.warn("仕込品が見つかりません: preId={}", preId);
-            return;
-        }
-
-        Float totalWeight = preProduct.getWeightSum();
-        if (totalWeight == null || totalWeight <= 0) {
-            // weightSumがない場合は明細から計算
-            List<FoodPreProductDetailItem> preDetails = preProductDetailRepository.findByPreId(preId);
-            totalWeight = (float) preDetails.stream()
-                .mapToDouble(d -> d.getWeight() != null ? d.getWeight() : 0f)
-                .sum();
-        }
-
-        if (totalWeight <= 0) {
-            return;
-        }
-
-        // 使用比率を計算
-        double ratio = preProductWeight / totalWeight;
-
-        List<FoodPreProductDetailItem> preDetails = preProductDetailRepository.findByPreId(preId);
-
-        for (FoodPreProductDetailItem preDetail : preDetails) {
-            Float detailWeight = preDetail.getWeight() != null ? preDetail.getWeight() : 0f;
-            double adjustedWeight = detailWeight * ratio;
-
-            if (Boolean.TRUE.equals(preDetail.getComponentKb())) {
-                // 仕込品内の仕込品（ネスト）: 再帰的に展開
-                Integer nestedPreId = preDetail.getDetailPreId();
-                if (nestedPreId != null && !visitedPreIds.contains(nestedPreId)) {
-                    expandPreProduct(nestedPreId, adjustedWeight, visitedPreIds, expandedList);
-                }
-            } else {
-                // 原材料: 展開リストに追加
-                addPreProductDetailIngredient(preDetail, adjustedWeight, expandedList);
-            }
-        }
+    public IngredientAccumulator newAccumulator() {
+        return new IngredientAccumulator();
     }
 
     /**
-     * 半完成品明細の原材料を展開リストに追加
+     * 原材料集計器
+     * 末端原材料をラベル表示名付きの展開リストに追加する
      */
-    private void addRawMaterialIngredient(FoodSemiFinishedProductDetail detail,
-                                           Double weight, List<ExpandedIngredient> expandedList) {
-        Integer foodId = detail.getDetailFoodId();
-        if (foodId == null || weight <= 0) {
-            return;
-        }
+    public class IngredientAccumulator implements RecipeGraphService.LeafAccumulator {
+        private final List<ExpandedIngredient> expandedList = new ArrayList<>();
 
-        // ラベル表示名を決定（labelDisplayName > displayName > foodName）
-        String labelDisplayName = detail.getLabelDisplayName();
-        if (labelDisplayName == null || labelDisplayName.isEmpty()) {
-            labelDisplayName = detail.getDetailFoodName();
-        }
-        if (labelDisplayName == null || labelDisplayName.isEmpty()) {
-            // DBから原材料情報を取得
-            FoodRawMaterial rawMaterial = rawMaterialRepository.findById(foodId).orElse(null);
-            if (rawMaterial != null) {
-                labelDisplayName = rawMaterial.getDisplayName();
-                if (labelDisplayName == null || labelDisplayName.isEmpty()) {
-                    labelDisplayName = rawMaterial.getFoodName();
-                }
-            }
+        @Override
+        public void accept(RecipeGraphService.RecipeLeaf leaf) {
+            expandedList.add(new ExpandedIngredient(
+                leaf.foodId(), resolveLabelDisplayName(leaf), leaf.effectiveWeight(), leaf.composite()));
         }
 
-        if (labelDisplayName == null || labelDisplayName.isEmpty()) {
-            labelDisplayName = "不明な原材料";
+        public ExpandedIngredientsResponse toResponse() {
+            return new ExpandedIngredientsResponse(expandedList, LocalDateTime.now());
         }
-
-        Boolean isComposite = detail.getCompositeRawMaterialsKb() != null
-            ? detail.getCompositeRawMaterialsKb() : false;
-
-        expandedList.add(new ExpandedIngredient(foodId, labelDisplayName, weight, isComposite));
     }
 
     /**
-     * 仕込品明細の原材料を展開リストに追加
+     * ラベル表示名を決定（labelDisplayName > detailFoodName > displayName > foodName）
      */
-    private void addPreProductDetailIngredient(FoodPreProductDetailItem detail,
-                                                Double weight, List<ExpandedIngredient> expandedList) {
-        Integer foodId = detail.getDetailFoodId();
-        if (foodId == null || weight <= 0) {
-            return;
-        }
-
-        // ラベル表示名を決定
-        String labelDisplayName = detail.getLabelDisplayName();
+    private String resolveLabelDisplayName(RecipeGraphService.RecipeLeaf leaf) {
+        String labelDisplayName = leaf.labelDisplayName();
         if (labelDisplayName == null || labelDisplayName.isEmpty()) {
-            labelDisplayName = detail.getDetailFoodName();
+            labelDisplayName = leaf.detailFoodName();
         }
         if (labelDisplayName == null || labelDisplayName.isEmpty()) {
             // DBから原材料情報を取得
-            FoodRawMaterial rawMaterial = rawMaterialRepository.findById(foodId).orElse(null);
+            FoodRawMaterial rawMaterial = rawMaterialRepository.findById(leaf.foodId()).orElse(null);
             if (rawMaterial != null) {
                 labelDisplayName = rawMaterial.getDisplayName();
                 if (labelDisplayName == null || labelDisplayName.isEmpty()) {
@@ -224,11 +125,7 @@ public class IngredientExpansionService {
         if (labelDisplayName == null || labelDisplayName.isEmpty()) {
             labelDisplayName = "不明な原材料";
         }
-
-        Boolean isComposite = detail.getCompositeRawMaterialsKb() != null
-            ? detail.getCompositeRawMaterialsKb() : false;
-
-        expandedList.add(new ExpandedIngredient(foodId, labelDisplayName, weight, isComposite));
+        return labelDisplayName;
     }
 
     /**
@@ -8,6 +8,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.nines.nutsfact.config.SecurityContextHelper;
 import com.nines.nutsfact.domain.model.master.Maker;
 import com.nines.nutsfact.domain.repository.MakerRepository;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.exception.ResourceNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -17,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 public class MakerService {
 
     private final MakerRepository makerRepository;
+    private final MasterDataVersionService masterDataVersion;
 
     public List<Maker> findAll() {
         return makerRepository.findAll();
@@ -50,14 +52,16 @@ public class MakerService {
         }
         maker.setBusinessAccountId(businessAccountId);
         makerRepository.save(maker);
+        masterDataVersion.notifyChanged(MasterResource.MAKER, businessAccountId);
         return maker;
     }
 
     @Transactional
     public Maker update(Integer makerId, Maker maker) {
-        findById(makerId);
+        Maker existing = findById(makerId);
         maker.setMakerId(makerId);
         makerRepository.save(maker);
+        masterDataVersion.notifyChanged(MasterResource.MAKER, existing.getBusinessAccountId());
         return maker;
     }
 
@@ -69,13 +73,15 @@ public class MakerService {
         maker.setMakerId(makerId);
         maker.setBusinessAccountId(businessAccountId);
         makerRepository.save(maker);
+        masterDataVersion.notifyChanged(MasterResource.MAKER, businessAccountId);
         return maker;
     }
 
     @Transactional
     public void delete(Integer makerId) {
-        findById(makerId);
+        Maker existing = findById(makerId);
         makerRepository.delete(makerId);
+        masterDataVersion.notifyChanged(MasterResource.MAKER, existing.getBusinessAccountId());
     }
 
     @Transactional
@@ -84,5 +90,6 @@ public class MakerService {
         makerRepository.findByIdAndBusinessAccountId(makerId, businessAccountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Maker", makerId));
         makerRepository.deleteByIdAndBusinessAccountId(makerId, businessAccountId);
+        masterDataVersion.notifyChanged(MasterResource.MAKER, businessAccountId);
     }
 }
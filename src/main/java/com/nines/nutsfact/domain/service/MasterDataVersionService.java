@@ -0,0 +1,104 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.config.SecurityContextHelper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * マスタデータのバージョン管理サービス
+ * 単位・食品群・重量変換テーブル・分類カテゴリ・製造元・販売者・仕入先について、
+ * ビジネスアカウントごとの更新回数を数えてETagを生成する。
+ * ETagが一致する一覧リクエストはDBを参照せずに304 Not Modifiedを返す
+ */
+@Service
+public class MasterDataVersionService {
+
+    // ビジネスアカウントで絞り込まない一覧のキー
+    private static final int ALL_BUSINESS_ACCOUNTS = 0;
+
+    // 再起動前に発行したETagと一致しないよう、起動ごとに異なる値をETagに含める
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Key, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * バージョン管理の対象マスタ
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum MasterResource {
+        UNIT("unit"),
+        FOOD_GROUP("food-group"),
+        CONVERSION_TABLE("conversion-table"),
+        CLASS_CATEGORY("class-category"),
+        MAKER("maker"),
+        SELLER("seller"),
+        SUPPLIER("supplier");
+
+        private final String code;
+    }
+
+    private record Key(MasterResource resource, int businessAccountId) {}
+
+    /**
+     * 現在のバージョン（一度も更新されていない場合は0）
+     * @param businessAccountId nullの場合はビジネスアカウントで絞り込まない一覧のバージョン
+     */
+    public long getVersion(MasterResource resource, Integer businessAccountId) {
+        AtomicLong version = versions.get(key(resource, businessAccountId));
+        return version != null ? version.get() : 0;
+    }
+
+    /**
+     * 一覧のETagを生成
+     * @param businessAccountId nullの場合はビジネスアカウントで絞り込まない一覧
+     * @param variant 同じマスタの異なるレスポンス（絞り込み条件・形式）を区別する文字列
+     */
+    public String etag(MasterResource resource, Integer businessAccountId, String variant) {
+        return "\"" + resource.getCode() + "-" + variant
+            + "-" + (businessAccountId != null ? businessAccountId : "all")
+            + "-" + epoch + "." + getVersion(resource, businessAccountId) + "\"";
+    }
+
+    /**
+     * ログインユーザーのビジネスアカウントで絞り込んだ一覧のETagを生成
+     */
+    public String etagForCurrentBusinessAccount(MasterResource resource, String variant) {
+        return etag(resource, SecurityContextHelper.getCurrentBusinessAccountId(), variant);
+    }
+
+    /**
+     * マスタの更新を通知
+     * コミット前にバージョンを上げると、更新前のデータが新しいETagで返されるため、コミット後に上げる
+     * @param businessAccountId 更新したデータのビジネスアカウント（共通マスタはnull）
+     */
+    public void notifyChanged(MasterResource resource, Integer businessAccountId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(resource, businessAccountId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(resource, businessAccountId);
+            }
+        });
+    }
+
+    private void increment(MasterResource resource, Integer businessAccountId) {
+        versions.computeIfAbsent(key(resource, null), k -> new AtomicLong()).incrementAndGet();
+        if (businessAccountId != null) {
+            versions.computeIfAbsent(key(resource, businessAccountId), k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private static Key key(MasterResource resource, Integer businessAccountId) {
+        return new Key(resource, businessAccountId != null ? businessAccountId : ALL_BUSINESS_ACCOUNTS);
+    }
+}
@@ -0,0 +1,520 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.config.SecurityContextHelper;
+import com.nines.nutsfact.domain.model.FoodPreProductItem;
+import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.additive.Additive;
+import com.nines.nutsfact.domain.repository.AdditiveRepository;
+import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 名称検索インデックスサービス
+ * 原材料・仕込品・添加物の名称をプロセス内のバイグラム転置インデックスで検索する。
+ * 文字列はNFKC正規化（全角英数・半角カナの統一）、小文字化、カタカナのひらがな化を行ってから分割する。
+ * インデックスはビジネスアカウントごとに分かれており、8訂・拡張の原材料は全ビジネスアカウント共通の区画に置く
+ */
+@Slf4j
+@Service
+public class NameSearchIndexService {
+
+    // 全ビジネスアカウント共通の区画（category_id=1, 2の原材料）
+    private static final int SHARED_PARTITION = 0;
+
+    // 1回の検索で返す最大件数
+    public static final int MAX_LIMIT = 100;
+
+    private final FoodRawMaterialRepository rawMaterialRepository;
+    private final FoodPreProductRepository preProductRepository;
+    private final AdditiveRepository additiveRepository;
+
+    private final Map<Integer, Partition> partitions = new ConcurrentHashMap<>();
+    // 文書キー → 登録先の区画（更新時に旧区画から取り除くため）
+    private final Map<Long, Integer> partitionByDocument = new ConcurrentHashMap<>();
+
+    public NameSearchIndexService(
+            FoodRawMaterialRepository rawMaterialRepository,
+            FoodPreProductRepository preProductRepository,
+            AdditiveRepository additiveRepository) {
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.preProductRepository = preProductRepository;
+        this.additiveRepository = additiveRepository;
+    }
+
+    /**
+     * 検索対象の種類
+     */
+    public enum DocumentType {
+        RAW_MATERIAL,   // 原材料
+        PRE_PRODUCT,    // 仕込品
+        ADDITIVE;       // 添加物
+
+        /**
+         * typesパラメータから種類を取得（raw-material, raw_material のどちらでも可）
+         */
+        public static DocumentType fromCode(String code) {
+            try {
+                return valueOf(code.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    "typesにはraw-material, pre-product, additiveのいずれかを指定してください: " + code);
+            }
+        }
+    }
+
+    /**
+     * 検索結果
+     * @param matchedText 一致した項目の値
+     * @param score 一致の度合い（完全一致 > 前方一致 > 部分一致、名称の一致を優先）
+     */
+    public record SearchHit(
+            DocumentType type,
+            Integer id,
+            String name,
+            String displayName,
+            String matchedText,
+            int score
+    ) {}
+
+    /**
+     * 検索対象の文書
+     * fields の先頭 NAME_FIELD_COUNT 件は名称（一致時にスコアを加算）
+     */
+    private record Document(DocumentType type, int id, String name, String displayName,
+                            String[] fields, String[] normalizedFields) {
+        private static final int NAME_FIELD_COUNT = 2;
+
+        long key() {
+            return documentKey(type, id);
+        }
+    }
+
+    /**
+     * ビジネスアカウントごとの転置インデックス（トークン → 文書キー）
+     */
+    private static final class Partition {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+
+        private void add(Document document) {
+            documents.put(document.key(), document);
+            for (String token : tokenize(document.normalizedFields())) {
+                postings.computeIfAbsent(token, k -> new HashSet<>()).add(document.key());
+            }
+        }
+
+        private void remove(long key) {
+            Document document = documents.remove(key);
+            if (document == null) {
+                return;
+            }
+            for (String token : tokenize(document.normalizedFields())) {
+                Set<Long> keys = postings.get(token);
+                if (keys != null) {
+                    keys.remove(key);
+                    if (keys.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 起動時に全件のインデックスを構築
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 現在のユーザーのビジネスアカウントで検索
+     * ビジネスアカウントに所属していない場合は8訂・拡張の原材料のみを対象とする
+     */
+    public List<SearchHit> search(String query, Set<DocumentType> types, int limit) {
+        return search(SecurityContextHelper.getCurrentBusinessAccountId(), query, types, limit);
+    }
+
+    /**
+     * 名称で検索（前方一致・部分一致）
+     * クエリのバイグラムを全て含む文書に絞り込み、正規化後の項目値に部分文字列として含まれるものを返す
+     */
+    public List<SearchHit> search(Integer businessAccountId, String query, Set<DocumentType> types, int limit) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return List.of();
+        }
+        int effectiveLimit = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        Set<DocumentType> targetTypes = types == null || types.isEmpty()
+            ? EnumSet.allOf(DocumentType.class) : types;
+        List<String> queryTokens = queryTokens(normalizedQuery);
+
+        List<SearchHit> hits = new ArrayList<>();
+        searchPartition(partitions.get(SHARED_PARTITION), normalizedQuery, queryTokens, targetTypes, hits);
+        if (businessAccountId != null && businessAccountId != SHARED_PARTITION) {
+            searchPartition(partitions.get(businessAccountId), normalizedQuery, queryTokens, targetTypes, hits);
+        }
+
+        hits.sort(Comparator.comparingInt(SearchHit::score).reversed()
+            .thenComparingInt(hit -> hit.name() != null ? hit.name().length() : Integer.MAX_VALUE)
+            .thenComparing(SearchHit::type)
+            .thenComparing(SearchHit::id));
+        return hits.size() > effectiveLimit ? new ArrayList<>(hits.subList(0, effectiveLimit)) : hits;
+    }
+
+    private void searchPartition(Partition partition, String normalizedQuery, List<String> queryTokens,
+                                 Set<DocumentType> types, List<SearchHit> hits) {
+        if (partition == null) {
+            return;
+        }
+        partition.lock.readLock().lock();
+        try {
+            // 件数の少ないトークンから順に絞り込む
+            List<Set<Long>> candidates = new ArrayList<>(queryTokens.size());
+            for (String token : queryTokens) {
+                Set<Long> keys = partition.postings.get(token);
+                if (keys == null) {
+                    return;
+                }
+                candidates.add(keys);
+            }
+            candidates.sort(Comparator.comparingInt(Set::size));
+
+            for (Long key : candidates.get(0)) {
+                if (!containsAll(candidates, key)) {
+                    continue;
+                }
+                Document document = partition.documents.get(key);
+                if (document == null || !types.contains(document.type())) {
+                    continue;
+                }
+                SearchHit hit = score(document, normalizedQuery);
+                if (hit != null) {
+                    hits.add(hit);
+                }
+            }
+        } finally {
+            partition.lock.readLock().unlock();
+        }
+    }
+
+    private static boolean containsAll(List<Set<Long>> candidates, Long key) {
+        for (int i = 1; i < candidates.size(); i++) {
+            if (!candidates.get(i).contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 一致の度合いを評価（バイグラムが全て含まれても連続していない場合はnull）
+     */
+    private static SearchHit score(Document document, String normalizedQuery) {
+        int bestScore = 0;
+        String matchedText = null;
+        String[] normalizedFields = document.normalizedFields();
+        for (int i = 0; i < normalizedFields.length; i++) {
+            String field = normalizedFields[i];
+            if (field == null) {
+                continue;
+            }
+            int index = field.indexOf(normalizedQuery);
+            if (index < 0) {
+                continue;
+            }
+            int score = field.length() == normalizedQuery.length() ? 300 : index == 0 ? 200 : 100;
+            if (i < Document.NAME_FIELD_COUNT) {
+                score += 50;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                matchedText = document.fields()[i];
+            }
+        }
+        if (bestScore == 0) {
+            return null;
+        }
+        return new SearchHit(document.type(), document.id(), document.name(), document.displayName(),
+            matchedText, bestScore);
+    }
+
+    // ========== インデックスの更新 ==========
+
+    /**
+     * 全件のインデックスを構築して差し替える
+     */
+    public synchronized void rebuild() {
+        try {
+            Map<Integer, Partition> rebuilt = new HashMap<>();
+            Map<Long, Integer> rebuiltPartitionByDocument = new HashMap<>();
+
+            List<Document> documents = new ArrayList<>();
+            List<Integer> partitionIds = new ArrayList<>();
+            for (FoodRawMaterial item : rawMaterialRepository.findSummaries(null, null, null, null)) {
+                collect(toDocument(item), partitionOf(item), documents, partitionIds);
+            }
+            for (FoodPreProductItem item : preProductRepository.findAll()) {
+                collect(toDocument(item), item.getBusinessAccountId(), documents, partitionIds);
+            }
+            for (Additive item : additiveRepository.findAll()) {
+                collect(toDocument(item), partitionOf(item), documents, partitionIds);
+            }
+            for (int i = 0; i < documents.size(); i++) {
+                Document document = documents.get(i);
+                rebuilt.computeIfAbsent(partitionIds.get(i), k -> new Partition()).add(document);
+                rebuiltPartitionByDocument.put(document.key(), partitionIds.get(i));
+            }
+
+            partitions.keySet().retainAll(rebuilt.keySet());
+            partitions.putAll(rebuilt);
+            partitionByDocument.clear();
+            partitionByDocument.putAll(rebuiltPartitionByDocument);
+            log.info("名称検索インデックスを構築しました: 文書数={}, 区画数={}", documents.size(), rebuilt.size());
+        } catch (Exception e) {
+            log.error("名称検索インデックスの構築に失敗: {}", e.getMessage(), e);
+        }
+    }
+
+    private static void collect(Document document, Integer partitionId,
+                                List<Document> documents, List<Integer> partitionIds) {
+        if (document != null && partitionId != null) {
+            documents.add(document);
+            partitionIds.add(partitionId);
+        }
+    }
+
+    /**
+     * 原材料の変更を通知（コミット後にDBから読み直してインデックスを更新）
+     */
+    public void notifyRawMaterialChanged(Integer foodId) {
+        if (foodId != null) {
+            afterCommit(() -> refreshRawMaterial(foodId));
+        }
+    }
+
+    /**
+     * 仕込品の変更を通知（コミット後にDBから読み直してインデックスを更新）
+     */
+    public void notifyPreProductChanged(Integer preId) {
+        if (preId != null) {
+            afterCommit(() -> refreshPreProduct(preId));
+        }
+    }
+
+    /**
+     * 添加物の変更を通知（コミット後にDBから読み直してインデックスを更新）
+     */
+    public void notifyAdditiveChanged(Integer additiveId) {
+        if (additiveId != null) {
+            afterCommit(() -> refreshAdditive(additiveId));
+        }
+    }
+
+    /**
+     * 原材料の一括削除を通知（コミット後にDBを参照せずインデックスから取り除く）
+     */
+    public void notifyRawMaterialsDeleted(Collection<Integer> foodIds) {
+        List<Long> keys = foodIds.stream().map(id -> documentKey(DocumentType.RAW_MATERIAL, id)).toList();
+        afterCommit(() -> removeAll(keys));
+    }
+
+    /**
+     * 仕込品の一括削除を通知（コミット後にDBを参照せずインデックスから取り除く）
+     */
+    public void notifyPreProductsDeleted(Collection<Integer> preIds) {
+        List<Long> keys = preIds.stream().map(id -> documentKey(DocumentType.PRE_PRODUCT, id)).toList();
+        afterCommit(() -> removeAll(keys));
+    }
+
+    private synchronized void removeAll(List<Long> keys) {
+        keys.forEach(key -> put(key, null, null));
+    }
+
+    /**
+     * 一括登録後など、個別に通知できない変更の後にインデックス全体を再構築
+     */
+    public void rebuildAfterCommit() {
+        afterCommit(this::rebuild);
+    }
+
+    public synchronized void refreshRawMaterial(Integer foodId) {
+        Optional<FoodRawMaterial> item = rawMaterialRepository.findById(foodId);
+        put(documentKey(DocumentType.RAW_MATERIAL, foodId),
+            item.map(NameSearchIndexService::toDocument).orElse(null),
+            item.map(NameSearchIndexService::partitionOf).orElse(null));
+    }
+
+    public synchronized void refreshPreProduct(Integer preId) {
+        Optional<FoodPreProductItem> item = preProductRepository.findById(preId);
+        put(documentKey(DocumentType.PRE_PRODUCT, preId),
+            item.map(NameSearchIndexService::toDocument).orElse(null),
+            item.map(FoodPreProductItem::getBusinessAccountId).orElse(null));
+    }
+
+    public synchronized void refreshAdditive(Integer additiveId) {
+        Optional<Additive> item = additiveRepository.findById(additiveId);
+        put(documentKey(DocumentType.ADDITIVE, additiveId),
+            item.map(NameSearchIndexService::toDocument).orElse(null),
+            item.map(NameSearchIndexService::partitionOf).orElse(null));
+    }
+
+    /**
+     * 文書を登録先の区画に置き換える（documentまたはpartitionIdがnullの場合は削除のみ）
+     */
+    private void put(long key, Document document, Integer partitionId) {
+        Integer previousPartitionId = partitionByDocument.remove(key);
+        if (previousPartitionId != null) {
+            Partition previous = partitions.get(previousPartitionId);
+            if (previous != null) {
+                withWriteLock(previous, () -> previous.remove(key));
+            }
+        }
+        if (document == null || partitionId == null) {
+            return;
+        }
+        Partition partition = partitions.computeIfAbsent(partitionId, k -> new Partition());
+        withWriteLock(partition, () -> partition.add(document));
+        partitionByDocument.put(key, partitionId);
+    }
+
+    private static void withWriteLock(Partition partition, Runnable action) {
+        partition.lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            partition.lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // ========== 文書への変換 ==========
+
+    private static Integer partitionOf(FoodRawMaterial item) {
+        return StandardCompositionCacheService.isStandardCategory(item.getCategoryId())
+            ? SHARED_PARTITION : item.getBusinessAccountId();
+    }
+
+    private static Integer partitionOf(Additive item) {
+        // 無効な添加物は検索対象外
+        return Boolean.FALSE.equals(item.getIsActive()) ? null : item.getBusinessAccountId();
+    }
+
+    private static Document toDocument(FoodRawMaterial item) {
+        return document(DocumentType.RAW_MATERIAL, item.getFoodId(), item.getFoodName(), item.getDisplayName(),
+            item.getFoodName(), item.getDisplayName(),
+            item.getFoodFukuBunrui(), item.getFoodRuiKubun(), item.getFoodDaiBunrui(),
+            item.getFoodCyuBunrui(), item.getFoodSyoBunrui(), item.getFoodSaibun(), item.getHashtag());
+    }
+
+    private static Document toDocument(FoodPreProductItem item) {
+        return document(DocumentType.PRE_PRODUCT, item.getPreId(), item.getPreName(), item.getDisplayName(),
+            item.getPreName(), item.getDisplayName());
+    }
+
+    private static Document toDocument(Additive item) {
+        return document(DocumentType.ADDITIVE, item.getAdditiveId(), item.getSubstanceName(), item.getSimplifiedName(),
+            item.getSubstanceName(), item.getSimplifiedName(), item.getAdditiveCode());
+    }
+
+    private static Document document(DocumentType type, Integer id, String name, String displayName, String... fields) {
+        if (id == null) {
+            return null;
+        }
+        String[] normalizedFields = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            String normalized = normalize(fields[i]);
+            normalizedFields[i] = normalized.isEmpty() ? null : normalized;
+        }
+        return new Document(type, id, name, displayName, fields, normalizedFields);
+    }
+
+    private static long documentKey(DocumentType type, int id) {
+        return ((long) type.ordinal() << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    // ========== 正規化・トークン分割 ==========
+
+    /**
+     * 検索用に正規化
+     * NFKC（全角英数→半角、半角カナ→全角）、小文字化、カタカナ→ひらがな、空白の除去
+     */
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String nfkc = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder builder = new StringBuilder(nfkc.length());
+        for (int i = 0; i < nfkc.length(); i++) {
+            char c = nfkc.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            // ァ(U+30A1)〜ヶ(U+30F6) → ぁ(U+3041)〜ゖ(U+3096)
+            if (c >= 'ァ' && c <= 'ヶ') {
+                c = (char) (c - 0x60);
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * インデックスに登録するトークン（1文字と2文字の部分文字列）
+     */
+    private static Set<String> tokenize(String[] normalizedFields) {
+        Set<String> tokens = new HashSet<>();
+        for (String field : normalizedFields) {
+            if (field == null) {
+                continue;
+            }
+            for (int i = 0; i < field.length(); i++) {
+                tokens.add(field.substring(i, i + 1));
+                if (i + 1 < field.length()) {
+                    tokens.add(field.substring(i, i + 2));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * クエリのトークン（1文字の場合はその文字、2文字以上はバイグラム）
+     */
+    private static List<String> queryTokens(String normalizedQuery) {
+        if (normalizedQuery.length() == 1) {
+            return List.of(normalizedQuery);
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < normalizedQuery.length(); i++) {
+            tokens.add(normalizedQuery.substring(i, i + 2));
+        }
+        return new ArrayList<>(tokens);
+    }
+}
@@ -0,0 +1,219 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProduct;
+import com.nines.nutsfact.domain.model.nutrition.NutrientVector;
+import com.nines.nutsfact.domain.model.nutrition.NutritionBasic;
+import com.nines.nutsfact.domain.model.nutrition.NutritionMinerals;
+import com.nines.nutsfact.domain.model.nutrition.NutritionVitamins;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * 栄養成分合算サービス
+ * 半完成品の構成ツリーを展開し、末端原材料の栄養成分（全項目）を実効重量で合算する。
+ * レシピの重量は廃棄部位を含む重量として扱い、原材料の廃棄率を除いた可食部重量で合算する
+ */
+@Slf4j
+@Service
+public class NutritionRollupService {
+
+    private final FoodSemiFinishedProductRepository semiFinishedProductRepository;
+    private final FoodRawMaterialRepository rawMaterialRepository;
+    private final RecipeGraphService recipeGraphService;
+
+    // IN句1回あたりの原材料ID数
+    private static final int FOOD_ID_CHUNK_SIZE = 500;
+
+    public NutritionRollupService(
+            FoodSemiFinishedProductRepository semiFinishedProductRepository,
+            FoodRawMaterialRepository rawMaterialRepository,
+            RecipeGraphService recipeGraphService) {
+        this.semiFinishedProductRepository = semiFinishedProductRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.recipeGraphService = recipeGraphService;
+    }
+
+    /**
+     * 原材料の栄養成分
+     * @param per100g 可食部100gあたりの栄養成分
+     * @param refuseRate 廃棄率（0〜1）
+     */
+    public record RawMaterialNutrition(NutrientVector per100g, double refuseRate) {}
+
+    /**
+     * 栄養成分の合算結果（可食部100gあたり）
+     */
+    public record NutritionRollupResult(
+            Integer semiId,
+            double recipeWeight,
+            double edibleWeight,
+            NutritionBasic basicNutrition,
+            NutritionMinerals minerals,
+            NutritionVitamins vitamins,
+            List<Integer> missingFoodIds
+    ) {}
+
+    /**
+     * 半完成品の栄養成分を合算
+     */
+    @Transactional(readOnly = true)
+    public NutritionRollupResult calculate(Integer semiId) {
+        NutritionAccumulator accumulator = newAccumulator();
+        recipeGraphService.traverse(semiId, accumulator);
+        return accumulator.toResult(semiId);
+    }
+
+    /**
+     * 半完成品の栄養成分を合算（ビジネスアカウント指定）
+     */
+    @Transactional(readOnly = true)
+    public NutritionRollupResult calculate(Integer semiId, Integer businessAccountId) {
+        NutritionAccumulator accumulator = newAccumulator();
+        recipeGraphService.traverse(semiId, businessAccountId, List.of(accumulator));
+        return accumulator.toResult(semiId);
+    }
+
+    /**
+     * 半完成品の栄養成分を合算して保存
+     */
+    @Transactional
+    public NutritionRollupResult recalculateAndSave(Integer semiId) {
+        return save(calculate(semiId));
+    }
+
+    /**
+     * 半完成品の栄養成分を合算して保存（ビジネスアカウント指定）
+     */
+    @Transactional
+    public NutritionRollupResult recalculateAndSave(Integer semiId, Integer businessAccountId) {
+        return save(calculate(semiId, businessAccountId));
+    }
+
+    /**
+     * レシピグラフ走査用の栄養成分集計器を生成
+     */
+    public NutritionAccumulator newAccumulator() {
+        return new NutritionAccumulator(new HashMap<>());
+    }
+
+    /**
+     * 原材料の栄養成分を共有する集計器を生成
+     * 一括再計算など複数の半完成品を続けて集計する場合に、原材料の読み込みを1回にする
+     */
+    public NutritionAccumulator newAccumulator(Map<Integer, RawMaterialNutrition> nutritionByFoodId) {
+        return new NutritionAccumulator(nutritionByFoodId);
+    }
+
+    /**
+     * 複数原材料の栄養成分を一括取得
+     */
+    public Map<Integer, RawMaterialNutrition> findNutritionByFoodIds(Collection<Integer> foodIds) {
+        List<Integer> distinctIds = new ArrayList<>(new LinkedHashSet<>(foodIds));
+        distinctIds.removeIf(Objects::isNull);
+
+        Map<Integer, RawMaterialNutrition> result = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += FOOD_ID_CHUNK_SIZE) {
+            List<Integer> chunk = distinctIds.subList(from, Math.min(from + FOOD_ID_CHUNK_SIZE, distinctIds.size()));
+            for (FoodRawMaterial material : rawMaterialRepository.findNutritionByIds(chunk)) {
+                result.put(material.getFoodId(), toNutrition(material));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 栄養成分集計器
+     * 末端原材料ごとに可食部重量を求め、栄養成分ベクトルに加算する
+     */
+    public class NutritionAccumulator implements RecipeGraphService.LeafAccumulator {
+        private final Map<Integer, RawMaterialNutrition> nutritionByFoodId;
+        private final NutrientVector total = NutrientVector.zero();
+        private final Set<Integer> missingFoodIds = new TreeSet<>();
+        private double recipeWeight;
+        private double edibleWeight;
+
+        private NutritionAccumulator(Map<Integer, RawMaterialNutrition> nutritionByFoodId) {
+            this.nutritionByFoodId = nutritionByFoodId;
+        }
+
+        @Override
+        public void prepare(RecipeGraphService.RecipeGraph graph) {
+            List<Integer> unloaded = new ArrayList<>();
+            for (Integer foodId : graph.getLeafFoodIds()) {
+                if (!nutritionByFoodId.containsKey(foodId)) {
+                    unloaded.add(foodId);
+                }
+            }
+            if (!unloaded.isEmpty()) {
+                nutritionByFoodId.putAll(findNutritionByFoodIds(unloaded));
+            }
+        }
+
+        @Override
+        public void accept(RecipeGraphService.RecipeLeaf leaf) {
+            double weight = leaf.effectiveWeight();
+            recipeWeight += weight;
+
+            RawMaterialNutrition nutrition = nutritionByFoodId.get(leaf.foodId());
+            if (nutrition == null) {
+                missingFoodIds.add(leaf.foodId());
+                return;
+            }
+
+            // 可食部重量 = 使用量 × (1 - 廃棄率)、栄養成分は可食部100gあたり
+            double edible = weight * (1 - nutrition.refuseRate());
+            edibleWeight += edible;
+            total.addScaled(nutrition.per100g(), edible / 100.0);
+        }
+
+        /**
+         * 可食部100gあたりの栄養成分に変換
+         */
+        public NutritionRollupResult toResult(Integer semiId) {
+            NutrientVector per100g = total.copy();
+            per100g.scale(edibleWeight > 0 ? 100.0 / edibleWeight : 0);
+            return new NutritionRollupResult(
+                semiId,
+                recipeWeight,
+                edibleWeight,
+                per100g.toBasic(),
+                per100g.toMinerals(),
+                per100g.toVitamins(),
+                List.copyOf(missingFoodIds));
+        }
+    }
+
+    private NutritionRollupResult save(NutritionRollupResult result) {
+        FoodSemiFinishedProduct entity = FoodSemiFinishedProduct.builder()
+            .semiId(result.semiId())
+            .basicNutrition(result.basicNutrition())
+            .minerals(result.minerals())
+            .vitamins(result.vitamins())
+            .build();
+        semiFinishedProductRepository.updateNutrition(entity);
+
+        if (!result.missingFoodIds().isEmpty()) {
+            log.warn("栄養成分を取得できない原材料があります: semiId={}, foodIds={}",
+                result.semiId(), result.missingFoodIds());
+        }
+        log.info("半完成品の栄養成分を更新しました: semiId={}", result.semiId());
+        return result;
+    }
+
+    private RawMaterialNutrition toNutrition(FoodRawMaterial material) {
+        NutrientVector per100g = NutrientVector.of(
+            material.getBasicNutrition(), material.getMinerals(), material.getVitamins());
+
+        double refuseRate = 0;
+        if (material.getBasicNutrition() != null && material.getBasicNutrition().getRefuse() != null) {
+            refuseRate = Math.min(Math.max(material.getBasicNutrition().getRefuse() / 100.0, 0), 1);
+        }
+        return new RawMaterialNutrition(per100g, refuseRate);
+    }
+}
@@ -0,0 +1,130 @@
+package com.nines.nutsfact.domain.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 仕込品構成キャッシュサービス
+ * 仕込品ごとの正規化済み構成（1gあたりの末端原材料の割合）をビジネスアカウント単位で保持する。
+ * 仕込品・仕込品明細の更新時は、その仕込品と、それを含む全ての上位仕込品のキャッシュを破棄する
+ */
+@Slf4j
+@Service
+public class PreProductCompositionCacheService {
+
+    /**
+     * 仕込品の正規化済み構成
+     * leaves の effectiveWeight は仕込品1gあたりの重量（割合）
+     */
+    public record PreProductComposition(
+            List<RecipeGraphService.RecipeLeaf> leaves,
+            Set<Integer> childPreIds
+    ) {}
+
+    /**
+     * ビジネスアカウントごとのキャッシュ
+     */
+    private static class TenantCache {
+        private final Map<Integer, PreProductComposition> compositions = new ConcurrentHashMap<>();
+        // 子仕込品ID → それを直接含む親仕込品ID
+        private final Map<Integer, Set<Integer>> parents = new ConcurrentHashMap<>();
+    }
+
+    private final Map<Integer, TenantCache> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * キャッシュ済みの構成を取得
+     * @return 未キャッシュの場合はnull
+     */
+    public PreProductComposition get(Integer businessAccountId, Integer preId) {
+        if (businessAccountId == null || preId == null) {
+            return null;
+        }
+        TenantCache cache = tenants.get(businessAccountId);
+        return cache != null ? cache.compositions.get(preId) : null;
+    }
+
+    /**
+     * 構成をキャッシュに登録し、子仕込品からの逆参照を記録
+     */
+    public void put(Integer businessAccountId, Integer preId, PreProductComposition composition) {
+        if (businessAccountId == null || preId == null) {
+            return;
+        }
+        TenantCache cache = tenants.computeIfAbsent(businessAccountId, k -> new TenantCache());
+        for (Integer childPreId : composition.childPreIds()) {
+            cache.parents.computeIfAbsent(childPreId, k -> ConcurrentHashMap.newKeySet()).add(preId);
+        }
+        cache.compositions.put(preId, composition);
+    }
+
+    /**
+     * 仕込品とその上位仕込品のキャッシュを破棄
+     * トランザクション中の場合は完了後にも再度破棄する（完了前に読み直された構成を、ロールバックした場合も含めて残さないため）
+     * businessAccountIdがnullの場合は全ビジネスアカウントを対象とする
+     */
+    public void invalidate(Integer businessAccountId, Integer preId) {
+        if (preId == null) {
+            return;
+        }
+        evict(businessAccountId, preId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(businessAccountId, preId);
+                }
+            });
+        }
+    }
+
+    /**
+     * ビジネスアカウントのキャッシュを全て破棄
+     */
+    public void invalidateAll(Integer businessAccountId) {
+        if (businessAccountId == null) {
+            tenants.clear();
+        } else {
+            tenants.remove(businessAccountId);
+        }
+    }
+
+    private void evict(Integer businessAccountId, Integer preId) {
+        if (businessAccountId == null) {
+            tenants.values().forEach(cache -> evictAncestors(cache, preId));
+            return;
+        }
+        TenantCache cache = tenants.get(businessAccountId);
+        if (cache != null) {
+            evictAncestors(cache, preId);
+        }
+    }
+
+    private void evictAncestors(TenantCache cache, Integer preId) {
+        Deque<Integer> pending = new ArrayDeque<>();
+        Set<Integer> visited = new HashSet<>();
+        pending.add(preId);
+
+        while (!pending.isEmpty()) {
+            Integer current = pending.poll();
+            if (!visited.add(current)) {
+                continue;
+            }
+            cache.compositions.remove(current);
+            Set<Integer> parentIds = cache.parents.remove(current);
+            if (parentIds != null) {
+                pending.addAll(parentIds);
+            }
+        }
+
+        if (visited.size() > 1) {
+            log.debug("仕込品構成キャッシュを破棄: preId={}, 上位仕込品を含め {} 件", preId, visited.size());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
+import com.nines.nutsfact.domain.model.FoodPreProductItem;
+import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
+import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * 仕込品階層サービス
+ * 仕込品のネスト（明細の子仕込品）が循環しないよう登録・更新時に検証し、
+ * 仕込品ごとの階層（子仕込品なし=0、それ以外=子の最大階層+1）を保持する。
+ * 階層の昇順に処理すれば、子仕込品は必ず親より先に処理される
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PreProductHierarchyService {
+
+    private final FoodPreProductRepository preProductRepository;
+    private final FoodPreProductDetailRepository detailRepository;
+
+    // 階層の伝播で再計算する仕込品数の上限（既存データに循環がある場合の打ち切り）
+    private static final int MAX_PROPAGATION = 10_000;
+
+    /**
+     * 階層の昇順（下位の仕込品から）に並べる比較器
+     */
+    public static final Comparator<FoodPreProductItem> BOTTOM_UP = Comparator
+        .comparing(FoodPreProductItem::getPreLevel, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(FoodPreProductItem::getPreId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /**
+     * 起動時に階層が未設定の仕込品があれば全件の階層を設定
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (preProductRepository.countWithoutPreLevel() > 0) {
+            rebuildLevels();
+        }
+    }
+
+    /**
+     * 仕込品の明細が子仕込品を循環して参照しないか検証
+     * 子仕込品から到達できる仕込品に自身が含まれる場合は循環となる
+     */
+    @Transactional(readOnly = true)
+    public void validateDetail(Integer preId, FoodPreProductDetailItem detail) {
+        if (preId == null || detail == null
+                || !Boolean.TRUE.equals(detail.getComponentKb()) || detail.getDetailPreId() == null) {
+            return;
+        }
+        Integer childPreId = detail.getDetailPreId();
+        if (detailRepository.findDescendantPreIds(childPreId).contains(preId)) {
+            throw new IllegalArgumentException(String.format(
+                "仕込品が循環して参照されるため登録できません: 仕込品ID=%d, 明細の仕込品ID=%d", preId, childPreId));
+        }
+    }
+
+    /**
+     * 仕込品の階層を再計算し、変わった場合は上位の仕込品に伝播
+     */
+    @Transactional
+    public void refreshLevel(Integer preId) {
+        if (preId == null) {
+            return;
+        }
+        refreshLevels(List.of(preId));
+    }
+
+    /**
+     * 仕込品の上位の仕込品の階層を再計算（仕込品の削除時に使用）
+     */
+    @Transactional
+    public void refreshParentLevels(Collection<Integer> parentPreIds) {
+        refreshLevels(parentPreIds);
+    }
+
+    /**
+     * 仕込品を明細に含む上位の仕込品IDを取得
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> findParentPreIds(Integer preId) {
+        return detailRepository.findParentPreIds(preId);
+    }
+
+    /**
+     * 全仕込品の階層を明細から再構築
+     * 子仕込品の階層が確定したものから順に決める。循環に含まれる仕込品は階層が決まらないため0とする
+     */
+    @Transactional
+    public void rebuildLevels() {
+        List<FoodPreProductItem> preProducts = preProductRepository.findAll();
+        Map<Integer, Set<Integer>> children = new HashMap<>();
+        Map<Integer, Set<Integer>> parents = new HashMap<>();
+        for (FoodPreProductDetailItem detail : detailRepository.findAllReferences()) {
+            if (Boolean.TRUE.equals(detail.getComponentKb()) && detail.getDetailPreId() != null) {
+                children.computeIfAbsent(detail.getPreId(), k -> new HashSet<>()).add(detail.getDetailPreId());
+                parents.computeIfAbsent(detail.getDetailPreId(), k -> new HashSet<>()).add(detail.getPreId());
+            }
+        }
+
+        Set<Integer> preIds = new HashSet<>();
+        for (FoodPreProductItem item : preProducts) {
+            preIds.add(item.getPreId());
+        }
+
+        // 存在する子仕込品の数（削除済みの仕込品への参照は除く）
+        Map<Integer, Integer> remaining = new HashMap<>();
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (Integer preId : preIds) {
+            int count = 0;
+            for (Integer childPreId : children.getOrDefault(preId, Set.of())) {
+                if (preIds.contains(childPreId)) {
+                    count++;
+                }
+            }
+            remaining.put(preId, count);
+            if (count == 0) {
+                ready.add(preId);
+            }
+        }
+
+        Map<Integer, Integer> levels = new HashMap<>();
+        while (!ready.isEmpty()) {
+            Integer preId = ready.poll();
+            int level = 0;
+            for (Integer childPreId : children.getOrDefault(preId, Set.of())) {
+                Integer childLevel = levels.get(childPreId);
+                if (childLevel != null) {
+                    level = Math.max(level, childLevel + 1);
+                }
+            }
+            levels.put(preId, level);
+            for (Integer parentPreId : parents.getOrDefault(preId, Set.of())) {
+                Integer count = remaining.computeIfPresent(parentPreId, (k, v) -> v - 1);
+                if (count != null && count == 0) {
+                    ready.add(parentPreId);
+                }
+            }
+        }
+
+        List<Integer> cyclic = new ArrayList<>();
+        int updated = 0;
+        for (FoodPreProductItem item : preProducts) {
+            Integer level = levels.get(item.getPreId());
+            if (level == null) {
+                cyclic.add(item.getPreId());
+                level = 0;
+            }
+            if (!level.equals(item.getPreLevel())) {
+                preProductRepository.updatePreLevel(item.getPreId(), level);
+                updated++;
+            }
+        }
+
+        if (!cyclic.isEmpty()) {
+            log.warn("循環参照のため階層を決定できない仕込品があります: preIds={}", cyclic);
+        }
+        log.info("仕込品の階層を再構築しました: 仕込品={} 件, 更新={} 件", preProducts.size(), updated);
+    }
+
+    private void refreshLevels(Collection<Integer> startPreIds) {
+        Deque<Integer> pending = new ArrayDeque<>(startPreIds);
+        int processed = 0;
+        while (!pending.isEmpty()) {
+            if (++processed > MAX_PROPAGATION) {
+                log.warn("仕込品の階層の伝播を打ち切りました（循環参照の可能性があります）: preIds={}", startPreIds);
+                return;
+            }
+            Integer preId = pending.poll();
+            Optional<FoodPreProductItem> item = preProductRepository.findById(preId);
+            if (item.isEmpty()) {
+                continue;
+            }
+            Integer level = preProductRepository.computePreLevel(preId);
+            if (!Objects.equals(level, item.get().getPreLevel())) {
+                preProductRepository.updatePreLevel(preId, level);
+                pending.addAll(detailRepository.findParentPreIds(preId));
+            }
+        }
+    }
+}
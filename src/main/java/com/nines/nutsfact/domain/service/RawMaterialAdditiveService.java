@@ -1,6 +1,10 @@
 package com.nines.nutsfact.domain.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -8,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.nines.nutsfact.config.SecurityContextHelper;
 import com.nines.nutsfact.domain.model.additive.RawMaterialAdditive;
 import com.nines.nutsfact.domain.repository.RawMaterialAdditiveRepository;
+import com.nines.nutsfact.domain.service.WhereUsedIndexService.StaleKind;
 import com.nines.nutsfact.exception.ResourceNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -17,6 +22,10 @@ import lombok.RequiredArgsConstructor;
 public class RawMaterialAdditiveService {
 
     private final RawMaterialAdditiveRepository rawMaterialAdditiveRepository;
+    private final WhereUsedIndexService whereUsedIndexService;
+
+    // IN句1回あたりの原材料ID数
+    private static final int FOOD_ID_CHUNK_SIZE = 500;
 
     public List<RawMaterialAdditive> findByFoodId(Integer foodId) {
         return rawMaterialAdditiveRepository.findByFoodId(foodId);
@@ -26,6 +35,22 @@ public class RawMaterialAdditiveService {
         return rawMaterialAdditiveRepository.findByFoodIdWithAdditive(foodId);
     }
 
+    /**
+     * 複数原材料の添加物を一括取得（添加物マスタ情報付き）
+     * 重複を除いた原材料IDをIN句でまとめて読み込み、件数が多い場合は分割して取得する
+     */
+    public List<RawMaterialAdditive> findByFoodIdsWithAdditive(Collection<Integer> foodIds) {
+        List<Integer> distinctIds = new ArrayList<>(new LinkedHashSet<>(foodIds));
+        distinctIds.removeIf(Objects::isNull);
+
+        List<RawMaterialAdditive> result = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += FOOD_ID_CHUNK_SIZE) {
+            List<Integer> chunk = distinctIds.subList(from, Math.min(from + FOOD_ID_CHUNK_SIZE, distinctIds.size()));
+            result.addAll(rawMaterialAdditiveRepository.findByFoodIdsWithAdditive(chunk));
+        }
+        return result;
+    }
+
     public RawMaterialAdditive findById(Integer id) {
         return rawMaterialAdditiveRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("RawMaterialAdditive", id));
@@ -54,44 +79,60 @@ public class RawMaterialAdditiveService {
             rawMaterialAdditive.setExemptionType(0);
         }
         rawMaterialAdditiveRepository.save(rawMaterialAdditive);
+        whereUsedIndexService.notifyRawMaterialChanged(rawMaterialAdditive.getFoodId(), StaleKind.ADDITIVE);
         return rawMaterialAdditive;
     }
 
     @Transactional
     public RawMaterialAdditive update(Integer id, RawMaterialAdditive rawMaterialAdditive) {
-        findById(id);
+        RawMaterialAdditive existing = findById(id);
         rawMaterialAdditive.setId(id);
         rawMaterialAdditiveRepository.save(rawMaterialAdditive);
+        notifyAdditiveChanged(existing.getFoodId(), rawMaterialAdditive.getFoodId());
         return rawMaterialAdditive;
     }
 
     @Transactional
     public RawMaterialAdditive updateWithBusinessAccountFilter(Integer id, RawMaterialAdditive rawMaterialAdditive) {
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
-        rawMaterialAdditiveRepository.findByIdAndBusinessAccountId(id, businessAccountId)
+        RawMaterialAdditive existing = rawMaterialAdditiveRepository.findByIdAndBusinessAccountId(id, businessAccountId)
                 .orElseThrow(() -> new ResourceNotFoundException("RawMaterialAdditive", id));
         rawMaterialAdditive.setId(id);
         rawMaterialAdditive.setBusinessAccountId(businessAccountId);
         rawMaterialAdditiveRepository.save(rawMaterialAdditive);
+        notifyAdditiveChanged(existing.getFoodId(), rawMaterialAdditive.getFoodId());
         return rawMaterialAdditive;
     }
 
     @Transactional
     public void delete(Integer id) {
-        findById(id);
+        RawMaterialAdditive existing = findById(id);
         rawMaterialAdditiveRepository.delete(id);
+        whereUsedIndexService.notifyRawMaterialChanged(existing.getFoodId(), StaleKind.ADDITIVE);
     }
 
     @Transactional
     public void deleteWithBusinessAccountFilter(Integer id) {
         Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
-        rawMaterialAdditiveRepository.findByIdAndBusinessAccountId(id, businessAccountId)
+        RawMaterialAdditive existing = rawMaterialAdditiveRepository.findByIdAndBusinessAccountId(id, businessAccountId)
                 .orElseThrow(() -> new ResourceNotFoundException("RawMaterialAdditive", id));
         rawMaterialAdditiveRepository.deleteByIdAndBusinessAccountId(id, businessAccountId);
+        whereUsedIndexService.notifyRawMaterialChanged(existing.getFoodId(), StaleKind.ADDITIVE);
     }
 
     @Transactional
     public void deleteByFoodId(Integer foodId) {
         rawMaterialAdditiveRepository.deleteByFoodId(foodId);
+        whereUsedIndexService.notifyRawMaterialChanged(foodId, StaleKind.ADDITIVE);
+    }
+
+    /**
+     * 添加物割当の変更前後の原材料について、使用先の集約情報の再計算を通知
+     */
+    private void notifyAdditiveChanged(Integer previousFoodId, Integer foodId) {
+        whereUsedIndexService.notifyRawMaterialChanged(previousFoodId, StaleKind.ADDITIVE);
+        if (foodId != null && !foodId.equals(previousFoodId)) {
+            whereUsedIndexService.notifyRawMaterialChanged(foodId, StaleKind.ADDITIVE);
+        }
     }
 }
@@ -0,0 +1,75 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.config.SecurityContextHelper;
+import com.nines.nutsfact.domain.model.RawMaterialPrice;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import com.nines.nutsfact.exception.DataAccessFailedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 原材料の単価算出サービス
+ * 仕入元情報（仕入価格・仕入量・換算率）から、原材料の加重平均単価と最終仕入単価（100グラム当たり）を算出する。
+ * ビジネスアカウント全体の再計算も、仕入元情報の変更時の再計算も、集計と反映を1回のUPDATEで行う。
+ * 算出した単価は仕込品・半完成品の原価に反映する
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RawMaterialPricingService {
+
+    private final FoodRawMaterialRepository rawMaterialRepository;
+    private final RecipeCostService recipeCostService;
+
+    /**
+     * ログインユーザーのビジネスアカウントの全原材料の単価を再計算
+     * @return 仕入元情報があり再計算の対象となった原材料の件数
+     */
+    @Transactional
+    public int recalculateAll() {
+        Integer businessAccountId = requireBusinessAccountId();
+        try {
+            int count = rawMaterialRepository.recalculatePricesFromSuppliers(businessAccountId, null);
+            log.info("原材料の単価を再計算しました: businessAccountId={}, 件数={}", businessAccountId, count);
+            recipeCostService.recalculateAll(businessAccountId);
+            return count;
+
+        } catch (Exception e) {
+            log.error("原材料の単価の再計算に失敗: businessAccountId={}, {}", businessAccountId, e.getMessage(), e);
+            throw new DataAccessFailedException("単価再計算", e);
+        }
+    }
+
+    /**
+     * 仕入元情報を変更した原材料の単価を再計算（仕入元情報の変更と同じトランザクションで呼び出す）
+     * 有効な仕入元情報がなくなった原材料の単価はNULLに戻す
+     */
+    @Transactional
+    public void recalculate(Integer businessAccountId, Integer foodId) {
+        if (businessAccountId == null || foodId == null) {
+            return;
+        }
+        rawMaterialRepository.recalculatePricesFromSuppliers(businessAccountId, List.of(foodId));
+        recipeCostService.propagateRawMaterialPriceChange(businessAccountId, List.of(foodId));
+    }
+
+    /**
+     * ログインユーザーのビジネスアカウントの原材料の単価を一括取得
+     */
+    @Transactional(readOnly = true)
+    public List<RawMaterialPrice> findPrices() {
+        return rawMaterialRepository.findPrices(requireBusinessAccountId(), null);
+    }
+
+    private Integer requireBusinessAccountId() {
+        Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
+        if (businessAccountId == null) {
+            throw new IllegalStateException("ビジネスアカウントに所属していないユーザーは単価を算出できません");
+        }
+        return businessAccountId;
+    }
+}
@@ -0,0 +1,374 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.config.SecurityContextHelper;
+import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
+import com.nines.nutsfact.domain.model.FoodPreProductItem;
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProduct;
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProductDetail;
+import com.nines.nutsfact.domain.model.RawMaterialPrice;
+import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
+import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductDetailRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
+import com.nines.nutsfact.domain.service.WhereUsedIndexService.AffectedRecipes;
+import com.nines.nutsfact.exception.DataAccessFailedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 仕込品・半完成品の原価計算サービス
+ * 明細の原価を原材料の単価（100グラム当たり）と重量から算出し、ネストした仕込品を下位から積み上げて原価合計を求める。
+ * 原材料の単価が変わった場合は、使用先インデックスで影響を受ける仕込品・半完成品だけを再計算し、
+ * 値が変わった明細・原価合計だけを数回のUPDATEで書き込む
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeCostService {
+
+    private static final int CHUNK_SIZE = 500;
+    // 円未満2桁に丸めた値を比較するため、これより小さい差は変更なしとみなす
+    private static final double COST_EPSILON = 0.005;
+
+    private final FoodPreProductRepository preProductRepository;
+    private final FoodPreProductDetailRepository preProductDetailRepository;
+    private final FoodSemiFinishedProductRepository semiFinishedProductRepository;
+    private final FoodSemiFinishedProductDetailRepository semiFinishedProductDetailRepository;
+    private final FoodRawMaterialRepository rawMaterialRepository;
+    private final WhereUsedIndexService whereUsedIndexService;
+
+    /**
+     * 原価の再計算結果（値が変わり書き込んだ件数）
+     */
+    public record CostRecalculation(int preProducts, int semiFinishedProducts, int details) {
+
+        static final CostRecalculation NONE = new CostRecalculation(0, 0, 0);
+    }
+
+    /**
+     * ログインユーザーのビジネスアカウントの全仕込品・半完成品の原価を再計算
+     */
+    @Transactional
+    public CostRecalculation recalculateAll() {
+        Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
+        if (businessAccountId == null) {
+            throw new IllegalStateException("ビジネスアカウントに所属していないユーザーは原価を計算できません");
+        }
+        return recalculateAll(businessAccountId);
+    }
+
+    /**
+     * ビジネスアカウントの全仕込品・半完成品の原価を再計算
+     */
+    @Transactional
+    public CostRecalculation recalculateAll(Integer businessAccountId) {
+        try {
+            CostRecalculation result = recalculate(
+                businessAccountId,
+                preProductRepository.findCostSummaries(businessAccountId, null),
+                preProductDetailRepository.findByBusinessAccountId(businessAccountId),
+                semiFinishedProductRepository.findCostSummaries(businessAccountId, null),
+                semiFinishedProductDetailRepository.findByBusinessAccountId(businessAccountId));
+            log.info("原価を再計算しました: businessAccountId={}, 仕込品={}, 半完成品={}, 明細={}",
+                businessAccountId, result.preProducts(), result.semiFinishedProducts(), result.details());
+            return result;
+
+        } catch (Exception e) {
+            log.error("原価の再計算に失敗: businessAccountId={}, {}", businessAccountId, e.getMessage(), e);
+            throw new DataAccessFailedException("原価再計算", e);
+        }
+    }
+
+    /**
+     * 原材料の単価の変更を、使用している仕込品・半完成品の原価に反映（単価の変更と同じトランザクションで呼び出す）
+     */
+    @Transactional
+    public CostRecalculation propagateRawMaterialPriceChange(Integer businessAccountId, Collection<Integer> foodIds) {
+        if (businessAccountId == null || foodIds == null || foodIds.isEmpty()) {
+            return CostRecalculation.NONE;
+        }
+        return recalculateAffected(businessAccountId, whereUsedIndexService.findAffectedRecipes(foodIds, Set.of()));
+    }
+
+    /**
+     * 仕込品の明細の変更を、仕込品自身と上位の仕込品・半完成品の原価に反映
+     */
+    @Transactional
+    public CostRecalculation propagatePreProductChange(Integer businessAccountId, Collection<Integer> preIds) {
+        Set<Integer> targets = nonNullIds(preIds);
+        if (businessAccountId == null || targets.isEmpty()) {
+            return CostRecalculation.NONE;
+        }
+        return recalculateAffected(businessAccountId, whereUsedIndexService.findAffectedRecipes(Set.of(), targets));
+    }
+
+    /**
+     * 半完成品の明細の変更を、半完成品の原価に反映
+     */
+    @Transactional
+    public CostRecalculation propagateSemiFinishedProductChange(Integer businessAccountId, Collection<Integer> semiIds) {
+        Set<Integer> targets = nonNullIds(semiIds);
+        if (businessAccountId == null || targets.isEmpty()) {
+            return CostRecalculation.NONE;
+        }
+        return recalculateAffected(businessAccountId, new AffectedRecipes(Set.of(), targets));
+    }
+
+    private CostRecalculation recalculateAffected(Integer businessAccountId, AffectedRecipes affected) {
+        if (affected.preIds().isEmpty() && affected.semiIds().isEmpty()) {
+            return CostRecalculation.NONE;
+        }
+        // 使用先インデックスは全ビジネスアカウント分のため、集計の取得時にビジネスアカウントで絞り込む
+        List<FoodPreProductItem> preProducts = new ArrayList<>();
+        List<FoodPreProductDetailItem> preDetails = new ArrayList<>();
+        forEachChunk(new ArrayList<>(affected.preIds()), chunk -> {
+            List<FoodPreProductItem> found = preProductRepository.findCostSummaries(businessAccountId, chunk);
+            preProducts.addAll(found);
+            if (!found.isEmpty()) {
+                preDetails.addAll(preProductDetailRepository.findByPreIds(found.stream().map(FoodPreProductItem::getPreId).toList()));
+            }
+        });
+        List<FoodSemiFinishedProduct> semis = new ArrayList<>();
+        List<FoodSemiFinishedProductDetail> semiDetails = new ArrayList<>();
+        forEachChunk(new ArrayList<>(affected.semiIds()), chunk -> {
+            List<FoodSemiFinishedProduct> found = semiFinishedProductRepository.findCostSummaries(businessAccountId, chunk);
+            semis.addAll(found);
+            if (!found.isEmpty()) {
+                semiDetails.addAll(semiFinishedProductDetailRepository.findBySemiIds(found.stream().map(FoodSemiFinishedProduct::getSemiId).toList()));
+            }
+        });
+        CostRecalculation result = recalculate(businessAccountId, preProducts, preDetails, semis, semiDetails);
+        log.debug("原価を反映しました: businessAccountId={}, 仕込品={}, 半完成品={}, 明細={}",
+            businessAccountId, result.preProducts(), result.semiFinishedProducts(), result.details());
+        return result;
+    }
+
+    /**
+     * 読み込んだ仕込品・半完成品の原価を計算し、変わった値だけを書き込む
+     * 読み込んでいない下位の仕込品は、保存済みの原価合計・重量合計から単位重量当たりの原価を求める
+     */
+    private CostRecalculation recalculate(
+            Integer businessAccountId,
+            List<FoodPreProductItem> preProducts,
+            List<FoodPreProductDetailItem> preDetails,
+            List<FoodSemiFinishedProduct> semis,
+            List<FoodSemiFinishedProductDetail> semiDetails) {
+        Map<Integer, FoodPreProductItem> preById = new HashMap<>();
+        preProducts.forEach(pre -> preById.put(pre.getPreId(), pre));
+        Map<Integer, List<FoodPreProductDetailItem>> detailsByPreId = new HashMap<>();
+        preDetails.forEach(detail -> detailsByPreId.computeIfAbsent(detail.getPreId(), k -> new ArrayList<>()).add(detail));
+
+        Set<Integer> foodIds = new HashSet<>();
+        Set<Integer> outsidePreIds = new HashSet<>();
+        for (FoodPreProductDetailItem detail : preDetails) {
+            collectReference(detail.getComponentKb(), detail.getDetailFoodId(), detail.getDetailPreId(), foodIds, outsidePreIds);
+        }
+        for (FoodSemiFinishedProductDetail detail : semiDetails) {
+            collectReference(detail.getComponentKb(), detail.getDetailFoodId(), detail.getDetailPreId(), foodIds, outsidePreIds);
+        }
+        outsidePreIds.removeAll(preById.keySet());
+
+        CostGraph graph = new CostGraph(
+            loadPrices(foodIds), preById, detailsByPreId, loadOutsideUnitCosts(businessAccountId, outsidePreIds));
+
+        List<FoodPreProductDetailItem> changedPreDetails = new ArrayList<>();
+        List<FoodPreProductItem> changedPreProducts = new ArrayList<>();
+        for (FoodPreProductItem pre : preProducts) {
+            double costPriceSum = graph.costPriceSum(pre.getPreId());
+            for (FoodPreProductDetailItem detail : detailsByPreId.getOrDefault(pre.getPreId(), List.of())) {
+                Float cost = graph.detailCost(detail.getComponentKb(), detail.getDetailFoodId(), detail.getDetailPreId(),
+                    detail.getWeight(), detail.getCostPrice());
+                if (isChanged(detail.getCostPrice(), cost)) {
+                    changedPreDetails.add(FoodPreProductDetailItem.builder().detailId(detail.getDetailId()).costPrice(cost).build());
+                }
+            }
+            if (isChanged(pre.getCostPriceSum(), round(costPriceSum))) {
+                changedPreProducts.add(FoodPreProductItem.builder().preId(pre.getPreId()).costPriceSum(round(costPriceSum)).build());
+            }
+        }
+
+        Map<Integer, List<FoodSemiFinishedProductDetail>> detailsBySemiId = new HashMap<>();
+        semiDetails.forEach(detail -> detailsBySemiId.computeIfAbsent(detail.getSemiId(), k -> new ArrayList<>()).add(detail));
+        List<FoodSemiFinishedProductDetail> changedSemiDetails = new ArrayList<>();
+        List<FoodSemiFinishedProduct> changedSemis = new ArrayList<>();
+        for (FoodSemiFinishedProduct semi : semis) {
+            double costPriceSum = 0;
+            for (FoodSemiFinishedProductDetail detail : detailsBySemiId.getOrDefault(semi.getSemiId(), List.of())) {
+                Float cost = graph.detailCost(detail.getComponentKb(), detail.getDetailFoodId(), detail.getDetailPreId(),
+                    detail.getWeight(), detail.getCostPrice());
+                if (cost != null) {
+                    costPriceSum += cost;
+                }
+                if (isChanged(detail.getCostPrice(), cost)) {
+                    changedSemiDetails.add(FoodSemiFinishedProductDetail.builder().detailId(detail.getDetailId()).costPrice(cost).build());
+                }
+            }
+            if (isChanged(semi.getCostPriceSum(), round(costPriceSum))) {
+                changedSemis.add(FoodSemiFinishedProduct.builder().semiId(semi.getSemiId()).costPriceSum(round(costPriceSum)).build());
+            }
+        }
+
+        forEachChunk(changedPreDetails, preProductDetailRepository::updateCostPrices);
+        forEachChunk(changedPreProducts, preProductRepository::updateCostPriceSums);
+        forEachChunk(changedSemiDetails, semiFinishedProductDetailRepository::updateCostPrices);
+        forEachChunk(changedSemis, semiFinishedProductRepository::updateCostPriceSums);
+        return new CostRecalculation(changedPreProducts.size(), changedSemis.size(),
+            changedPreDetails.size() + changedSemiDetails.size());
+    }
+
+    /**
+     * 仕込品の原価合計をメモ化しながら下位から積み上げる
+     */
+    private static class CostGraph {
+        private final Map<Integer, Float> prices;
+        private final Map<Integer, FoodPreProductItem> preById;
+        private final Map<Integer, List<FoodPreProductDetailItem>> detailsByPreId;
+        private final Map<Integer, Double> outsideUnitCosts;
+        private final Map<Integer, Double> costPriceSums = new HashMap<>();
+        private final Set<Integer> visiting = new HashSet<>();
+
+        CostGraph(Map<Integer, Float> prices,
+                  Map<Integer, FoodPreProductItem> preById,
+                  Map<Integer, List<FoodPreProductDetailItem>> detailsByPreId,
+                  Map<Integer, Double> outsideUnitCosts) {
+            this.prices = prices;
+            this.preById = preById;
+            this.detailsByPreId = detailsByPreId;
+            this.outsideUnitCosts = outsideUnitCosts;
+        }
+
+        double costPriceSum(Integer preId) {
+            Double memo = costPriceSums.get(preId);
+            if (memo != null) {
+                return memo;
+            }
+            visiting.add(preId);
+            double sum = 0;
+            for (FoodPreProductDetailItem detail : detailsByPreId.getOrDefault(preId, List.of())) {
+                Float cost = detailCost(detail.getComponentKb(), detail.getDetailFoodId(), detail.getDetailPreId(),
+                    detail.getWeight(), detail.getCostPrice());
+                if (cost != null) {
+                    sum += cost;
+                }
+            }
+            visiting.remove(preId);
+            costPriceSums.put(preId, sum);
+            return sum;
+        }
+
+        /**
+         * 明細の原価（単価が分からない場合は保存済みの原価のまま）
+         */
+        Float detailCost(Boolean componentKb, Integer detailFoodId, Integer detailPreId, Float weight, Float current) {
+            if (weight == null) {
+                return current;
+            }
+            Double unitCost;
+            if (Boolean.TRUE.equals(componentKb)) {
+                unitCost = detailPreId != null ? unitCost(detailPreId) : null;
+            } else {
+                Float price = detailFoodId != null ? prices.get(detailFoodId) : null;
+                // 単価は100グラム当たり
+                unitCost = price != null ? price / 100.0 : null;
+            }
+            return unitCost != null ? round(weight * unitCost) : current;
+        }
+
+        /**
+         * 仕込品の1グラム当たりの原価
+         */
+        private Double unitCost(Integer preId) {
+            FoodPreProductItem pre = preById.get(preId);
+            if (pre == null) {
+                return outsideUnitCosts.get(preId);
+            }
+            if (visiting.contains(preId)) {
+                log.warn("原価計算で仕込品の循環参照を検出: preId={}", preId);
+                return null;
+            }
+            List<FoodPreProductDetailItem> details = detailsByPreId.getOrDefault(preId, List.of());
+            double totalWeight = RecipeGraphService.resolveTotalWeight(pre.getWeightSum(), details);
+            return totalWeight > 0 ? costPriceSum(preId) / totalWeight : null;
+        }
+    }
+
+    private static void collectReference(Boolean componentKb, Integer detailFoodId, Integer detailPreId,
+                                         Set<Integer> foodIds, Set<Integer> preIds) {
+        if (Boolean.TRUE.equals(componentKb)) {
+            if (detailPreId != null) {
+                preIds.add(detailPreId);
+            }
+        } else if (detailFoodId != null) {
+            foodIds.add(detailFoodId);
+        }
+    }
+
+    /**
+     * 原材料の単価（単価が未設定の場合は最終仕入単価）
+     */
+    private Map<Integer, Float> loadPrices(Set<Integer> foodIds) {
+        Map<Integer, Float> prices = new HashMap<>();
+        forEachChunk(new ArrayList<>(foodIds), chunk -> {
+            for (RawMaterialPrice price : rawMaterialRepository.findPricesByIds(chunk)) {
+                Float value = price.getPricePerUnit() != null ? price.getPricePerUnit() : price.getLastPricePerUnit();
+                if (value != null) {
+                    prices.put(price.getFoodId(), value);
+                }
+            }
+        });
+        return prices;
+    }
+
+    /**
+     * 再計算の対象外の下位の仕込品の1グラム当たりの原価（保存済みの値から算出）
+     */
+    private Map<Integer, Double> loadOutsideUnitCosts(Integer businessAccountId, Set<Integer> preIds) {
+        Map<Integer, Double> unitCosts = new HashMap<>();
+        forEachChunk(new ArrayList<>(preIds), chunk -> {
+            for (FoodPreProductItem pre : preProductRepository.findCostSummaries(businessAccountId, chunk)) {
+                if (pre.getCostPriceSum() != null && pre.getWeightSum() != null && pre.getWeightSum() > 0) {
+                    unitCosts.put(pre.getPreId(), (double) pre.getCostPriceSum() / pre.getWeightSum());
+                }
+            }
+        });
+        return unitCosts;
+    }
+
+    private static Set<Integer> nonNullIds(Collection<Integer> ids) {
+        Set<Integer> result = new HashSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(result::add);
+        }
+        return result;
+    }
+
+    private static <T> void forEachChunk(List<T> items, Consumer<List<T>> action) {
+        for (int from = 0; from < items.size(); from += CHUNK_SIZE) {
+            action.accept(items.subList(from, Math.min(from + CHUNK_SIZE, items.size())));
+        }
+    }
+
+    private static boolean isChanged(Float current, Float calculated) {
+        if (current == null || calculated == null) {
+            return (current == null) != (calculated == null);
+        }
+        return Math.abs(current - calculated) >= COST_EPSILON;
+    }
+
+    private static float round(double value) {
+        return (float) (Math.round(value * 100) / 100.0);
+    }
+}
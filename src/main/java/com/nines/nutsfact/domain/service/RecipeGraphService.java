@@ -0,0 +1,389 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.config.SecurityContextHelper;
+import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
+import com.nines.nutsfact.domain.model.FoodPreProductItem;
+import com.nines.nutsfact.domain.model.FoodPreProductTreeRow;
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProductDetail;
+import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
+import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductDetailRepository;
+import com.nines.nutsfact.domain.service.PreProductCompositionCacheService.PreProductComposition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * レシピグラフサービス
+ * 半完成品 → 仕込品（ネスト）の構成ツリーを一度だけ読み込み、
+ * 1回の走査で末端の原材料を複数の集計器（原材料展開・アレルゲン・添加物など）に配信する。
+ * 仕込品は正規化済み構成（1gあたりの末端原材料）としてキャッシュし、上位の展開はその縮尺合成で求める
+ */
+@Slf4j
+@Service
+public class RecipeGraphService {
+
+    private final FoodSemiFinishedProductDetailRepository semiDetailRepository;
+    private final FoodPreProductDetailRepository preProductDetailRepository;
+    private final FoodPreProductRepository preProductRepository;
+    private final PreProductCompositionCacheService compositionCache;
+
+    public RecipeGraphService(
+            FoodSemiFinishedProductDetailRepository semiDetailRepository,
+            FoodPreProductDetailRepository preProductDetailRepository,
+            FoodPreProductRepository preProductRepository,
+            PreProductCompositionCacheService compositionCache) {
+        this.semiDetailRepository = semiDetailRepository;
+        this.preProductDetailRepository = preProductDetailRepository;
+        this.preProductRepository = preProductRepository;
+        this.compositionCache = compositionCache;
+    }
+
+    /**
+     * 末端原材料
+     * 構成ツリーを展開した結果、半完成品に実際に使用される原材料と実効重量
+     */
+    public record RecipeLeaf(
+            Integer foodId,
+            double effectiveWeight,
+            String labelDisplayName,
+            String detailFoodName,
+            boolean composite,
+            int depth
+    ) {
+        /**
+         * 重量を倍率で縮尺し、階層をずらした末端原材料を返す
+         */
+        public RecipeLeaf scale(double factor, int depthOffset) {
+            return new RecipeLeaf(foodId, effectiveWeight * factor, labelDisplayName, detailFoodName,
+                composite, depth + depthOffset);
+        }
+    }
+
+    /**
+     * 末端原材料の集計器
+     * 原材料・アレルゲン・添加物など、集計ごとに実装する
+     */
+    public interface LeafAccumulator {
+        /**
+         * 走査前の準備（末端原材料の属性の一括読み込みなど）
+         */
+        default void prepare(RecipeGraph graph) {
+        }
+
+        void accept(RecipeLeaf leaf);
+    }
+
+    /**
+     * 読み込み済みのレシピツリー
+     * 半完成品の明細と、直下の仕込品ごとの正規化済み構成
+     */
+    public static class RecipeGraph {
+        private final Integer semiId;
+        private final List<FoodSemiFinishedProductDetail> rootDetails;
+        private final Map<Integer, PreProductComposition> compositions;
+
+        public RecipeGraph(Integer semiId,
+                           List<FoodSemiFinishedProductDetail> rootDetails,
+                           Map<Integer, PreProductComposition> compositions) {
+            this.semiId = semiId;
+            this.rootDetails = rootDetails;
+            this.compositions = compositions;
+        }
+
+        public Integer getSemiId() { return semiId; }
+        public List<FoodSemiFinishedProductDetail> getRootDetails() { return rootDetails; }
+        public Map<Integer, PreProductComposition> getCompositions() { return compositions; }
+
+        /**
+         * 走査で配信される可能性のある全ての原材料ID
+         */
+        public Set<Integer> getLeafFoodIds() {
+            Set<Integer> foodIds = new HashSet<>();
+            for (FoodSemiFinishedProductDetail detail : rootDetails) {
+                if (!Boolean.TRUE.equals(detail.getComponentKb()) && detail.getDetailFoodId() != null) {
+                    foodIds.add(detail.getDetailFoodId());
+                }
+            }
+            for (PreProductComposition composition : compositions.values()) {
+                for (RecipeLeaf leaf : composition.leaves()) {
+                    foodIds.add(leaf.foodId());
+                }
+            }
+            return foodIds;
+        }
+    }
+
+    /**
+     * 構成計算中の仕込品明細（再帰CTEの結果を仕込品ごとにまとめたもの）
+     */
+    private static class PreProductTree {
+        private final Map<Integer, List<FoodPreProductDetailItem>> details = new HashMap<>();
+        private final Map<Integer, Float> weightSums = new HashMap<>();
+        private final Set<Integer> visiting = new HashSet<>();
+        private boolean cycleDetected;
+    }
+
+    /**
+     * 半完成品の構成ツリーを読み込む
+     * 直下の仕込品が全てキャッシュ済みの場合は仕込品明細を読み込まない。
+     * 未キャッシュの仕込品がある場合のみ、ネストした仕込品の明細と総重量を再帰CTEで一括取得する
+     */
+    @Transactional(readOnly = true)
+    public RecipeGraph load(Integer semiId) {
+        return load(semiId, SecurityContextHelper.getCurrentBusinessAccountId());
+    }
+
+    /**
+     * 半完成品の構成ツリーを読み込む（ビジネスアカウント指定）
+     * businessAccountIdがnullの場合はキャッシュを使用しない
+     */
+    @Transactional(readOnly = true)
+    public RecipeGraph load(Integer semiId, Integer businessAccountId) {
+        List<FoodSemiFinishedProductDetail> rootDetails = semiDetailRepository.findBySemiId(semiId);
+
+        Map<Integer, PreProductComposition> compositions = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (FoodSemiFinishedProductDetail detail : rootDetails) {
+            Integer preId = detail.getDetailPreId();
+            if (!Boolean.TRUE.equals(detail.getComponentKb()) || preId == null || compositions.containsKey(preId)) {
+                continue;
+            }
+            PreProductComposition cached = compositionCache.get(businessAccountId, preId);
+            if (cached != null) {
+                compositions.put(preId, cached);
+            } else {
+                missing.add(preId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            PreProductTree tree = loadTree(semiId);
+            for (Integer preId : missing) {
+                if (!compositions.containsKey(preId)) {
+                    compositions.put(preId, compose(tree, preId, businessAccountId));
+                }
+            }
+        }
+
+        return new RecipeGraph(semiId, rootDetails, compositions);
+    }
+
+    /**
+     * 半完成品の構成ツリーを読み込み、全集計器に末端原材料を配信
+     */
+    @Transactional(readOnly = true)
+    public RecipeGraph traverse(Integer semiId, LeafAccumulator... accumulators) {
+        return traverse(semiId, Arrays.asList(accumulators));
+    }
+
+    /**
+     * 半完成品の構成ツリーを読み込み、全集計器に末端原材料を配信
+     */
+    @Transactional(readOnly = true)
+    public RecipeGraph traverse(Integer semiId, List<? extends LeafAccumulator> accumulators) {
+        RecipeGraph graph = load(semiId);
+        traverse(graph, accumulators);
+        return graph;
+    }
+
+    /**
+     * 半完成品の構成ツリーを読み込み、全集計器に末端原材料を配信（ビジネスアカウント指定）
+     * バックグラウンド処理などセキュリティコンテキストがない場合に使用する
+     */
+    @Transactional(readOnly = true)
+    public RecipeGraph traverse(Integer semiId, Integer businessAccountId, List<? extends LeafAccumulator> accumulators) {
+        RecipeGraph graph = load(semiId, businessAccountId);
+        traverse(graph, accumulators);
+        return graph;
+    }
+
+    /**
+     * 読み込み済みの構成ツリーを走査し、全集計器に末端原材料を配信
+     */
+    public void traverse(RecipeGraph graph, List<? extends LeafAccumulator> accumulators) {
+        for (LeafAccumulator accumulator : accumulators) {
+            accumulator.prepare(graph);
+        }
+
+        for (FoodSemiFinishedProductDetail detail : graph.getRootDetails()) {
+            double weight = detail.getWeight() != null ? detail.getWeight() : 0f;
+
+            if (Boolean.TRUE.equals(detail.getComponentKb())) {
+                // 仕込品の場合: 正規化済み構成を使用量で縮尺して配信
+                PreProductComposition composition = graph.getCompositions().get(detail.getDetailPreId());
+                if (composition == null) {
+                    continue;
+                }
+                for (RecipeLeaf leaf : composition.leaves()) {
+                    emit(leaf.scale(weight, 0), accumulators);
+                }
+            } else {
+                // 原材料の場合: 直接配信
+                emit(new RecipeLeaf(detail.getDetailFoodId(), weight, detail.getLabelDisplayName(),
+                    detail.getDetailFoodName(), Boolean.TRUE.equals(detail.getCompositeRawMaterialsKb()), 0),
+                    accumulators);
+            }
+        }
+    }
+
+    /**
+     * ビジネスアカウントの全仕込品の正規化済み構成を求めてキャッシュする
+     * 仕込品を階層の昇順（下位から）に処理するため、子仕込品の構成は常に計算済みとなり、各仕込品は1回ずつ計算される。
+     * 他のビジネスアカウントの仕込品を（間接的に）含む仕込品は、明細を読み込んでいないため対象外とする
+     * @return 構成を求めた仕込品数
+     */
+    @Transactional(readOnly = true)
+    public int precomputeCompositions(Integer businessAccountId) {
+        List<FoodPreProductItem> preProducts = new ArrayList<>(preProductRepository.findByBusinessAccountId(businessAccountId));
+        preProducts.sort(PreProductHierarchyService.BOTTOM_UP);
+
+        PreProductTree tree = new PreProductTree();
+        for (FoodPreProductItem item : preProducts) {
+            tree.details.put(item.getPreId(), new ArrayList<>());
+            tree.weightSums.put(item.getPreId(), item.getWeightSum());
+        }
+        for (FoodPreProductDetailItem detail : preProductDetailRepository.findByBusinessAccountId(businessAccountId)) {
+            List<FoodPreProductDetailItem> details = tree.details.get(detail.getPreId());
+            if (details != null) {
+                details.add(detail);
+            }
+        }
+
+        Set<Integer> excluded = new HashSet<>();
+        int composed = 0;
+        for (FoodPreProductItem item : preProducts) {
+            Integer preId = item.getPreId();
+            boolean resolvable = tree.details.get(preId).stream()
+                .filter(detail -> Boolean.TRUE.equals(detail.getComponentKb()) && detail.getDetailPreId() != null)
+                .allMatch(detail -> tree.details.containsKey(detail.getDetailPreId())
+                    && !excluded.contains(detail.getDetailPreId()));
+            if (!resolvable) {
+                excluded.add(preId);
+                continue;
+            }
+            compose(tree, preId, businessAccountId);
+            composed++;
+        }
+
+        log.info("仕込品の構成を一括計算しました: businessAccountId={}, 計算={} 件, 対象外={} 件",
+            businessAccountId, composed, excluded.size());
+        return composed;
+    }
+
+    private PreProductTree loadTree(Integer semiId) {
+        PreProductTree tree = new PreProductTree();
+        for (FoodPreProductTreeRow row : preProductDetailRepository.findTreeBySemiId(semiId)) {
+            FoodPreProductDetailItem detail = row.getDetail();
+            if (detail == null || detail.getPreId() == null) {
+                continue;
+            }
+            tree.details.computeIfAbsent(detail.getPreId(), k -> new ArrayList<>()).add(detail);
+            tree.weightSums.putIfAbsent(detail.getPreId(), row.getParentWeightSum());
+        }
+        return tree;
+    }
+
+    /**
+     * 仕込品の正規化済み構成を求める
+     * 子仕込品はキャッシュ済みの構成を縮尺して合成する。
+     * 循環参照は展開中の経路で検出し、循環を含む構成は経路によって結果が変わるためキャッシュしない
+     */
+    private PreProductComposition compose(PreProductTree tree, Integer preId, Integer businessAccountId) {
+        PreProductComposition cached = compositionCache.get(businessAccountId, preId);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<FoodPreProductDetailItem> details = tree.details.getOrDefault(preId, List.of());
+        double totalWeight = resolveTotalWeight(tree.weightSums.get(preId), details);
+
+        Map<LeafKey, Double> merged = new LinkedHashMap<>();
+        Set<Integer> childPreIds = new HashSet<>();
+        boolean outerCycleDetected = tree.cycleDetected;
+        tree.cycleDetected = false;
+        tree.visiting.add(preId);
+
+        if (totalWeight > 0) {
+            for (FoodPreProductDetailItem detail : details) {
+                double detailWeight = detail.getWeight() != null ? detail.getWeight() : 0f;
+                double ratio = detailWeight / totalWeight;
+
+                if (Boolean.TRUE.equals(detail.getComponentKb())) {
+                    // 仕込品内の仕込品（ネスト）: 子の構成を比率で縮尺して合成
+                    Integer childPreId = detail.getDetailPreId();
+                    if (childPreId == null) {
+                        continue;
+                    }
+                    childPreIds.add(childPreId);
+                    if (tree.visiting.contains(childPreId)) {
+                        log.warn("仕込品の循環参照を検出: preId={}, detailPreId={}", preId, childPreId);
+                        tree.cycleDetected = true;
+                        continue;
+                    }
+                    for (RecipeLeaf leaf : compose(tree, childPreId, businessAccountId).leaves()) {
+                        merge(merged, leaf.scale(ratio, 1));
+                    }
+                } else if (detail.getDetailFoodId() != null && ratio > 0) {
+                    merge(merged, new RecipeLeaf(detail.getDetailFoodId(), ratio, detail.getLabelDisplayName(),
+                        detail.getDetailFoodName(), Boolean.TRUE.equals(detail.getCompositeRawMaterialsKb()), 1));
+                }
+            }
+        }
+
+        tree.visiting.remove(preId);
+
+        List<RecipeLeaf> leaves = new ArrayList<>(merged.size());
+        merged.forEach((key, weight) -> leaves.add(key.toLeaf(weight)));
+        PreProductComposition composition = new PreProductComposition(
+            Collections.unmodifiableList(leaves), Collections.unmodifiableSet(childPreIds));
+
+        if (!tree.cycleDetected) {
+            compositionCache.put(businessAccountId, preId, composition);
+        }
+        tree.cycleDetected = tree.cycleDetected || outerCycleDetected;
+        return composition;
+    }
+
+    /**
+     * 同一の末端原材料（名称・階層も同じもの）は割合を合算する
+     */
+    private record LeafKey(Integer foodId, String labelDisplayName, String detailFoodName,
+                           boolean composite, int depth) {
+        static LeafKey of(RecipeLeaf leaf) {
+            return new LeafKey(leaf.foodId(), leaf.labelDisplayName(), leaf.detailFoodName(),
+                leaf.composite(), leaf.depth());
+        }
+
+        RecipeLeaf toLeaf(double weight) {
+            return new RecipeLeaf(foodId, weight, labelDisplayName, detailFoodName, composite, depth);
+        }
+    }
+
+    private void merge(Map<LeafKey, Double> merged, RecipeLeaf leaf) {
+        merged.merge(LeafKey.of(leaf), leaf.effectiveWeight(), Double::sum);
+    }
+
+    private void emit(RecipeLeaf leaf, List<? extends LeafAccumulator> accumulators) {
+        if (leaf.foodId() == null || leaf.effectiveWeight() <= 0) {
+            return;
+        }
+        for (LeafAccumulator accumulator : accumulators) {
+            accumulator.accept(leaf);
+        }
+    }
+
+    /**
+     * 仕込品の総重量を決定（weightSum > 明細重量の合計）
+     */
+    static double resolveTotalWeight(Float weightSum, List<FoodPreProductDetailItem> details) {
+        if (weightSum != null && weightSum > 0) {
+            return weightSum;
+        }
+        return details.stream()
+            .mapToDouble(d -> d.getWeight() != null ? d.getWeight() : 0f)
+            .sum();
+    }
+}
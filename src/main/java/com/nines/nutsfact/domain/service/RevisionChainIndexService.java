@@ -0,0 +1,206 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.RawMaterialRevisionHead;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 原材料のリビジョンチェーン索引サービス
+ * ビジネスアカウント・食品番号ごとに最新リビジョン（チェーンの先頭）の原材料IDとリビジョン番号を保持する。
+ * 食品番号からの最新リビジョンの解決と最新リビジョンだけの一覧の絞り込みを、DBの集計なしで行う。
+ * 索引はJVMごとに持ち、通知を経由しない書き込みを反映できないため参照にだけ使う（リビジョン番号の採番はDBで行う）。
+ * 原材料の登録・更新・削除がコミットされた後、該当する食品番号だけを読み直す
+ */
+@Slf4j
+@Service
+public class RevisionChainIndexService {
+
+    private final FoodRawMaterialRepository rawMaterialRepository;
+    private volatile Map<ChainKey, Head> heads;
+
+    public RevisionChainIndexService(FoodRawMaterialRepository rawMaterialRepository) {
+        this.rawMaterialRepository = rawMaterialRepository;
+    }
+
+    private record ChainKey(int businessAccountId, String foodNo) {}
+
+    private record Head(int foodId, int revision) {}
+
+    /**
+     * 起動時に索引を構築する
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 最新リビジョンの原材料IDを取得
+     * @return 食品番号がビジネスアカウントに登録されていない場合は空
+     */
+    public Optional<Integer> findHeadFoodId(Integer businessAccountId, String foodNo) {
+        return findHead(businessAccountId, foodNo).map(Head::foodId);
+    }
+
+    /**
+     * 原材料がリビジョンチェーンの先頭（最新リビジョン）かどうか
+     * ビジネスアカウント・食品番号がない原材料と、索引の構築前は先頭として扱う
+     */
+    public boolean isHead(FoodRawMaterial item) {
+        Map<ChainKey, Head> current = heads;
+        if (current == null || item.getBusinessAccountId() == null || item.getFoodNo() == null) {
+            return true;
+        }
+        Head head = current.get(new ChainKey(item.getBusinessAccountId(), item.getFoodNo()));
+        return head == null || item.getFoodId() == null || head.foodId() == item.getFoodId();
+    }
+
+    /**
+     * 原材料の登録・更新・削除を通知
+     * トランザクションのコミット後に食品番号の最新リビジョンを読み直す
+     */
+    public void notifyChanged(Integer businessAccountId, String foodNo) {
+        if (businessAccountId == null || foodNo == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(businessAccountId, foodNo);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh(businessAccountId, foodNo);
+            }
+        });
+    }
+
+    /**
+     * 原材料の一括削除を通知
+     * トランザクションのコミット後に、削除した原材料の食品番号をビジネスアカウントごとに1回で読み直す
+     */
+    public void notifyDeleted(Collection<FoodRawMaterial> items) {
+        Map<Integer, Set<String>> foodNos = new HashMap<>();
+        for (FoodRawMaterial item : items) {
+            if (item.getBusinessAccountId() != null && item.getFoodNo() != null) {
+                foodNos.computeIfAbsent(item.getBusinessAccountId(), k -> new HashSet<>()).add(item.getFoodNo());
+            }
+        }
+        if (foodNos.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            foodNos.forEach(this::refresh);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                foodNos.forEach(RevisionChainIndexService.this::refresh);
+            }
+        });
+    }
+
+    /**
+     * 索引を構築して差し替える
+     * 構築に失敗した場合はDBを直接参照する
+     */
+    public synchronized void rebuild() {
+        try {
+            Map<ChainKey, Head> loaded = new ConcurrentHashMap<>();
+            for (RawMaterialRevisionHead row : rawMaterialRepository.findRevisionHeads()) {
+                loaded.put(new ChainKey(row.getBusinessAccountId(), row.getFoodNo()), toHead(row));
+            }
+            heads = loaded;
+            log.info("リビジョンチェーン索引を構築しました: 食品番号数={}", loaded.size());
+        } catch (Exception e) {
+            log.error("リビジョンチェーン索引の構築に失敗: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 食品番号の最新リビジョンを読み直す
+     */
+    public synchronized void refresh(Integer businessAccountId, String foodNo) {
+        Map<ChainKey, Head> current = heads;
+        if (current == null) {
+            return;
+        }
+        ChainKey key = new ChainKey(businessAccountId, foodNo);
+        try {
+            List<RawMaterialRevisionHead> rows = rawMaterialRepository.findRevisionHeads(businessAccountId, foodNo);
+            if (rows.isEmpty()) {
+                current.remove(key);
+            } else {
+                current.put(key, toHead(rows.get(0)));
+            }
+        } catch (Exception e) {
+            // 読み直せない場合は索引を使わずDBを参照させる
+            log.error("リビジョンチェーン索引の更新に失敗: businessAccountId={}, foodNo={}, {}",
+                businessAccountId, foodNo, e.getMessage(), e);
+            heads = null;
+        }
+    }
+
+    /**
+     * ビジネスアカウントの複数の食品番号の最新リビジョンを読み直す
+     */
+    public synchronized void refresh(Integer businessAccountId, Set<String> foodNos) {
+        Map<ChainKey, Head> current = heads;
+        if (current == null) {
+            return;
+        }
+        try {
+            Map<String, RawMaterialRevisionHead> rows = new HashMap<>();
+            for (RawMaterialRevisionHead row : rawMaterialRepository.findRevisionHeads(businessAccountId, foodNos)) {
+                rows.put(row.getFoodNo(), row);
+            }
+            for (String foodNo : foodNos) {
+                ChainKey key = new ChainKey(businessAccountId, foodNo);
+                RawMaterialRevisionHead row = rows.get(foodNo);
+                if (row == null) {
+                    current.remove(key);
+                } else {
+                    current.put(key, toHead(row));
+                }
+            }
+        } catch (Exception e) {
+            log.error("リビジョンチェーン索引の更新に失敗: businessAccountId={}, 食品番号数={}, {}",
+                businessAccountId, foodNos.size(), e.getMessage(), e);
+            heads = null;
+        }
+    }
+
+    private Optional<Head> findHead(Integer businessAccountId, String foodNo) {
+        if (businessAccountId == null || foodNo == null) {
+            return Optional.empty();
+        }
+        Map<ChainKey, Head> current = heads;
+        if (current != null) {
+            return Optional.ofNullable(current.get(new ChainKey(businessAccountId, foodNo)));
+        }
+        // 索引の構築前はDBから取得
+        return rawMaterialRepository.findRevisionHeads(businessAccountId, foodNo).stream()
+            .findFirst()
+            .map(this::toHead);
+    }
+
+    private Head toHead(RawMaterialRevisionHead row) {
+        return new Head(row.getFoodId(), row.getRevisionOfFoodNo() != null ? row.getRevisionOfFoodNo() : 0);
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.nines.nutsfact.config.SecurityContextHelper;
 import com.nines.nutsfact.domain.model.master.Seller;
 import com.nines.nutsfact.domain.repository.SellerRepository;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.exception.ResourceNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -17,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 public class SellerService {
 
     private final SellerRepository sellerRepository;
+    private final MasterDataVersionService masterDataVersion;
 
     public List<Seller> findAll() {
         return sellerRepository.findAll();
@@ -50,14 +52,16 @@ public class SellerService {
         }
         seller.setBusinessAccountId(businessAccountId);
         sellerRepository.save(seller);
+        masterDataVersion.notifyChanged(MasterResource.SELLER, businessAccountId);
         return seller;
     }
 
     @Transactional
     public Seller update(Integer sellerId, Seller seller) {
-        findById(sellerId);
+        Seller existing = findById(sellerId);
         seller.setSellerId(sellerId);
         sellerRepository.save(seller);
+        masterDataVersion.notifyChanged(MasterResource.SELLER, existing.getBusinessAccountId());
         return seller;
     }
 
@@ -69,13 +73,15 @@ public class SellerService {
         seller.setSellerId(sellerId);
         seller.setBusinessAccountId(businessAccountId);
         sellerRepository.save(seller);
+        masterDataVersion.notifyChanged(MasterResource.SELLER, businessAccountId);
         return seller;
     }
 
     @Transactional
     public void delete(Integer sellerId) {
-        findById(sellerId);
+        Seller existing = findById(sellerId);
         sellerRepository.delete(sellerId);
+        masterDataVersion.notifyChanged(MasterResource.SELLER, existing.getBusinessAccountId());
     }
 
     @Transactional
@@ -84,5 +90,6 @@ public class SellerService {
         sellerRepository.findByIdAndBusinessAccountId(sellerId, businessAccountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Seller", sellerId));
         sellerRepository.deleteByIdAndBusinessAccountId(sellerId, businessAccountId);
+        masterDataVersion.notifyChanged(MasterResource.SELLER, businessAccountId);
     }
 }
@@ -0,0 +1,245 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.SerializationUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 標準成分データキャッシュサービス
+ * ビジネスアカウントで絞り込まない category_id=1（8訂）, 2（拡張）の原材料を、
+ * 起動時に読み込んだ不変のスナップショットとして全ビジネスアカウントで共有する。
+ * 成分表の移送や標準原材料の更新がコミットされた後、スナップショットを読み直して差し替える
+ */
+@Slf4j
+@Service
+public class StandardCompositionCacheService {
+
+    // キャッシュ対象のカテゴリ（1=8訂, 2=拡張）
+    private static final int[] STANDARD_CATEGORIES = {1, 2};
+
+    private final FoodRawMaterialRepository rawMaterialRepository;
+    private final AtomicLong versionSequence = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public StandardCompositionCacheService(FoodRawMaterialRepository rawMaterialRepository) {
+        this.rawMaterialRepository = rawMaterialRepository;
+    }
+
+    /**
+     * シリアライズ処理（スナップショットのカテゴリ一覧 → レスポンスのバイト列）
+     */
+    @FunctionalInterface
+    public interface Serializer {
+        byte[] serialize(List<FoodRawMaterial> items) throws IOException;
+    }
+
+    /**
+     * 標準成分データのスナップショット
+     * 一覧はカテゴリごとの変更不可リスト、IDはソート済みint配列の二分探索で引く
+     */
+    private static final class Snapshot {
+        private final long version;
+        private final Map<Integer, List<FoodRawMaterial>> byCategory;
+        private final int[] sortedIds;
+        private final FoodRawMaterial[] itemsById;
+        private final Map<String, FoodRawMaterial> byFoodNo;
+        // シリアライズ済みレスポンス（スナップショットと一緒に破棄される）
+        private final Map<String, byte[]> serialized = new ConcurrentHashMap<>();
+
+        private Snapshot(long version, Map<Integer, List<FoodRawMaterial>> byCategory) {
+            this.version = version;
+            this.byCategory = byCategory;
+
+            List<FoodRawMaterial> all = new ArrayList<>();
+            byCategory.values().forEach(all::addAll);
+            all.sort(Comparator.comparing(FoodRawMaterial::getFoodId));
+
+            this.sortedIds = new int[all.size()];
+            this.itemsById = new FoodRawMaterial[all.size()];
+            Map<String, FoodRawMaterial> foodNos = new HashMap<>();
+            Set<String> duplicated = new HashSet<>();
+            for (int i = 0; i < all.size(); i++) {
+                FoodRawMaterial item = all.get(i);
+                sortedIds[i] = item.getFoodId();
+                itemsById[i] = item;
+                if (item.getFoodNo() != null && foodNos.putIfAbsent(item.getFoodNo(), item) != null) {
+                    duplicated.add(item.getFoodNo());
+                }
+            }
+            // 同じ食品番号が複数ある場合はキャッシュから引かない（DBで判定する）
+            duplicated.forEach(foodNos::remove);
+            this.byFoodNo = foodNos;
+        }
+
+        private FoodRawMaterial findById(int foodId) {
+            int index = Arrays.binarySearch(sortedIds, foodId);
+            return index >= 0 ? itemsById[index] : null;
+        }
+
+        private int size() {
+            return sortedIds.length;
+        }
+    }
+
+    /**
+     * 起動時にスナップショットを読み込む
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * キャッシュ対象のカテゴリかどうか
+     */
+    public static boolean isStandardCategory(Integer categoryId) {
+        if (categoryId == null) {
+            return false;
+        }
+        for (int standard : STANDARD_CATEGORIES) {
+            if (standard == categoryId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 現在のスナップショットのバージョン（未読み込みの場合は0）
+     */
+    public long getVersion() {
+        Snapshot current = snapshot;
+        return current != null ? current.version : 0;
+    }
+
+    /**
+     * カテゴリの原材料一覧を取得
+     * 返却するリストと要素は全リクエストで共有するため、参照専用として扱うこと
+     * @return キャッシュ対象外のカテゴリ、または未読み込みの場合は空
+     */
+    public Optional<List<FoodRawMaterial>> findByCategory(Integer categoryId) {
+        Snapshot current = snapshot;
+        if (current == null || !isStandardCategory(categoryId)) {
+            return Optional.empty();
+        }
+        return Optional.of(current.byCategory.get(categoryId));
+    }
+
+    /**
+     * IDで原材料を取得（呼び出し側で変更できるよう複製を返す）
+     * @return 標準成分データにない、または未読み込みの場合は空
+     */
+    public Optional<FoodRawMaterial> findById(Integer foodId) {
+        Snapshot current = snapshot;
+        if (current == null || foodId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.findById(foodId)).map(SerializationUtils::clone);
+    }
+
+    /**
+     * 食品番号で原材料を取得（呼び出し側で変更できるよう複製を返す）
+     * @return 標準成分データにない、または未読み込みの場合は空
+     */
+    public Optional<FoodRawMaterial> findByFoodNo(String foodNo) {
+        Snapshot current = snapshot;
+        if (current == null || foodNo == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.byFoodNo.get(foodNo)).map(SerializationUtils::clone);
+    }
+
+    /**
+     * 原材料が現在のスナップショットに含まれるかどうか
+     */
+    public boolean contains(Integer foodId) {
+        Snapshot current = snapshot;
+        return current != null && foodId != null && current.findById(foodId) != null;
+    }
+
+    /**
+     * カテゴリ一覧のシリアライズ済みレスポンスを取得
+     * 形式（key）ごとにスナップショット1つにつき1回だけシリアライズする
+     * @return キャッシュ対象外のカテゴリ、または未読み込みの場合は空
+     */
+    public Optional<byte[]> getSerialized(Integer categoryId, String key, Serializer serializer) {
+        Snapshot current = snapshot;
+        if (current == null || !isStandardCategory(categoryId)) {
+            return Optional.empty();
+        }
+        byte[] bytes = current.serialized.computeIfAbsent(key + ":" + categoryId, k -> {
+            try {
+                return serializer.serialize(current.byCategory.get(categoryId));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return Optional.of(bytes);
+    }
+
+    /**
+     * 標準原材料の変更を通知
+     * 対象がキャッシュ対象のカテゴリ、またはスナップショットに含まれる場合は、コミット後に読み直す
+     */
+    public void notifyChanged(Integer foodId, Integer categoryId) {
+        if (isStandardCategory(categoryId) || contains(foodId)) {
+            reloadAfterCommit();
+        }
+    }
+
+    /**
+     * トランザクションのコミット後にスナップショットを読み直す
+     * 同じトランザクション内で複数回呼ばれても読み直しは1回とする
+     */
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(StandardCompositionCacheService.this);
+            }
+        });
+    }
+
+    /**
+     * スナップショットを読み直して差し替える
+     * 読み込みに失敗した場合は現在のスナップショットを維持する
+     */
+    public synchronized void reload() {
+        try {
+            Map<Integer, List<FoodRawMaterial>> byCategory = new HashMap<>();
+            for (int categoryId : STANDARD_CATEGORIES) {
+                byCategory.put(categoryId, List.copyOf(rawMaterialRepository.findByCategory(categoryId)));
+            }
+            Snapshot loaded = new Snapshot(versionSequence.incrementAndGet(), Map.copyOf(byCategory));
+            snapshot = loaded;
+            log.info("標準成分データのスナップショットを読み込みました: version={}, 件数={}", loaded.version, loaded.size());
+        } catch (Exception e) {
+            log.error("標準成分データのスナップショットの読み込みに失敗: {}", e.getMessage(), e);
+        }
+    }
+}
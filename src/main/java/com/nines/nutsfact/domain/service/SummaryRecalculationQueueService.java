@@ -0,0 +1,296 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProduct;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
+import com.nines.nutsfact.domain.service.WhereUsedIndexService.StaleKind;
+import com.nines.nutsfact.domain.service.WhereUsedIndexService.SummaryStaleEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 半完成品集約情報の再計算キューサービス
+ * アレルゲン・添加物集約情報の再計算を仮想スレッドで非同期に実行する。
+ * 同じ半完成品への要求は待機中にまとめ（デバウンス）、連続した編集でも再計算は1回にする
+ */
+@Slf4j
+@Service
+public class SummaryRecalculationQueueService {
+
+    private static final String METRIC_PREFIX = "nutsfact.summary.recalculation";
+    private static final long THROUGHPUT_WINDOW_MILLIS = 60_000L;
+
+    private final FoodSemiFinishedProductRepository semiFinishedProductRepository;
+    private final AllergenAggregationService allergenAggregationService;
+    private final AdditiveSummaryService additiveSummaryService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final long debounceMillis;
+    private final long maxDelayMillis;
+    private final Semaphore permits;
+
+    private final Map<Integer, PendingRecalculation> pending = new ConcurrentHashMap<>();
+    private final Set<Integer> running = ConcurrentHashMap.newKeySet();
+    private final DelayQueue<ScheduledRecalculation> schedule = new DelayQueue<>();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Deque<Long> completionTimes = new ConcurrentLinkedDeque<>();
+    private Thread dispatcher;
+    private volatile boolean stopped;
+
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter coalescedCounter;
+    private final Timer lagTimer;
+    private final Timer durationTimer;
+
+    public SummaryRecalculationQueueService(
+            FoodSemiFinishedProductRepository semiFinishedProductRepository,
+            AllergenAggregationService allergenAggregationService,
+            AdditiveSummaryService additiveSummaryService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${nutsfact.summary-recalculation.debounce-millis:500}") long debounceMillis,
+            @Value("${nutsfact.summary-recalculation.max-delay-millis:5000}") long maxDelayMillis,
+            @Value("${nutsfact.summary-recalculation.concurrency:4}") int concurrency) {
+        this.semiFinishedProductRepository = semiFinishedProductRepository;
+        this.allergenAggregationService = allergenAggregationService;
+        this.additiveSummaryService = additiveSummaryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.debounceMillis = debounceMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.permits = new Semaphore(Math.max(1, concurrency));
+
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", pending, Map::size)
+            .description("再計算待ちの半完成品数")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".running", running, Set::size)
+            .description("再計算中の半完成品数")
+            .register(meterRegistry);
+        this.completedCounter = Counter.builder(METRIC_PREFIX + ".completed").register(meterRegistry);
+        this.failedCounter = Counter.builder(METRIC_PREFIX + ".failed").register(meterRegistry);
+        this.coalescedCounter = Counter.builder(METRIC_PREFIX + ".coalesced").register(meterRegistry);
+        this.lagTimer = Timer.builder(METRIC_PREFIX + ".lag")
+            .description("最初の要求から再計算開始までの待ち時間")
+            .register(meterRegistry);
+        this.durationTimer = Timer.builder(METRIC_PREFIX + ".duration").register(meterRegistry);
+    }
+
+    /**
+     * キューの状態
+     */
+    public record QueueStatus(
+            int queueDepth,
+            int running,
+            long completed,
+            long failed,
+            long coalesced,
+            double averageLagMillis,
+            double maxLagMillis,
+            int completedLastMinute
+    ) {}
+
+    /**
+     * 再計算待ちの半完成品
+     */
+    private static class PendingRecalculation {
+        private final EnumSet<StaleKind> kinds = EnumSet.noneOf(StaleKind.class);
+        private final long firstRequestedAt;
+        private long dueAt;
+
+        PendingRecalculation(long firstRequestedAt, long dueAt) {
+            this.firstRequestedAt = firstRequestedAt;
+            this.dueAt = dueAt;
+        }
+    }
+
+    /**
+     * 実行予定（dueAtが最新でないものは読み飛ばす）
+     */
+    private record ScheduledRecalculation(Integer semiId, long dueAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Thread.ofVirtual().name("summary-recalculation-dispatcher").start(this::dispatch);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * 半完成品の集約情報の再計算を要求
+     * 待機中の要求がある場合は種類をまとめ、実行をデバウンス時間だけ遅らせる（最初の要求から最大待ち時間まで）
+     */
+    public void enqueue(Integer semiId, Set<StaleKind> kinds) {
+        EnumSet<StaleKind> targets = EnumSet.noneOf(StaleKind.class);
+        for (StaleKind kind : kinds) {
+            if (kind == StaleKind.ALLERGEN || kind == StaleKind.ADDITIVE) {
+                targets.add(kind);
+            }
+        }
+        if (semiId == null || targets.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        PendingRecalculation entry = pending.compute(semiId, (id, current) -> {
+            if (current == null) {
+                current = new PendingRecalculation(now, now + debounceMillis);
+            } else {
+                current.dueAt = Math.max(current.dueAt,
+                    Math.min(now + debounceMillis, current.firstRequestedAt + maxDelayMillis));
+                coalescedCount.incrementAndGet();
+                coalescedCounter.increment();
+            }
+            current.kinds.addAll(targets);
+            return current;
+        });
+        schedule.put(new ScheduledRecalculation(semiId, entry.dueAt));
+    }
+
+    /**
+     * 原材料の変更で古くなった半完成品をキューに登録
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSummaryStale(SummaryStaleEvent event) {
+        for (Integer semiId : event.semiIds()) {
+            enqueue(semiId, event.kinds());
+        }
+    }
+
+    /**
+     * キューの状態を取得
+     */
+    public QueueStatus getStatus() {
+        trimCompletionTimes(System.currentTimeMillis());
+        return new QueueStatus(
+            pending.size(),
+            running.size(),
+            completedCount.get(),
+            failedCount.get(),
+            coalescedCount.get(),
+            lagTimer.mean(TimeUnit.MILLISECONDS),
+            lagTimer.max(TimeUnit.MILLISECONDS),
+            completionTimes.size());
+    }
+
+    private void dispatch() {
+        while (!stopped) {
+            try {
+                ScheduledRecalculation scheduled = schedule.take();
+                PendingRecalculation taken = take(scheduled);
+                if (taken == null) {
+                    continue;
+                }
+                permits.acquire();
+                workers.submit(() -> {
+                    try {
+                        recalculate(scheduled.semiId(), taken);
+                    } finally {
+                        running.remove(scheduled.semiId());
+                        permits.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 実行予定の半完成品を待機中から取り出す
+     * 後から延期された場合や同じ半完成品を再計算中の場合は取り出さない
+     */
+    private PendingRecalculation take(ScheduledRecalculation scheduled) {
+        PendingRecalculation[] taken = new PendingRecalculation[1];
+        pending.computeIfPresent(scheduled.semiId(), (id, entry) -> {
+            if (entry.dueAt > scheduled.dueAt()) {
+                return entry;
+            }
+            if (running.contains(id)) {
+                entry.dueAt = System.currentTimeMillis() + debounceMillis;
+                schedule.put(new ScheduledRecalculation(id, entry.dueAt));
+                return entry;
+            }
+            running.add(id);
+            taken[0] = entry;
+            return null;
+        });
+        return taken[0];
+    }
+
+    private void recalculate(Integer semiId, PendingRecalculation entry) {
+        long startedAt = System.currentTimeMillis();
+        lagTimer.record(startedAt - entry.firstRequestedAt, TimeUnit.MILLISECONDS);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Optional<FoodSemiFinishedProduct> product = semiFinishedProductRepository.findById(semiId);
+                if (product.isEmpty()) {
+                    return;
+                }
+                Integer businessAccountId = product.get().getBusinessAccountId();
+                if (entry.kinds.contains(StaleKind.ALLERGEN)) {
+                    allergenAggregationService.recalculateAndSave(semiId, businessAccountId);
+                }
+                if (entry.kinds.contains(StaleKind.ADDITIVE)) {
+                    additiveSummaryService.recalculateAndSave(semiId, businessAccountId);
+                }
+            });
+            completedCount.incrementAndGet();
+            completedCounter.increment();
+            long finishedAt = System.currentTimeMillis();
+            completionTimes.add(finishedAt);
+            trimCompletionTimes(finishedAt);
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            failedCounter.increment();
+            log.warn("半完成品の集約情報の再計算に失敗: semiId={}, kinds={}, {}", semiId, entry.kinds, e.getMessage(), e);
+        } finally {
+            durationTimer.record(System.currentTimeMillis() - startedAt, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void trimCompletionTimes(long now) {
+        Long oldest;
+        while ((oldest = completionTimes.peekFirst()) != null && oldest < now - THROUGHPUT_WINDOW_MILLIS) {
+            completionTimes.pollFirst();
+        }
+    }
+}
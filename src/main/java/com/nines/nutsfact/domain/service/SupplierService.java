@@ -8,6 +8,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.nines.nutsfact.config.SecurityContextHelper;
 import com.nines.nutsfact.domain.model.master.Supplier;
 import com.nines.nutsfact.domain.repository.SupplierRepository;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.exception.ResourceNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -17,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 public class SupplierService {
 
     private final SupplierRepository supplierRepository;
+    private final MasterDataVersionService masterDataVersion;
 
     public List<Supplier> findAll() {
         return supplierRepository.findAll();
@@ -50,14 +52,16 @@ public class SupplierService {
         }
         supplier.setBusinessAccountId(businessAccountId);
         supplierRepository.save(supplier);
+        masterDataVersion.notifyChanged(MasterResource.SUPPLIER, businessAccountId);
         return supplier;
     }
 
     @Transactional
     public Supplier update(Integer supplierId, Supplier supplier) {
-        findById(supplierId);
+        Supplier existing = findById(supplierId);
         supplier.setSupplierId(supplierId);
         supplierRepository.save(supplier);
+        masterDataVersion.notifyChanged(MasterResource.SUPPLIER, existing.getBusinessAccountId());
         return supplier;
     }
 
@@ -69,13 +73,15 @@ public class SupplierService {
         supplier.setSupplierId(supplierId);
         supplier.setBusinessAccountId(businessAccountId);
         supplierRepository.save(supplier);
+        masterDataVersion.notifyChanged(MasterResource.SUPPLIER, businessAccountId);
         return supplier;
     }
 
     @Transactional
     public void delete(Integer supplierId) {
-        findById(supplierId);
+        Supplier existing = findById(supplierId);
         supplierRepository.delete(supplierId);
+        masterDataVersion.notifyChanged(MasterResource.SUPPLIER, existing.getBusinessAccountId());
     }
 
     @Transactional
@@ -84,5 +90,6 @@ public class SupplierService {
         supplierRepository.findByIdAndBusinessAccountId(supplierId, businessAccountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Supplier", supplierId));
         supplierRepository.deleteByIdAndBusinessAccountId(supplierId, businessAccountId);
+        masterDataVersion.notifyChanged(MasterResource.SUPPLIER, businessAccountId);
     }
 }
@@ -0,0 +1,205 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.config.SecurityContextHelper;
+import com.nines.nutsfact.domain.model.FoodPreProductItem;
+import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProduct;
+import com.nines.nutsfact.domain.model.sync.SyncEntityType;
+import com.nines.nutsfact.domain.model.sync.SyncTombstone;
+import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
+import com.nines.nutsfact.domain.repository.SyncTombstoneRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 差分同期サービス
+ * iOS/macOSアプリが前回の同期以降に追加・更新されたデータと削除されたIDだけを取得できるようにする。
+ * 更新は各テーブルの更新日時、削除は削除記録（SYNC_TOMBSTONE）の範囲走査で取得し、
+ * 次回の同期に使うウォーターマークを返す
+ */
+@Slf4j
+@Service
+public class SyncService {
+
+    private final FoodRawMaterialRepository rawMaterialRepository;
+    private final FoodPreProductRepository preProductRepository;
+    private final FoodSemiFinishedProductRepository semiFinishedProductRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+
+    private final int maxChanges;
+    private final Duration overlap;
+    private final Duration tombstoneRetention;
+    private final ScheduledExecutorService purgeScheduler =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("sync-tombstone-purge").factory());
+
+    public SyncService(
+            FoodRawMaterialRepository rawMaterialRepository,
+            FoodPreProductRepository preProductRepository,
+            FoodSemiFinishedProductRepository semiFinishedProductRepository,
+            SyncTombstoneRepository tombstoneRepository,
+            @Value("${nutsfact.sync.max-changes:5000}") int maxChanges,
+            @Value("${nutsfact.sync.overlap-seconds:5}") long overlapSeconds,
+            @Value("${nutsfact.sync.tombstone-retention-days:90}") long tombstoneRetentionDays) {
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.preProductRepository = preProductRepository;
+        this.semiFinishedProductRepository = semiFinishedProductRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.maxChanges = Math.max(1, maxChanges);
+        this.overlap = Duration.ofSeconds(Math.max(0, overlapSeconds));
+        this.tombstoneRetention = Duration.ofDays(Math.max(1, tombstoneRetentionDays));
+    }
+
+    /**
+     * 削除されたデータ
+     * @param type raw-material, pre-product, semi-finished-product
+     */
+    public record Tombstone(String type, Integer id, LocalDateTime deletedAt) {}
+
+    /**
+     * 差分同期の結果
+     * @param watermark 次回の同期でsinceに指定する日時
+     * @param fullResyncRequired trueの場合、差分では同期できないため一覧APIから全件を取得し直す
+     */
+    public record SyncChanges(
+            LocalDateTime since,
+            LocalDateTime watermark,
+            boolean fullResyncRequired,
+            List<FoodRawMaterial> rawMaterials,
+            List<FoodPreProductItem> preProducts,
+            List<FoodSemiFinishedProduct> semiFinishedProducts,
+            List<Tombstone> tombstones
+    ) {
+        public int size() {
+            return rawMaterials.size() + preProducts.size() + semiFinishedProducts.size() + tombstones.size();
+        }
+    }
+
+    /**
+     * 起動時と1日ごとに保持期間を過ぎた削除記録を削除する
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        purgeScheduler.scheduleWithFixedDelay(this::purgeExpiredTombstones, 0, 1, TimeUnit.DAYS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        purgeScheduler.shutdownNow();
+    }
+
+    /**
+     * 削除を記録する（削除と同じトランザクションで呼び出す）
+     * @param businessAccountId 8訂・拡張の原材料はnull（全ビジネスアカウントに配信）
+     */
+    public void recordDeletion(SyncEntityType type, Integer id, Integer businessAccountId) {
+        tombstoneRepository.insert(SyncTombstone.builder()
+            .entityType(type.getCode())
+            .entityId(id)
+            .businessAccountId(businessAccountId)
+            .build());
+    }
+
+    /**
+     * 一括削除を1回のINSERTで記録する（削除と同じトランザクションで呼び出す）
+     * @param businessAccountIds 削除したIDごとのビジネスアカウント（8訂・拡張の原材料はnull）
+     */
+    public void recordDeletions(SyncEntityType type, Map<Integer, Integer> businessAccountIds) {
+        if (businessAccountIds.isEmpty()) {
+            return;
+        }
+        List<SyncTombstone> tombstones = new ArrayList<>(businessAccountIds.size());
+        businessAccountIds.forEach((id, businessAccountId) -> tombstones.add(SyncTombstone.builder()
+            .entityType(type.getCode())
+            .entityId(id)
+            .businessAccountId(businessAccountId)
+            .build()));
+        tombstoneRepository.insertAll(tombstones);
+    }
+
+    /**
+     * 前回の同期以降の変更を取得（ログインユーザーのビジネスアカウント）
+     */
+    @Transactional(readOnly = true)
+    public SyncChanges findChangesSince(LocalDateTime since, Set<SyncEntityType> types) {
+        Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
+        if (businessAccountId == null) {
+            throw new IllegalStateException("ビジネスアカウントに所属していないユーザーは差分同期を利用できません");
+        }
+        return findChangesSince(businessAccountId, since, types);
+    }
+
+    /**
+     * 前回の同期以降の変更を取得
+     * sinceが未指定、削除記録の保持期間より前、または変更件数が上限を超える場合は全件の再取得を求める
+     * @param types 対象データ（空の場合は全て）
+     */
+    @Transactional(readOnly = true)
+    public SyncChanges findChangesSince(Integer businessAccountId, LocalDateTime since, Set<SyncEntityType> types) {
+        Set<SyncEntityType> targets = types == null || types.isEmpty()
+            ? EnumSet.allOf(SyncEntityType.class) : EnumSet.copyOf(types);
+
+        // 更新日時はコミット前に付くため、読み取り時点で未コミットの更新を取りこぼさないよう
+        // ウォーターマークを少し戻す（次回の同期で重なった分は同じデータを再度受け取る）
+        LocalDateTime now = tombstoneRepository.selectCurrentTimestamp();
+        LocalDateTime watermark = now.minus(overlap);
+
+        if (since == null || since.isBefore(now.minus(tombstoneRetention))) {
+            return fullResync(since, watermark);
+        }
+
+        int fetchLimit = maxChanges + 1;
+        List<FoodRawMaterial> rawMaterials = targets.contains(SyncEntityType.RAW_MATERIAL)
+            ? rawMaterialRepository.findChangedSince(businessAccountId, since, fetchLimit) : List.of();
+        List<FoodPreProductItem> preProducts = targets.contains(SyncEntityType.PRE_PRODUCT)
+            ? preProductRepository.findChangedSince(businessAccountId, since, fetchLimit) : List.of();
+        List<FoodSemiFinishedProduct> semiFinishedProducts = targets.contains(SyncEntityType.SEMI_FINISHED_PRODUCT)
+            ? semiFinishedProductRepository.findChangedSince(businessAccountId, since, fetchLimit) : List.of();
+        List<SyncTombstone> deleted = tombstoneRepository.findDeletedSince(
+            businessAccountId, targets.stream().map(SyncEntityType::getCode).toList(), since, fetchLimit);
+
+        int total = rawMaterials.size() + preProducts.size() + semiFinishedProducts.size() + deleted.size();
+        if (total > maxChanges) {
+            log.info("差分同期の変更件数が上限を超えたため全件の再取得を求めます: businessAccountId={}, since={}, 件数>{}",
+                businessAccountId, since, maxChanges);
+            return fullResync(since, watermark);
+        }
+
+        List<Tombstone> tombstones = deleted.stream()
+            .map(t -> new Tombstone(t.getEntityType(), t.getEntityId(), t.getDeletedAt()))
+            .toList();
+        return new SyncChanges(since, watermark, false, rawMaterials, preProducts, semiFinishedProducts, tombstones);
+    }
+
+    private SyncChanges fullResync(LocalDateTime since, LocalDateTime watermark) {
+        return new SyncChanges(since, watermark, true, List.of(), List.of(), List.of(), List.of());
+    }
+
+    /**
+     * 保持期間を過ぎた削除記録を削除
+     */
+    public void purgeExpiredTombstones() {
+        try {
+            LocalDateTime before = tombstoneRepository.selectCurrentTimestamp().minus(tombstoneRetention);
+            int deleted = tombstoneRepository.deleteDeletedBefore(before);
+            if (deleted > 0) {
+                log.info("保持期間を過ぎた削除記録を削除しました: {}件（{}より前）", deleted, before);
+            }
+        } catch (Exception e) {
+            log.error("削除記録の削除に失敗: {}", e.getMessage(), e);
+        }
+    }
+}
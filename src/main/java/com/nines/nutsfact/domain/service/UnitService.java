@@ -7,6 +7,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.nines.nutsfact.domain.model.master.Unit;
 import com.nines.nutsfact.domain.repository.UnitRepository;
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
 import com.nines.nutsfact.exception.ResourceNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 public class UnitService {
 
     private final UnitRepository unitRepository;
+    private final MasterDataVersionService masterDataVersion;
 
     public List<Unit> findAll() {
         return unitRepository.findAll();
@@ -33,6 +35,7 @@ public class UnitService {
     @Transactional
     public Unit create(Unit unit) {
         unitRepository.save(unit);
+        masterDataVersion.notifyChanged(MasterResource.UNIT, null);
         return unit;
     }
 
@@ -41,6 +44,7 @@ public class UnitService {
         findById(unitId);
         unit.setUnitId(unitId);
         unitRepository.save(unit);
+        masterDataVersion.notifyChanged(MasterResource.UNIT, null);
         return unit;
     }
 
@@ -48,5 +52,6 @@ public class UnitService {
     public void delete(Integer unitId) {
         findById(unitId);
         unitRepository.delete(unitId);
+        masterDataVersion.notifyChanged(MasterResource.UNIT, null);
     }
 }
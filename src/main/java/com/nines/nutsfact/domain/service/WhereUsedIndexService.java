@@ -0,0 +1,379 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.config.SecurityContextHelper;
+import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProductDetail;
+import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductDetailRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 使用先逆引きインデックスサービス
+ * 原材料・仕込品から、それを（ネストした仕込品を経由して）使用している半完成品を引けるようにする。
+ * 起動時に仕込品明細・半完成品明細から構築し、明細の更新時に該当する仕込品・半完成品分を差し替える
+ */
+@Slf4j
+@Service
+public class WhereUsedIndexService {
+
+    private final FoodPreProductDetailRepository preProductDetailRepository;
+    private final FoodSemiFinishedProductDetailRepository semiDetailRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReferenceEdges preToFood = new ReferenceEdges();
+    private final ReferenceEdges preToPre = new ReferenceEdges();
+    private final ReferenceEdges semiToFood = new ReferenceEdges();
+    private final ReferenceEdges semiToPre = new ReferenceEdges();
+    private final Map<Integer, Integer> semiBusinessAccountIds = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public WhereUsedIndexService(
+            FoodPreProductDetailRepository preProductDetailRepository,
+            FoodSemiFinishedProductDetailRepository semiDetailRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.preProductDetailRepository = preProductDetailRepository;
+        this.semiDetailRepository = semiDetailRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 古くなった集計情報の種類
+     */
+    public enum StaleKind {
+        ALLERGEN,       // アレルゲン集約情報
+        ADDITIVE,       // 添加物集約情報
+        RAW_MATERIAL    // 原材料の名称・栄養成分など
+    }
+
+    /**
+     * 集計情報が古くなった半完成品の通知
+     */
+    public record SummaryStaleEvent(Set<Integer> semiIds, Set<StaleKind> kinds) {}
+
+    /**
+     * 参照元ID → 参照先IDの集合（逆方向も保持）
+     */
+    private static class ReferenceEdges {
+        private final Map<Integer, Set<Integer>> forward = new HashMap<>();
+        private final Map<Integer, Set<Integer>> reverse = new HashMap<>();
+
+        void replace(Integer source, Set<Integer> targets) {
+            Set<Integer> previous = forward.remove(source);
+            if (previous != null) {
+                for (Integer target : previous) {
+                    Set<Integer> sources = reverse.get(target);
+                    if (sources != null) {
+                        sources.remove(source);
+                        if (sources.isEmpty()) {
+                            reverse.remove(target);
+                        }
+                    }
+                }
+            }
+            if (targets.isEmpty()) {
+                return;
+            }
+            forward.put(source, new HashSet<>(targets));
+            for (Integer target : targets) {
+                reverse.computeIfAbsent(target, k -> new HashSet<>()).add(source);
+            }
+        }
+
+        Set<Integer> sourcesOf(Integer target) {
+            return reverse.getOrDefault(target, Set.of());
+        }
+
+        void clear() {
+            forward.clear();
+            reverse.clear();
+        }
+    }
+
+    /**
+     * 起動時にインデックスを構築
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 全明細からインデックスを再構築
+     */
+    public void rebuild() {
+        Map<Integer, List<FoodPreProductDetailItem>> preDetails = new HashMap<>();
+        for (FoodPreProductDetailItem detail : preProductDetailRepository.findAllReferences()) {
+            preDetails.computeIfAbsent(detail.getPreId(), k -> new ArrayList<>()).add(detail);
+        }
+        Map<Integer, List<FoodSemiFinishedProductDetail>> semiDetails = new HashMap<>();
+        for (FoodSemiFinishedProductDetail detail : semiDetailRepository.findAllReferences()) {
+            semiDetails.computeIfAbsent(detail.getSemiId(), k -> new ArrayList<>()).add(detail);
+        }
+
+        lock.writeLock().lock();
+        try {
+            preToFood.clear();
+            preToPre.clear();
+            semiToFood.clear();
+            semiToPre.clear();
+            semiBusinessAccountIds.clear();
+            preDetails.forEach(this::applyPreProduct);
+            semiDetails.forEach(this::applySemiFinishedProduct);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("使用先逆引きインデックスを構築しました: 仕込品={} 件, 半完成品={} 件",
+            preDetails.size(), semiDetails.size());
+    }
+
+    /**
+     * 仕込品の明細を読み直してインデックスを更新
+     * トランザクション中の場合はコミット後に反映する
+     */
+    public void refreshPreProduct(Integer preId) {
+        if (preId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            List<FoodPreProductDetailItem> details = preProductDetailRepository.findByPreId(preId);
+            lock.writeLock().lock();
+            try {
+                applyPreProduct(preId, details);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 半完成品の明細を読み直してインデックスを更新
+     * トランザクション中の場合はコミット後に反映する
+     */
+    public void refreshSemiFinishedProduct(Integer semiId) {
+        if (semiId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            List<FoodSemiFinishedProductDetail> details = semiDetailRepository.findBySemiId(semiId);
+            lock.writeLock().lock();
+            try {
+                applySemiFinishedProduct(semiId, details);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 削除した仕込品をインデックスから取り除く（明細は削除済みのためDBを参照しない）
+     * トランザクション中の場合はコミット後に反映する
+     */
+    public void removePreProducts(Collection<Integer> preIds) {
+        List<Integer> targets = List.copyOf(preIds);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                targets.forEach(preId -> applyPreProduct(preId, List.of()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 削除した半完成品をインデックスから取り除く（明細は削除済みのためDBを参照しない）
+     * トランザクション中の場合はコミット後に反映する
+     */
+    public void removeSemiFinishedProducts(Collection<Integer> semiIds) {
+        List<Integer> targets = List.copyOf(semiIds);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                targets.forEach(semiId -> applySemiFinishedProduct(semiId, List.of()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 原材料を使用している半完成品IDを取得（ネストした仕込品経由を含む）
+     */
+    public Set<Integer> findSemiIdsByFoodId(Integer foodId) {
+        lock.readLock().lock();
+        try {
+            Set<Integer> semiIds = new TreeSet<>(semiToFood.sourcesOf(foodId));
+            collectSemiIds(preToFood.sourcesOf(foodId), semiIds);
+            return semiIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 仕込品を使用している半完成品IDを取得（上位の仕込品経由を含む）
+     */
+    public Set<Integer> findSemiIdsByPreId(Integer preId) {
+        lock.readLock().lock();
+        try {
+            Set<Integer> semiIds = new TreeSet<>();
+            collectSemiIds(Set.of(preId), semiIds);
+            return semiIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 原材料・仕込品の変更で影響を受ける仕込品・半完成品
+     * @param preIds 変更された原材料・仕込品を（上位の仕込品経由を含めて）使用している仕込品と、変更された仕込品自身
+     */
+    public record AffectedRecipes(Set<Integer> preIds, Set<Integer> semiIds) {}
+
+    /**
+     * 原材料・仕込品の変更で影響を受ける仕込品・半完成品を取得（上位の仕込品までたどる）
+     */
+    public AffectedRecipes findAffectedRecipes(Collection<Integer> foodIds, Collection<Integer> preIds) {
+        lock.readLock().lock();
+        try {
+            Set<Integer> startPreIds = new HashSet<>(preIds);
+            Set<Integer> semiIds = new TreeSet<>();
+            for (Integer foodId : foodIds) {
+                startPreIds.addAll(preToFood.sourcesOf(foodId));
+                semiIds.addAll(semiToFood.sourcesOf(foodId));
+            }
+            Set<Integer> affectedPreIds = new TreeSet<>(collectSemiIds(startPreIds, semiIds));
+            return new AffectedRecipes(affectedPreIds, semiIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 原材料を使用している半完成品IDを取得（businessAccountIdでフィルタリング）
+     */
+    public Set<Integer> findSemiIdsByFoodIdWithBusinessAccountFilter(Integer foodId) {
+        return filterByBusinessAccount(findSemiIdsByFoodId(foodId));
+    }
+
+    /**
+     * 仕込品を使用している半完成品IDを取得（businessAccountIdでフィルタリング）
+     */
+    public Set<Integer> findSemiIdsByPreIdWithBusinessAccountFilter(Integer preId) {
+        return filterByBusinessAccount(findSemiIdsByPreId(preId));
+    }
+
+    /**
+     * 原材料の変更で集計情報が古くなった半完成品を通知
+     * @return 影響を受ける半完成品ID
+     */
+    public Set<Integer> notifyRawMaterialChanged(Integer foodId, StaleKind... kinds) {
+        if (foodId == null) {
+            return Set.of();
+        }
+        Set<Integer> semiIds = findSemiIdsByFoodId(foodId);
+        if (!semiIds.isEmpty()) {
+            log.info("原材料の変更により集計情報が古くなった半完成品: foodId={}, kinds={}, semiIds={}",
+                foodId, Arrays.toString(kinds), semiIds);
+            eventPublisher.publishEvent(new SummaryStaleEvent(semiIds, EnumSet.copyOf(Arrays.asList(kinds))));
+        }
+        return semiIds;
+    }
+
+    private Set<Integer> filterByBusinessAccount(Set<Integer> semiIds) {
+        Integer businessAccountId = SecurityContextHelper.getCurrentBusinessAccountId();
+        if (businessAccountId == null) {
+            throw new IllegalStateException("ビジネスアカウントに所属していないユーザーは使用先を参照できません");
+        }
+        lock.readLock().lock();
+        try {
+            Set<Integer> filtered = new TreeSet<>();
+            for (Integer semiId : semiIds) {
+                if (businessAccountId.equals(semiBusinessAccountIds.get(semiId))) {
+                    filtered.add(semiId);
+                }
+            }
+            return filtered;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 仕込品から上位の仕込品をたどり、使用している半完成品を集める
+     * @return たどった仕込品ID（起点を含む）
+     */
+    private Set<Integer> collectSemiIds(Set<Integer> startPreIds, Set<Integer> semiIds) {
+        Deque<Integer> pending = new ArrayDeque<>(startPreIds);
+        Set<Integer> visited = new HashSet<>();
+        while (!pending.isEmpty()) {
+            Integer preId = pending.poll();
+            if (!visited.add(preId)) {
+                continue;
+            }
+            semiIds.addAll(semiToPre.sourcesOf(preId));
+            pending.addAll(preToPre.sourcesOf(preId));
+        }
+        return visited;
+    }
+
+    private void applyPreProduct(Integer preId, List<FoodPreProductDetailItem> details) {
+        Set<Integer> foodIds = new HashSet<>();
+        Set<Integer> preIds = new HashSet<>();
+        for (FoodPreProductDetailItem detail : details) {
+            if (Boolean.TRUE.equals(detail.getComponentKb())) {
+                if (detail.getDetailPreId() != null) {
+                    preIds.add(detail.getDetailPreId());
+                }
+            } else if (detail.getDetailFoodId() != null) {
+                foodIds.add(detail.getDetailFoodId());
+            }
+        }
+        preToFood.replace(preId, foodIds);
+        preToPre.replace(preId, preIds);
+    }
+
+    private void applySemiFinishedProduct(Integer semiId, List<FoodSemiFinishedProductDetail> details) {
+        Set<Integer> foodIds = new HashSet<>();
+        Set<Integer> preIds = new HashSet<>();
+        semiBusinessAccountIds.remove(semiId);
+        for (FoodSemiFinishedProductDetail detail : details) {
+            if (detail.getBusinessAccountId() != null) {
+                semiBusinessAccountIds.put(semiId, detail.getBusinessAccountId());
+            }
+            if (Boolean.TRUE.equals(detail.getComponentKb())) {
+                if (detail.getDetailPreId() != null) {
+                    preIds.add(detail.getDetailPreId());
+                }
+            } else if (detail.getDetailFoodId() != null) {
+                foodIds.add(detail.getDetailFoodId());
+            }
+        }
+        semiToFood.replace(semiId, foodIds);
+        semiToPre.replace(semiId, preIds);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
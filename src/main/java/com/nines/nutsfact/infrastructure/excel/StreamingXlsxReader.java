@@ -0,0 +1,181 @@
+package com.nines.nutsfact.infrastructure.excel;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Excelファイル(.xlsx)のストリーミング読み込み
+ * ワークブック全体をメモリに展開せず、先頭シートのXMLをSAXで読みながら1行ずつ通知する。
+ * ファイルはZIPのまま参照するため、読み込み中に保持するのは共有文字列と処理中の1行だけ
+ */
+public final class StreamingXlsxReader {
+
+    private StreamingXlsxReader() {
+    }
+
+    /**
+     * セルの値（numericがfalseの場合は文字列・真偽値・エラー値などの表示文字列）
+     */
+    public record XlsxCell(boolean numeric, String text) {
+
+        public double numericValue() {
+            return Double.parseDouble(text);
+        }
+    }
+
+    /**
+     * 1行分のセル（値のない列はnull）
+     */
+    public static final class XlsxRow {
+        private final Map<Integer, XlsxCell> cells;
+
+        XlsxRow(Map<Integer, XlsxCell> cells) {
+            this.cells = cells;
+        }
+
+        public XlsxCell getCell(int columnIndex) {
+            return cells.get(columnIndex);
+        }
+    }
+
+    /**
+     * 行ごとの処理
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowIndex 0始まりの行番号
+         */
+        void handle(int rowIndex, XlsxRow row);
+    }
+
+    /**
+     * 先頭シートを1行ずつ読み込む
+     */
+    public static void readFirstSheet(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            // ふりがな（rPh）は読み込まず、セルに表示される文字列だけを共有文字列にする
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(sharedStrings, handler));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Excelファイルの読み込みに失敗しました: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * シートXML（sheetN.xml）のrow・c・v要素から行を組み立てる
+     */
+    private static final class SheetHandler extends DefaultHandler {
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final RowHandler handler;
+        private final StringBuilder value = new StringBuilder();
+
+        private Map<Integer, XlsxCell> cells;
+        private int rowIndex = -1;
+        private int columnIndex;
+        private String cellType;
+        private boolean inValue;
+        private boolean inPhonetic;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, RowHandler handler) {
+            this.sharedStrings = sharedStrings;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (name(localName, qName)) {
+                case "row" -> {
+                    String ref = attributes.getValue("r");
+                    rowIndex = ref != null ? Integer.parseInt(ref) - 1 : rowIndex + 1;
+                    cells = new HashMap<>();
+                    columnIndex = -1;
+                }
+                case "c" -> {
+                    String ref = attributes.getValue("r");
+                    columnIndex = ref != null ? new CellReference(ref).getCol() : columnIndex + 1;
+                    cellType = attributes.getValue("t");
+                    value.setLength(0);
+                    inPhonetic = false;
+                }
+                // v: セルの値、t: インライン文字列（リッチテキストは複数のtに分かれる）
+                case "v", "t" -> inValue = !inPhonetic;
+                // rPh: ふりがな（中のtはセルの値に含めない）
+                case "rPh" -> inPhonetic = true;
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (name(localName, qName)) {
+                case "v", "t" -> inValue = false;
+                case "rPh" -> inPhonetic = false;
+                case "c" -> {
+                    XlsxCell cell = toCell();
+                    if (cell != null && cells != null) {
+                        cells.put(columnIndex, cell);
+                    }
+                }
+                case "row" -> {
+                    handler.handle(rowIndex, new XlsxRow(cells));
+                    cells = null;
+                }
+                default -> {
+                }
+            }
+        }
+
+        private XlsxCell toCell() {
+            String text = value.toString();
+            if (cellType == null || cellType.equals("n")) {
+                return text.isEmpty() ? null : new XlsxCell(true, text);
+            }
+            return switch (cellType) {
+                // 値のない共有文字列・真偽値のセルは空セルとして扱う
+                case "s" -> text.isBlank() ? null
+                    : new XlsxCell(false, sharedStrings.getItemAt(Integer.parseInt(text.trim())).getString());
+                case "b" -> text.isBlank() ? null : new XlsxCell(false, "1".equals(text.trim()) ? "TRUE" : "FALSE");
+                default -> new XlsxCell(false, text);
+            };
+        }
+
+        private static String name(String localName, String qName) {
+            return localName != null && !localName.isEmpty() ? localName : qName;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.nines.nutsfact.infrastructure.mapper;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
@@ -12,6 +13,7 @@ public interface AllergenicControlMapper {
     List<AllergenicControl> findAll();
     List<AllergenicControl> findByBusinessAccountId(@Param("businessAccountId") Integer businessAccountId);
     AllergenicControl findByFoodId(@Param("foodId") Integer foodId);
+    List<AllergenicControl> findByFoodIds(@Param("foodIds") Collection<Integer> foodIds);
     AllergenicControl findByFoodIdAndBusinessAccountId(
             @Param("foodId") Integer foodId,
             @Param("businessAccountId") Integer businessAccountId);
@@ -22,4 +24,8 @@ public interface AllergenicControlMapper {
     void deleteByFoodIdAndBusinessAccountId(
             @Param("foodId") Integer foodId,
             @Param("businessAccountId") Integer businessAccountId);
+
+    void deleteByFoodIdsAndBusinessAccountId(
+            @Param("foodIds") Collection<Integer> foodIds,
+            @Param("businessAccountId") Integer businessAccountId);
 }
@@ -4,6 +4,7 @@ import com.nines.nutsfact.domain.model.CompositeRawMaterialIngredient;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,5 +38,9 @@ public interface CompositeRawMaterialIngredientMapper {
             @Param("foodId") Integer foodId,
             @Param("businessAccountId") Integer businessAccountId);
 
+    int deleteByFoodIdsAndBusinessAccountId(
+            @Param("foodIds") Collection<Integer> foodIds,
+            @Param("businessAccountId") Integer businessAccountId);
+
     Integer getLastInsertId();
 }
@@ -11,7 +11,9 @@ public interface FoodCompositionDictionaryMapper {
     List<FoodCompositionDictionary> findAll();
     FoodCompositionDictionary findById(@Param("id") Integer id);
     List<FoodCompositionDictionary> findByFoodGroupId(@Param("foodGroupId") Integer foodGroupId);
+    List<FoodCompositionDictionary> findByHistoryId(@Param("historyId") Integer historyId);
     int insert(@Param("entity") FoodCompositionDictionary entity);
+    int batchInsert(@Param("entities") List<FoodCompositionDictionary> entities);
     int update(@Param("entity") FoodCompositionDictionary entity);
     int delete(@Param("id") Integer id);
     void truncate();
@@ -1,9 +1,11 @@
 package com.nines.nutsfact.infrastructure.mapper;
 
 import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
+import com.nines.nutsfact.domain.model.FoodPreProductTreeRow;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,10 +40,56 @@ public interface FoodPreProductDetailMapper {
             @Param("preId") Integer preId,
             @Param("businessAccountId") Integer businessAccountId);
 
+    List<FoodPreProductDetailItem> findByPreIds(@Param("preIds") Collection<Integer> preIds);
+
+    /**
+     * 複数明細の原価を1文で更新（detailId・costPriceのみ使用）
+     */
+    int updateCostPrices(@Param("items") List<FoodPreProductDetailItem> items);
+
+    int deleteByPreIdsAndBusinessAccountId(
+            @Param("preIds") Collection<Integer> preIds,
+            @Param("businessAccountId") Integer businessAccountId);
+
     Integer getLastInsertId();
 
     /**
      * 原材料IDによる参照件数を取得
      */
     int countByDetailFoodId(@Param("foodId") Integer foodId);
+
+    /**
+     * 指定した原材料のうち、仕込品の明細で使用されている原材料IDを取得
+     */
+    List<Integer> findUsedDetailFoodIds(@Param("foodIds") Collection<Integer> foodIds);
+
+    /**
+     * 全仕込品明細の参照関係（仕込品ID・原材料ID・仕込品ID）のみを取得
+     */
+    List<FoodPreProductDetailItem> findAllReferences();
+
+    /**
+     * 半完成品から到達できる全ての仕込品明細を階層・総重量付きで取得
+     */
+    List<FoodPreProductTreeRow> findTreeBySemiId(@Param("semiId") Integer semiId);
+
+    /**
+     * ビジネスアカウントの全仕込品明細を取得
+     */
+    List<FoodPreProductDetailItem> findByBusinessAccountId(@Param("businessAccountId") Integer businessAccountId);
+
+    /**
+     * 仕込品自身と、ネストした明細で到達できる全ての仕込品IDを取得
+     */
+    List<Integer> findDescendantPreIds(@Param("preId") Integer preId);
+
+    /**
+     * 仕込品を明細に含む上位の仕込品IDを取得
+     */
+    List<Integer> findParentPreIds(@Param("preId") Integer preId);
+
+    /**
+     * 指定した仕込品のいずれかを明細に含む上位の仕込品IDを取得
+     */
+    List<Integer> findParentPreIdsByPreIds(@Param("preIds") Collection<Integer> preIds);
 }
@@ -5,6 +5,8 @@ import com.nines.nutsfact.domain.model.SelectItem;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +25,14 @@ public interface FoodPreProductMapper {
 
     List<SelectItem> findSelectItems(@Param("preKind") Integer preKind);
 
+    /**
+     * 差分同期: 更新日時がsinceより後の仕込品を取得
+     */
+    List<FoodPreProductItem> findChangedSince(
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("since") LocalDateTime since,
+            @Param("limit") int limit);
+
     Optional<FoodPreProductItem> findById(@Param("id") Integer id);
 
     Optional<FoodPreProductItem> findByIdAndBusinessAccountId(
@@ -39,5 +49,48 @@ public interface FoodPreProductMapper {
             @Param("id") Integer id,
             @Param("businessAccountId") Integer businessAccountId);
 
+    /**
+     * 原価計算用に重量・原価の合計のみを取得
+     * @param ids nullの場合はビジネスアカウントの全仕込品
+     */
+    List<FoodPreProductItem> findCostSummaries(
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("ids") Collection<Integer> ids);
+
+    /**
+     * 複数仕込品の原価合計を1文で更新（IDとcostPriceSumのみ使用）
+     */
+    int updateCostPriceSums(@Param("items") List<FoodPreProductItem> items);
+
+    /**
+     * 明細の変更を差分同期に載せるため、仕込品の更新日時のみを現在時刻にする
+     */
+    int touchUpdateDate(
+            @Param("ids") Collection<Integer> ids,
+            @Param("businessAccountId") Integer businessAccountId);
+
+    /**
+     * 一括削除の対象（仕込品ID・ビジネスアカウントIDのみ）を取得
+     */
+    List<FoodPreProductItem> findDeleteTargets(
+            @Param("ids") Collection<Integer> ids,
+            @Param("businessAccountId") Integer businessAccountId);
+
+    int deleteByIdsAndBusinessAccountId(
+            @Param("ids") Collection<Integer> ids,
+            @Param("businessAccountId") Integer businessAccountId);
+
     Integer getLastInsertId();
+
+    /**
+     * 明細の子仕込品から仕込品の階層を算出
+     */
+    Integer computePreLevel(@Param("preId") Integer preId);
+
+    int updatePreLevel(@Param("preId") Integer preId, @Param("preLevel") Integer preLevel);
+
+    /**
+     * 階層が未設定の仕込品数を取得
+     */
+    int countWithoutPreLevel();
 }
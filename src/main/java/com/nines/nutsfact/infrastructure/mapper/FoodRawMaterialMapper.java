@@ -1,10 +1,15 @@
 package com.nines.nutsfact.infrastructure.mapper;
 
 import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.RawMaterialPrice;
+import com.nines.nutsfact.domain.model.RawMaterialRevisionHead;
 import com.nines.nutsfact.domain.model.SelectItem;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +24,56 @@ public interface FoodRawMaterialMapper {
             @Param("categoryId") Integer categoryId,
             @Param("businessAccountId") Integer businessAccountId);
 
+    /**
+     * カテゴリ別原材料をfood_id順に取得（afterFoodIdより後ろをlimit件）
+     */
+    List<FoodRawMaterial> findPageByCategory(
+            @Param("categoryId") Integer categoryId,
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("afterFoodId") Integer afterFoodId,
+            @Param("limit") int limit);
+
+    /**
+     * 差分同期: 最終更新日時がsinceより後の原材料を取得（8訂・拡張とビジネスアカウントの原材料）
+     */
+    List<FoodRawMaterial> findChangedSince(
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("since") LocalDateTime since,
+            @Param("limit") int limit);
+
+    int countByCategory(
+            @Param("categoryId") Integer categoryId,
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("afterFoodId") Integer afterFoodId);
+
+    /**
+     * カテゴリ別原材料をfood_id順に1行ずつResultHandlerへ渡す
+     */
+    void streamByCategory(
+            @Param("categoryId") Integer categoryId,
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("afterFoodId") Integer afterFoodId,
+            ResultHandler<FoodRawMaterial> handler);
+
+    /**
+     * 原材料一覧を名称・分類・価格・フラグのみで取得（栄養成分を含まない）
+     * categoryId, businessAccountIdがnullの場合は絞り込まない。limitがnullの場合は全件
+     */
+    List<FoodRawMaterial> findSummaries(
+            @Param("categoryId") Integer categoryId,
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("afterFoodId") Integer afterFoodId,
+            @Param("limit") Integer limit);
+
+    /**
+     * 原材料一覧を表示ラベル用の項目（基本栄養成分を含む）で取得
+     */
+    List<FoodRawMaterial> findLabels(
+            @Param("categoryId") Integer categoryId,
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("afterFoodId") Integer afterFoodId,
+            @Param("limit") Integer limit);
+
     List<FoodRawMaterial> findByBusinessAccountId(@Param("businessAccountId") Integer businessAccountId);
 
     List<SelectItem> findSelectItems(@Param("categoryId") Integer categoryId);
@@ -29,6 +84,11 @@ public interface FoodRawMaterialMapper {
             @Param("id") Integer id,
             @Param("businessAccountId") Integer businessAccountId);
 
+    /**
+     * 複数原材料の栄養成分（廃棄率含む）のみを一括取得
+     */
+    List<FoodRawMaterial> findNutritionByIds(@Param("ids") Collection<Integer> ids);
+
     Optional<FoodRawMaterial> findByFoodNo(@Param("foodNo") String foodNo);
 
     int insert(@Param("entity") FoodRawMaterial entity);
@@ -41,6 +101,17 @@ public interface FoodRawMaterialMapper {
             @Param("id") Integer id,
             @Param("businessAccountId") Integer businessAccountId);
 
+    /**
+     * 一括削除の対象（原材料ID・ビジネスアカウントID・カテゴリ・食品番号のみ）を取得
+     */
+    List<FoodRawMaterial> findDeleteTargets(
+            @Param("ids") Collection<Integer> ids,
+            @Param("businessAccountId") Integer businessAccountId);
+
+    int deleteByIdsAndBusinessAccountId(
+            @Param("ids") Collection<Integer> ids,
+            @Param("businessAccountId") Integer businessAccountId);
+
     Integer getLastInsertId();
 
     /**
@@ -49,6 +120,17 @@ public interface FoodRawMaterialMapper {
      */
     int updateNutritionByFoodNo(@Param("entity") FoodRawMaterial entity);
 
+    /**
+     * 成分表からの移送で複数の原材料を1文で登録・更新
+     * foodIdがある原材料はupdateNutritionByFoodNoと同じ列を更新し、ない原材料は新規登録する
+     */
+    int upsertStandardCompositions(@Param("entities") List<FoodRawMaterial> entities);
+
+    /**
+     * 成分表（historyIdがnullの場合は全件）の食品番号と同じ食品番号の原材料を取得（food_id, food_no, category_idのみ）
+     */
+    List<FoodRawMaterial> findTransferTargets(@Param("historyId") Integer historyId);
+
     /**
      * 指定されたfood_noとbusiness_account_idの最大revision_of_food_noを取得
      * @param foodNo 食品番号
@@ -58,4 +140,37 @@ public interface FoodRawMaterialMapper {
     Integer getMaxRevisionByFoodNoAndBusinessAccountId(
             @Param("foodNo") String foodNo,
             @Param("businessAccountId") Integer businessAccountId);
+
+    /**
+     * ビジネスアカウント・食品番号ごとの最新リビジョンを取得
+     * @param businessAccountId nullの場合は全ビジネスアカウント
+     * @param foodNo nullの場合は全食品番号
+     * @param foodNos nullでない場合は指定した食品番号のみ
+     */
+    List<RawMaterialRevisionHead> findRevisionHeads(
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("foodNo") String foodNo,
+            @Param("foodNos") Collection<String> foodNos);
+
+    /**
+     * 仕入元情報から加重平均単価・最終仕入単価を再計算
+     * @param foodIds nullの場合はビジネスアカウントの全原材料
+     * @return 対象の原材料の件数
+     */
+    int recalculatePricesFromSuppliers(
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("foodIds") Collection<Integer> foodIds);
+
+    /**
+     * 指定した原材料の単価を一括取得（ビジネスアカウントで絞り込まない）
+     */
+    List<RawMaterialPrice> findPricesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 原材料の単価を一括取得
+     * @param foodIds nullの場合はビジネスアカウントの全原材料
+     */
+    List<RawMaterialPrice> findPrices(
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("foodIds") Collection<Integer> foodIds);
 }
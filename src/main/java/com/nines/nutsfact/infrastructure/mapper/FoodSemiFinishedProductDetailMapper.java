@@ -4,6 +4,7 @@ import com.nines.nutsfact.domain.model.FoodSemiFinishedProductDetail;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,10 +39,33 @@ public interface FoodSemiFinishedProductDetailMapper {
             @Param("semiId") Integer semiId,
             @Param("businessAccountId") Integer businessAccountId);
 
+    List<FoodSemiFinishedProductDetail> findBySemiIds(@Param("semiIds") Collection<Integer> semiIds);
+
+    List<FoodSemiFinishedProductDetail> findByBusinessAccountId(@Param("businessAccountId") Integer businessAccountId);
+
+    /**
+     * 複数明細の原価を1文で更新（detailId・costPriceのみ使用）
+     */
+    int updateCostPrices(@Param("items") List<FoodSemiFinishedProductDetail> items);
+
+    int deleteBySemiIdsAndBusinessAccountId(
+            @Param("semiIds") Collection<Integer> semiIds,
+            @Param("businessAccountId") Integer businessAccountId);
+
     Integer getLastInsertId();
 
     /**
      * 原材料IDによる参照件数を取得
      */
     int countByDetailFoodId(@Param("foodId") Integer foodId);
+
+    /**
+     * 指定した原材料のうち、半完成品の明細で使用されている原材料IDを取得
+     */
+    List<Integer> findUsedDetailFoodIds(@Param("foodIds") Collection<Integer> foodIds);
+
+    /**
+     * 全半完成品明細の参照関係（半完成品ID・原材料ID・仕込品ID）のみを取得
+     */
+    List<FoodSemiFinishedProductDetail> findAllReferences();
 }
@@ -5,6 +5,8 @@ import com.nines.nutsfact.domain.model.SelectItem;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,8 +17,18 @@ public interface FoodSemiFinishedProductMapper {
 
     List<FoodSemiFinishedProduct> findByBusinessAccountId(@Param("businessAccountId") Integer businessAccountId);
 
+    List<Integer> findIdsByBusinessAccountId(@Param("businessAccountId") Integer businessAccountId);
+
     List<SelectItem> findSelectItems(@Param("businessAccountId") Integer businessAccountId);
 
+    /**
+     * 差分同期: 更新日時がsinceより後の半完成品を取得
+     */
+    List<FoodSemiFinishedProduct> findChangedSince(
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("since") LocalDateTime since,
+            @Param("limit") int limit);
+
     Optional<FoodSemiFinishedProduct> findById(@Param("id") Integer id);
 
     Optional<FoodSemiFinishedProduct> findByIdAndBusinessAccountId(
@@ -35,11 +47,52 @@ public interface FoodSemiFinishedProductMapper {
             @Param("id") Integer id,
             @Param("additiveSummary") String additiveSummary);
 
+    /**
+     * 複数半完成品のアレルゲン・添加物集約情報を一括更新
+     */
+    int updateSummaries(@Param("items") List<FoodSemiFinishedProduct> items);
+
+    /**
+     * 栄養成分値のみを更新
+     */
+    int updateNutrition(@Param("entity") FoodSemiFinishedProduct entity);
+
     int delete(@Param("id") Integer id);
 
     int deleteByIdAndBusinessAccountId(
             @Param("id") Integer id,
             @Param("businessAccountId") Integer businessAccountId);
 
+    /**
+     * 原価計算用に重量・原価の合計のみを取得
+     * @param ids nullの場合はビジネスアカウントの全半完成品
+     */
+    List<FoodSemiFinishedProduct> findCostSummaries(
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("ids") Collection<Integer> ids);
+
+    /**
+     * 複数半完成品の原価合計を1文で更新（IDとcostPriceSumのみ使用）
+     */
+    int updateCostPriceSums(@Param("items") List<FoodSemiFinishedProduct> items);
+
+    /**
+     * 明細の変更を差分同期に載せるため、半完成品の更新日時のみを現在時刻にする
+     */
+    int touchUpdateDate(
+            @Param("ids") Collection<Integer> ids,
+            @Param("businessAccountId") Integer businessAccountId);
+
+    /**
+     * 一括削除の対象（半完成品ID・ビジネスアカウントIDのみ）を取得
+     */
+    List<FoodSemiFinishedProduct> findDeleteTargets(
+            @Param("ids") Collection<Integer> ids,
+            @Param("businessAccountId") Integer businessAccountId);
+
+    int deleteByIdsAndBusinessAccountId(
+            @Param("ids") Collection<Integer> ids,
+            @Param("businessAccountId") Integer businessAccountId);
+
     Integer getLastInsertId();
 }
@@ -1,5 +1,6 @@
 package com.nines.nutsfact.infrastructure.mapper;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
@@ -11,6 +12,7 @@ import com.nines.nutsfact.domain.model.additive.RawMaterialAdditive;
 public interface RawMaterialAdditiveMapper {
     List<RawMaterialAdditive> findByFoodId(@Param("foodId") Integer foodId);
     List<RawMaterialAdditive> findByFoodIdWithAdditive(@Param("foodId") Integer foodId);
+    List<RawMaterialAdditive> findByFoodIdsWithAdditive(@Param("foodIds") Collection<Integer> foodIds);
     List<RawMaterialAdditive> findByBusinessAccountId(@Param("businessAccountId") Integer businessAccountId);
     RawMaterialAdditive findById(@Param("id") Integer id);
     RawMaterialAdditive findByIdAndBusinessAccountId(
@@ -0,0 +1,36 @@
+package com.nines.nutsfact.infrastructure.mapper;
+
+import com.nines.nutsfact.domain.model.sync.SyncTombstone;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface SyncTombstoneMapper {
+
+    int insert(@Param("entity") SyncTombstone entity);
+
+    int insertAll(@Param("entities") List<SyncTombstone> entities);
+
+    /**
+     * 削除日時がsinceより後の削除記録を取得（ビジネスアカウントと共通の記録）
+     */
+    List<SyncTombstone> findDeletedSince(
+            @Param("businessAccountId") Integer businessAccountId,
+            @Param("entityTypes") Collection<String> entityTypes,
+            @Param("since") LocalDateTime since,
+            @Param("limit") int limit);
+
+    /**
+     * 保持期間を過ぎた削除記録を削除
+     */
+    int deleteDeletedBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * DBの現在日時（差分同期のウォーターマーク）
+     */
+    LocalDateTime selectCurrentTimestamp();
+}
@@ -0,0 +1,84 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.allergy.AllergenicControl;
+import com.nines.nutsfact.domain.repository.AllergenicControlRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AllergenicControlService のユニットテスト
+ *
+ * テスト対象:
+ * - evictMask() / evictMasks() のトランザクション完了後の再破棄
+ */
+@ExtendWith(MockitoExtension.class)
+class AllergenicControlServiceTest {
+
+    @Mock
+    private AllergenicControlRepository allergenicControlRepository;
+
+    @Mock
+    private WhereUsedIndexService whereUsedIndexService;
+
+    @InjectMocks
+    private AllergenicControlService allergenicControlService;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static AllergenicControl wheat(int foodId, boolean contains) {
+        AllergenicControl control = new AllergenicControl();
+        control.setFoodId(foodId);
+        control.setItem3Val(contains);
+        return control;
+    }
+
+    private static void completeTransaction() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    @Test
+    @DisplayName("コミット前にキャッシュし直された変更前のマスクを、トランザクションの完了後に破棄する")
+    void evictsStaleMaskAfterCompletion() {
+        when(allergenicControlRepository.findByFoodIds(List.of(1)))
+            .thenReturn(List.of(wheat(1, false)), List.of(wheat(1, true)));
+        TransactionSynchronizationManager.initSynchronization();
+
+        allergenicControlService.evictMask(1);
+        // コミット前の読み込みが変更前のマスクをキャッシュする
+        assertThat(allergenicControlService.findMasksByFoodIds(List.of(1))).containsEntry(1, 0);
+
+        completeTransaction();
+
+        assertThat(allergenicControlService.findMasksByFoodIds(List.of(1))).containsEntry(1, 1 << 3);
+        verify(allergenicControlRepository, times(2)).findByFoodIds(List.of(1));
+    }
+
+    @Test
+    @DisplayName("一括破棄はトランザクションの完了後の通知を1回だけ登録する")
+    void evictsManyWithSingleSynchronization() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        allergenicControlService.evictMasks(List.of(1, 2, 3));
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+    }
+}
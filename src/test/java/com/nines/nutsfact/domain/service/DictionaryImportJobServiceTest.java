@@ -0,0 +1,356 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.api.v1.controller.FoodCompositionDictionaryController.TransferResult;
+import com.nines.nutsfact.domain.service.DictionaryImportJobService.JobState;
+import com.nines.nutsfact.domain.service.DictionaryImportJobService.JobStatus;
+import com.nines.nutsfact.domain.service.FoodCompositionDictionaryService.ImportListener;
+import com.nines.nutsfact.exception.ApiException;
+import com.nines.nutsfact.exception.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * DictionaryImportJobService のユニットテスト
+ *
+ * テスト対象:
+ * - resume() のチェックポイントからの再開（CSV・Excel・移送）
+ * - 取り込み前のテーブルクリアが最初の実行だけであること
+ * - 実行中のジョブ・同期APIとの排他
+ * - 再起動後のチェックポイントファイルからの読み込み
+ * - purgeExpiredJobs() の保持期間を過ぎたジョブの削除
+ */
+@ExtendWith(MockitoExtension.class)
+class DictionaryImportJobServiceTest {
+
+    private static final int HISTORY_ID = 8;
+
+    @Mock
+    private FoodCompositionDictionaryService dictionaryService;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private final List<DictionaryImportJobService> services = new ArrayList<>();
+
+    private DictionaryImportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        service = newService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(DictionaryImportJobService::shutdown);
+    }
+
+    @Test
+    @DisplayName("CSVの取り込みは、失敗したジョブをコミット済みの行番号の次から再開する")
+    void resume_csvFromLineCheckpoint() throws Exception {
+        doAnswer(invocation -> {
+            ImportListener listener = invocation.getArgument(3);
+            listener.read();
+            listener.read();
+            listener.committed(3, 2, 0);
+            listener.read();
+            listener.failed("行4: 不正な値");
+            throw new IOException("読み込みが中断されました");
+        }).doAnswer(invocation -> {
+            ImportListener listener = invocation.getArgument(3);
+            listener.read();
+            listener.read();
+            listener.committed(5, 2, 0);
+            return null;
+        }).when(dictionaryService).importCsv(any(Path.class), eq(HISTORY_ID), anyInt(), any(ImportListener.class));
+
+        String jobId = service.startCsvUpload(csv(), HISTORY_ID, false).jobId();
+        JobStatus failed = awaitFinished(service, jobId);
+
+        assertThat(failed.state()).isEqualTo(JobState.FAILED);
+        assertThat(failed.checkpoint()).isEqualTo(3);
+        assertThat(failed.inserted()).isEqualTo(2);
+        assertThat(failed.message()).contains("読み込みが中断されました");
+        assertThat(spoolDirectory.resolve(jobId + ".csv")).exists();
+        assertThat(spoolDirectory.resolve(jobId + ".checkpoint")).exists();
+
+        service.resume(jobId);
+        JobStatus completed = awaitFinished(service, jobId);
+
+        assertThat(completed.state()).isEqualTo(JobState.COMPLETED);
+        assertThat(completed.checkpoint()).isEqualTo(5);
+        assertThat(completed.inserted()).isEqualTo(4);
+        // コミットされなかった行・エラーは数えない
+        assertThat(completed.parsed()).isEqualTo(4);
+        assertThat(completed.failed()).isZero();
+        verify(dictionaryService).importCsv(eq(spoolDirectory.resolve(jobId + ".csv")), eq(HISTORY_ID), eq(0), any());
+        verify(dictionaryService).importCsv(eq(spoolDirectory.resolve(jobId + ".csv")), eq(HISTORY_ID), eq(3), any());
+        verify(dictionaryService, never()).truncate();
+        assertThat(listSpoolFiles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Excelの取り込みは、失敗したジョブをコミット済みの行番号の次から再開する")
+    void resume_excelFromRowCheckpoint() throws Exception {
+        doAnswer(invocation -> {
+            ImportListener listener = invocation.getArgument(3);
+            listener.read();
+            listener.committed(2, 1, 0);
+            throw new IOException("Excelファイルの読み込みに失敗しました");
+        }).doAnswer(invocation -> {
+            ImportListener listener = invocation.getArgument(3);
+            listener.read();
+            listener.committed(3, 1, 0);
+            return null;
+        }).when(dictionaryService).importExcel(any(Path.class), eq(HISTORY_ID), anyInt(), any(ImportListener.class));
+
+        String jobId = service.startExcelUpload(xlsx(), HISTORY_ID, false).jobId();
+        assertThat(awaitFinished(service, jobId).checkpoint()).isEqualTo(2);
+
+        service.resume(jobId);
+        JobStatus completed = awaitFinished(service, jobId);
+
+        assertThat(completed.state()).isEqualTo(JobState.COMPLETED);
+        assertThat(completed.inserted()).isEqualTo(2);
+        verify(dictionaryService).importExcel(eq(spoolDirectory.resolve(jobId + ".xlsx")), eq(HISTORY_ID), eq(0), any());
+        verify(dictionaryService).importExcel(eq(spoolDirectory.resolve(jobId + ".xlsx")), eq(HISTORY_ID), eq(2), any());
+    }
+
+    @Test
+    @DisplayName("移送は、失敗したジョブをコミット済みの食品IDの次から再開する")
+    void resume_transferFromFoodIdCheckpoint() {
+        when(dictionaryService.transferToRawMaterials(eq(HISTORY_ID), anyInt(), any(ImportListener.class)))
+            .thenAnswer(invocation -> {
+                ImportListener listener = invocation.getArgument(2);
+                listener.read();
+                listener.read();
+                listener.committed(1002, 1, 1);
+                throw new IllegalStateException("接続が切断されました");
+            })
+            .thenAnswer(invocation -> {
+                ImportListener listener = invocation.getArgument(2);
+                listener.read();
+                listener.committed(1003, 1, 0);
+                return new TransferResult(1, 0, 0, List.of());
+            });
+
+        String jobId = service.startTransfer(HISTORY_ID).jobId();
+        JobStatus failed = awaitFinished(service, jobId);
+
+        assertThat(failed.state()).isEqualTo(JobState.FAILED);
+        assertThat(failed.checkpoint()).isEqualTo(1002);
+
+        service.resume(jobId);
+        JobStatus completed = awaitFinished(service, jobId);
+
+        assertThat(completed.state()).isEqualTo(JobState.COMPLETED);
+        assertThat(completed.inserted()).isEqualTo(2);
+        assertThat(completed.updated()).isEqualTo(1);
+        verify(dictionaryService).transferToRawMaterials(eq(HISTORY_ID), eq(0), any());
+        verify(dictionaryService).transferToRawMaterials(eq(HISTORY_ID), eq(1002), any());
+        // コミット済みの分は失敗した実行でも標準成分データに反映する
+        verify(dictionaryService, times(2)).refreshStandardCompositions();
+    }
+
+    @Test
+    @DisplayName("テーブルのクリアは最初の実行でだけ行い、再開時はコミット済みの行を残す")
+    void resume_truncatesOnlyOnFirstAttempt() throws Exception {
+        doAnswer(invocation -> {
+            ImportListener listener = invocation.getArgument(3);
+            listener.read();
+            listener.committed(2, 1, 0);
+            throw new IOException("読み込みが中断されました");
+        }).doNothing()
+            .when(dictionaryService).importCsv(any(Path.class), eq(HISTORY_ID), anyInt(), any(ImportListener.class));
+
+        String jobId = service.startCsvUpload(csv(), HISTORY_ID, true).jobId();
+        awaitFinished(service, jobId);
+        service.resume(jobId);
+
+        assertThat(awaitFinished(service, jobId).state()).isEqualTo(JobState.COMPLETED);
+        verify(dictionaryService, times(1)).truncate();
+    }
+
+    @Test
+    @DisplayName("実行中のジョブがある間は、新しいジョブも同期APIの取り込みも409とする")
+    void start_conflictsWhileJobIsRunning() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(dictionaryService).importCsv(any(Path.class), eq(HISTORY_ID), anyInt(), any(ImportListener.class));
+
+        String jobId = service.startCsvUpload(csv(), HISTORY_ID, false).jobId();
+        try {
+            assertThatThrownBy(() -> service.startTransfer(HISTORY_ID))
+                .isInstanceOfSatisfying(ApiException.class,
+                    e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+            assertThatThrownBy(() -> service.startExcelUpload(xlsx(), HISTORY_ID, false))
+                .isInstanceOfSatisfying(ApiException.class,
+                    e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+            assertThatThrownBy(() -> service.runExclusively(() -> "同期API"))
+                .isInstanceOfSatisfying(ApiException.class,
+                    e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(awaitFinished(service, jobId).state()).isEqualTo(JobState.COMPLETED);
+        assertThat(service.runExclusively(() -> "同期API")).isEqualTo("同期API");
+    }
+
+    @Test
+    @DisplayName("同期APIの実行中は、ジョブを受け付けない")
+    void start_conflictsWhileExclusiveOperationIsRunning() {
+        service.runExclusively(() -> {
+            assertThatThrownBy(() -> service.startTransfer(HISTORY_ID))
+                .isInstanceOfSatisfying(ApiException.class,
+                    e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+            return null;
+        });
+
+        verifyNoInteractions(dictionaryService);
+    }
+
+    @Test
+    @DisplayName("再起動後は、失敗したジョブをチェックポイントファイルから読み込んで再開できる")
+    void resume_reloadsFailedJobFromCheckpointFileAfterRestart() throws Exception {
+        doAnswer(invocation -> {
+            ImportListener listener = invocation.getArgument(3);
+            listener.read();
+            listener.read();
+            listener.committed(3, 2, 0);
+            throw new IOException("読み込みが中断されました");
+        }).doAnswer(invocation -> {
+            ImportListener listener = invocation.getArgument(3);
+            listener.read();
+            listener.committed(4, 1, 0);
+            return null;
+        }).when(dictionaryService).importCsv(any(Path.class), eq(HISTORY_ID), anyInt(), any(ImportListener.class));
+
+        String jobId = service.startCsvUpload(csv(), HISTORY_ID, true).jobId();
+        awaitFinished(service, jobId);
+        service.shutdown();
+
+        // 同じスプールディレクトリで起動し直したサービス
+        DictionaryImportJobService restarted = newService();
+        JobStatus reloaded = restarted.getStatus(jobId);
+
+        assertThat(reloaded.state()).isEqualTo(JobState.FAILED);
+        assertThat(reloaded.historyId()).isEqualTo(HISTORY_ID);
+        assertThat(reloaded.checkpoint()).isEqualTo(3);
+        assertThat(reloaded.parsed()).isEqualTo(2);
+        assertThat(reloaded.inserted()).isEqualTo(2);
+        assertThat(reloaded.message()).contains("再起動");
+
+        restarted.resume(jobId);
+        JobStatus completed = awaitFinished(restarted, jobId);
+
+        assertThat(completed.state()).isEqualTo(JobState.COMPLETED);
+        assertThat(completed.inserted()).isEqualTo(3);
+        verify(dictionaryService).importCsv(eq(spoolDirectory.resolve(jobId + ".csv")), eq(HISTORY_ID), eq(3), any());
+        // クリア済みの記録もチェックポイントファイルから読み込む
+        verify(dictionaryService, times(1)).truncate();
+    }
+
+    @Test
+    @DisplayName("存在しないジョブ・不正なジョブIDは404とする")
+    void getStatus_unknownJob() {
+        assertThatThrownBy(() -> service.getStatus("00000000-0000-0000-0000-000000000000"))
+            .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> service.getStatus("../application"))
+            .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("保持期間を過ぎた失敗ジョブのファイルを削除し、期間内のジョブは残す")
+    void purgeExpiredJobs_deletesFilesOfExpiredFailedJobs() throws Exception {
+        doThrow(new IOException("読み込みが中断されました"))
+            .when(dictionaryService).importCsv(any(Path.class), eq(HISTORY_ID), anyInt(), any(ImportListener.class));
+        String expiredJobId = service.startCsvUpload(csv(), HISTORY_ID, false).jobId();
+        awaitFinished(service, expiredJobId);
+        String recentJobId = service.startCsvUpload(csv(), HISTORY_ID, false).jobId();
+        awaitFinished(service, recentJobId);
+        service.shutdown();
+
+        FileTime expired = FileTime.from(Instant.now().minus(Duration.ofHours(73)));
+        Files.setLastModifiedTime(spoolDirectory.resolve(expiredJobId + ".csv"), expired);
+        Files.setLastModifiedTime(spoolDirectory.resolve(expiredJobId + ".checkpoint"), expired);
+        Path unrelated = Files.writeString(spoolDirectory.resolve("README.txt"), "保持期間の対象外");
+        Files.setLastModifiedTime(unrelated, expired);
+
+        DictionaryImportJobService restarted = newService();
+        restarted.purgeExpiredJobs();
+
+        assertThat(listSpoolFiles()).containsExactlyInAnyOrder(
+            recentJobId + ".csv", recentJobId + ".checkpoint", "README.txt");
+        assertThatThrownBy(() -> restarted.getStatus(expiredJobId)).isInstanceOf(EntityNotFoundException.class);
+        assertThat(restarted.getStatus(recentJobId).state()).isEqualTo(JobState.FAILED);
+    }
+
+    private DictionaryImportJobService newService() {
+        DictionaryImportJobService created = new DictionaryImportJobService(dictionaryService, spoolDirectory.toString(), 72);
+        services.add(created);
+        return created;
+    }
+
+    /**
+     * ジョブが終わるまで待って進捗を返す
+     */
+    private static JobStatus awaitFinished(DictionaryImportJobService target, String jobId) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            JobStatus status = target.getStatus(jobId);
+            if (status.state() != JobState.RUNNING) {
+                return status;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return fail("ジョブが終わりません: " + jobId);
+    }
+
+    private List<String> listSpoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+
+    private static MockMultipartFile csv() {
+        return new MockMultipartFile("file", "dictionary.csv", "text/csv",
+            "食品群,食品番号\n1,1001\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockMultipartFile xlsx() {
+        return new MockMultipartFile("file", "dictionary.xlsx",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", new byte[] {0x50, 0x4b});
+    }
+}
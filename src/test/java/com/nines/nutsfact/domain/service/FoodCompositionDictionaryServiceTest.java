@@ -0,0 +1,223 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.FoodCompositionDictionary;
+import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.repository.FoodCompositionDictionaryRepository;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import com.nines.nutsfact.domain.service.FoodCompositionDictionaryService.ImportListener;
+import com.nines.nutsfact.domain.service.FoodCompositionDictionaryService.UploadResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FoodCompositionDictionaryService のユニットテスト
+ *
+ * テスト対象:
+ * - uploadCsv() の読み込み・並列パース・登録のパイプライン
+ * - transferToRawMaterials() の食品IDのチェックポイントからの再開
+ */
+@ExtendWith(MockitoExtension.class)
+class FoodCompositionDictionaryServiceTest {
+
+    private static final String HEADER = "食品群,食品番号,索引番号,食品名";
+    private static final int HISTORY_ID = 8;
+
+    @Mock
+    private FoodCompositionDictionaryRepository repository;
+
+    @Mock
+    private FoodRawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private StandardCompositionCacheService standardCompositionCache;
+
+    @Mock
+    private NameSearchIndexService nameSearchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FoodCompositionDictionaryService service;
+
+    // batchInsertに渡された行（呼び出し後にリストがクリアされるため、呼び出し時に写し取る）
+    private final List<FoodCompositionDictionary> inserted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 2行ずつパースし、3行ずつ登録する
+        service = new FoodCompositionDictionaryService(repository, rawMaterialRepository, standardCompositionCache,
+            nameSearchIndex, transactionManager, 3, 2, 4);
+        lenient().when(repository.batchInsert(anyList())).thenAnswer(invocation -> {
+            List<FoodCompositionDictionary> entities = invocation.getArgument(0);
+            inserted.addAll(entities);
+            return entities.size();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("行のまとまりより多い行のCSVを、ファイルの順に登録する")
+    void uploadCsv_keepsFileOrderAcrossChunks() {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        IntStream.rangeClosed(1, 25).forEach(i -> lines.add(csvLine(1000 + i)));
+
+        UploadResult result = service.uploadCsv(csv(lines), HISTORY_ID);
+
+        assertThat(result.getSuccessCount()).isEqualTo(25);
+        assertThat(result.getErrorCount()).isZero();
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(inserted).extracting(FoodCompositionDictionary::getFoodNo)
+            .containsExactlyElementsOf(IntStream.rangeClosed(1001, 1025).boxed().toList());
+        assertThat(inserted).extracting(FoodCompositionDictionary::getHistoryId).containsOnly(HISTORY_ID);
+        verify(repository, times(9)).batchInsert(anyList());
+    }
+
+    @Test
+    @DisplayName("パースエラーはファイルの行番号で記録し、他の行は登録する")
+    void uploadCsv_parseErrorsKeepLineNumbers() {
+        List<String> lines = List.of(
+            HEADER,
+            csvLine(1001),
+            csvLine(1002),
+            "1,x,00003,不正な行",
+            csvLine(1004),
+            csvLine(1005),
+            csvLine(1006).replaceFirst("^1,", "y,"));
+
+        UploadResult result = service.uploadCsv(csv(lines), HISTORY_ID);
+
+        assertThat(result.getSuccessCount()).isEqualTo(4);
+        assertThat(result.getErrorCount()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(2);
+        assertThat(result.getErrors().get(0)).startsWith("行4: ");
+        assertThat(result.getErrors().get(1)).startsWith("行7: ");
+        assertThat(inserted).extracting(FoodCompositionDictionary::getFoodNo)
+            .containsExactly(1001, 1002, 1004, 1005);
+    }
+
+    @Test
+    @DisplayName("先頭のまとまりでBOMを除いてヘッダー行を読み飛ばす")
+    void uploadCsv_skipsBomAndHeader() {
+        UploadResult result = service.uploadCsv(csv(List.of("\uFEFF" + HEADER, csvLine(1001), csvLine(1002))), HISTORY_ID);
+
+        assertThat(result.getSuccessCount()).isEqualTo(2);
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(inserted).extracting(FoodCompositionDictionary::getFoodNo).containsExactly(1001, 1002);
+    }
+
+    @Test
+    @DisplayName("ヘッダー行がない場合はBOMを除いた1行目から登録する")
+    void uploadCsv_bomWithoutHeader() {
+        UploadResult result = service.uploadCsv(csv(List.of("\uFEFF" + csvLine(1001), csvLine(1002))), HISTORY_ID);
+
+        assertThat(result.getSuccessCount()).isEqualTo(2);
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(inserted).extracting(FoodCompositionDictionary::getFoodNo).containsExactly(1001, 1002);
+    }
+
+    @Test
+    @DisplayName("読み込みに失敗した場合は、それまでに読み込んだ行を登録してファイルエラーを記録する")
+    void uploadCsv_readFailureFlushesRowsReadSoFar() throws IOException {
+        List<String> lines = List.of(HEADER, csvLine(1001), csvLine(1002), csvLine(1003), csvLine(1004));
+        InputStream readable = new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("接続が切断されました");
+            }
+        };
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.getInputStream()).thenReturn(new SequenceInputStream(readable, broken));
+
+        UploadResult result = service.uploadCsv(file, HISTORY_ID);
+
+        assertThat(result.getSuccessCount()).isEqualTo(4);
+        assertThat(result.getErrorCount()).isZero();
+        assertThat(result.getErrors()).containsExactly("ファイル読み込みエラー: 接続が切断されました");
+        assertThat(inserted).extracting(FoodCompositionDictionary::getFoodNo)
+            .containsExactly(1001, 1002, 1003, 1004);
+    }
+
+    @Test
+    @DisplayName("移送を食品IDのチェックポイントから再開しても、同じ食品番号は最初の実行と同じ後の行で登録する")
+    void transferToRawMaterials_resumeInsertsSameDuplicateRow() {
+        when(repository.findByHistoryId(HISTORY_ID)).thenReturn(List.of(
+            dictionary(1, 1001),
+            dictionary(2, 1002),
+            dictionary(3, 1001),
+            dictionary(4, 1003)));
+        List<FoodRawMaterial> upserted = new ArrayList<>();
+        when(rawMaterialRepository.upsertStandardCompositions(anyList())).thenAnswer(invocation -> {
+            List<FoodRawMaterial> entities = invocation.getArgument(0);
+            upserted.addAll(entities);
+            return entities.size();
+        });
+        ImportListener listener = mock(ImportListener.class);
+
+        service.transferToRawMaterials(HISTORY_ID, 0, listener);
+        List<FoodRawMaterial> firstRun = List.copyOf(upserted);
+        upserted.clear();
+        // 食品ID 1 の行までコミットされた後の再開（食品番号1001は食品ID 1 ではなく 3 の行で登録する）
+        service.transferToRawMaterials(HISTORY_ID, 1, listener);
+
+        assertThat(firstRun).extracting(FoodRawMaterial::getFoodNo, FoodRawMaterial::getOriginalFoodId)
+            .containsExactly(tuple("1002", 2), tuple("1001", 3), tuple("1003", 4));
+        assertThat(upserted).extracting(FoodRawMaterial::getFoodNo, FoodRawMaterial::getOriginalFoodId)
+            .containsExactly(tuple("1002", 2), tuple("1001", 3), tuple("1003", 4));
+        // 3行ずつコミットし、チェックポイントは各まとまりの最後の食品ID
+        verify(listener).committed(3, 2, 0);
+        verify(listener).committed(4, 1, 0);
+        verify(listener).committed(4, 3, 0);
+    }
+
+    private static FoodCompositionDictionary dictionary(int foodId, int foodNo) {
+        return FoodCompositionDictionary.builder()
+            .foodId(foodId)
+            .foodNo(foodNo)
+            .foodName("食品" + foodNo)
+            .historyId(HISTORY_ID)
+            .build();
+    }
+
+    /**
+     * 成分値をすべて0にしたCSVの1行（61列）
+     */
+    private static String csvLine(int foodNo) {
+        StringBuilder line = new StringBuilder("1," + foodNo + ",0" + foodNo + ",食品" + foodNo);
+        for (int column = 4; column <= 60; column++) {
+            line.append(",0");
+        }
+        return line.toString();
+    }
+
+    private static MultipartFile csv(List<String> lines) {
+        return new MockMultipartFile("file", "dictionary.csv", "text/csv",
+            String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,161 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.config.AuthenticatedUser;
+import com.nines.nutsfact.domain.model.BulkDeleteOutcome;
+import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.sync.SyncEntityType;
+import com.nines.nutsfact.domain.repository.AllergenicControlRepository;
+import com.nines.nutsfact.domain.repository.CompositeRawMaterialIngredientRepository;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialSupplierRepository;
+import com.nines.nutsfact.infrastructure.mapper.FoodPreProductDetailMapper;
+import com.nines.nutsfact.infrastructure.mapper.FoodSemiFinishedProductDetailMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FoodRawMaterialService.deleteAllWithBusinessAccountFilter() のユニットテスト
+ *
+ * テスト対象:
+ * - ログインユーザーのビジネスアカウントでの絞り込みと、見つからない・使用中の原材料の除外
+ * - 削除した原材料だけのキャッシュ・索引・差分同期への通知
+ */
+@ExtendWith(MockitoExtension.class)
+class FoodRawMaterialServiceBulkDeleteTest {
+
+    private static final int BUSINESS_ACCOUNT_ID = 7;
+
+    @Mock
+    private FoodRawMaterialRepository repository;
+
+    @Mock
+    private FoodRawMaterialSupplierRepository supplierRepository;
+
+    @Mock
+    private AllergenicControlRepository allergenicControlRepository;
+
+    @Mock
+    private AllergenicControlService allergenicControlService;
+
+    @Mock
+    private WhereUsedIndexService whereUsedIndexService;
+
+    @Mock
+    private StandardCompositionCacheService standardCompositionCache;
+
+    @Mock
+    private NameSearchIndexService nameSearchIndex;
+
+    @Mock
+    private RevisionChainIndexService revisionChainIndex;
+
+    @Mock
+    private SyncService syncService;
+
+    @Mock
+    private RecipeCostService recipeCostService;
+
+    @Mock
+    private CompositeRawMaterialIngredientRepository compositeIngredientRepository;
+
+    @Mock
+    private FoodPreProductDetailMapper preProductDetailMapper;
+
+    @Mock
+    private FoodSemiFinishedProductDetailMapper semiFinishedProductDetailMapper;
+
+    @InjectMocks
+    private FoodRawMaterialService service;
+
+    @BeforeEach
+    void setUpAuthentication() {
+        AuthenticatedUser user = AuthenticatedUser.builder().userId(1).businessAccountId(BUSINESS_ACCOUNT_ID).build();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static FoodRawMaterial rawMaterial(int foodId, String foodNo) {
+        return FoodRawMaterial.builder()
+            .foodId(foodId).foodNo(foodNo).categoryId(3).businessAccountId(BUSINESS_ACCOUNT_ID).build();
+    }
+
+    @Test
+    @DisplayName("ビジネスアカウントで絞り込み、見つからない・使用中の原材料を除いて削除する")
+    void deletesOnlyOwnUnusedRawMaterials() {
+        // 4はビジネスアカウントが異なるため削除対象として返らない
+        when(repository.findDeleteTargets(Set.of(1, 2, 3, 4), BUSINESS_ACCOUNT_ID))
+            .thenReturn(List.of(rawMaterial(1, "A"), rawMaterial(2, "B"), rawMaterial(3, "C")));
+        when(preProductDetailMapper.findUsedDetailFoodIds(any())).thenReturn(List.of(2));
+        when(semiFinishedProductDetailMapper.findUsedDetailFoodIds(any())).thenReturn(List.of(3));
+
+        List<BulkDeleteOutcome> outcomes = service.deleteAllWithBusinessAccountFilter(List.of(1, 2, 3, 4));
+
+        assertThat(outcomes)
+            .extracting(BulkDeleteOutcome::id, BulkDeleteOutcome::status)
+            .containsExactly(
+                tuple(1, BulkDeleteOutcome.Status.DELETED),
+                tuple(2, BulkDeleteOutcome.Status.IN_USE),
+                tuple(3, BulkDeleteOutcome.Status.IN_USE),
+                tuple(4, BulkDeleteOutcome.Status.NOT_FOUND));
+        verify(supplierRepository).deleteByFoodIdsAndBusinessAccountId(List.of(1), BUSINESS_ACCOUNT_ID);
+        verify(allergenicControlRepository).deleteByFoodIdsAndBusinessAccountId(List.of(1), BUSINESS_ACCOUNT_ID);
+        verify(compositeIngredientRepository).deleteByFoodIdsAndBusinessAccountId(List.of(1), BUSINESS_ACCOUNT_ID);
+        verify(repository).deleteByIdsAndBusinessAccountId(List.of(1), BUSINESS_ACCOUNT_ID);
+    }
+
+    @Test
+    @DisplayName("削除した原材料だけをアレルゲンのキャッシュ・索引・差分同期に通知する")
+    void notifiesCachesAndIndexesOfDeletedRawMaterials() {
+        FoodRawMaterial first = rawMaterial(1, "A");
+        FoodRawMaterial second = rawMaterial(2, "B");
+        when(repository.findDeleteTargets(Set.of(1, 2, 9), BUSINESS_ACCOUNT_ID)).thenReturn(List.of(first, second));
+        when(preProductDetailMapper.findUsedDetailFoodIds(any())).thenReturn(List.of());
+        when(semiFinishedProductDetailMapper.findUsedDetailFoodIds(any())).thenReturn(List.of());
+
+        service.deleteAllWithBusinessAccountFilter(List.of(1, 2, 9));
+
+        verify(allergenicControlService).evictMasks(List.of(1, 2));
+        verify(allergenicControlService, never()).evictMask(any());
+        verify(revisionChainIndex).notifyDeleted(List.of(first, second));
+        verify(standardCompositionCache).notifyChanged(1, 3);
+        verify(standardCompositionCache).notifyChanged(2, 3);
+        verify(nameSearchIndex).notifyRawMaterialsDeleted(List.of(1, 2));
+        Map<Integer, Integer> deleted = new LinkedHashMap<>();
+        deleted.put(1, BUSINESS_ACCOUNT_ID);
+        deleted.put(2, BUSINESS_ACCOUNT_ID);
+        verify(syncService).recordDeletions(SyncEntityType.RAW_MATERIAL, deleted);
+    }
+
+    @Test
+    @DisplayName("削除できる原材料がない場合は何も削除・通知しない")
+    void skipsWhenNothingToDelete() {
+        when(repository.findDeleteTargets(Set.of(5), BUSINESS_ACCOUNT_ID)).thenReturn(List.of());
+
+        List<BulkDeleteOutcome> outcomes = service.deleteAllWithBusinessAccountFilter(List.of(5));
+
+        assertThat(outcomes).extracting(BulkDeleteOutcome::status).containsExactly(BulkDeleteOutcome.Status.NOT_FOUND);
+        verify(repository, never()).deleteByIdsAndBusinessAccountId(any(), any());
+        verifyNoInteractions(allergenicControlService, nameSearchIndex, syncService);
+    }
+}
@@ -0,0 +1,44 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.service.MasterDataVersionService.MasterResource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * MasterDataVersionService のユニットテスト
+ *
+ * テスト対象:
+ * - 更新通知によるETagの変化
+ * - ビジネスアカウントごとのバージョンと絞り込まない一覧のバージョン
+ */
+class MasterDataVersionServiceTest {
+
+    private final MasterDataVersionService service = new MasterDataVersionService();
+
+    @Test
+    @DisplayName("更新を通知したビジネスアカウントと絞り込まない一覧のETagだけが変わる")
+    void notifyChangedBumpsOwnBusinessAccountAndAll() {
+        String own = service.etag(MasterResource.MAKER, 10, "v1");
+        String other = service.etag(MasterResource.MAKER, 20, "v1");
+        String all = service.etag(MasterResource.MAKER, null, "v1");
+        String seller = service.etag(MasterResource.SELLER, 10, "v1");
+
+        service.notifyChanged(MasterResource.MAKER, 10);
+
+        assertThat(service.etag(MasterResource.MAKER, 10, "v1")).isNotEqualTo(own);
+        assertThat(service.etag(MasterResource.MAKER, 20, "v1")).isEqualTo(other);
+        assertThat(service.etag(MasterResource.MAKER, null, "v1")).isNotEqualTo(all);
+        assertThat(service.etag(MasterResource.SELLER, 10, "v1")).isEqualTo(seller);
+    }
+
+    @Test
+    @DisplayName("レスポンスの形式が異なる場合は別のETagになる")
+    void etagDiffersByVariant() {
+        assertThat(service.etag(MasterResource.UNIT, null, "v1"))
+            .isNotEqualTo(service.etag(MasterResource.UNIT, null, "v1.type=1"))
+            .startsWith("\"")
+            .endsWith("\"");
+    }
+}
@@ -0,0 +1,122 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.FoodPreProductItem;
+import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.additive.Additive;
+import com.nines.nutsfact.domain.repository.AdditiveRepository;
+import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import com.nines.nutsfact.domain.service.NameSearchIndexService.DocumentType;
+import com.nines.nutsfact.domain.service.NameSearchIndexService.SearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * NameSearchIndexService のユニットテスト
+ *
+ * テスト対象:
+ * - 正規化（全角・半角、カタカナ・ひらがなの統一）
+ * - ビジネスアカウントごとの区画と8訂・拡張の共通区画
+ * - 一致の度合いによる並び順と個別更新
+ */
+@ExtendWith(MockitoExtension.class)
+class NameSearchIndexServiceTest {
+
+    @Mock
+    private FoodRawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private FoodPreProductRepository preProductRepository;
+
+    @Mock
+    private AdditiveRepository additiveRepository;
+
+    @InjectMocks
+    private NameSearchIndexService service;
+
+    private static FoodRawMaterial raw(int foodId, int categoryId, Integer businessAccountId, String foodName) {
+        return FoodRawMaterial.builder()
+            .foodId(foodId).categoryId(categoryId).businessAccountId(businessAccountId).foodName(foodName).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(rawMaterialRepository.findSummaries(isNull(), isNull(), isNull(), isNull())).thenReturn(List.of(
+            raw(1, 1, null, "＜畜肉類＞ ぶた ［大型種肉］ かた 脂身つき 生"),
+            raw(2, 1, null, "トマト 果実 生"),
+            raw(3, 3, 10, "自家製トマトソース"),
+            raw(4, 3, 20, "トマトピューレ（他社）")));
+        when(preProductRepository.findAll()).thenReturn(List.of(
+            FoodPreProductItem.builder().preId(100).businessAccountId(10).preName("ﾄﾏﾄﾍﾞｰｽ").build()));
+        when(additiveRepository.findAll()).thenReturn(List.of(
+            Additive.builder().additiveId(200).businessAccountId(10).substanceName("L-アスコルビン酸ナトリウム")
+                .simplifiedName("ビタミンC").isActive(true).build(),
+            Additive.builder().additiveId(201).businessAccountId(10).substanceName("トマト色素")
+                .isActive(false).build()));
+        service.rebuild();
+    }
+
+    @Test
+    @DisplayName("カタカナ・ひらがな、全角・半角の違いを無視して検索できる")
+    void searchIgnoresKanaAndWidth() {
+        List<SearchHit> hits = service.search(10, "とまと", EnumSet.allOf(DocumentType.class), 20);
+
+        assertThat(hits).extracting(SearchHit::id).containsExactlyInAnyOrder(2, 3, 100);
+        assertThat(NameSearchIndexService.normalize("ＡＢＣ ﾄﾏﾄ")).isEqualTo("abcとまと");
+    }
+
+    @Test
+    @DisplayName("他のビジネスアカウントの原材料と無効な添加物は返さない")
+    void searchIsPartitionedByBusinessAccount() {
+        List<SearchHit> hits = service.search(20, "トマト", EnumSet.allOf(DocumentType.class), 20);
+
+        assertThat(hits).extracting(SearchHit::id).containsExactlyInAnyOrder(2, 4);
+    }
+
+    @Test
+    @DisplayName("前方一致を部分一致より上位に並べ、種類で絞り込める")
+    void searchRanksPrefixMatchesFirst() {
+        List<SearchHit> hits = service.search(10, "トマト", EnumSet.of(DocumentType.RAW_MATERIAL), 20);
+
+        assertThat(hits).extracting(SearchHit::id).containsExactly(2, 3);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    @DisplayName("バイグラムが揃っていても連続しない場合は一致としない")
+    void searchRequiresContiguousMatch() {
+        assertThat(service.search(10, "トマトマ", EnumSet.allOf(DocumentType.class), 20)).isEmpty();
+        assertThat(service.search(10, "vitaminc", EnumSet.allOf(DocumentType.class), 20)).isEmpty();
+        assertThat(service.search(10, "ビタミンｃ", EnumSet.allOf(DocumentType.class), 20))
+            .extracting(SearchHit::id).containsExactly(200);
+    }
+
+    @Test
+    @DisplayName("個別更新で名称の変更と削除が反映される")
+    void refreshUpdatesAndRemovesDocuments() {
+        when(rawMaterialRepository.findById(3)).thenReturn(Optional.of(raw(3, 3, 10, "自家製ケチャップ")));
+        service.refreshRawMaterial(3);
+
+        assertThat(service.search(10, "トマトソース", EnumSet.allOf(DocumentType.class), 20)).isEmpty();
+        assertThat(service.search(10, "ケチャップ", EnumSet.allOf(DocumentType.class), 20))
+            .extracting(SearchHit::id).containsExactly(3);
+
+        when(rawMaterialRepository.findById(3)).thenReturn(Optional.empty());
+        service.refreshRawMaterial(3);
+
+        assertThat(service.search(10, "ケチャップ", EnumSet.allOf(DocumentType.class), 20)).isEmpty();
+    }
+}
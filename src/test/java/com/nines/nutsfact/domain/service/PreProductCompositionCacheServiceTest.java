@@ -0,0 +1,66 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.service.PreProductCompositionCacheService.PreProductComposition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * PreProductCompositionCacheService のユニットテスト
+ *
+ * テスト対象:
+ * - invalidate() のトランザクション完了後の再破棄
+ */
+class PreProductCompositionCacheServiceTest {
+
+    private static final int BUSINESS_ACCOUNT_ID = 1;
+
+    private final PreProductCompositionCacheService cache = new PreProductCompositionCacheService();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void completeTransaction(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    @Test
+    @DisplayName("ロールバックした場合も、トランザクション中に構成し直された仕込品と上位仕込品を破棄する")
+    void evictsRebuiltCompositionAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(BUSINESS_ACCOUNT_ID, 20);
+        // トランザクション中の原価・構成の計算が、コミットされない明細から構成し直してキャッシュする
+        cache.put(BUSINESS_ACCOUNT_ID, 20, new PreProductComposition(List.of(), Set.of()));
+        cache.put(BUSINESS_ACCOUNT_ID, 10, new PreProductComposition(List.of(), Set.of(20)));
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(cache.get(BUSINESS_ACCOUNT_ID, 20)).isNull();
+        assertThat(cache.get(BUSINESS_ACCOUNT_ID, 10)).isNull();
+    }
+
+    @Test
+    @DisplayName("トランザクション外では即座に破棄し、完了後の通知は登録しない")
+    void evictsImmediatelyOutsideTransaction() {
+        cache.put(BUSINESS_ACCOUNT_ID, 20, new PreProductComposition(List.of(), Set.of()));
+
+        cache.invalidate(BUSINESS_ACCOUNT_ID, 20);
+
+        assertThat(cache.get(BUSINESS_ACCOUNT_ID, 20)).isNull();
+        assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+    }
+}
@@ -0,0 +1,146 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
+import com.nines.nutsfact.domain.model.FoodPreProductItem;
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProduct;
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProductDetail;
+import com.nines.nutsfact.domain.model.RawMaterialPrice;
+import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
+import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductDetailRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
+import com.nines.nutsfact.domain.service.WhereUsedIndexService.AffectedRecipes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RecipeCostService のユニットテスト
+ *
+ * テスト対象:
+ * - propagateRawMaterialPriceChange() のネストした仕込品を経由した原価の積み上げ
+ * - 単価が分からない明細の原価の維持と、変わった値だけの書き込み
+ */
+@ExtendWith(MockitoExtension.class)
+class RecipeCostServiceTest {
+
+    private static final int BUSINESS_ACCOUNT_ID = 1;
+
+    @Mock
+    private FoodPreProductRepository preProductRepository;
+
+    @Mock
+    private FoodPreProductDetailRepository preProductDetailRepository;
+
+    @Mock
+    private FoodSemiFinishedProductRepository semiFinishedProductRepository;
+
+    @Mock
+    private FoodSemiFinishedProductDetailRepository semiFinishedProductDetailRepository;
+
+    @Mock
+    private FoodRawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private WhereUsedIndexService whereUsedIndexService;
+
+    @InjectMocks
+    private RecipeCostService recipeCostService;
+
+    private static FoodPreProductItem pre(int preId, float weightSum, Float costPriceSum) {
+        return FoodPreProductItem.builder().preId(preId).weightSum(weightSum).costPriceSum(costPriceSum).build();
+    }
+
+    private static FoodPreProductDetailItem preRaw(int detailId, int preId, int foodId, float weight, Float costPrice) {
+        return FoodPreProductDetailItem.builder()
+            .detailId(detailId).preId(preId).componentKb(false).detailFoodId(foodId).weight(weight).costPrice(costPrice).build();
+    }
+
+    private static FoodPreProductDetailItem prePre(int detailId, int preId, int nestedPreId, float weight) {
+        return FoodPreProductDetailItem.builder()
+            .detailId(detailId).preId(preId).componentKb(true).detailPreId(nestedPreId).weight(weight).build();
+    }
+
+    private static RawMaterialPrice price(int foodId, float pricePerUnit) {
+        return RawMaterialPrice.builder().foodId(foodId).pricePerUnit(pricePerUnit).build();
+    }
+
+    @Test
+    @DisplayName("原材料の単価の変更がネストした仕込品を経由して半完成品の原価合計まで反映される")
+    @SuppressWarnings("unchecked")
+    void propagatesThroughNestedPreProducts() {
+        when(whereUsedIndexService.findAffectedRecipes(List.of(1), Set.of()))
+            .thenReturn(new AffectedRecipes(Set.of(10, 20), Set.of(30)));
+        when(preProductRepository.findCostSummaries(eq(BUSINESS_ACCOUNT_ID), any()))
+            .thenReturn(List.of(pre(10, 100f, 0f), pre(20, 40f, 0f)));
+        when(preProductDetailRepository.findByPreIds(any())).thenReturn(List.of(
+            preRaw(101, 10, 1, 50f, 80f),
+            preRaw(102, 10, 2, 50f, 50f),
+            prePre(201, 20, 10, 40f)));
+        when(semiFinishedProductRepository.findCostSummaries(eq(BUSINESS_ACCOUNT_ID), any()))
+            .thenReturn(List.of(FoodSemiFinishedProduct.builder().semiId(30).costPriceSum(0f).build()));
+        when(semiFinishedProductDetailRepository.findBySemiIds(any())).thenReturn(List.of(
+            FoodSemiFinishedProductDetail.builder().detailId(301).semiId(30).componentKb(true).detailPreId(20).weight(10f).build(),
+            FoodSemiFinishedProductDetail.builder().detailId(302).semiId(30).componentKb(false).detailFoodId(1).weight(5f).build()));
+        when(rawMaterialRepository.findPricesByIds(any())).thenReturn(List.of(price(1, 200f), price(2, 100f)));
+
+        RecipeCostService.CostRecalculation result =
+            recipeCostService.propagateRawMaterialPriceChange(BUSINESS_ACCOUNT_ID, List.of(1));
+
+        // 仕込品10: 50g×200円/100g + 50g×100円/100g = 150円（1.5円/g）
+        // 仕込品20: 仕込品10を40g = 60円（1.5円/g）
+        // 半完成品30: 仕込品20を10g + 原材料1を5g = 15円 + 10円
+        ArgumentCaptor<List<FoodPreProductItem>> preSums = ArgumentCaptor.forClass(List.class);
+        verify(preProductRepository).updateCostPriceSums(preSums.capture());
+        assertThat(preSums.getValue())
+            .extracting(FoodPreProductItem::getPreId, FoodPreProductItem::getCostPriceSum)
+            .containsExactlyInAnyOrder(tuple(10, 150f), tuple(20, 60f));
+
+        ArgumentCaptor<List<FoodSemiFinishedProduct>> semiSums = ArgumentCaptor.forClass(List.class);
+        verify(semiFinishedProductRepository).updateCostPriceSums(semiSums.capture());
+        assertThat(semiSums.getValue())
+            .extracting(FoodSemiFinishedProduct::getSemiId, FoodSemiFinishedProduct::getCostPriceSum)
+            .containsExactly(tuple(30, 25f));
+
+        // 明細102は保存済みの原価と同じため書き込まない
+        ArgumentCaptor<List<FoodPreProductDetailItem>> preDetails = ArgumentCaptor.forClass(List.class);
+        verify(preProductDetailRepository).updateCostPrices(preDetails.capture());
+        assertThat(preDetails.getValue())
+            .extracting(FoodPreProductDetailItem::getDetailId, FoodPreProductDetailItem::getCostPrice)
+            .containsExactlyInAnyOrder(tuple(101, 100f), tuple(201, 60f));
+
+        assertThat(result.preProducts()).isEqualTo(2);
+        assertThat(result.semiFinishedProducts()).isEqualTo(1);
+        assertThat(result.details()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("単価が分からない原材料の明細は保存済みの原価を使い、変更がなければ書き込まない")
+    void keepsStoredCostWhenPriceIsUnknown() {
+        when(whereUsedIndexService.findAffectedRecipes(List.of(3), Set.of()))
+            .thenReturn(new AffectedRecipes(Set.of(10), Set.of()));
+        when(preProductRepository.findCostSummaries(eq(BUSINESS_ACCOUNT_ID), any()))
+            .thenReturn(List.of(pre(10, 50f, 30f)));
+        when(preProductDetailRepository.findByPreIds(any())).thenReturn(List.of(preRaw(101, 10, 3, 50f, 30f)));
+        when(rawMaterialRepository.findPricesByIds(any())).thenReturn(List.of());
+
+        RecipeCostService.CostRecalculation result =
+            recipeCostService.propagateRawMaterialPriceChange(BUSINESS_ACCOUNT_ID, List.of(3));
+
+        assertThat(result).isEqualTo(new RecipeCostService.CostRecalculation(0, 0, 0));
+        verify(preProductRepository, never()).updateCostPriceSums(any());
+        verify(preProductDetailRepository, never()).updateCostPrices(any());
+    }
+}
@@ -0,0 +1,219 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.FoodPreProductDetailItem;
+import com.nines.nutsfact.domain.model.FoodPreProductTreeRow;
+import com.nines.nutsfact.domain.model.FoodSemiFinishedProductDetail;
+import com.nines.nutsfact.domain.repository.FoodPreProductDetailRepository;
+import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductDetailRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RecipeGraphService のユニットテスト
+ *
+ * テスト対象:
+ * - load() の構成ツリー（再帰CTEの結果）からの組み立て
+ * - traverse() の実効重量計算と複数集計器への配信
+ * - 仕込品構成キャッシュの再利用と上位仕込品の破棄
+ */
+@ExtendWith(MockitoExtension.class)
+class RecipeGraphServiceTest {
+
+    @Mock
+    private FoodSemiFinishedProductDetailRepository semiDetailRepository;
+
+    @Mock
+    private FoodPreProductDetailRepository preProductDetailRepository;
+
+    @Mock
+    private FoodPreProductRepository preProductRepository;
+
+    @Mock
+    private PreProductCompositionCacheService compositionCache;
+
+    @InjectMocks
+    private RecipeGraphService recipeGraphService;
+
+    private static FoodSemiFinishedProductDetail semiRaw(int foodId, float weight) {
+        return FoodSemiFinishedProductDetail.builder()
+            .componentKb(false).detailFoodId(foodId).detailFoodName("food" + foodId).weight(weight).build();
+    }
+
+    private static FoodSemiFinishedProductDetail semiPre(int preId, float weight) {
+        return FoodSemiFinishedProductDetail.builder()
+            .componentKb(true).detailPreId(preId).weight(weight).build();
+    }
+
+    private static FoodPreProductDetailItem preRaw(int preId, int foodId, float weight) {
+        return FoodPreProductDetailItem.builder()
+            .preId(preId).componentKb(false).detailFoodId(foodId).detailFoodName("food" + foodId).weight(weight).build();
+    }
+
+    private static FoodPreProductDetailItem prePre(int preId, int nestedPreId, float weight) {
+        return FoodPreProductDetailItem.builder()
+            .preId(preId).componentKb(true).detailPreId(nestedPreId).weight(weight).build();
+    }
+
+    private static FoodPreProductTreeRow row(int depth, Float weightSum, FoodPreProductDetailItem detail) {
+        return FoodPreProductTreeRow.builder().depth(depth).parentWeightSum(weightSum).detail(detail).build();
+    }
+
+    private static class RecordingAccumulator implements RecipeGraphService.LeafAccumulator {
+        private final List<RecipeGraphService.RecipeLeaf> leaves = new ArrayList<>();
+
+        @Override
+        public void accept(RecipeGraphService.RecipeLeaf leaf) {
+            leaves.add(leaf);
+        }
+
+        double weightOf(int foodId) {
+            return leaves.stream()
+                .filter(l -> l.foodId() == foodId)
+                .mapToDouble(RecipeGraphService.RecipeLeaf::effectiveWeight)
+                .sum();
+        }
+    }
+
+    @Nested
+    @DisplayName("traverse - 構成ツリーの走査")
+    class TraverseTests {
+
+        @Test
+        @DisplayName("仕込品の重量比率で末端原材料の実効重量を計算する")
+        void shouldScaleNestedWeights() {
+            when(semiDetailRepository.findBySemiId(1)).thenReturn(List.of(semiRaw(100, 50f), semiPre(10, 200f)));
+            when(preProductDetailRepository.findTreeBySemiId(1)).thenReturn(List.of(
+                row(1, null, preRaw(10, 101, 300f)), row(1, null, preRaw(10, 102, 100f))));
+
+            RecordingAccumulator accumulator = new RecordingAccumulator();
+            recipeGraphService.traverse(1, accumulator);
+
+            assertThat(accumulator.weightOf(100)).isEqualTo(50.0);
+            assertThat(accumulator.weightOf(101)).isEqualTo(150.0);
+            assertThat(accumulator.weightOf(102)).isEqualTo(50.0);
+        }
+
+        @Test
+        @DisplayName("仕込品のweightSumが設定されている場合は総重量として使用する")
+        void shouldPreferWeightSum() {
+            when(semiDetailRepository.findBySemiId(1)).thenReturn(List.of(semiPre(10, 100f)));
+            when(preProductDetailRepository.findTreeBySemiId(1)).thenReturn(List.of(row(1, 200f, preRaw(10, 101, 100f))));
+
+            RecordingAccumulator accumulator = new RecordingAccumulator();
+            recipeGraphService.traverse(1, accumulator);
+
+            assertThat(accumulator.weightOf(101)).isEqualTo(50.0);
+        }
+
+        @Test
+        @DisplayName("複数の経路で使われる仕込品は1回の一括取得で各経路の重量を集計する")
+        void shouldLoadSharedPreProductOnce() {
+            when(semiDetailRepository.findBySemiId(1)).thenReturn(List.of(semiPre(10, 100f), semiPre(20, 100f)));
+            when(preProductDetailRepository.findTreeBySemiId(1)).thenReturn(List.of(
+                row(1, null, prePre(10, 30, 100f)),
+                row(1, null, prePre(20, 30, 100f)),
+                row(2, null, preRaw(30, 101, 10f))));
+
+            RecordingAccumulator accumulator = new RecordingAccumulator();
+            recipeGraphService.traverse(1, accumulator);
+
+            assertThat(accumulator.weightOf(101)).isEqualTo(200.0);
+            verify(preProductDetailRepository, times(1)).findTreeBySemiId(1);
+            verify(preProductDetailRepository, never()).findByPreId(anyInt());
+        }
+
+        @Test
+        @DisplayName("循環参照がある場合も無限再帰せずに走査を終える")
+        void shouldStopOnCycle() {
+            when(semiDetailRepository.findBySemiId(1)).thenReturn(List.of(semiPre(10, 100f)));
+            when(preProductDetailRepository.findTreeBySemiId(1)).thenReturn(List.of(
+                row(1, null, prePre(10, 20, 50f)),
+                row(1, null, preRaw(10, 101, 50f)),
+                row(2, null, prePre(20, 10, 100f))));
+
+            RecordingAccumulator accumulator = new RecordingAccumulator();
+            recipeGraphService.traverse(1, accumulator);
+
+            assertThat(accumulator.weightOf(101)).isEqualTo(50.0);
+        }
+
+        @Test
+        @DisplayName("1回の走査で全ての集計器に同じ末端原材料を配信する")
+        void shouldFeedAllAccumulators() {
+            when(semiDetailRepository.findBySemiId(1)).thenReturn(List.of(semiRaw(100, 10f), semiRaw(101, 0f)));
+
+            RecordingAccumulator first = new RecordingAccumulator();
+            RecordingAccumulator second = new RecordingAccumulator();
+            recipeGraphService.traverse(1, first, second);
+
+            assertThat(first.leaves).hasSize(1);
+            assertThat(second.leaves).containsExactlyElementsOf(first.leaves);
+            verify(semiDetailRepository, times(1)).findBySemiId(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("仕込品構成キャッシュ")
+    class CompositionCacheTests {
+
+        private final PreProductCompositionCacheService cache = new PreProductCompositionCacheService();
+
+        private RecipeGraphService service() {
+            return new RecipeGraphService(semiDetailRepository, preProductDetailRepository, preProductRepository, cache);
+        }
+
+        @Test
+        @DisplayName("キャッシュ済みの仕込品は明細を読み込まずに展開する")
+        void shouldReuseCachedComposition() {
+            when(semiDetailRepository.findBySemiId(1)).thenReturn(List.of(semiPre(10, 100f)));
+            when(preProductDetailRepository.findTreeBySemiId(1)).thenReturn(List.of(
+                row(1, null, prePre(10, 30, 50f)),
+                row(1, null, preRaw(10, 100, 50f)),
+                row(2, null, preRaw(30, 101, 10f))));
+
+            RecipeGraphService service = service();
+            service.load(1, 5);
+
+            RecordingAccumulator accumulator = new RecordingAccumulator();
+            service.traverse(service.load(1, 5), List.of(accumulator));
+
+            assertThat(accumulator.weightOf(100)).isEqualTo(50.0);
+            assertThat(accumulator.weightOf(101)).isEqualTo(50.0);
+            verify(preProductDetailRepository, times(1)).findTreeBySemiId(1);
+        }
+
+        @Test
+        @DisplayName("子仕込品の破棄で上位の仕込品も再計算する")
+        void shouldInvalidateAncestors() {
+            when(semiDetailRepository.findBySemiId(1)).thenReturn(List.of(semiPre(10, 100f)));
+            when(preProductDetailRepository.findTreeBySemiId(1)).thenReturn(List.of(
+                row(1, null, prePre(10, 30, 100f)),
+                row(2, null, preRaw(30, 101, 10f))));
+
+            RecipeGraphService service = service();
+            service.load(1, 5);
+            assertThat(cache.get(5, 10)).isNotNull();
+            assertThat(cache.get(5, 30)).isNotNull();
+
+            cache.invalidate(5, 30);
+
+            assertThat(cache.get(5, 10)).isNull();
+            assertThat(cache.get(5, 30)).isNull();
+            service.load(1, 5);
+            verify(preProductDetailRepository, times(2)).findTreeBySemiId(1);
+        }
+    }
+}
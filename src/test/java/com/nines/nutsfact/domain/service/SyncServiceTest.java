@@ -0,0 +1,100 @@
+package com.nines.nutsfact.domain.service;
+
+import com.nines.nutsfact.domain.model.FoodRawMaterial;
+import com.nines.nutsfact.domain.model.sync.SyncEntityType;
+import com.nines.nutsfact.domain.model.sync.SyncTombstone;
+import com.nines.nutsfact.domain.repository.FoodPreProductRepository;
+import com.nines.nutsfact.domain.repository.FoodRawMaterialRepository;
+import com.nines.nutsfact.domain.repository.FoodSemiFinishedProductRepository;
+import com.nines.nutsfact.domain.repository.SyncTombstoneRepository;
+import com.nines.nutsfact.domain.service.SyncService.SyncChanges;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SyncService のユニットテスト
+ *
+ * テスト対象:
+ * - 変更と削除記録の取得、ウォーターマークの算出
+ * - 全件の再取得を求める条件（since未指定、保持期間切れ、件数超過）
+ */
+@ExtendWith(MockitoExtension.class)
+class SyncServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0, 0);
+
+    @Mock
+    private FoodRawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private FoodPreProductRepository preProductRepository;
+
+    @Mock
+    private FoodSemiFinishedProductRepository semiFinishedProductRepository;
+
+    @Mock
+    private SyncTombstoneRepository tombstoneRepository;
+
+    private SyncService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SyncService(rawMaterialRepository, preProductRepository, semiFinishedProductRepository,
+            tombstoneRepository, 2, 5, 90);
+        when(tombstoneRepository.selectCurrentTimestamp()).thenReturn(NOW);
+    }
+
+    @Test
+    @DisplayName("指定した種類の変更と削除記録を返し、ウォーターマークを重なり分戻す")
+    void findChangesSinceReturnsChangesAndTombstones() {
+        LocalDateTime since = NOW.minusHours(1);
+        when(rawMaterialRepository.findChangedSince(10, since, 3))
+            .thenReturn(List.of(FoodRawMaterial.builder().foodId(1).build()));
+        when(tombstoneRepository.findDeletedSince(eq(10), eq(List.of("raw-material")), eq(since), eq(3)))
+            .thenReturn(List.of(SyncTombstone.builder().entityType("raw-material").entityId(2).deletedAt(NOW).build()));
+
+        SyncChanges changes = service.findChangesSince(10, since, Set.of(SyncEntityType.RAW_MATERIAL));
+
+        assertThat(changes.fullResyncRequired()).isFalse();
+        assertThat(changes.watermark()).isEqualTo(NOW.minusSeconds(5));
+        assertThat(changes.rawMaterials()).extracting(FoodRawMaterial::getFoodId).containsExactly(1);
+        assertThat(changes.tombstones()).extracting(SyncService.Tombstone::id).containsExactly(2);
+        verifyNoInteractions(preProductRepository, semiFinishedProductRepository);
+    }
+
+    @Test
+    @DisplayName("since未指定・保持期間切れの場合は全件の再取得を求める")
+    void findChangesSinceRequiresFullResyncForMissingOrExpiredSince() {
+        assertThat(service.findChangesSince(10, null, EnumSet.allOf(SyncEntityType.class)).fullResyncRequired()).isTrue();
+        assertThat(service.findChangesSince(10, NOW.minusDays(91), Set.of()).fullResyncRequired()).isTrue();
+        verifyNoInteractions(rawMaterialRepository, preProductRepository, semiFinishedProductRepository);
+    }
+
+    @Test
+    @DisplayName("変更件数が上限を超える場合は全件の再取得を求める")
+    void findChangesSinceRequiresFullResyncWhenTooManyChanges() {
+        LocalDateTime since = NOW.minusHours(1);
+        when(rawMaterialRepository.findChangedSince(anyInt(), any(), anyInt())).thenReturn(List.of(
+            FoodRawMaterial.builder().foodId(1).build(), FoodRawMaterial.builder().foodId(2).build()));
+        when(tombstoneRepository.findDeletedSince(anyInt(), anyCollection(), any(), anyInt()))
+            .thenReturn(List.of(SyncTombstone.builder().entityType("raw-material").entityId(3).build()));
+
+        SyncChanges changes = service.findChangesSince(10, since, Set.of(SyncEntityType.RAW_MATERIAL));
+
+        assertThat(changes.fullResyncRequired()).isTrue();
+        assertThat(changes.size()).isZero();
+    }
+}
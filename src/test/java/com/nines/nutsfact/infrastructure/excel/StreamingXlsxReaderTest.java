@@ -0,0 +1,183 @@
+package com.nines.nutsfact.infrastructure.excel;
+
+import com.nines.nutsfact.infrastructure.excel.StreamingXlsxReader.XlsxCell;
+import com.nines.nutsfact.infrastructure.excel.StreamingXlsxReader.XlsxRow;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * StreamingXlsxReader のユニットテスト
+ *
+ * テスト対象:
+ * - readFirstSheet() の共有文字列・インライン文字列・リッチテキスト・ふりがな・真偽値・数値・飛び飛びの列の読み込み
+ */
+class StreamingXlsxReaderTest {
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("POIで作成したファイルの共有文字列・数値・真偽値・飛び飛びの列を読み込む")
+    void readFirstSheet_workbookWrittenByPoi() throws IOException {
+        File file = tempDir.resolve("poi.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file.toPath())) {
+            XSSFSheet sheet = workbook.createSheet("食品");
+            XSSFRow header = sheet.createRow(0);
+            header.createCell(0).setCellValue("食品番号");
+            header.createCell(1).setCellValue("食品名");
+            XSSFRow data = sheet.createRow(2);
+            data.createCell(0).setCellValue(1001);
+            data.createCell(1).setCellValue("食品名");
+            data.createCell(4).setCellValue(true);
+            data.createCell(6).setCellValue(12.5);
+            workbook.write(out);
+        }
+
+        Map<Integer, XlsxRow> rows = read(file);
+
+        assertThat(rows).containsOnlyKeys(0, 2);
+        assertThat(rows.get(0).getCell(0)).isEqualTo(new XlsxCell(false, "食品番号"));
+        assertThat(rows.get(0).getCell(1)).isEqualTo(new XlsxCell(false, "食品名"));
+        XlsxRow data = rows.get(2);
+        assertThat(data.getCell(0).numeric()).isTrue();
+        assertThat(data.getCell(0).numericValue()).isEqualTo(1001.0);
+        assertThat(data.getCell(1)).isEqualTo(new XlsxCell(false, "食品名"));
+        assertThat(data.getCell(2)).isNull();
+        assertThat(data.getCell(3)).isNull();
+        assertThat(data.getCell(4)).isEqualTo(new XlsxCell(false, "TRUE"));
+        assertThat(data.getCell(5)).isNull();
+        assertThat(data.getCell(6).numericValue()).isEqualTo(12.5);
+    }
+
+    @Test
+    @DisplayName("リッチテキストは連結し、ふりがなはセルの値に含めない")
+    void readFirstSheet_richTextAndPhonetic() throws IOException {
+        File file = writeXlsx(
+            "<si><t>豆腐</t><rPh sb=\"0\" eb=\"2\"><t>トウフ</t></rPh><phoneticPr fontId=\"1\"/></si>"
+                + "<si><r><t>木綿</t></r><r><rPr><b/></rPr><t>豆腐</t></r></si>",
+            "<row r=\"1\">"
+                + "<c r=\"A1\" t=\"s\"><v>0</v></c>"
+                + "<c r=\"B1\" t=\"s\"><v>1</v></c>"
+                + "<c r=\"C1\" t=\"inlineStr\"><is><r><t>牛</t></r><r><t>乳</t></r>"
+                + "<rPh sb=\"0\" eb=\"2\"><t>ギュウニュウ</t></rPh></is></c>"
+                + "<c r=\"D1\" t=\"inlineStr\"><is><t>鶏卵</t></is></c>"
+                + "</row>");
+
+        XlsxRow row = read(file).get(0);
+
+        assertThat(row.getCell(0)).isEqualTo(new XlsxCell(false, "豆腐"));
+        assertThat(row.getCell(1)).isEqualTo(new XlsxCell(false, "木綿豆腐"));
+        assertThat(row.getCell(2)).isEqualTo(new XlsxCell(false, "牛乳"));
+        assertThat(row.getCell(3)).isEqualTo(new XlsxCell(false, "鶏卵"));
+    }
+
+    @Test
+    @DisplayName("値のない共有文字列・真偽値・数値のセルは空セルとして扱う")
+    void readFirstSheet_emptyValues() throws IOException {
+        File file = writeXlsx(
+            "<si><t>食品名</t></si>",
+            "<row r=\"1\">"
+                + "<c r=\"A1\" t=\"s\"><v></v></c>"
+                + "<c r=\"B1\" t=\"s\"/>"
+                + "<c r=\"C1\" t=\"b\"/>"
+                + "<c r=\"D1\"><v></v></c>"
+                + "<c r=\"E1\" t=\"s\"><v>0</v></c>"
+                + "<c r=\"F1\" t=\"b\"><v>0</v></c>"
+                + "</row>");
+
+        XlsxRow row = read(file).get(0);
+
+        assertThat(row.getCell(0)).isNull();
+        assertThat(row.getCell(1)).isNull();
+        assertThat(row.getCell(2)).isNull();
+        assertThat(row.getCell(3)).isNull();
+        assertThat(row.getCell(4)).isEqualTo(new XlsxCell(false, "食品名"));
+        assertThat(row.getCell(5)).isEqualTo(new XlsxCell(false, "FALSE"));
+    }
+
+    @Test
+    @DisplayName("行・列の参照がない場合は直前の行・列の次として扱う")
+    void readFirstSheet_withoutReferences() throws IOException {
+        File file = writeXlsx(
+            "",
+            "<row r=\"2\"><c r=\"C2\"><v>1</v></c><c><v>2</v></c></row>"
+                + "<row><c t=\"str\"><v>計算結果</v></c></row>");
+
+        Map<Integer, XlsxRow> rows = read(file);
+
+        assertThat(rows).containsOnlyKeys(1, 2);
+        assertThat(rows.get(1).getCell(2)).isEqualTo(new XlsxCell(true, "1"));
+        assertThat(rows.get(1).getCell(3)).isEqualTo(new XlsxCell(true, "2"));
+        assertThat(rows.get(2).getCell(0)).isEqualTo(new XlsxCell(false, "計算結果"));
+    }
+
+    private static Map<Integer, XlsxRow> read(File file) throws IOException {
+        Map<Integer, XlsxRow> rows = new LinkedHashMap<>();
+        StreamingXlsxReader.readFirstSheet(file, rows::put);
+        return rows;
+    }
+
+    /**
+     * 共有文字列とシートのXMLから、必要最小限のパーツだけのxlsxファイルを作成
+     */
+    private File writeXlsx(String sharedStrings, String sheetData) throws IOException {
+        File file = tempDir.resolve("raw.xlsx").toFile();
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file.toPath()))) {
+            put(zip, "[Content_Types].xml",
+                "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                    + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                    + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                    + "<Override PartName=\"/xl/workbook.xml\""
+                    + " ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                    + "<Override PartName=\"/xl/worksheets/sheet1.xml\""
+                    + " ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+                    + "<Override PartName=\"/xl/sharedStrings.xml\""
+                    + " ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>"
+                    + "</Types>");
+            put(zip, "_rels/.rels",
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                    + "</Relationships>");
+            put(zip, "xl/workbook.xml",
+                "<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\">"
+                    + "<sheets><sheet name=\"Sheet1\" sheetId=\"1\" r:id=\"rId1\"/></sheets>"
+                    + "</workbook>");
+            put(zip, "xl/_rels/workbook.xml.rels",
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+                    + "<Relationship Id=\"rId2\" Type=\"" + REL_NS + "/sharedStrings\" Target=\"sharedStrings.xml\"/>"
+                    + "</Relationships>");
+            put(zip, "xl/sharedStrings.xml",
+                "<sst xmlns=\"" + MAIN_NS + "\">" + sharedStrings + "</sst>");
+            put(zip, "xl/worksheets/sheet1.xml",
+                "<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>" + sheetData + "</sheetData></worksheet>");
+        }
+        return file;
+    }
+
+    private static void put(ZipOutputStream zip, String name, String xml) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" + xml).getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
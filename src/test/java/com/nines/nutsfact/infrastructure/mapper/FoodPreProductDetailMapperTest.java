@@ -0,0 +1,62 @@
+package com.nines.nutsfact.infrastructure.mapper;
+
+import com.nines.nutsfact.domain.model.FoodPreProductTreeRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * FoodPreProductDetailMapper のテスト（H2のMySQL互換モード）
+ *
+ * テスト対象:
+ * - findTreeBySemiId() で階層・総重量・重量が同じ兄弟明細が1行にまとめられないこと
+ * - findTreeBySemiId() で複数経路で使われる仕込品の明細を1回だけ返すこと
+ */
+@MybatisTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql("/sql/pre-product-tree.sql")
+class FoodPreProductDetailMapperTest {
+
+    @Autowired
+    private FoodPreProductDetailMapper mapper;
+
+    @Test
+    @DisplayName("同じ階層の兄弟明細を明細ごとに1行ずつ返す")
+    void returnsEverySiblingDetail() {
+        List<FoodPreProductTreeRow> rows = mapper.findTreeBySemiId(1);
+
+        assertThat(rows)
+            .extracting(FoodPreProductTreeRow::getDetailId, FoodPreProductTreeRow::getDepth, FoodPreProductTreeRow::getParentWeightSum)
+            .containsExactly(
+                tuple(101, 1, 100f),
+                tuple(102, 1, 100f),
+                tuple(103, 1, 100f),
+                tuple(201, 2, 40f),
+                tuple(202, 2, 40f));
+        assertThat(rows)
+            .extracting(row -> row.getDetail().getDetailFoodId())
+            .containsExactly(1, 2, null, 3, 4);
+    }
+
+    @Test
+    @DisplayName("複数の仕込品から使われる仕込品の明細は1回だけ返す")
+    void returnsSharedPreProductDetailsOnce() {
+        List<FoodPreProductTreeRow> rows = mapper.findTreeBySemiId(2);
+
+        assertThat(rows)
+            .extracting(FoodPreProductTreeRow::getDetailId, FoodPreProductTreeRow::getDepth, FoodPreProductTreeRow::getParentWeightSum)
+            .containsExactly(
+                tuple(301, 1, 10f),
+                tuple(401, 1, 10f),
+                tuple(501, 2, 5f));
+    }
+}
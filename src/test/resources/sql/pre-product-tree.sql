@@ -0,0 +1,64 @@
+DROP TABLE IF EXISTS FOOD_SEMI_FINISHED_PRODUCT_DETAIL;
+DROP TABLE IF EXISTS FOOD_PRE_PRODUCT_DETAIL_ITEM;
+DROP TABLE IF EXISTS FOOD_PRE_PRODUCT_ITEM;
+
+CREATE TABLE FOOD_PRE_PRODUCT_ITEM (
+    pre_id INT PRIMARY KEY,
+    weight_sum FLOAT,
+    pre_level INT
+);
+
+CREATE TABLE FOOD_PRE_PRODUCT_DETAIL_ITEM (
+    detail_id INT PRIMARY KEY,
+    business_account_id INT,
+    pre_id INT,
+    component_kb TINYINT,
+    detail_food_id INT,
+    detail_pre_id INT,
+    composite_raw_materials_kb TINYINT,
+    detail_food_name VARCHAR(200),
+    detail_pre_name VARCHAR(200),
+    label_display_name VARCHAR(200),
+    mixing_ratio FLOAT,
+    weight FLOAT,
+    cost_price FLOAT,
+    energy FLOAT,
+    protein FLOAT,
+    fat FLOAT,
+    carbo FLOAT,
+    sugar FLOAT,
+    sodium FLOAT
+);
+
+CREATE TABLE FOOD_SEMI_FINISHED_PRODUCT_DETAIL (
+    detail_id INT PRIMARY KEY,
+    semi_id INT,
+    component_kb TINYINT,
+    detail_food_id INT,
+    detail_pre_id INT
+);
+
+-- 半完成品1 → 仕込品10 → 仕込品20
+INSERT INTO FOOD_SEMI_FINISHED_PRODUCT_DETAIL (detail_id, semi_id, component_kb, detail_pre_id) VALUES (1, 1, 1, 10);
+
+INSERT INTO FOOD_PRE_PRODUCT_ITEM (pre_id, weight_sum, pre_level) VALUES (10, 100, 1);
+INSERT INTO FOOD_PRE_PRODUCT_ITEM (pre_id, weight_sum, pre_level) VALUES (20, 40, 0);
+
+-- 同じ階層・同じ総重量で、重量も同じ兄弟明細
+INSERT INTO FOOD_PRE_PRODUCT_DETAIL_ITEM (detail_id, pre_id, component_kb, detail_food_id, weight) VALUES (101, 10, 0, 1, 30);
+INSERT INTO FOOD_PRE_PRODUCT_DETAIL_ITEM (detail_id, pre_id, component_kb, detail_food_id, weight) VALUES (102, 10, 0, 2, 30);
+INSERT INTO FOOD_PRE_PRODUCT_DETAIL_ITEM (detail_id, pre_id, component_kb, detail_pre_id, weight) VALUES (103, 10, 1, 20, 40);
+INSERT INTO FOOD_PRE_PRODUCT_DETAIL_ITEM (detail_id, pre_id, component_kb, detail_food_id, weight) VALUES (201, 20, 0, 3, 20);
+INSERT INTO FOOD_PRE_PRODUCT_DETAIL_ITEM (detail_id, pre_id, component_kb, detail_food_id, weight) VALUES (202, 20, 0, 4, 20);
+
+-- 半完成品2 → 仕込品30・仕込品40 → どちらも仕込品50（複数経路で使われる仕込品）
+INSERT INTO FOOD_SEMI_FINISHED_PRODUCT_DETAIL (detail_id, semi_id, component_kb, detail_pre_id) VALUES (2, 2, 1, 30);
+INSERT INTO FOOD_SEMI_FINISHED_PRODUCT_DETAIL (detail_id, semi_id, component_kb, detail_pre_id) VALUES (3, 2, 1, 40);
+
+INSERT INTO FOOD_PRE_PRODUCT_ITEM (pre_id, weight_sum, pre_level) VALUES (30, 10, 1);
+INSERT INTO FOOD_PRE_PRODUCT_ITEM (pre_id, weight_sum, pre_level) VALUES (40, 10, 1);
+INSERT INTO FOOD_PRE_PRODUCT_ITEM (pre_id, weight_sum, pre_level) VALUES (50, 5, 0);
+
+INSERT INTO FOOD_PRE_PRODUCT_DETAIL_ITEM (detail_id, pre_id, component_kb, detail_pre_id, weight) VALUES (301, 30, 1, 50, 10);
+INSERT INTO FOOD_PRE_PRODUCT_DETAIL_ITEM (detail_id, pre_id, component_kb, detail_pre_id, weight) VALUES (401, 40, 1, 50, 10);
+INSERT INTO FOOD_PRE_PRODUCT_DETAIL_ITEM (detail_id, pre_id, component_kb, detail_food_id, weight) VALUES (501, 50, 0, 5, 5);